@@ -0,0 +1,167 @@
+package org.openpixi.pixi.benchmark;
+
+import java.util.Random;
+
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.ElementFactory;
+import org.openpixi.pixi.physics.GeneralBoundaryType;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.fields.FieldSolver;
+import org.openpixi.pixi.physics.grid.EmptyInterpolator;
+import org.openpixi.pixi.physics.grid.Grid;
+import org.openpixi.pixi.ui.util.yaml.YamlParser;
+
+/**
+ * Settings and initial conditions shared by the benchmarks. All random numbers are seeded so that every run of a
+ * benchmark works on the same configuration.
+ */
+public class BenchmarkSimulations {
+
+	public static final long SEED = 12345;
+
+	/**
+	 * Creates settings for a pure Yang-Mills simulation on a periodic cubic lattice.
+	 *
+	 * @param size      number of cells in each direction
+	 * @param colors    number of colors
+	 * @param threads   number of threads
+	 * @param solver    field solver
+	 * @return          settings for the simulation
+	 */
+	public static Settings createYangMillsSettings(int size, int colors, int threads, FieldSolver solver) {
+		Settings s = new Settings();
+
+		s.setRelativistic(true);
+		s.setBoundary(GeneralBoundaryType.Periodic);
+		s.setFieldSolver(solver);
+		s.useGrid(true);
+		s.setInterpolator(new EmptyInterpolator());
+		s.setSpeedOfLight(1.0);
+		s.setNumberOfDimensions(3);
+
+		s.setGridStep(1.0);
+		s.setTimeStep(0.5);
+		for (int i = 0; i < 3; i++) {
+			s.setGridCells(i, size);
+		}
+
+		s.setNumberOfColors(colors);
+		s.setCouplingConstant(1.0);
+		s.setNumOfThreads(threads);
+
+		return s;
+	}
+
+	/**
+	 * Creates a simulation which uses the given field solver. The simulation type replaces the field solver of the
+	 * settings when the simulation is created (see {@link Settings#getSimulationType()}), therefore the solver is set
+	 * on the grid afterwards.
+	 *
+	 * @param settings  settings of the simulation
+	 * @param solver    field solver
+	 * @return          simulation
+	 */
+	public static Simulation createSimulation(Settings settings, FieldSolver solver) {
+		Simulation simulation = new Simulation(settings);
+		solver.initializeIterator(settings.getFieldSolverCellIterator(), simulation.grid.getNumCells());
+		simulation.grid.setFsolver(solver);
+		return simulation;
+	}
+
+	/**
+	 * Creates settings for a CGC collision of two MV model nuclei moving along the x-axis. The longitudinal extent of
+	 * the lattice is twice the transverse size.
+	 *
+	 * @param size      number of cells in each transverse direction
+	 * @param colors    number of colors
+	 * @param threads   number of threads
+	 * @return          settings for the simulation
+	 */
+	public static Settings createCGCSettings(int size, int colors, int threads) {
+		String configurationString = "simulationType: temporal cgc ngp\n" +
+				"gridStep: 1\n" +
+				"couplingConstant: 2\n" +
+				"numberOfDimensions: 3\n" +
+				"numberOfColors: " + colors + "\n" +
+				"numberOfThreads: " + threads + "\n" +
+				"gridCells: [" + (2 * size) + ", " + size + ", " + size + "]\n" +
+				"timeStep: 0.5\n" +
+				"duration: " + size + "\n" +
+				"evaluationRegion:\n" +
+				"  enabled: true\n" +
+				"  point1: [2, 0, 0]\n" +
+				"  point2: [-3, -1, -1]\n" +
+				"activeRegion:\n" +
+				"  enabled: true\n" +
+				"  point1: [1, 0, 0]\n" +
+				"  point2: [-2, -1, -1]\n" +
+				"initialConditions:\n" +
+				"  CGC:\n" +
+				"    poissonSolver: improved full\n" +
+				"    MVModel:\n" +
+				"      - direction: 0\n" +
+				"        orientation: 1\n" +
+				"        longitudinalLocation: " + (size / 2) + "\n" +
+				"        longitudinalWidth: 2\n" +
+				"        randomSeed: 5\n" +
+				"        mu: .2\n" +
+				"        ultravioletCutoffTransverse: 2\n" +
+				"        longitudinalCoherenceLength: 4\n" +
+				"        infraredCoefficient: 0.2\n" +
+				"      - direction: 0\n" +
+				"        orientation: -1\n" +
+				"        longitudinalLocation: " + (3 * size / 2) + "\n" +
+				"        longitudinalWidth: 2\n" +
+				"        randomSeed: 6\n" +
+				"        mu: .2\n" +
+				"        ultravioletCutoffTransverse: 2\n" +
+				"        longitudinalCoherenceLength: 4\n" +
+				"        infraredCoefficient: 0.2\n";
+
+		Settings settings = new Settings();
+		YamlParser yamlParser = new YamlParser(settings);
+		yamlParser.parseString(configurationString);
+		return settings;
+	}
+
+	/**
+	 * Fills the grid with random electric fields and gauge links. The links are of the form exp(i a A) with random
+	 * algebra elements A whose components are uniformly distributed in [-0.5, 0.5].
+	 *
+	 * @param grid      grid to initialize
+	 * @param amplitude amplitude a of the gauge field
+	 */
+	public static void initializeRandomFields(Grid grid, double amplitude) {
+		Random random = new Random(SEED);
+		ElementFactory factory = grid.getElementFactory();
+		AlgebraElement E = factory.algebraZero();
+		AlgebraElement A = factory.algebraZero();
+		for (int i = 0; i < grid.getTotalNumberOfCells(); i++) {
+			for (int d = 0; d < grid.getNumberOfDimensions(); d++) {
+				for (int k = 0; k < E.getAdjointDimension(); k++) {
+					E.set(k, random.nextDouble() - 0.5);
+					A.set(k, amplitude * (random.nextDouble() - 0.5));
+				}
+				grid.setE(i, d, E);
+				grid.setU(i, d, A.getLink());
+			}
+		}
+		grid.updateLinks(grid.getTemporalSpacing());
+	}
+
+	/**
+	 * Creates a random algebra element whose components are uniformly distributed in [-0.5, 0.5].
+	 *
+	 * @param factory   factory for the gauge group
+	 * @param random    random number generator
+	 * @return          random algebra element
+	 */
+	public static AlgebraElement createRandomAlgebraElement(ElementFactory factory, Random random) {
+		AlgebraElement A = factory.algebraZero();
+		for (int k = 0; k < A.getAdjointDimension(); k++) {
+			A.set(k, random.nextDouble() - 0.5);
+		}
+		return A;
+	}
+}
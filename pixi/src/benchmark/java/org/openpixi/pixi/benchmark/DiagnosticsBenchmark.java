@@ -0,0 +1,85 @@
+package org.openpixi.pixi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openpixi.pixi.diagnostics.methods.OccupationNumbersInTime;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.fields.FastTYMSolver;
+import org.openpixi.pixi.physics.gauge.CoulombGauge;
+import org.openpixi.pixi.physics.grid.Grid;
+
+/**
+ * Benchmarks the Coulomb gauge transformation and the occupation number diagnostic, which includes a Coulomb gauge
+ * transformation of a copy of the grid. The gauge transformation works on a copy of the random initial grid which
+ * is restored before every invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiagnosticsBenchmark {
+
+	@Param({"16", "32"})
+	public int size;
+
+	@Param({"2", "3"})
+	public int colors;
+
+	@Param({"1", "4"})
+	public int threads;
+
+	private Settings settings;
+	private Simulation simulation;
+	private Grid gaugeGrid;
+	private CoulombGauge coulombGauge;
+	private OccupationNumbersInTime occupationNumbers;
+
+	@Setup
+	public void setup() {
+		settings = BenchmarkSimulations.createYangMillsSettings(size, colors, threads, new FastTYMSolver());
+		simulation = new Simulation(settings);
+		BenchmarkSimulations.initializeRandomFields(simulation.grid, 0.1);
+
+		gaugeGrid = new Grid(simulation.grid);
+		coulombGauge = new CoulombGauge(gaugeGrid);
+
+		occupationNumbers = new OccupationNumbersInTime(simulation.getTimeStep(), "none", "", true);
+		occupationNumbers.initialize(simulation);
+	}
+
+	@Setup(Level.Invocation)
+	public void restoreGaugeGrid() {
+		gaugeGrid.copyValuesFrom(simulation.grid);
+	}
+
+	@TearDown
+	public void tearDown() {
+		settings.terminateThreads();
+	}
+
+	@Benchmark
+	public void coulombGauge() {
+		coulombGauge.applyGaugeTransformation(gaugeGrid);
+	}
+
+	@Benchmark
+	public void occupationNumbers() {
+		occupationNumbers.calculate(simulation.grid, simulation.particles, 0);
+	}
+}
@@ -0,0 +1,118 @@
+package org.openpixi.pixi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openpixi.pixi.math.GroupElement;
+import org.openpixi.pixi.parallel.cellaccess.CellIteratorType;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.fields.FastTYMSolver;
+import org.openpixi.pixi.physics.fields.ImplicitTYMSolver;
+import org.openpixi.pixi.physics.grid.Grid;
+import org.openpixi.pixi.physics.grid.GridStorageType;
+
+/**
+ * Benchmarks the sum of staples and complete time steps of the temporal gauge Yang-Mills solvers on a periodic
+ * cubic lattice with random fields. The solvers traverse the lattice either with the cell iterator of the simulation
+ * or in cache-sized tiles. The fields are stored either in Cell objects or in primitive arrays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FieldSolverBenchmark {
+
+	@Param({"16", "32"})
+	public int size;
+
+	@Param({"2", "3"})
+	public int colors;
+
+	@Param({"1", "4"})
+	public int threads;
+
+	@Param({"Interleaved", "Blocks"})
+	public CellIteratorType cellIterator;
+
+	@Param({"false", "true"})
+	public boolean tiled;
+
+	@Param({"Cells", "Primitive"})
+	public GridStorageType gridStorage;
+
+	private Settings fastSettings;
+	private Settings implicitSettings;
+	private Grid fastGrid;
+	private Grid implicitGrid;
+	private GroupElement staples;
+	private GroupElement temp1;
+	private GroupElement temp2;
+
+	@Setup
+	public void setup() {
+		fastSettings = BenchmarkSimulations.createYangMillsSettings(size, colors, threads, new FastTYMSolver());
+		fastSettings.setCellIteratorType(cellIterator);
+		fastSettings.useAutomaticFieldSolverTiling(tiled);
+		fastSettings.setGridStorage(gridStorage);
+		fastGrid = new Simulation(fastSettings).grid;
+		BenchmarkSimulations.initializeRandomFields(fastGrid, 1.0);
+
+		ImplicitTYMSolver implicitSolver = new ImplicitTYMSolver(3, 0.0);
+		implicitSettings = BenchmarkSimulations.createYangMillsSettings(size, colors, threads, implicitSolver);
+		implicitSettings.setCellIteratorType(cellIterator);
+		implicitSettings.useAutomaticFieldSolverTiling(tiled);
+		implicitSettings.setGridStorage(gridStorage);
+		implicitGrid = BenchmarkSimulations.createSimulation(implicitSettings, implicitSolver).grid;
+		BenchmarkSimulations.initializeRandomFields(implicitGrid, 1.0);
+
+		staples = fastGrid.getElementFactory().groupZero();
+		temp1 = fastGrid.getElementFactory().groupZero();
+		temp2 = fastGrid.getElementFactory().groupZero();
+	}
+
+	@TearDown
+	public void tearDown() {
+		fastSettings.terminateThreads();
+		implicitSettings.terminateThreads();
+	}
+
+	/**
+	 * Sum of staples for every link of the lattice, computed on a single thread.
+	 */
+	@Benchmark
+	public void stapleSum(Blackhole blackhole) {
+		for (int i = 0; i < fastGrid.getTotalNumberOfCells(); i++) {
+			for (int d = 0; d < fastGrid.getNumberOfDimensions(); d++) {
+				fastGrid.getStapleSum(i, d, staples, temp1, temp2);
+				blackhole.consume(staples.getRealTrace());
+			}
+		}
+	}
+
+	@Benchmark
+	public void fastTYMSolverStep() {
+		fastGrid.updateGrid(fastGrid.getTemporalSpacing());
+		fastGrid.storeFields();
+	}
+
+	@Benchmark
+	public void implicitTYMSolverStep() {
+		implicitGrid.updateGrid(implicitGrid.getTemporalSpacing());
+		implicitGrid.storeFields();
+	}
+}
@@ -0,0 +1,82 @@
+package org.openpixi.pixi.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.ElementFactory;
+import org.openpixi.pixi.math.GroupElement;
+
+/**
+ * Benchmarks the basic SU(n) operations: multiplication, exponential map (AlgebraElement.getLink()), logarithm
+ * (GroupElement.getAlgebraElement()) and fractional powers (GroupElement.pow(), used by the particle interpolation).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupElementBenchmark {
+
+	@Param({"2", "3"})
+	public int colors;
+
+	private GroupElement a;
+	private GroupElement b;
+	private GroupElement dest;
+	private AlgebraElement algebra;
+
+	@Setup
+	public void setup() {
+		ElementFactory factory = new ElementFactory(colors);
+		Random random = new Random(BenchmarkSimulations.SEED);
+		a = BenchmarkSimulations.createRandomAlgebraElement(factory, random).getLink();
+		b = BenchmarkSimulations.createRandomAlgebraElement(factory, random).getLink();
+		algebra = BenchmarkSimulations.createRandomAlgebraElement(factory, random);
+		dest = factory.groupZero();
+	}
+
+	@Benchmark
+	public GroupElement mult() {
+		return a.mult(b);
+	}
+
+	@Benchmark
+	public GroupElement multInto() {
+		a.multInto(b, dest);
+		return dest;
+	}
+
+	@Benchmark
+	public GroupElement exp() {
+		return algebra.getLink();
+	}
+
+	@Benchmark
+	public GroupElement expInto() {
+		algebra.getLinkInto(dest);
+		return dest;
+	}
+
+	@Benchmark
+	public AlgebraElement log() {
+		return a.getAlgebraElement();
+	}
+
+	@Benchmark
+	public GroupElement pow() {
+		return a.pow(0.3);
+	}
+}
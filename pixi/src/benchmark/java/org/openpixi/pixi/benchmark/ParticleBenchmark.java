@@ -0,0 +1,93 @@
+package org.openpixi.pixi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.grid.DepositionMode;
+import org.openpixi.pixi.physics.movement.ParticleMover;
+import org.openpixi.pixi.physics.particles.ParticleStorageType;
+
+/**
+ * Benchmarks the current deposition of CGCSuperParticleInterpolationNGP for two colliding MV model nuclei.
+ * The simulation step seen by the interpolator cycles through a short window, so that the super particles stay
+ * inside the grid no matter how many invocations are measured.
+ * <br>
+ * particleStep() measures all particle phases of a simulation step (reassignment, position update, parallel transport
+ * and current deposition) for particles stored as objects and as primitive arrays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParticleBenchmark {
+
+	private static final int STEP_WINDOW = 16;
+
+	@Param({"16", "32"})
+	public int size;
+
+	@Param({"2", "3"})
+	public int colors;
+
+	@Param({"1", "4"})
+	public int threads;
+
+	@Param({"Synchronized", "Buffered"})
+	public DepositionMode deposition;
+
+	@Param({"Objects", "Primitive"})
+	public ParticleStorageType storage;
+
+	private Settings settings;
+	private Simulation simulation;
+	private int step;
+
+	@Setup
+	public void setup() {
+		settings = BenchmarkSimulations.createCGCSettings(size, colors, threads);
+		settings.setDepositionMode(deposition);
+		settings.setParticleStorage(storage);
+		simulation = new Simulation(settings);
+		step = 0;
+	}
+
+	@TearDown
+	public void tearDown() {
+		settings.terminateThreads();
+	}
+
+	@Benchmark
+	public void interpolateToGrid() {
+		step = (step + 1) % STEP_WINDOW;
+		simulation.grid.setSimulationSteps(step);
+		simulation.grid.resetCurrent();
+		simulation.getInterpolation().interpolateToGrid(simulation.particles, simulation.grid);
+	}
+
+	@Benchmark
+	public void particleStep() {
+		ParticleMover mover = simulation.getParticleMover();
+		double timeStep = simulation.getTimeStep();
+		mover.reassign(simulation.particles);
+		mover.updatePositions(simulation.particles, null, simulation.grid, timeStep);
+		simulation.getInterpolation().interpolateToParticle(simulation.particles, simulation.grid);
+		mover.updateCharges(simulation.particles, null, simulation.grid, timeStep);
+		simulation.grid.resetCurrent();
+		simulation.getInterpolation().interpolateToGrid(simulation.particles, simulation.grid);
+	}
+}
@@ -0,0 +1,41 @@
+package org.openpixi.pixi.diagnostics;
+
+/**
+ * Diagnostics which can be evaluated on a snapshot of the grid while the simulation continues. If asynchronous
+ * diagnostics are enabled (see {@link org.openpixi.pixi.physics.Settings#setDiagnosticsQueueDepth(int)}), the fields
+ * returned by {@link #getRequiredFields()} are copied into a pooled snapshot grid and
+ * {@link #calculate(org.openpixi.pixi.physics.grid.Grid, java.util.ArrayList, int)} is called with the snapshot on a
+ * separate diagnostics thread.
+ * <br>
+ * Implementations must only read the grid passed to calculate(). The Simulation instance may only be used for
+ * constant information like the lattice size. The particle list passed to calculate() is empty. All calls of
+ * calculate() happen on the same thread in the order of the simulation steps.
+ */
+public interface AsynchronousDiagnostics extends Diagnostics {
+
+	/*
+	 * Field flags for getRequiredFields().
+	 */
+	int FIELD_U = 1;
+	int FIELD_UNEXT = 2;
+	int FIELD_E = 4;
+	int FIELD_J = 8;
+	int FIELD_RHO = 16;
+	int FIELD_FLAGS = 32;
+
+	/**
+	 * Checks if the diagnostic performs a measurement at the given step. A snapshot is only taken if at least one
+	 * asynchronous diagnostic needs it.
+	 *
+	 * @param steps Total simulation steps so far.
+	 * @return      true if calculate() should be called at this step.
+	 */
+	boolean isMeasurementStep(int steps);
+
+	/**
+	 * Returns the fields which are read by calculate() as a combination of the FIELD_* flags.
+	 *
+	 * @return  Bit mask of required fields
+	 */
+	int getRequiredFields();
+}
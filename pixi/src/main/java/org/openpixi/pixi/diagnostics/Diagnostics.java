@@ -27,7 +27,9 @@ import org.openpixi.pixi.physics.grid.Grid;
 import org.openpixi.pixi.physics.particles.IParticle;
 
 /**
- * Every diagnostics method should implement this.
+ * Every diagnostics method should implement this. Diagnostics which keep files open between calls of calculate()
+ * also implement {@link java.io.Closeable}. They are closed by {@link Simulation#closeDiagnostics()} at the end of
+ * the simulation.
  */
 public interface Diagnostics {
 
@@ -0,0 +1,207 @@
+package org.openpixi.pixi.diagnostics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.openpixi.pixi.parallel.cellaccess.CellAction;
+import org.openpixi.pixi.physics.grid.Grid;
+import org.openpixi.pixi.physics.metrics.SimulationMetrics;
+import org.openpixi.pixi.physics.particles.IParticle;
+
+/**
+ * Runs {@link AsynchronousDiagnostics} on a separate thread. At every measurement the fields required by the
+ * diagnostics are copied into a snapshot grid, which is handed to the diagnostics thread while the simulation
+ * continues. Snapshots are taken from a pool of at most queueDepth grids. If all of them are in use, the simulation
+ * waits until the diagnostics thread returns one (back-pressure), so the memory overhead is bounded by queueDepth
+ * copies of the grid.
+ */
+public class DiagnosticsPipeline {
+
+	private static final ArrayList<IParticle> NO_PARTICLES = new ArrayList<IParticle>(0);
+
+	private final int queueDepth;
+	private final BlockingQueue<Grid> freeSnapshots;
+	private int numberOfSnapshots;
+
+	private final ThreadPoolExecutor executor;
+	private final SnapshotAction snapshotAction = new SnapshotAction();
+
+	/**
+	 * First exception thrown by a diagnostic on the diagnostics thread. It is rethrown on the simulation thread.
+	 */
+	private volatile Exception failure;
+
+	private SimulationMetrics metrics = new SimulationMetrics(false);
+
+	/**
+	 * @param queueDepth    Maximum number of snapshots waiting for or being evaluated by the diagnostics thread
+	 */
+	public DiagnosticsPipeline(int queueDepth) {
+		if (queueDepth < 1) {
+			throw new RuntimeException("DiagnosticsPipeline: queue depth has to be at least one.");
+		}
+		this.queueDepth = queueDepth;
+		this.freeSnapshots = new ArrayBlockingQueue<Grid>(queueDepth);
+		this.numberOfSnapshots = 0;
+
+		// A single daemon thread guarantees that diagnostics are evaluated in order. It is stopped when idle.
+		executor = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+				new ThreadFactory() {
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r, "pixi-diagnostics");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Sets the metrics which record the evaluation time of each diagnostic.
+	 *
+	 * @param metrics   Metrics of the simulation
+	 */
+	public void setMetrics(SimulationMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Takes a snapshot of the grid for all diagnostics which measure at this step and evaluates them on the
+	 * diagnostics thread. Blocks if queueDepth snapshots are still in use.
+	 *
+	 * @param grid          Grid of the simulation
+	 * @param diagnostics   Asynchronous diagnostics
+	 * @param steps         Total simulation steps so far
+	 * @throws IOException  if a previously submitted diagnostic has failed
+	 */
+	public void submit(Grid grid, List<AsynchronousDiagnostics> diagnostics, final int steps) throws IOException {
+		rethrowFailure();
+
+		final ArrayList<AsynchronousDiagnostics> measurements = new ArrayList<AsynchronousDiagnostics>();
+		int fields = 0;
+		for (AsynchronousDiagnostics d : diagnostics) {
+			if (d.isMeasurementStep(steps)) {
+				measurements.add(d);
+				fields |= d.getRequiredFields();
+			}
+		}
+		if (measurements.isEmpty()) {
+			return;
+		}
+
+		final Grid snapshot = acquireSnapshot(grid);
+		snapshotAction.source = grid;
+		snapshotAction.fields = fields;
+		grid.getCellIterator().execute(snapshot, snapshotAction);
+		snapshotAction.source = null;
+		snapshot.setSimulationSteps(steps);
+
+		executor.execute(new Runnable() {
+			public void run() {
+				try {
+					if (failure == null) {
+						for (AsynchronousDiagnostics d : measurements) {
+							long start = metrics.start();
+							d.calculate(snapshot, NO_PARTICLES, steps);
+							metrics.stop(metrics.getDiagnosticsPhase(d), start);
+						}
+					}
+				} catch (Exception e) {
+					failure = e;
+				} finally {
+					freeSnapshots.add(snapshot);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Waits until all submitted diagnostics have been evaluated.
+	 *
+	 * @throws IOException  if a diagnostic has failed
+	 */
+	public void flush() throws IOException {
+		try {
+			executor.submit(new Runnable() {
+				public void run() {
+				}
+			}).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("DiagnosticsPipeline: interrupted while waiting for diagnostics.", e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+		rethrowFailure();
+	}
+
+	private Grid acquireSnapshot(Grid grid) {
+		Grid snapshot = freeSnapshots.poll();
+		if (snapshot != null) {
+			return snapshot;
+		}
+		if (numberOfSnapshots < queueDepth) {
+			numberOfSnapshots++;
+			return new Grid(grid);
+		}
+		try {
+			return freeSnapshots.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("DiagnosticsPipeline: interrupted while waiting for a free snapshot.", e);
+		}
+	}
+
+	private void rethrowFailure() throws IOException {
+		Exception e = failure;
+		if (e != null) {
+			failure = null;
+			if (e instanceof IOException) {
+				throw (IOException) e;
+			}
+			throw new RuntimeException("DiagnosticsPipeline: asynchronous diagnostic failed.", e);
+		}
+	}
+
+	/**
+	 * Copies the selected fields of a cell from the source grid to the snapshot.
+	 */
+	private static class SnapshotAction implements CellAction {
+
+		private Grid source;
+		private int fields;
+
+		public void execute(Grid snapshot, int index) {
+			int numberOfDimensions = snapshot.getNumberOfDimensions();
+			for (int d = 0; d < numberOfDimensions; d++) {
+				if ((fields & AsynchronousDiagnostics.FIELD_U) != 0) {
+					snapshot.getU(index, d).set(source.getU(index, d));
+				}
+				if ((fields & AsynchronousDiagnostics.FIELD_UNEXT) != 0) {
+					snapshot.getUnext(index, d).set(source.getUnext(index, d));
+				}
+				if ((fields & AsynchronousDiagnostics.FIELD_E) != 0) {
+					snapshot.getE(index, d).set(source.getE(index, d));
+				}
+				if ((fields & AsynchronousDiagnostics.FIELD_J) != 0) {
+					snapshot.getJ(index, d).set(source.getJ(index, d));
+				}
+			}
+			if ((fields & AsynchronousDiagnostics.FIELD_RHO) != 0) {
+				snapshot.getRho(index).set(source.getRho(index));
+			}
+			if ((fields & AsynchronousDiagnostics.FIELD_FLAGS) != 0) {
+				snapshot.setEvaluatable(index, source.isEvaluatable(index));
+				snapshot.setActive(index, source.isActive(index));
+			}
+		}
+	}
+}
@@ -5,7 +5,16 @@ import java.text.DecimalFormat;
 
 public class FileFunctions {
 
-	private static DecimalFormat decimalFormat = new DecimalFormat("0.################E0");
+	/**
+	 * DecimalFormat is not thread-safe and diagnostics may run concurrently (see {@link DiagnosticsPipeline}),
+	 * therefore every thread uses its own instance.
+	 */
+	private static final ThreadLocal<DecimalFormat> decimalFormat = new ThreadLocal<DecimalFormat>() {
+		@Override
+		protected DecimalFormat initialValue() {
+			return new DecimalFormat("0.################E0");
+		}
+	};
 
 	/**
 	 * Returns a File instance for a given path. Directories are created if they do not exist yet.
@@ -60,14 +69,23 @@ public class FileFunctions {
 	 */
 	public static String generateTSVString(double[] array) {
 		StringBuilder outputStringBuilder = new StringBuilder();
-		DecimalFormat formatter = new DecimalFormat("0.################E0");
+		appendTSVString(outputStringBuilder, array);
+		return outputStringBuilder.toString();
+	}
+
+	/**
+	 * Appends a 1D double array as tab-separated values (TSV) to a StringBuilder.
+	 * @param builder	StringBuilder to append to
+	 * @param array	1D double array
+	 */
+	public static void appendTSVString(StringBuilder builder, double[] array) {
+		DecimalFormat formatter = decimalFormat.get();
 		for (int i = 0; i < array.length; i++) {
-			outputStringBuilder.append(formatter.format(array[i]));
+			builder.append(formatter.format(array[i]));
 			if(i < array.length - 1) {
-				outputStringBuilder.append("\t");
+				builder.append("\t");
 			}
 		}
-		return outputStringBuilder.toString();
 	}
 
 	/**
@@ -76,7 +94,7 @@ public class FileFunctions {
 	 * @return  formatted string
 	 */
 	public static String format(double v) {
-		return decimalFormat.format(v);
+		return decimalFormat.get().format(v);
 	}
 
 	/**
@@ -85,6 +103,6 @@ public class FileFunctions {
 	 * @return  formatted string
 	 */
 	public static String format(float v) {
-		return decimalFormat.format(v);
+		return decimalFormat.get().format(v);
 	}
 }
@@ -55,7 +55,8 @@ public class BulkQuantitiesInTime implements Diagnostics {
 		this.stepInterval = (int) Math.max(Math.round((timeInterval / this.s.getTimeStep())), 1);
 		this.fieldMeasurements = new FieldMeasurements();
 
-		if(!supressOutput) {
+		// A resumed simulation appends to the file written before the checkpoint.
+		if(!supressOutput && !s.isResumed()) {
 			// Create/delete file.
 			FileFunctions.clearFile(path);
 
@@ -85,9 +86,11 @@ public class BulkQuantitiesInTime implements Diagnostics {
 			//TODO Make this method d-dimensional!!
 			double[] esquares = new double[3];
 			double[] bsquares = new double[3];
+			fieldMeasurements.measure(grid, FieldMeasurements.E_SQUARED | FieldMeasurements.B_SQUARED
+					| FieldMeasurements.GAUSS_CONSTRAINT | FieldMeasurements.TOTAL_CHARGE_SQUARED);
 			for (int i = 0; i < 3; i++) {
-				esquares[i] = fieldMeasurements.calculateEsquared(grid, i);
-				bsquares[i] = fieldMeasurements.calculateBsquared(grid, i);
+				esquares[i] = fieldMeasurements.getEsquared(i);
+				bsquares[i] = fieldMeasurements.getBsquared(i);
 			}
 
 			eSquared = esquares[0] + esquares[1] + esquares[2];
@@ -96,8 +99,8 @@ public class BulkQuantitiesInTime implements Diagnostics {
 			py = +esquares[0] - esquares[1] + esquares[2] + bsquares[0] - bsquares[1] + bsquares[2];
 			pz = +esquares[0] + esquares[1] - esquares[2] + bsquares[0] + bsquares[1] - bsquares[2];
 
-			gaussViolation = fieldMeasurements.calculateGaussConstraint(grid);
-			totalChargeSquared = fieldMeasurements.calculateTotalChargeSquared(grid);
+			gaussViolation = fieldMeasurements.getGaussConstraint();
+			totalChargeSquared = fieldMeasurements.getTotalChargeSquared();
 
 			if(!supressOutput) {
 				File file = FileFunctions.getFile(path);
@@ -6,6 +6,7 @@ import org.openpixi.pixi.math.GroupElement;
 import org.openpixi.pixi.physics.Simulation;
 import org.openpixi.pixi.physics.grid.Grid;
 import org.openpixi.pixi.physics.measurements.FieldMeasurements;
+import org.openpixi.pixi.physics.measurements.WilsonLineCorrelator;
 import org.openpixi.pixi.physics.particles.IParticle;
 import org.openpixi.pixi.physics.util.GridFunctions;
 
@@ -14,6 +15,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 public class DipoleInitialBinned implements Diagnostics {
 
@@ -45,7 +47,8 @@ public class DipoleInitialBinned implements Diagnostics {
 		this.s = s;
 		this.fieldMeasurements = new FieldMeasurements();
 
-		if(!supressOutput) {
+		// A resumed simulation appends to the file written before the checkpoint.
+		if(!supressOutput && !s.isResumed()) {
 			// Create/delete file.
 			FileFunctions.clearFile(path);
 
@@ -73,6 +76,8 @@ public class DipoleInitialBinned implements Diagnostics {
 
 	/**
 	 * Computes the trace of the dipole amplitude along the longitudinal direction, bins it over the transversal distance and writes the result to the output file.
+	 * The Wilson lines are the ordered products of the longitudinal links (Unext) and their correlator is evaluated for
+	 * all transverse separations at once with {@link WilsonLineCorrelator}.
 	 *
 	 * @param grid		Reference to the Grid instance.
 	 * @param particles	Reference to the list of particles.
@@ -84,74 +89,35 @@ public class DipoleInitialBinned implements Diagnostics {
 		int longitudinalNumCells = grid.getNumCells(direction);
 		int[] transverseNumCells = GridFunctions.reduceGridPos(grid.getNumCells(), direction);
 		int totalTransverseCells = GridFunctions.getTotalNumberOfCells(transverseNumCells);
-		GroupElement tadLink1 = grid.getElementFactory().groupIdentity();
-		GroupElement tadLink2 = grid.getElementFactory().groupIdentity();
-		GroupElement tadLink3 = grid.getElementFactory().groupIdentity();
 		int numBins = (int) Math.sqrt(totalTransverseCells);
 		double binWidth = Math.sqrt(2*totalTransverseCells)/numBins;
 		double[] dipoleTraces = new double[numBins];
 		int[] counter = new int[numBins];
 		double as = grid.getLatticeSpacing();
-		int[] gridPos1, gridPos2;
-		int end = 0;
 
+		// Wilson lines along the longitudinal direction
+		GroupElement[] wilsonLines = new GroupElement[totalTransverseCells];
 		for (int i = 0; i < totalTransverseCells; i++) {
-			// Current position
-			int[] transGridPos1 = GridFunctions.getCellPos(i, transverseNumCells);
-
-			for (int j = 0; (j < totalTransverseCells) && (j >= i); j++) {
-				int[] transGridPos2 = GridFunctions.getCellPos(j, transverseNumCells);
-
-				for (int k = 0; k < longitudinalNumCells; k++) {
-					int z = (orientation < 0) ? k : (longitudinalNumCells - k - 1);
-					gridPos1 = GridFunctions.insertGridPos(transGridPos1, direction, z);
-					gridPos2 = GridFunctions.insertGridPos(transGridPos2, direction, z);
-					int index1 = grid.getCellIndex(gridPos1);
-					int index2 = grid.getCellIndex(gridPos2);
-					tadLink1.multAssign(grid.getUnext(index1,0));
-					tadLink2.multAssign(grid.getUnext(index2,0));
-					end = z;
-				}
-
-				tadLink2.adjAssign();
-
-				int dist1 = transGridPos2[0] - transGridPos1[0];			///Attention, this and the following only works in 3 dimensions!!
-				int dist2 = transGridPos2[1] - transGridPos1[1];
-				double distance = Math.sqrt(dist1*dist1+dist2*dist2);
-
-				for (int k = transGridPos1[0]+1; k <= dist1; k++) {
-					int[] transGridPos3 = new int[transGridPos1.length];
-					System.arraycopy(transGridPos1, 0, transGridPos3, 0, transGridPos1.length);
-					transGridPos3[0] = k;
-
-					int[] gridPos3 = GridFunctions.insertGridPos(transGridPos3, direction, end);
-					int index3 = grid.getCellIndex(gridPos3);
-					tadLink3.multAssign(grid.getUnext(index3,0));
-				}
-
-				for (int k = transGridPos1[1]+1; k <= dist2; k++) {
-					int[] transGridPos4 = new int[transGridPos1.length];
-					System.arraycopy(transGridPos1, 0, transGridPos4, 0, transGridPos1.length);
-					transGridPos4[1] = k;
-
-					int[] gridPos4 = GridFunctions.insertGridPos(transGridPos4, direction, end);
-					int index4 = grid.getCellIndex(gridPos4);
-					tadLink3.multAssign(grid.getUnext(index4,0));
-				}
-
-				int binIndex = (int) Math.floor(distance/binWidth);
-				dipoleTraces[binIndex] += tadLink1.mult(tadLink3).mult(tadLink2).getRealTrace()/2;
-				counter[binIndex]++;
-
-				tadLink1.set(grid.getElementFactory().groupIdentity());
-				tadLink2.set(grid.getElementFactory().groupIdentity());
-				tadLink3.set(grid.getElementFactory().groupIdentity());
+			int[] transGridPos = GridFunctions.getCellPos(i, transverseNumCells);
+			GroupElement wilsonLine = grid.getElementFactory().groupIdentity();
+			for (int k = 0; k < longitudinalNumCells; k++) {
+				int z = (orientation < 0) ? k : (longitudinalNumCells - k - 1);
+				int index = grid.getCellIndex(GridFunctions.insertGridPos(transGridPos, direction, z));
+				wilsonLine.multAssign(grid.getUnext(index, direction));
 			}
+			wilsonLines[i] = wilsonLine;
 		}
 
+		// Correlator binned in lattice units
+		WilsonLineCorrelator correlator = new WilsonLineCorrelator(transverseNumCells);
+		double[] correlation = correlator.computeCorrelation(wilsonLines, grid);
+		double[] unitSpacings = new double[transverseNumCells.length];
+		Arrays.fill(unitSpacings, 1.0);
+		correlator.bin(correlation, unitSpacings, binWidth, dipoleTraces, counter);
+
 		for (int i = 0; i < numBins; i++) {
 			if(counter[i] != 0) {
-				dipoleTraces[i] /= counter[i];
+				dipoleTraces[i] /= counter[i] * grid.getElementFactory().numberOfColors;
 			} else {
 				dipoleTraces[i] = 0;
 			}
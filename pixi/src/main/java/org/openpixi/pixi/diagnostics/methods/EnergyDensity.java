@@ -52,6 +52,12 @@ public class EnergyDensity implements Diagnostics {
 
 		componentComputation.initialize(s.grid);
 		this.simulation = s;
+
+		// A resumed simulation continues the numbering of the files written before the checkpoint.
+		counter = 0;
+		if (s.isResumed() && s.totalSimulationSteps >= firstStep) {
+			counter = s.totalSimulationSteps / step - (firstStep - 1) / step;
+		}
 	}
 
 	public void calculate(Grid grid, ArrayList<IParticle> particles, int steps) throws IOException {
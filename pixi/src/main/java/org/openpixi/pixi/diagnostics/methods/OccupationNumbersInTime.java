@@ -1,10 +1,15 @@
 package org.openpixi.pixi.diagnostics.methods;
 
-import org.openpixi.pixi.diagnostics.Diagnostics;
+import org.openpixi.pixi.diagnostics.AsynchronousDiagnostics;
 import org.openpixi.pixi.diagnostics.FileFunctions;
 import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.ElementFactory;
+import org.openpixi.pixi.math.GroupElement;
+import org.openpixi.pixi.parallel.cellaccess.CellAction;
+import org.openpixi.pixi.parallel.cellaccess.RangeIterator;
 import org.openpixi.pixi.physics.Simulation;
 import org.openpixi.pixi.physics.gauge.CoulombGauge;
+import org.openpixi.pixi.physics.gauge.CoulombGaugeWorkspace;
 import org.openpixi.pixi.physics.gauge.DoubleFFTWrapper;
 import org.openpixi.pixi.physics.grid.Grid;
 import org.openpixi.pixi.physics.particles.IParticle;
@@ -15,7 +20,15 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 
-public class OccupationNumbersInTime implements Diagnostics {
+/**
+ * Occupation numbers of the gauge fields in Coulomb gauge.
+ * <p>
+ * The grid is not copied for a measurement. Only the gauge links of the (optionally mirrored) lattice are copied into
+ * a {@link CoulombGaugeWorkspace}, which is reused for all measurements. The gauge transformation and the cone or
+ * window functions are applied on the fly while the fields are written into the FFT arrays, which are allocated once
+ * in {@link #initialize(Simulation)}.
+ */
+public class OccupationNumbersInTime implements AsynchronousDiagnostics {
 
 	private Simulation s;
 	public double timeInterval;
@@ -52,6 +65,34 @@ public class OccupationNumbersInTime implements Diagnostics {
 	private boolean useTukeyWindow;
 	private double tukeyWidth;
 
+	/**
+	 * Store the intermediate grids of every measurement (mirrored grid, gauge fixed grid, ...) so that they can be
+	 * inspected, see {@link #getMirrorGrid()}. This requires several copies of the grid and is meant for small
+	 * grids in the GUI.
+	 */
+	public boolean storeIntermediateGrids;
+
+	private CoulombGaugeWorkspace gaugeWorkspace;
+	private RangeIterator chunkIterator;
+	private FillFFTArrays fillFFTArrays = new FillFFTArrays();
+
+	/**
+	 * Electric fields (first half) and gauge fields (second half) for every direction and color component as
+	 * interleaved complex arrays.
+	 */
+	private double[][] fftData;
+
+	/**
+	 * Lattice dispersion relation indexed by the cell index of the lattice momentum.
+	 */
+	private double[] frequencies;
+
+	/**
+	 * Window functions along every direction, indexed by the position in that direction.
+	 */
+	private double[][] windowFactors;
+	private boolean[][] isWithinCone;
+
 	private Grid mirrorGrid;
 	private Grid gaugeMirrorGrid;
 	private Grid gaugeGrid;
@@ -75,11 +116,6 @@ public class OccupationNumbersInTime implements Diagnostics {
 		this.outputFileName = filename;
 		this.colorful = colorful;
 
-
-		if(!outputType.equals(OUTPUT_NONE)) {
-			FileFunctions.clearFile(outputFileName);
-		}
-
 		if (!Arrays.asList(supportedOutputTypes).contains(outputType)) {
 			System.out.print("OccupationNumbersInTime: unsupported output type. Allowed types are ");
 			for(String t : supportedOutputTypes) {
@@ -139,101 +175,72 @@ public class OccupationNumbersInTime implements Diagnostics {
 		this.fft = new DoubleFFTWrapper(s.grid.getNumCells());
 		occupationNumbers = new double[s.grid.getTotalNumberOfCells()][numberOfComponents];
 
+		gaugeWorkspace = new CoulombGaugeWorkspace(s.grid, useMirroredGrid ? mirroredDirection : -1);
+		fftData = new double[2 * s.getNumberOfDimensions() * numberOfComponents][fft.getFFTArraySize()];
+
+		frequencies = new double[s.grid.getTotalNumberOfCells()];
+		for (int i = 0; i < frequencies.length; i++) {
+			double[] kvec = computeMomentumVectorFromLatticeIndex(i);
+			frequencies[i] = Math.sqrt(this.computeDispersionRelationSquared(kvec));
+		}
 
+		windowFactors = new double[s.getNumberOfDimensions()][];
+		isWithinCone = new boolean[s.getNumberOfDimensions()][];
+		for (int d = 0; d < s.getNumberOfDimensions(); d++) {
+			windowFactors[d] = new double[s.grid.getNumCells(d)];
+			isWithinCone[d] = new boolean[s.grid.getNumCells(d)];
+			Arrays.fill(windowFactors[d], 1.0);
+			Arrays.fill(isWithinCone[d], true);
+		}
 
+		chunkIterator = new RangeIterator(s.grid, RangeIterator.getNumberOfChunks(s.grid.getTotalNumberOfCells()));
 
-		// Write header
-		if(!outputType.equals(OUTPUT_NONE)) {
+		// Write header. A resumed simulation appends to the file written before the checkpoint.
+		if(!outputType.equals(OUTPUT_NONE) && !s.isResumed()) {
+			FileFunctions.clearFile(outputFileName);
 			this.writeHeader(outputFileName);
 		}
 
 		// Include lattice momentum vectors (optional)
-		if(outputType.equals(OUTPUT_CSV_WITH_VECTORS)) {
+		if(outputType.equals(OUTPUT_CSV_WITH_VECTORS) && !s.isResumed()) {
 			this.writeMomentumVectors(outputFileName);
 		}
 
 	}
 
+	public boolean isMeasurementStep(int steps) {
+		return steps % stepInterval == 0;
+	}
+
+	public int getRequiredFields() {
+		return FIELD_U | FIELD_UNEXT | FIELD_E;
+	}
+
 	/**
 	 * Computes the occupation numbers in momentum space and field energy from the occupation numbers.
 	 *
-	 * @param grid_reference	Reference to the Grid instance.
+	 * @param grid				Reference to the Grid instance.
 	 * @param particles    		Reference to the list of particles.
 	 * @param steps        		Total simulation steps so far.
 	 */
-	public void calculate(Grid grid_reference, ArrayList<IParticle> particles, int steps) {
-		if (steps % stepInterval == 0) {
-			Grid grid = grid_reference;
-			// Create copy and cut cone into grid
-
-			if(useMirroredGrid) {
-				grid = new MirroredGrid(grid, mirroredDirection);
-			} else {
-				grid = new Grid(grid);	// Copy grid.
+	public void calculate(Grid grid, ArrayList<IParticle> particles, int steps) {
+		if (isMeasurementStep(steps)) {
+			if (storeIntermediateGrids) {
+				storeIntermediateGrids(grid);
 			}
 
-			// Apply Coulomb gauge.
-			mirrorGrid = grid;
-
-			if (useMirroredGrid) {
-				// Copy for independent display of mirror grid
-				grid = new Grid(grid);
-			}
-
-			CoulombGauge coulombGauge = new CoulombGauge(grid);
-			coulombGauge.applyGaugeTransformation(grid);
-
-			gaugeMirrorGrid = grid;
-
-			if(useMirroredGrid) {
-				grid = new UnmirroredGrid(grid, mirroredDirection);
-			}
-
-			gaugeGrid = grid;
-
-			if (useGaussianWindow) {
-				grid = new GaussianConeRestrictedGrid(grid, collisionTime, collisionPosition, coneVelocity);
-			}
-			if (useTukeyWindow) {
-				grid = new TukeyConeRestrictedGrid(grid, collisionTime, collisionPosition, coneVelocity, tukeyWidth);
-			}
-			if (useCone) {
-				grid = new ConeRestrictedGrid(grid, collisionTime, collisionPosition, coneVelocity);
-			}
-
-			finalWindowGrid = grid;
+			// Coulomb gauge transformation of the (mirrored) links, the grid itself is not changed.
+			gaugeWorkspace.fixGauge(grid);
 
 			// Fill arrays for FFT.
-			double gainv = 1.0 / (grid.getLatticeSpacing() * grid.getGaugeCoupling());
-			double[][][] eFFTdata = new double[grid.getNumberOfDimensions()][numberOfComponents][fft.getFFTArraySize()];
-			double[][][] aFFTdata = new double[grid.getNumberOfDimensions()][numberOfComponents][fft.getFFTArraySize()];
-			for (int i = 0; i < grid.getTotalNumberOfCells(); i++) {
-				int fftIndex = fft.getFFTArrayIndex(i);
-				for (int j = 0; j < grid.getNumberOfDimensions(); j++) {
-					for (int k = 0; k < numberOfComponents; k++) {
-						// Electric field
-						double electricFieldComponent = grid.getE(i, j).get(k) * gainv;
-						eFFTdata[j][k][fftIndex] = electricFieldComponent;
-						eFFTdata[j][k][fftIndex + 1] = 0.0;
-
-						// Gauge fields need to be averaged over two time-steps.
-						AlgebraElement gaugeFieldAsAlgebraElement0 = grid.getU(i, j).getAlgebraElement();
-						AlgebraElement gaugeFieldAsAlgebraElement1 = grid.getUnext(i, j).getAlgebraElement();
-						double gaugeFieldComponent0 = gaugeFieldAsAlgebraElement0.get(k) * gainv;
-						double gaugeFieldComponent1 = gaugeFieldAsAlgebraElement1.get(k) * gainv;
-						aFFTdata[j][k][fftIndex] = 0.5 * (gaugeFieldComponent0 + gaugeFieldComponent1);
-						aFFTdata[j][k][fftIndex + 1] = 0.0;
-					}
-				}
+			if (useCone || useGaussianWindow || useTukeyWindow) {
+				computeWindowFactors(grid);
 			}
+			chunkIterator.execute(grid, fillFFTArrays);
 
-			// Compute FTs of electric field and gauge field.
-			for (int j = 0; j < grid.getNumberOfDimensions(); j++) {
-				for (int k = 0; k < numberOfComponents; k++) {
-					fft.complexForward(eFFTdata[j][k]);
-					fft.complexForward(aFFTdata[j][k]);
-				}
-			}
+			// Compute FTs of electric field and gauge field (all components in one batch).
+			int numberOfArrays = grid.getNumberOfDimensions() * numberOfComponents;
+			s.grid.getFFTService().complexForward(s.grid.getNumCells(), fftData);
 			//
 			double fftConversationFactorSquared = Math.pow(s.grid.getLatticeSpacing(), 2* effectiveNumberOfDimensions);
 
@@ -246,21 +253,23 @@ public class OccupationNumbersInTime implements Diagnostics {
 					double aSquared = 0.0;
 					double mixed = 0.0;
 					for (int j = 0; j < grid.getNumberOfDimensions(); j++) {
+						double[] eFFTdata = fftData[j * numberOfComponents + k];
+						double[] aFFTdata = fftData[numberOfArrays + j * numberOfComponents + k];
+
 						// Electric part
-						eSquared += eFFTdata[j][k][fftIndex] * eFFTdata[j][k][fftIndex]
-								+ eFFTdata[j][k][fftIndex + 1] * eFFTdata[j][k][fftIndex + 1];
+						eSquared += eFFTdata[fftIndex] * eFFTdata[fftIndex]
+								+ eFFTdata[fftIndex + 1] * eFFTdata[fftIndex + 1];
 
 						// Magnetic part
-						aSquared += (aFFTdata[j][k][fftIndex] * aFFTdata[j][k][fftIndex]
-								+ aFFTdata[j][k][fftIndex + 1] * aFFTdata[j][k][fftIndex + 1]);
+						aSquared += (aFFTdata[fftIndex] * aFFTdata[fftIndex]
+								+ aFFTdata[fftIndex + 1] * aFFTdata[fftIndex + 1]);
 
 						// Mixed part
-						mixed -= 2.0 * (-aFFTdata[j][k][fftIndex + 1] * eFFTdata[j][k][fftIndex]
-								+ aFFTdata[j][k][fftIndex] * eFFTdata[j][k][fftIndex + 1]);
+						mixed -= 2.0 * (-aFFTdata[fftIndex + 1] * eFFTdata[fftIndex]
+								+ aFFTdata[fftIndex] * eFFTdata[fftIndex + 1]);
 					}
 
-					double[] kvec = computeMomentumVectorFromLatticeIndex(i);
-					double w = Math.sqrt(this.computeDispersionRelationSquared(kvec));
+					double w = frequencies[i];
 					occupationNumbers[i][k] = (eSquared + w * w * aSquared + w * mixed) * fftConversationFactorSquared;
 					energyDensity += occupationNumbers[i][k];
 				}
@@ -493,14 +502,156 @@ public class OccupationNumbersInTime implements Diagnostics {
 	}
 
 	/**
-	 * Check whether a grid index is within the cone defined by the collision center and the cone velocity.
-	 * Cone velocity = 0 means no restriction on that coordinate.
-	 * @param index
-	 * @return
+	 * Creates the intermediate grids of the measurement for inspection. The occupation numbers are not computed from
+	 * these grids.
+	 *
+	 * @param grid	Grid of the simulation
 	 */
-	private boolean isInCone(int index) {
+	private void storeIntermediateGrids(Grid grid) {
+		if(useMirroredGrid) {
+			grid = new MirroredGrid(grid, mirroredDirection);
+		} else {
+			grid = new Grid(grid);	// Copy grid.
+		}
+
+		// Apply Coulomb gauge.
+		mirrorGrid = grid;
+
+		if (useMirroredGrid) {
+			// Copy for independent display of mirror grid
+			grid = new Grid(grid);
+		}
+
+		CoulombGauge coulombGauge = new CoulombGauge(grid);
+		coulombGauge.applyGaugeTransformation(grid);
+
+		gaugeMirrorGrid = grid;
 
-		return true;
+		if(useMirroredGrid) {
+			grid = new UnmirroredGrid(grid, mirroredDirection);
+		}
+
+		gaugeGrid = grid;
+
+		if (useGaussianWindow) {
+			grid = new GaussianConeRestrictedGrid(grid, collisionTime, collisionPosition, coneVelocity);
+		}
+		if (useTukeyWindow) {
+			grid = new TukeyConeRestrictedGrid(grid, collisionTime, collisionPosition, coneVelocity, tukeyWidth);
+		}
+		if (useCone) {
+			grid = new ConeRestrictedGrid(grid, collisionTime, collisionPosition, coneVelocity);
+		}
+
+		finalWindowGrid = grid;
+	}
+
+	/**
+	 * Computes the cone restriction and the window functions at the current time for every direction. Same as in
+	 * {@link ConeRestrictedGrid}, {@link GaussianConeRestrictedGrid} and {@link TukeyConeRestrictedGrid}.
+	 *
+	 * @param grid	Grid of the simulation
+	 */
+	private void computeWindowFactors(Grid grid) {
+		double two_sqrt_log_two = 2 * Math.sqrt(Math.log(2));
+		double time = grid.getSimulationSteps() * grid.getTemporalSpacing();
+
+		for (int d = 0; d < coneVelocity.length; d++) {
+			for (int p = 0; p < windowFactors[d].length; p++) {
+				windowFactors[d][p] = 1.0;
+				isWithinCone[d][p] = true;
+				if (coneVelocity[d] != 0) {
+					// Restriction on this axis!
+					double pos = p * grid.getLatticeSpacing(d);
+					double minTime = - Math.abs(time - collisionTime);
+					double maxTime = + Math.abs(time - collisionTime);
+					double minPos = minTime * coneVelocity[d] + collisionPosition[d];
+					double maxPos = maxTime * coneVelocity[d] + collisionPosition[d];
+
+					if (useGaussianWindow) {
+						// Construct Gaussian with full width at half maximum:
+						double sigma = (maxPos - minPos) / two_sqrt_log_two;
+						windowFactors[d][p] *= Math.exp(- Math.pow((pos - collisionPosition[d]) / sigma, 2));
+					}
+					if (useTukeyWindow) {
+						windowFactors[d][p] *= getTukeyWindow((pos - collisionPosition[d]) / (maxPos - minPos));
+					}
+					if (useCone) {
+						isWithinCone[d][p] = !((pos < minPos) || (pos > maxPos));
+					}
+				}
+			}
+		}
+	}
+
+	private double getTukeyWindow(double x) {
+		if ((x > -.5 - .5 * tukeyWidth) && (x <= -.5 + .5 * tukeyWidth)) {
+			return 0.5 * (1 + Math.sin(Math.PI * (x + 0.5) / tukeyWidth));
+		} else if ((x > -.5 + .5 * tukeyWidth) && (x <= .5 - 0.5 * tukeyWidth)) {
+			return 1;
+		} else if ((x > 0.5 - 0.5 * tukeyWidth) && (x < 0.5 + 0.5 * tukeyWidth)) {
+			return 0.5 * (1 - Math.sin(Math.PI * (x - 0.5) / tukeyWidth));
+		} else {
+			return 0;
+		}
+	}
+
+	/**
+	 * Writes the gauge fixed electric fields and the time averaged gauge fields to the FFT arrays. Cells outside
+	 * the cone are set to zero, the window functions scale the fields (i.e. the algebra elements of the links).
+	 */
+	private class FillFFTArrays implements CellAction {
+		public void execute(Grid grid, int chunk) {
+			ElementFactory factory = grid.getElementFactory();
+			GroupElement link = factory.groupIdentity();
+			GroupElement temp1 = factory.groupIdentity();
+			GroupElement temp2 = factory.groupIdentity();
+			double[] electric = new double[numberOfComponents];
+			int numberOfDimensions = grid.getNumberOfDimensions();
+			int numberOfArrays = numberOfDimensions * numberOfComponents;
+			double gainv = 1.0 / (grid.getLatticeSpacing() * grid.getGaugeCoupling());
+
+			int end = RangeIterator.getChunkEnd(chunk, grid.getTotalNumberOfCells());
+			for (int i = RangeIterator.getChunkStart(chunk); i < end; i++) {
+				double factor = gainv;
+				boolean withinCone = true;
+				for (int d = 0; d < numberOfDimensions; d++) {
+					int pos = (i / grid.getShiftOffset(d, 1)) % grid.getNumCells(d);
+					factor *= windowFactors[d][pos];
+					withinCone &= isWithinCone[d][pos];
+				}
+				if (!withinCone) {
+					factor = 0.0;
+				}
+
+				int fftIndex = fft.getFFTArrayIndex(i);
+				for (int j = 0; j < numberOfDimensions; j++) {
+					// Electric field
+					AlgebraElement E = grid.getE(i, j);
+					for (int k = 0; k < numberOfComponents; k++) {
+						electric[k] = E.get(k);
+					}
+					gaugeWorkspace.transformComponents(i, electric, 0, temp1);
+
+					// Gauge fields need to be averaged over two time-steps.
+					gaugeWorkspace.getLink(i, j, link);
+					AlgebraElement gaugeFieldAsAlgebraElement0 = link.getAlgebraElement();
+					link.set(grid.getUnext(i, j));
+					gaugeWorkspace.transformLink(i, j, link, temp1, temp2);
+					AlgebraElement gaugeFieldAsAlgebraElement1 = link.getAlgebraElement();
+
+					for (int k = 0; k < numberOfComponents; k++) {
+						double[] eFFTdata = fftData[j * numberOfComponents + k];
+						double[] aFFTdata = fftData[numberOfArrays + j * numberOfComponents + k];
+						eFFTdata[fftIndex] = electric[k] * factor;
+						eFFTdata[fftIndex + 1] = 0.0;
+						aFFTdata[fftIndex] = 0.5 * (gaugeFieldAsAlgebraElement0.get(k)
+								+ gaugeFieldAsAlgebraElement1.get(k)) * factor;
+						aFFTdata[fftIndex + 1] = 0.0;
+					}
+				}
+			}
+		}
 	}
 
 	private class ConeRestrictedGrid extends Grid {
@@ -11,6 +11,11 @@ import org.openpixi.pixi.physics.Simulation;
 import org.openpixi.pixi.physics.grid.Grid;
 import org.openpixi.pixi.physics.particles.IParticle;
 
+/**
+ * Writes the positions and velocities of all particles in the order of the particle list. The columns do not follow a
+ * particle through the simulation if the list is reordered by the
+ * {@link org.openpixi.pixi.physics.particles.ParticleSorter}.
+ */
 public class ParticlesInTime implements Diagnostics {
 
 	private String path;
@@ -35,6 +40,11 @@ public class ParticlesInTime implements Diagnostics {
 		this.s = s;
 		this.stepInterval = (int) Math.max(Math.round((timeInterval / s.getTimeStep())), 1);
 
+		if (s.isResumed()) {
+			// Append to the file written before the checkpoint.
+			return;
+		}
+
 		// Create/delete file.
 		FileFunctions.clearFile(path);
 
@@ -1,20 +1,19 @@
 package org.openpixi.pixi.diagnostics.methods;
 
-import org.openpixi.pixi.diagnostics.Diagnostics;
-import org.openpixi.pixi.diagnostics.FileFunctions;
+import org.openpixi.pixi.diagnostics.AsynchronousDiagnostics;
+import org.openpixi.pixi.diagnostics.output.OutputFormat;
+import org.openpixi.pixi.diagnostics.output.OutputSink;
 import org.openpixi.pixi.math.AlgebraElement;
 import org.openpixi.pixi.physics.Simulation;
 import org.openpixi.pixi.physics.grid.Grid;
 import org.openpixi.pixi.physics.particles.IParticle;
 import org.openpixi.pixi.physics.util.GridFunctions;
 
-import java.io.File;
-import java.io.FileWriter;
+import java.io.Closeable;
 import java.io.IOException;
-import java.text.DecimalFormat;
 import java.util.ArrayList;
 
-public class PlanarFields implements Diagnostics {
+public class PlanarFields implements AsynchronousDiagnostics, Closeable {
 
 	private double timeInterval;
 	private int stepInterval;
@@ -35,6 +34,12 @@ public class PlanarFields implements Diagnostics {
 	private Simulation s;
 	private int numberOfComponents;
 
+	/**
+	 * File format of the output.
+	 */
+	public OutputFormat outputFormat = OutputFormat.Text;
+	private OutputSink sink;
+
 	public PlanarFields(double timeInterval, String outputName, double startingTime, double finalTime, int direction, int planarIndex) {
 		this.timeInterval = timeInterval;
 		this.outputName = outputName;
@@ -46,7 +51,12 @@ public class PlanarFields implements Diagnostics {
 	}
 
 	public void initialize(Simulation s) {
-		FileFunctions.clearFile(outputName);
+		try {
+			close();
+		} catch (IOException ex) {
+			System.out.println("PlanarFields: Error closing file.");
+		}
+		sink = outputFormat.createSink(outputName, false, s.isResumed());
 
 		this.s = s;
 		this.transNumCells = GridFunctions.reduceGridPos(s.grid.getNumCells(), direction);
@@ -61,6 +71,14 @@ public class PlanarFields implements Diagnostics {
 	}
 
 
+	public boolean isMeasurementStep(int steps) {
+		return steps > startingStep && steps < finalStep && steps % stepInterval == 0;
+	}
+
+	public int getRequiredFields() {
+		return FIELD_U | FIELD_E;
+	}
+
 	public void calculate(Grid grid, ArrayList<IParticle> particles, int steps) throws IOException {
 		if(steps > startingStep && steps < finalStep) {
 			if (steps % stepInterval == 0) {
@@ -83,27 +101,17 @@ public class PlanarFields implements Diagnostics {
 					}
 				}
 
-				File file = FileFunctions.getFile(outputName);
-				try {
-					FileWriter pw = new FileWriter(file, true);
-
-					//pw.write(s.getIterations() + "\t" + s.getIterations() * s.getTimeStep() + "\n");
-
-					// Transverse fields
-					for (int i = 0; i < effDimensions-1; i++) {
-						double[][] output = convertToDoubleArray(transverseGaugeFields[i], numberOfComponents);
-						for (int j = 0; j < numberOfComponents; j++) {
-							pw.write(generateTSVString(output[j]) + "\n");
-						}
-					}
-
-					// Longitudinal fields
-					double[][] output = convertToDoubleArray(longitudinalElectricFields, numberOfComponents);
-					for (int j = 0; j < numberOfComponents; j++) {
-						pw.write(generateTSVString(output[j]) + "\n");
-					}
+				// Transverse fields followed by longitudinal fields
+				double[][] rows = new double[effDimensions * numberOfComponents][];
+				for (int i = 0; i < effDimensions-1; i++) {
+					System.arraycopy(convertToDoubleArray(transverseGaugeFields[i], numberOfComponents), 0,
+							rows, i * numberOfComponents, numberOfComponents);
+				}
+				System.arraycopy(convertToDoubleArray(longitudinalElectricFields, numberOfComponents), 0,
+						rows, (effDimensions - 1) * numberOfComponents, numberOfComponents);
 
-					pw.close();
+				try {
+					sink.write(steps * grid.getTemporalSpacing(), rows);
 				} catch (IOException ex) {
 					System.out.println("PlanarFields: Error writing to file.");
 				}
@@ -112,20 +120,8 @@ public class PlanarFields implements Diagnostics {
 		}
 	}
 
-	private String generateTSVString(double[] array) {
-		StringBuilder outputStringBuilder = new StringBuilder();
-		DecimalFormat formatter = new DecimalFormat("0.################E0");
-		for (int i = 0; i < array.length; i++) {
-			outputStringBuilder.append(formatter.format(array[i]));
-			if(i < array.length - 1) {
-				outputStringBuilder.append("\t");
-			}
-		}
-		return outputStringBuilder.toString();
-	}
-
 	private double[][] convertToDoubleArray(AlgebraElement[] array, int numberOfComponents) {
-		double[][] output = new double[3][array.length];
+		double[][] output = new double[numberOfComponents][array.length];
 		for (int i = 0; i < array.length; i++) {
 			AlgebraElement a = array[i];
 			for (int j = 0; j < numberOfComponents; j++) {
@@ -135,4 +131,14 @@ public class PlanarFields implements Diagnostics {
 		return output;
 	}
 
+	/**
+	 * Closes the output file. Called at the end of the simulation.
+	 */
+	public void close() throws IOException {
+		if (sink != null) {
+			OutputSink openSink = sink;
+			sink = null;
+			openSink.close();
+		}
+	}
 }
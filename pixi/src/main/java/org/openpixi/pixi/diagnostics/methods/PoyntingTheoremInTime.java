@@ -48,7 +48,8 @@ public class PoyntingTheoremInTime implements Diagnostics {
 		poyntingTheorem = PoyntingTheoremBuffer.getOrAppendInstance(s);
 		//poyntingTheorem.initialize(s);
 
-		if(!supressOutput) {
+		// A resumed simulation appends to the file written before the checkpoint.
+		if(!supressOutput && !s.isResumed()) {
 			// Create/delete file.
 			FileFunctions.clearFile(path);
 
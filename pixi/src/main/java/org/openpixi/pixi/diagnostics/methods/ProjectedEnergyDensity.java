@@ -1,17 +1,18 @@
 package org.openpixi.pixi.diagnostics.methods;
 
 import org.openpixi.pixi.diagnostics.Diagnostics;
-import org.openpixi.pixi.diagnostics.FileFunctions;
+import org.openpixi.pixi.diagnostics.output.OutputFormat;
+import org.openpixi.pixi.diagnostics.output.OutputSink;
 import org.openpixi.pixi.math.AlgebraElement;
 import org.openpixi.pixi.math.ElementFactory;
 import org.openpixi.pixi.math.GroupElement;
-import org.openpixi.pixi.parallel.cellaccess.CellAction;
+import org.openpixi.pixi.parallel.cellaccess.SliceAction;
+import org.openpixi.pixi.parallel.cellaccess.SliceIterator;
 import org.openpixi.pixi.physics.Simulation;
 import org.openpixi.pixi.physics.grid.Grid;
 import org.openpixi.pixi.physics.particles.IParticle;
 
-import java.io.File;
-import java.io.FileWriter;
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 
@@ -39,8 +40,13 @@ import java.util.ArrayList;
  * 6) longitudinal poynting vector (averaged)
  * 7) longitudinal poynting vector (only time-averaged)
  *
+ * The rows are written in the text or binary format selected by {@link #outputFormat}.
+ *
+ * The lattice is traversed slice by slice with a {@link SliceIterator}, so every longitudinal position is summed up
+ * by a single thread without locks.
+ *
  */
-public class ProjectedEnergyDensity implements Diagnostics {
+public class ProjectedEnergyDensity implements Diagnostics, Closeable {
 
 	private int direction;
 
@@ -50,10 +56,17 @@ public class ProjectedEnergyDensity implements Diagnostics {
 
 	private EnergyDensityComputation energyDensityComputation = new EnergyDensityComputation();
 	private PoyntingComputation poyntingComputation = new PoyntingComputation();
+	private SliceIterator sliceIterator;
 
 	public boolean computeEnergyDensity;
 	public boolean computePoyntingVector;
 
+	/**
+	 * File format of the output.
+	 */
+	public OutputFormat outputFormat = OutputFormat.Text;
+	private OutputSink sink;
+
 
 	public ProjectedEnergyDensity(String path, double timeInterval, int direction) {
 		this.direction = direction;
@@ -63,6 +76,7 @@ public class ProjectedEnergyDensity implements Diagnostics {
 
 	public void initialize(Simulation s) {
 		this.stepInterval = (int) Math.max(Math.round((timeInterval / s.getTimeStep())), 1);
+		this.sliceIterator = new SliceIterator(s.grid, direction);
 
 		if(computeEnergyDensity) {
 			energyDensityComputation.initialize(s.grid, direction);
@@ -71,7 +85,12 @@ public class ProjectedEnergyDensity implements Diagnostics {
 			poyntingComputation.initialize(s.grid, direction);
 		}
 
-		FileFunctions.clearFile(path);
+		try {
+			close();
+		} catch (IOException ex) {
+			System.out.println("ProjectedEnergyDensity: Error closing file.");
+		}
+		sink = outputFormat.createSink(path, true, s.isResumed());
 	}
 
 	public void calculate(Grid grid, ArrayList<IParticle> particles, int steps) throws IOException {
@@ -79,39 +98,47 @@ public class ProjectedEnergyDensity implements Diagnostics {
 
 			if(computeEnergyDensity) {
 				energyDensityComputation.reset();
-				grid.getCellIterator().execute(grid, energyDensityComputation);
+				sliceIterator.execute(grid, energyDensityComputation);
 			}
 
 			if(computePoyntingVector) {
 				poyntingComputation.reset();
-				grid.getCellIterator().execute(grid, poyntingComputation);
+				sliceIterator.execute(grid, poyntingComputation);
 			}
 
 			// Write to file
-			File file = FileFunctions.getFile(path);
+			double[][] rows = new double[(computeEnergyDensity ? 4 : 0) + (computePoyntingVector ? 2 : 0)][];
+			int r = 0;
+			if(computeEnergyDensity) {
+				rows[r++] = energyDensityComputation.energyDensity_T_el;
+				rows[r++] = energyDensityComputation.energyDensity_T_mag;
+				rows[r++] = energyDensityComputation.energyDensity_L_el;
+				rows[r++] = energyDensityComputation.energyDensity_L_mag;
+			}
+			if(computePoyntingVector) {
+				rows[r++] = poyntingComputation.poyntingAveraged;
+				rows[r++] = poyntingComputation.poyntingTimeAveraged;
+			}
 			try {
-				FileWriter pw = new FileWriter(file, true);
-				Double time = steps * grid.getTemporalSpacing();
-				pw.write(time.toString() + "\n");
-				if(computeEnergyDensity) {
-					pw.write(FileFunctions.generateTSVString(energyDensityComputation.energyDensity_T_el) + "\n");
-					pw.write(FileFunctions.generateTSVString(energyDensityComputation.energyDensity_T_mag) + "\n");
-					pw.write(FileFunctions.generateTSVString(energyDensityComputation.energyDensity_L_el) + "\n");
-					pw.write(FileFunctions.generateTSVString(energyDensityComputation.energyDensity_L_mag) + "\n");
-				}
-				if(computePoyntingVector) {
-					pw.write(FileFunctions.generateTSVString(poyntingComputation.poyntingAveraged) + "\n");
-					pw.write(FileFunctions.generateTSVString(poyntingComputation.poyntingTimeAveraged) + "\n");
-				}
-				pw.close();
+				sink.write(steps * grid.getTemporalSpacing(), rows);
 			} catch (IOException ex) {
 				System.out.println("ProjectedEnergyDensity: Error writing to file.");
 			}
 		}
 	}
 
-	// Multithreaded code which leaks memory. I don't know why.
-	private class EnergyDensityComputation implements CellAction {
+	/**
+	 * Closes the output file. Called at the end of the simulation.
+	 */
+	public void close() throws IOException {
+		if (sink != null) {
+			OutputSink openSink = sink;
+			sink = null;
+			openSink.close();
+		}
+	}
+
+	private class EnergyDensityComputation implements SliceAction {
 
 		private int direction;
 		private int numberOfCells;
@@ -145,9 +172,8 @@ public class ProjectedEnergyDensity implements Diagnostics {
 			}
 		}
 
-		public void execute(Grid grid, int index) {
+		public void execute(Grid grid, int index, int slice) {
 			if(grid.isEvaluatable(index)) {
-				int projIndex = grid.getCellPos(index)[direction];
 				// transversal & longitudinal electric energy density
 				double e_T_el = 0.0;
 				double e_L_el = 0.0;
@@ -168,18 +194,17 @@ public class ProjectedEnergyDensity implements Diagnostics {
 					}
 				}
 
-				synchronized (this) {
-					energyDensity_T_el[projIndex] += e_T_el;
-					energyDensity_T_mag[projIndex] += e_T_mag;
-					energyDensity_L_el[projIndex] += e_L_el;
-					energyDensity_L_mag[projIndex] += e_L_mag;
-				}
+				// The slice is owned by the current thread.
+				energyDensity_T_el[slice] += e_T_el;
+				energyDensity_T_mag[slice] += e_T_mag;
+				energyDensity_L_el[slice] += e_L_el;
+				energyDensity_L_mag[slice] += e_L_mag;
 			}
 		}
 	}
 
 
-	private class PoyntingComputation implements CellAction {
+	private class PoyntingComputation implements SliceAction {
 
 		private int direction;
 		private int numberOfDimensions;
@@ -215,7 +240,7 @@ public class ProjectedEnergyDensity implements Diagnostics {
 			}
 		}
 
-		public void execute(Grid grid, int index) {
+		public void execute(Grid grid, int index, int slice) {
 			double localPoyntingAveraged = 0.0;
 			double localPoyntingTimeAveraged = 0.0;
 
@@ -269,13 +294,9 @@ public class ProjectedEnergyDensity implements Diagnostics {
 
 			localPoyntingTimeAveraged = E1.mult(B2) - E2.mult(B1);
 
-			// Add to array.
-			int projIndex = grid.getCellPos(index)[direction];
-			synchronized (this) {
-				this.poyntingAveraged[projIndex] += localPoyntingAveraged;
-				this.poyntingTimeAveraged[projIndex] += localPoyntingTimeAveraged;
-
-			}
+			// Add to array. The slice is owned by the current thread.
+			this.poyntingAveraged[slice] += localPoyntingAveraged;
+			this.poyntingTimeAveraged[slice] += localPoyntingTimeAveraged;
 		}
 	}
 
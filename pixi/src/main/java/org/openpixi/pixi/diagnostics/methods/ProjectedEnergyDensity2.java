@@ -3,7 +3,8 @@ package org.openpixi.pixi.diagnostics.methods;
 import org.openpixi.pixi.diagnostics.Diagnostics;
 import org.openpixi.pixi.diagnostics.FileFunctions;
 import org.openpixi.pixi.math.AlgebraElement;
-import org.openpixi.pixi.parallel.cellaccess.CellAction;
+import org.openpixi.pixi.parallel.cellaccess.SliceAction;
+import org.openpixi.pixi.parallel.cellaccess.SliceIterator;
 import org.openpixi.pixi.physics.Simulation;
 import org.openpixi.pixi.physics.grid.Grid;
 import org.openpixi.pixi.physics.particles.IParticle;
@@ -72,6 +73,12 @@ public class ProjectedEnergyDensity2 implements Diagnostics {
 
 		componentComputation.initialize(s.grid);
 
+		if (s.isResumed()) {
+			// Append to the file written before the checkpoint, which already contains the records up to this step.
+			writes = Math.min(s.totalSimulationSteps / stepInterval + 1, maxWrites);
+			return;
+		}
+
 		FileFunctions.clearFile(path);
 		File file = FileFunctions.getFile(path);
 		writeBinaryHeader(file, s);
@@ -80,7 +87,7 @@ public class ProjectedEnergyDensity2 implements Diagnostics {
 	public void calculate(Grid grid, ArrayList<IParticle> particles, int steps) throws IOException {
 		if(steps % stepInterval == 0 && writes < maxWrites) {
 			componentComputation.reset();
-			grid.getCellIterator().execute(grid, componentComputation);
+			componentComputation.sliceIterator.execute(grid, componentComputation);
 			componentComputation.finalizeArrays(grid);
 
 			// Write to file
@@ -137,11 +144,9 @@ public class ProjectedEnergyDensity2 implements Diagnostics {
 		}
 	}
 
-	private class ComponentComputation implements CellAction {
-		private int numberOfCells;
+	private class ComponentComputation implements SliceAction {
 		private int longitudinalCells;
-		private int[] numCells;
-		private int[] longitudinalIndexArray;
+		private SliceIterator sliceIterator;
 
 		private double[] ET;
 		private double[] BT;
@@ -151,11 +156,9 @@ public class ProjectedEnergyDensity2 implements Diagnostics {
 		private double[] JE;
 
 		public void initialize(Grid grid) {
-			numCells = grid.getNumCells();
-			numberOfCells = grid.getTotalNumberOfCells();
-			longitudinalCells = numCells[0];
-
-			initializeIndexArray(grid);
+			// Every longitudinal position is summed up by a single thread, so no locks are needed.
+			sliceIterator = new SliceIterator(grid, 0);
+			longitudinalCells = sliceIterator.getNumberOfSlices();
 
 			ET = new double[longitudinalCells];
 			BT = new double[longitudinalCells];
@@ -184,9 +187,7 @@ public class ProjectedEnergyDensity2 implements Diagnostics {
 			shiftFields();
 		}
 
-		public void execute(Grid grid, int index) {
-			// Use index array to get longitudinal index.
-			int lindex = longitudinalIndexArray[index];
+		public void execute(Grid grid, int index, int lindex) {
 			if(grid.isEvaluatable(index)) {
 				// Field components
 				int iShiftX = grid.shift(index, 0, 1);
@@ -238,24 +239,13 @@ public class ProjectedEnergyDensity2 implements Diagnostics {
 				AlgebraElement jx = grid.getJ(index, 0);
 				double jInE = jx.mult(Ex);
 
-				// Synchronized write to arrays
-				synchronized (this) {
-					ET[lindex] += EySq + EzSq;
-					BT[lindex] += BySq0 + BzSq0 + BySq1 + BzSq1;
-					EL[lindex] += ExSq;
-					BL[lindex] += BxSq0 + BxSq1;
-					SL[lindex] += SL1 + SL2;
-					JE[lindex] += jInE;
-				}
-			}
-		}
-
-		private void initializeIndexArray(Grid grid) {
-			longitudinalIndexArray = new int[numberOfCells];
-
-			for (int i = 0; i < grid.getTotalNumberOfCells(); i++) {
-				int[] gridPos = grid.getCellPos(i);
-				longitudinalIndexArray[i] = gridPos[0];
+				// Write to arrays, the longitudinal position is owned by the current thread.
+				ET[lindex] += EySq + EzSq;
+				BT[lindex] += BySq0 + BzSq0 + BySq1 + BzSq1;
+				EL[lindex] += ExSq;
+				BL[lindex] += BxSq0 + BxSq1;
+				SL[lindex] += SL1 + SL2;
+				JE[lindex] += jInE;
 			}
 		}
 
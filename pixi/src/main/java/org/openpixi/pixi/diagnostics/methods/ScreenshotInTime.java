@@ -1,7 +1,9 @@
 package org.openpixi.pixi.diagnostics.methods;
 
 import java.awt.Component;
+import java.awt.GraphicsEnvironment;
 import java.awt.image.BufferedImage;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -23,14 +25,26 @@ import org.openpixi.pixi.ui.PanelManager;
 import org.openpixi.pixi.ui.SimulationAnimation;
 import org.openpixi.pixi.ui.panel.AnimationPanel;
 import org.openpixi.pixi.ui.panel.gl.AnimationGLPanel;
+import org.openpixi.pixi.ui.util.raster.PngFrameWriter;
+import org.openpixi.pixi.ui.util.raster.Raster;
+import org.openpixi.pixi.ui.util.raster.RasterRenderer;
 import org.openpixi.pixi.ui.util.yaml.YamlPanels;
 
 import com.jogamp.opengl.util.awt.AWTGLReadBufferUtil;
 
 /**
  * Takes a screenshot of the current simulation at specified times.
+ * <p>
+ * Without a display (or if headless is set) the panel is drawn by a software renderer, see
+ * {@link YamlPanels#createRenderer(SimulationAnimation)}, and the PNG files are encoded on a background thread.
+ * Otherwise the panel is drawn by an offscreen OpenGL drawable.
  */
-public class ScreenshotInTime implements Diagnostics {
+public class ScreenshotInTime implements Diagnostics, Closeable {
+
+	/**
+	 * Number of frames which can be queued for encoding before the simulation has to wait.
+	 */
+	private static final int NUMBER_OF_FRAME_BUFFERS = 3;
 
 	private String path;
 	private double timeInterval;
@@ -41,20 +55,33 @@ public class ScreenshotInTime implements Diagnostics {
 	private int width;
 	private int height;
 	private YamlPanels panel;
+	private boolean headless;
 	private boolean finished;
 
+	private RasterRenderer renderer;
+	private PngFrameWriter frameWriter;
+
 	private AnimationGLPanel animationGLPanel;
 	private Component component;
 
 	GLAutoDrawable glautodrawable;
 
 	public ScreenshotInTime(String path, double timeInterval, double timeOffset, int width, int height, YamlPanels panel) {
+		this(path, timeInterval, timeOffset, width, height, panel, false);
+	}
+
+	/**
+	 * @param headless  Use the software renderer even if a display is available
+	 */
+	public ScreenshotInTime(String path, double timeInterval, double timeOffset, int width, int height, YamlPanels panel,
+							boolean headless) {
 		this.path = path;
 		this.timeInterval = timeInterval;
 		this.timeOffset = timeOffset;
 		this.width = width;
 		this.panel = panel;
 		this.height = height;
+		this.headless = headless;
 	}
 
 	@Override
@@ -62,11 +89,23 @@ public class ScreenshotInTime implements Diagnostics {
 		this.stepInterval = (int) Math.max(Math.round((timeInterval / s.getTimeStep())), 1);
 		this.stepOffset = (int) (timeOffset / s.getTimeStep());
 		this.stepIterations = s.getIterations();
+		try {
+			close();
+		} catch (IOException ex) {
+			System.out.println("ScreenshotInTime: Error writing screenshot.");
+		}
 		finished = false;
 
 		SimulationAnimationDummy simulationAnimationDummy = new SimulationAnimationDummy(s);
 
-		if (panel != null) {
+		if (panel != null && (headless || GraphicsEnvironment.isHeadless())) {
+			renderer = panel.createRenderer(simulationAnimationDummy);
+			if (renderer != null) {
+				frameWriter = new PngFrameWriter(width, height, NUMBER_OF_FRAME_BUFFERS);
+			} else {
+				System.out.println("ScreenshotInTime: This panel can not be drawn without a display. No screenshots are taken.");
+			}
+		} else if (panel != null) {
 			PanelManagerDummy panelManagerDummy = new PanelManagerDummy(null, simulationAnimationDummy);
 			component = panel.inflate(panelManagerDummy);
 
@@ -105,22 +144,28 @@ public class ScreenshotInTime implements Diagnostics {
 		}
 		if ((stepInterval > 0) && (steps - stepOffset >= 0) && ((steps - stepOffset) % stepInterval == 0)) {
 
-			if (animationGLPanel != null) {
+			int counter = steps / stepInterval;
+			String counterString = String.format("%05d", counter);
+			String pathWithNumber = path.replace("{counter}", counterString);
+
+			if (renderer != null) {
+				// Draw in this thread, the encoding happens in the background.
+				Raster raster = frameWriter.acquire();
+				renderer.render(raster);
+				frameWriter.write(raster, FileFunctions.getFile(pathWithNumber));
+			} else if (animationGLPanel != null) {
 				glautodrawable.getContext().makeCurrent();
 
 				animationGLPanel.display(glautodrawable);
 
 				BufferedImage im = new AWTGLReadBufferUtil(glautodrawable.getGLProfile(), true).readPixelsToBufferedImage(glautodrawable.getGL(), 0, 0, width, height, true); 
 
-				int counter = steps / stepInterval;
-				String counterString = String.format("%05d", counter);
-				String pathWithNumber = path.replace("{counter}", counterString);
 				File file = FileFunctions.getFile(pathWithNumber);
 				ImageIO.write(im, "png", file);
 			}
 		}
 		if (steps >= stepIterations - 1) {
-			finished = true;
+			close();
 
 			System.out.println("use: ffmpeg -r 25 -sameq -i img-%05d.png test_1.mov");
 			// Create movie using e.g.
@@ -128,6 +173,19 @@ public class ScreenshotInTime implements Diagnostics {
 		}
 	}
 
+	/**
+	 * Waits until the queued screenshots are written and stops the background thread. Called after the last
+	 * screenshot and at the end of the simulation, which also covers runs that stop early.
+	 */
+	public void close() throws IOException {
+		finished = true;
+		if (frameWriter != null) {
+			PngFrameWriter writer = frameWriter;
+			frameWriter = null;
+			writer.close();
+		}
+	}
+
 	class SimulationAnimationDummy extends SimulationAnimation {
 
 		/**
@@ -49,8 +49,10 @@ public class TimeMeasurement implements Diagnostics {
 		t0 = stept0;
 		long jvmUpTime = ManagementFactory.getRuntimeMXBean().getUptime();
 
-		// Create/delete file.
-		FileFunctions.clearFile(path);
+		// Create/delete file. A resumed simulation appends to the file written before the checkpoint.
+		if (!simulation.isResumed()) {
+			FileFunctions.clearFile(path);
+		}
 
 		// Write first line.
 		File file = FileFunctions.getFile(path);
@@ -0,0 +1,190 @@
+package org.openpixi.pixi.diagnostics.output;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.openpixi.pixi.diagnostics.FileFunctions;
+
+/**
+ * Reads files written by {@link BinaryOutputSink} record by record.
+ * <br>
+ * The main method converts a binary file to the text format of {@link TextOutputSink} (with time lines):
+ * <pre>
+ * java -cp pixi.jar org.openpixi.pixi.diagnostics.output.BinaryOutputReader file.bin &gt; file.dat
+ * </pre>
+ */
+public class BinaryOutputReader {
+
+	private final DataInputStream input;
+	private final boolean compressed;
+	private Inflater inflater;
+
+	private double time;
+	private double[][] rows;
+
+	private byte[] bytes = new byte[0];
+	private byte[] compressedBytes = new byte[0];
+
+	/**
+	 * Opens a binary output file.
+	 *
+	 * @param path  Path of the file (used as is, i.e. not relative to the output folder)
+	 * @throws IOException
+	 */
+	public BinaryOutputReader(String path) throws IOException {
+		input = new DataInputStream(new BufferedInputStream(new FileInputStream(path)));
+		ByteBuffer header = readBytes(12, true);
+		if (header == null || header.getInt() != BinaryOutputSink.MAGIC) {
+			input.close();
+			throw new RuntimeException(path + " is not a binary output file.");
+		}
+		if (header.getInt() != BinaryOutputSink.VERSION) {
+			input.close();
+			throw new RuntimeException("Unsupported binary output version in " + path + ".");
+		}
+		compressed = (header.getInt() & BinaryOutputSink.FLAG_COMPRESSED) != 0;
+	}
+
+	/**
+	 * Reads the next record. The data of the record is available through {@link #getTime()} and {@link #getRows()}.
+	 *
+	 * @return false if the end of the file has been reached
+	 * @throws IOException
+	 */
+	public boolean next() throws IOException {
+		ByteBuffer header = readBytes(BinaryOutputSink.RECORD_HEADER_SIZE, true);
+		if (header == null) {
+			return false;
+		}
+		int numberOfRows = header.getInt();
+		int rowLength = header.getInt();
+		time = header.getDouble();
+
+		int dataSize = 8 * numberOfRows * rowLength;
+		ByteBuffer data;
+		if (compressed) {
+			int length = readBytes(4, false).getInt();
+			data = inflate(length, dataSize);
+		} else {
+			data = readBytes(dataSize, false);
+		}
+
+		rows = new double[numberOfRows][rowLength];
+		for (int i = 0; i < numberOfRows; i++) {
+			data.asDoubleBuffer().get(rows[i]);
+			data.position(data.position() + 8 * rowLength);
+		}
+		return true;
+	}
+
+	/**
+	 * @return time of the current record
+	 */
+	public double getTime() {
+		return time;
+	}
+
+	/**
+	 * @return rows of the current record
+	 */
+	public double[][] getRows() {
+		return rows;
+	}
+
+	public void close() throws IOException {
+		input.close();
+		if (inflater != null) {
+			inflater.end();
+			inflater = null;
+		}
+	}
+
+	private ByteBuffer inflate(int length, int dataSize) throws IOException {
+		if (compressedBytes.length < length) {
+			compressedBytes = new byte[length];
+		}
+		input.readFully(compressedBytes, 0, length);
+		if (bytes.length < dataSize) {
+			bytes = new byte[dataSize];
+		}
+		if (inflater == null) {
+			inflater = new Inflater();
+		}
+		inflater.reset();
+		inflater.setInput(compressedBytes, 0, length);
+		try {
+			int n = 0;
+			while (n < dataSize && !inflater.finished()) {
+				n += inflater.inflate(bytes, n, dataSize - n);
+				if (inflater.needsInput()) {
+					break;
+				}
+			}
+			if (n != dataSize) {
+				throw new EOFException("Truncated record in binary output file.");
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("Corrupt record in binary output file.", e);
+		}
+		return ByteBuffer.wrap(bytes, 0, dataSize).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Reads a number of bytes from the file.
+	 *
+	 * @param size          number of bytes
+	 * @param allowEndOfFile return null instead of throwing an exception if the file ends before the first byte
+	 */
+	private ByteBuffer readBytes(int size, boolean allowEndOfFile) throws IOException {
+		if (bytes.length < size) {
+			bytes = new byte[size];
+		}
+		int n = input.read(bytes, 0, size);
+		if (n < 0 && allowEndOfFile) {
+			return null;
+		}
+		if (n < 0) {
+			throw new EOFException("Unexpected end of binary output file.");
+		}
+		if (n < size) {
+			input.readFully(bytes, n, size - n);
+		}
+		return ByteBuffer.wrap(bytes, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Converts binary output files to text.
+	 *
+	 * @param args  Path of the binary file
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1) {
+			System.err.println("Usage: BinaryOutputReader <file>");
+			System.exit(1);
+		}
+		BinaryOutputReader reader = new BinaryOutputReader(args[0]);
+		PrintStream out = new PrintStream(System.out, false, "UTF-8");
+		StringBuilder builder = new StringBuilder();
+		try {
+			while (reader.next()) {
+				out.println(reader.getTime());
+				for (double[] row : reader.getRows()) {
+					builder.setLength(0);
+					FileFunctions.appendTSVString(builder, row);
+					out.println(builder);
+				}
+			}
+		} finally {
+			reader.close();
+			out.flush();
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package org.openpixi.pixi.diagnostics.output;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.zip.Deflater;
+
+import org.openpixi.pixi.diagnostics.FileFunctions;
+
+/**
+ * Writes records in a compact binary format through a FileChannel. All numbers are little endian.
+ * <pre>
+ * header:  int magic ('PIXB'), int version, int flags (bit 0: records are compressed)
+ * record:  int numberOfRows, int rowLength, double time,
+ *          uncompressed: numberOfRows * rowLength doubles (row by row)
+ *          compressed:   int numberOfBytes, the same doubles compressed with deflate
+ * </pre>
+ * Use {@link BinaryOutputReader} to read the files.
+ */
+public class BinaryOutputSink implements OutputSink {
+
+	static final int MAGIC = 0x50495842;
+	static final int VERSION = 1;
+	static final int FLAG_COMPRESSED = 1;
+
+	static final int RECORD_HEADER_SIZE = 16;
+
+	private final String path;
+	private final boolean compress;
+	private FileChannel channel;
+
+	private ByteBuffer buffer = ByteBuffer.allocate(0);
+	private Deflater deflater;
+	private byte[] compressed = new byte[0];
+
+	/**
+	 * @param path      Output file path
+	 * @param compress  Compress every record with deflate
+	 */
+	public BinaryOutputSink(String path, boolean compress) {
+		this(path, compress, false);
+	}
+
+	/**
+	 * @param path      Output file path
+	 * @param compress  Compress every record with deflate
+	 * @param append    Append records to an existing file instead of replacing it. The existing file has to use the
+	 *                  same compression.
+	 */
+	public BinaryOutputSink(String path, boolean compress, boolean append) {
+		this.path = path;
+		this.compress = compress;
+		if (!append) {
+			FileFunctions.clearFile(path);
+		}
+	}
+
+	public void write(double time, double[][] rows) throws IOException {
+		if (channel == null) {
+			open();
+		}
+
+		int rowLength = (rows.length > 0) ? rows[0].length : 0;
+		int dataSize = 8 * rows.length * rowLength;
+		ByteBuffer data = getBuffer(RECORD_HEADER_SIZE + dataSize);
+		data.putInt(rows.length);
+		data.putInt(rowLength);
+		data.putDouble(time);
+		for (double[] row : rows) {
+			if (row.length != rowLength) {
+				throw new RuntimeException("BinaryOutputSink: all rows of a record need to have the same length.");
+			}
+			data.asDoubleBuffer().put(row);
+			data.position(data.position() + 8 * rowLength);
+		}
+		data.flip();
+
+		if (compress) {
+			writeCompressed(data, dataSize);
+		} else {
+			writeFully(data);
+		}
+	}
+
+	public void close() throws IOException {
+		if (channel != null) {
+			channel.close();
+			channel = null;
+		}
+		if (deflater != null) {
+			deflater.end();
+			deflater = null;
+		}
+	}
+
+	private void open() throws IOException {
+		channel = new FileOutputStream(FileFunctions.getFile(path), true).getChannel();
+		if (channel.size() > 0) {
+			// Appending to an existing file which already has a header.
+			return;
+		}
+		ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(MAGIC);
+		header.putInt(VERSION);
+		header.putInt(compress ? FLAG_COMPRESSED : 0);
+		header.flip();
+		writeFully(header);
+	}
+
+	private void writeCompressed(ByteBuffer data, int dataSize) throws IOException {
+		if (deflater == null) {
+			deflater = new Deflater(Deflater.BEST_SPEED);
+		}
+		deflater.reset();
+		deflater.setInput(data.array(), RECORD_HEADER_SIZE, dataSize);
+		deflater.finish();
+
+		int length = 0;
+		while (!deflater.finished()) {
+			if (length == compressed.length) {
+				byte[] larger = new byte[Math.max(1024, 2 * compressed.length)];
+				System.arraycopy(compressed, 0, larger, 0, length);
+				compressed = larger;
+			}
+			length += deflater.deflate(compressed, length, compressed.length - length);
+		}
+
+		data.limit(RECORD_HEADER_SIZE);
+		writeFully(data);
+		ByteBuffer size = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+		size.putInt(length);
+		size.flip();
+		writeFully(size);
+		writeFully(ByteBuffer.wrap(compressed, 0, length));
+	}
+
+	private ByteBuffer getBuffer(int size) {
+		if (buffer.capacity() < size) {
+			buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		buffer.clear();
+		return buffer;
+	}
+
+	private void writeFully(ByteBuffer data) throws IOException {
+		while (data.hasRemaining()) {
+			channel.write(data);
+		}
+	}
+}
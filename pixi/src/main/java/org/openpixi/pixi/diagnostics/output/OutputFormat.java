@@ -0,0 +1,42 @@
+package org.openpixi.pixi.diagnostics.output;
+
+/**
+ * File formats which can be selected for diagnostics supporting {@link OutputSink}s.
+ */
+public enum OutputFormat {
+	/**
+	 * Tab-separated values in scientific notation, see {@link TextOutputSink}.
+	 */
+	Text,
+
+	/**
+	 * Little endian doubles, see {@link BinaryOutputSink}.
+	 */
+	Binary,
+
+	/**
+	 * Little endian doubles, every record is compressed with deflate, see {@link BinaryOutputSink}.
+	 */
+	CompressedBinary;
+
+	/**
+	 * Creates a sink of this format. An existing file at the path is replaced unless append is set.
+	 *
+	 * @param path  Output file path (relative paths are placed in the output folder, see
+	 *              {@link org.openpixi.pixi.diagnostics.FileFunctions#getFile(String)})
+	 * @param writeTime Write the time of every record to text files. Binary records always contain the time.
+	 * @param append    Append to an existing file, e.g. when a simulation is resumed from a checkpoint
+	 * @return      OutputSink instance
+	 */
+	public OutputSink createSink(String path, boolean writeTime, boolean append) {
+		switch (this) {
+			case Binary:
+				return new BinaryOutputSink(path, false, append);
+			case CompressedBinary:
+				return new BinaryOutputSink(path, true, append);
+			case Text:
+			default:
+				return new TextOutputSink(path, writeTime, append);
+		}
+	}
+}
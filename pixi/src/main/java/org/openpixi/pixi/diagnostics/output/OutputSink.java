@@ -0,0 +1,27 @@
+package org.openpixi.pixi.diagnostics.output;
+
+import java.io.IOException;
+
+/**
+ * Destination for the data written by diagnostics. Every call of {@link #write(double, double[][])} appends one
+ * record, i.e. a block of rows of equal length, to the output. Sinks stay open between records and make each record
+ * visible in the file before write() returns.
+ */
+public interface OutputSink {
+
+	/**
+	 * Appends a record.
+	 *
+	 * @param time  Simulation time of the record
+	 * @param rows  Rows of the record. All rows need to have the same length.
+	 * @throws IOException
+	 */
+	void write(double time, double[][] rows) throws IOException;
+
+	/**
+	 * Closes the underlying file.
+	 *
+	 * @throws IOException
+	 */
+	void close() throws IOException;
+}
@@ -0,0 +1,67 @@
+package org.openpixi.pixi.diagnostics.output;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import org.openpixi.pixi.diagnostics.FileFunctions;
+
+/**
+ * Writes records as text: an optional line with the time followed by one line of tab-separated values per row.
+ * This is the format the diagnostics have always used.
+ */
+public class TextOutputSink implements OutputSink {
+
+	private final String path;
+	private final boolean writeTime;
+	private Writer writer;
+	private StringBuilder builder = new StringBuilder();
+
+	/**
+	 * @param path      Output file path
+	 * @param writeTime Write a line with the time before every record
+	 */
+	public TextOutputSink(String path, boolean writeTime) {
+		this(path, writeTime, false);
+	}
+
+	/**
+	 * @param path      Output file path
+	 * @param writeTime Write a line with the time before every record
+	 * @param append    Append to an existing file instead of replacing it
+	 */
+	public TextOutputSink(String path, boolean writeTime, boolean append) {
+		this.path = path;
+		this.writeTime = writeTime;
+		if (!append) {
+			FileFunctions.clearFile(path);
+		}
+	}
+
+	public void write(double time, double[][] rows) throws IOException {
+		if (writer == null) {
+			writer = new BufferedWriter(new OutputStreamWriter(
+					new FileOutputStream(FileFunctions.getFile(path), true), "UTF-8"));
+		}
+		if (writeTime) {
+			writer.write(Double.toString(time));
+			writer.write('\n');
+		}
+		for (double[] row : rows) {
+			builder.setLength(0);
+			FileFunctions.appendTSVString(builder, row);
+			builder.append('\n');
+			writer.write(builder.toString());
+		}
+		writer.flush();
+	}
+
+	public void close() throws IOException {
+		if (writer != null) {
+			writer.close();
+			writer = null;
+		}
+	}
+}
@@ -13,6 +13,25 @@ public interface AlgebraElement {
 	
 	void addAssign(AlgebraElement a);
 
+	/**
+	 * Adds a multiple of an AlgebraElement instance to the current instance without creating a copy, i.e.
+	 * this = this + factor * a.
+	 *
+	 * @param a         AlgebraElement which is added to the current AlgebraElement instance.
+	 * @param factor    real number which a is multiplied with.
+	 */
+	void addAssign(AlgebraElement a, double factor);
+
+	/**
+	 * Adds a multiple of an algebra element given by its color components (see {@link #get(int)}) to the current
+	 * instance without creating a copy, i.e. this = this + factor * \sum_a components[offset + a] t_a.
+	 *
+	 * @param components    array containing the color components
+	 * @param offset        index of the first component in the array
+	 * @param factor        real number which the components are multiplied with.
+	 */
+	void addAssign(double[] components, int offset, double factor);
+
 	/**
 	 * Subtracts the passed AlgebraElement instance from the current instance and returns the result as a copy.
 	 * This method does not change the original AlgebraElement instance.
@@ -84,6 +103,13 @@ public interface AlgebraElement {
 	 */
 	GroupElement getLink();
 
+	/**
+	 * Same as getLink(), but the group element is written to dest instead of a new GroupElement instance.
+	 *
+	 * @param dest GroupElement instance the exponential map is written to.
+	 */
+	void getLinkInto(GroupElement dest);
+
 	/**
 	 * Returns the projection of the algebra element on to the c'th generator, i.e.
 	 *
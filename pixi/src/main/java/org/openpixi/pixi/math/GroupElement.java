@@ -14,6 +14,16 @@ public interface GroupElement {
 
 	void addAssign(GroupElement a);
 
+	/**
+	 * Adds a multiple of a GroupElement instance to the current instance without creating a copy, i.e.
+	 * this = this + factor * a.
+	 * The result is not a valid SU(n) matrix in general.
+	 *
+	 * @param a         GroupElement which is added to the current GroupElement instance.
+	 * @param factor    real number which a is multiplied with.
+	 */
+	void addAssign(GroupElement a, double factor);
+
 	/**
 	 * Subtracts the passed GroupElement instance from the current instance and returns the result as a copy.
 	 * The result is not a valid SU(n) matrix in general.
@@ -67,6 +77,51 @@ public interface GroupElement {
 
 	void multAssign(GroupElement a);
 
+	/**
+	 * Computes the matrix product this.a and stores the result in dest. No new instances are created.
+	 * The destination has to be a separate instance, i.e. dest must neither be this nor a.
+	 *
+	 * @param a     GroupElement instance used for post-multiplication.
+	 * @param dest  GroupElement instance the result is written to.
+	 */
+	void multInto(GroupElement a, GroupElement dest);
+
+	/**
+	 * Computes the matrix product this.a^\dagger and stores the result in dest. No new instances are created.
+	 * The destination has to be a separate instance, i.e. dest must neither be this nor a.
+	 *
+	 * @param a     GroupElement instance whose hermitian conjugate is used for post-multiplication.
+	 * @param dest  GroupElement instance the result is written to.
+	 */
+	void multAdjInto(GroupElement a, GroupElement dest);
+
+	/**
+	 * Computes the matrix product this^\dagger.a and stores the result in dest. No new instances are created.
+	 * The destination has to be a separate instance, i.e. dest must neither be this nor a.
+	 *
+	 * @param a     GroupElement instance used for post-multiplication.
+	 * @param dest  GroupElement instance the result is written to.
+	 */
+	void adjMultInto(GroupElement a, GroupElement dest);
+
+	/**
+	 * Applies the adjoint action X -> U X U^\dagger of this group element to an algebra element given by its color
+	 * components (see {@link AlgebraElement#get(int)}). The components are overwritten with the result. No new
+	 * instances are created.
+	 *
+	 * @param components    array containing the color components
+	 * @param offset        index of the first component in the array
+	 */
+	void actOnComponents(double[] components, int offset);
+
+	/**
+	 * Same as actOnComponents(), but for the hermitian conjugate of this group element, i.e. X -> U^\dagger X U.
+	 *
+	 * @param components    array containing the color components
+	 * @param offset        index of the first component in the array
+	 */
+	void adjActOnComponents(double[] components, int offset);
+
 	/**
 	 * Returns the exact algebra element of the group element. The algebra element generates the group element
 	 * via the exponential map.
@@ -96,6 +151,13 @@ public interface GroupElement {
 	 */
 	AlgebraElement proj();
 
+	/**
+	 * Same as proj(), but the projection is written to dest instead of a new AlgebraElement instance.
+	 *
+	 * @param dest AlgebraElement instance the projection is written to.
+	 */
+	void projInto(AlgebraElement dest);
+
 	/**
 	 * Returns x'th matrix power of the group element. This works for diagonalizable matrices.
 	 * The most simple implementation of this uses getAlgebraElement() and getLink().
@@ -108,6 +170,42 @@ public interface GroupElement {
 
 	void set(GroupElement a);
 
+	/**
+	 * Sets the j-th parameter of the internal parametrization of the group element, see
+	 * {@link #getNumberOfParameters()}.
+	 *
+	 * @param j     index of the parameter
+	 * @param value new value of the parameter
+	 */
+	void set(int j, double value);
+
+	/**
+	 * Returns the j-th parameter of the internal parametrization of the group element.
+	 *
+	 * @param j index of the parameter
+	 * @return  value of the parameter
+	 */
+	double get(int j);
+
+	/**
+	 * Returns the number of real parameters used to store the group element, e.g. 4 for SU(2) and 18 for SU(3).
+	 * Together with {@link #get(int)} and {@link #set(int, double)} this allows to copy group elements to and from
+	 * primitive storage.
+	 *
+	 * @return number of parameters
+	 */
+	int getNumberOfParameters();
+
+	/**
+	 * Sets all entries of the matrix to zero.
+	 */
+	void setZero();
+
+	/**
+	 * Sets the matrix to the unit matrix.
+	 */
+	void setIdentity();
+
 	GroupElement copy();
 
 	/**
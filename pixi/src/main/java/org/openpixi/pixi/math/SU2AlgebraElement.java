@@ -50,6 +50,24 @@ public class SU2AlgebraElement implements AlgebraElement {
 		
 	}
 	
+	public void addAssign(AlgebraElement arg, double factor) {
+
+		SU2AlgebraElement a = (SU2AlgebraElement) arg;
+
+		v0 += factor * a.v0;
+		v1 += factor * a.v1;
+		v2 += factor * a.v2;
+
+	}
+
+	public void addAssign(double[] components, int offset, double factor) {
+
+		v0 += factor * components[offset];
+		v1 += factor * components[offset + 1];
+		v2 += factor * components[offset + 2];
+
+	}
+
 	public AlgebraElement sub (AlgebraElement arg) {
 
 		SU2AlgebraElement a = (SU2AlgebraElement) arg;
@@ -151,6 +169,23 @@ public class SU2AlgebraElement implements AlgebraElement {
 		return b;
 	}
 
+	public void getLinkInto(GroupElement dest) {
+
+		double sum = v0*v0+v1*v1+v2*v2;
+		double mod = Math.sqrt(sum)/2;
+		double sinfakt;
+		if(mod < 1.E-20) {
+			sinfakt = 0.0;
+		} else {
+			sinfakt = 0.5/mod*Math.sin(mod);
+		}
+		SU2GroupElement b = (SU2GroupElement) dest;
+		b.e0 = Math.cos(mod);
+		b.e1 = v0*sinfakt;
+		b.e2 = v1*sinfakt;
+		b.e3 = v2*sinfakt;
+	}
+
 	public double proj(int c)
 	{
 		return 0.5 * get(c);
@@ -11,7 +11,7 @@ package org.openpixi.pixi.math;
  */
 public class SU2GroupElement implements GroupElement {
 
-	private double e0, e1, e2, e3;
+	protected double e0, e1, e2, e3;
 
 	/**
 	 * Constructs a new SU2GroupElement instance with all parameters set to zero.
@@ -68,6 +68,14 @@ public class SU2GroupElement implements GroupElement {
 		e3 += a.e3;
 	}
 
+	public void addAssign(GroupElement arg, double factor) {
+		SU2GroupElement a = (SU2GroupElement) arg;
+		e0 += factor * a.e0;
+		e1 += factor * a.e1;
+		e2 += factor * a.e2;
+		e3 += factor * a.e3;
+	}
+
 	public GroupElement sub(GroupElement arg) {
 		SU2GroupElement b = (SU2GroupElement) this.copy();
 		b.subAssign(arg);
@@ -97,6 +105,20 @@ public class SU2GroupElement implements GroupElement {
 		e3 = a.e3;
 	}
 
+	public void setZero() {
+		e0 = 0.0;
+		e1 = 0.0;
+		e2 = 0.0;
+		e3 = 0.0;
+	}
+
+	public void setIdentity() {
+		e0 = 1.0;
+		e1 = 0.0;
+		e2 = 0.0;
+		e3 = 0.0;
+	}
+
 	/**
 	 * Sets the j-th parameter to a certain value. These parameters are specific to the group parametrization used by
 	 * SU2GroupElement.
@@ -231,6 +253,60 @@ public class SU2GroupElement implements GroupElement {
 		e3 = f0 * ae3 + e3 * ae0 - f1 * ae2 + f2 * ae1;
 	}
 
+	public void multInto(GroupElement arg, GroupElement dest) {
+		SU2GroupElement a = (SU2GroupElement) arg;
+		SU2GroupElement b = (SU2GroupElement) dest;
+		b.e0 = e0 * a.e0 - e1 * a.e1 - e2 * a.e2 - e3 * a.e3;
+		b.e1 = e0 * a.e1 + e1 * a.e0 - e2 * a.e3 + e3 * a.e2;
+		b.e2 = e0 * a.e2 + e2 * a.e0 - e3 * a.e1 + e1 * a.e3;
+		b.e3 = e0 * a.e3 + e3 * a.e0 - e1 * a.e2 + e2 * a.e1;
+	}
+
+	public void multAdjInto(GroupElement arg, GroupElement dest) {
+		SU2GroupElement a = (SU2GroupElement) arg;
+		SU2GroupElement b = (SU2GroupElement) dest;
+		b.e0 = e0 * a.e0 + e1 * a.e1 + e2 * a.e2 + e3 * a.e3;
+		b.e1 = - e0 * a.e1 + e1 * a.e0 + e2 * a.e3 - e3 * a.e2;
+		b.e2 = - e0 * a.e2 + e2 * a.e0 + e3 * a.e1 - e1 * a.e3;
+		b.e3 = - e0 * a.e3 + e3 * a.e0 + e1 * a.e2 - e2 * a.e1;
+	}
+
+	public void adjMultInto(GroupElement arg, GroupElement dest) {
+		SU2GroupElement a = (SU2GroupElement) arg;
+		SU2GroupElement b = (SU2GroupElement) dest;
+		b.e0 = e0 * a.e0 + e1 * a.e1 + e2 * a.e2 + e3 * a.e3;
+		b.e1 = e0 * a.e1 - e1 * a.e0 + e2 * a.e3 - e3 * a.e2;
+		b.e2 = e0 * a.e2 - e2 * a.e0 + e3 * a.e1 - e1 * a.e3;
+		b.e3 = e0 * a.e3 - e3 * a.e0 + e1 * a.e2 - e2 * a.e1;
+	}
+
+	public void actOnComponents(double[] components, int offset) {
+		rotateComponents(components, offset, -1.0);
+	}
+
+	public void adjActOnComponents(double[] components, int offset) {
+		rotateComponents(components, offset, 1.0);
+	}
+
+	/**
+	 * The adjoint action of U = e_0 + i e_i \sigma_i is a rotation of the color components,
+	 *
+	 *      v -> (e_0^2 - e.e) v + 2 (e.v) e + 2 sign e_0 (e x v),
+	 *
+	 * with sign = -1 for U X U^\dagger and sign = +1 for U^\dagger X U.
+	 */
+	private void rotateComponents(double[] c, int offset, double sign) {
+		double v0 = c[offset];
+		double v1 = c[offset + 1];
+		double v2 = c[offset + 2];
+		double a = e0 * e0 - e1 * e1 - e2 * e2 - e3 * e3;
+		double b = 2 * (e1 * v0 + e2 * v1 + e3 * v2);
+		double d = 2 * sign * e0;
+		c[offset] = a * v0 + b * e1 + d * (e2 * v2 - e3 * v1);
+		c[offset + 1] = a * v1 + b * e2 + d * (e3 * v0 - e1 * v2);
+		c[offset + 2] = a * v2 + b * e3 + d * (e1 * v1 - e2 * v0);
+	}
+
 	public AlgebraElement getAlgebraElement()
 	{
 		double norm = 0.0;
@@ -262,6 +338,13 @@ public class SU2GroupElement implements GroupElement {
 		return field;
 	}
 
+	public void projInto(AlgebraElement dest) {
+		SU2AlgebraElement field = (SU2AlgebraElement) dest;
+		field.v0 = 2 * this.e1;
+		field.v1 = 2 * this.e2;
+		field.v2 = 2 * this.e3;
+	}
+
 	public double getRealTrace() {
 		return 2*e0;
 	}
@@ -288,4 +371,6 @@ public class SU2GroupElement implements GroupElement {
 	public int getNumberOfColors() {return 2;}
 
 	public int getAdjointDimension() {return 3;}
+
+	public int getNumberOfParameters() {return 4;}
 }
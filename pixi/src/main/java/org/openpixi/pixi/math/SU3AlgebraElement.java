@@ -11,17 +11,6 @@ package org.openpixi.pixi.math;
  */
 public class SU3AlgebraElement implements AlgebraElement {
 
-	// thresholds for getLink method to use Taylor series
-	private final double degeneracyCutoff = 1.E-2;
-	private final double zeroCutoff = 1.E-0;
-
-	// number of iterations to use in Taylor series for each case
-	private final int taylorSeriesZeroIterations = 15;
-	private final int taylorSeriesDegenerateIterations = 25;
-
-	// threshold to determine zero vectors in normalize method
-	private final double normalizationAccuracy = 1.E-12;
-
 	protected double[] v;
 
 	public SU3AlgebraElement() {
@@ -78,6 +67,46 @@ public class SU3AlgebraElement implements AlgebraElement {
 
 	}
 
+	public void addAssign(AlgebraElement arg, double factor) {
+
+		double[] a = ((SU3AlgebraElement) arg).v;
+
+		for (int i = 0; i < 9; i++) {
+			v[i] += factor * a[i];
+		}
+
+	}
+
+	public void addAssign(double[] components, int offset, double factor) {
+
+		addComponents(v, 0, components, offset, factor);
+
+	}
+
+	/**
+	 * Adds factor * \sum_a c_a t_a, where c_a are color components as returned by {@link #get(int)}, to an algebra
+	 * element stored in the parametrization of this class.
+	 *
+	 * @param v             array containing the parametrization of the algebra element
+	 * @param vOffset       index of the first parameter
+	 * @param components    array containing the color components
+	 * @param offset        index of the first component
+	 * @param factor        real number which the components are multiplied with
+	 */
+	public static void addComponents(double[] v, int vOffset, double[] components, int offset, double factor) {
+		double half = 0.5 * factor;
+		double diagonal = half * components[offset + 7] / Math.sqrt(3);
+		v[vOffset] += half * components[offset + 2] + diagonal;
+		v[vOffset + 1] += half * components[offset];
+		v[vOffset + 2] += half * components[offset + 3];
+		v[vOffset + 3] += half * components[offset + 1];
+		v[vOffset + 4] += -half * components[offset + 2] + diagonal;
+		v[vOffset + 5] += half * components[offset + 5];
+		v[vOffset + 6] += half * components[offset + 4];
+		v[vOffset + 7] += half * components[offset + 6];
+		v[vOffset + 8] -= 2 * diagonal;
+	}
+
 	public AlgebraElement sub (AlgebraElement arg) {
 
 		SU3AlgebraElement a = (SU3AlgebraElement) arg;
@@ -210,210 +239,22 @@ public class SU3AlgebraElement implements AlgebraElement {
 
 	}
 
-	/**
-	 * Normalizes (complex) vector in place
-	 * Vector is stored as three real components followed by three imag. components
-	 * @param vector to be normalized
-	 */
-	private boolean normalize(double[] vector) {
-		double norm = 0;
-		for (int i = 0; i < 6; i++) {
-			norm += vector[i] * vector[i];
-		}
-		norm = Math.sqrt(norm);
-
-		if (Math.abs(norm) < normalizationAccuracy) {
-			return false;
-		} else {
-			for (int i = 0; i < 6; i++) {
-				vector[i] /= norm;
-			}
-			return true;
-		}
-	}
-
-	/**
-	 * Calculates the group element by first eigendecomposing into UDU* and then finding exp D
-	 * WARNING: This decomposition only works for traceless hermitian matrices due to certain optimizations
-	 * @return coefficients to be fed into SU3GroupElement to give group element
-	 */
-	private double[] groupElementDecompositionMethod() {
-		// trace of matrix squared, using square method
-		double trSq = square() / 2;
-
-		// if matrix is too small, use taylor series for better accuracy
-		if (trSq <= zeroCutoff) {
-			return new double[]{taylorSeriesZeroIterations};
-		}
-
-		// real determinant
-		double det = -v[2]*v[2]*v[4]+v[6]*(2*v[3]*v[5]-v[4]*v[6]+2*v[1]*v[7])+2*v[2]*(v[1]*v[5]-v[3]*v[7])-
-				(v[1]*v[1]+v[3]*v[3])*v[8]-v[0]*(v[5]*v[5]+v[7]*v[7]-v[4]*v[8]);
-
-		// coefficients in reduced cubic equation
-		// \lambda = X
-		// X^3 - X * 1/2 tr(U^2) - det(U) == 0
-		double linTerm = -trSq/2;
-
-		// cubic is now in form X^3 + p X + q == 0
-		// transform to W^6 + q W^3 - 1/27 p^3 == 0
-		// then W^3 == (-q + sqrt(q^2 + 4/27 p^3))/2
-		// (pick positive solution)
-		// preRad is always negative and real here so rad = i radIm = i sqrt(-preRad)
-		double preRad, radIm;
-		preRad = det*det + Math.pow(linTerm,3)*4/27;
-		if (preRad > 0) {
-			preRad = 0;
-		}
-		radIm = Math.sqrt(-preRad);
-
-		// convert W^3 to polar
-		double preOmegaRe, preOmegaIm, r, th;
-		preOmegaRe = det/2;
-		preOmegaIm = radIm/2;
-		th = Math.atan2(preOmegaIm, preOmegaRe);
-		r = Math.pow(preOmegaRe * preOmegaRe + preOmegaIm * preOmegaIm, 1. / 6);
-
-		// three angles of cube roots of W^3
-		double[] ths = new double[3];
-		for (int i = 0; i < 3; i++) {
-			ths[i] = (th + 2 * Math.PI * i) / 3;
-		}
-
-		// the end is near!
-		// X_i = W_i - p / (3 W_i)
-		// then \lambda_i = X_i
-		// this gives us the real eigenvalues to high precision
-		// (these matrices are hermitian, so eigenvalues better be real)
-		double[] phases = new double[3];
-		for (int i = 0; i < 3; i++) {
-			if (Math.abs(r) == 0) {
-				phases[i] = 0;
-			} else {
-				phases[i] = r * Math.cos(ths[i]) - (linTerm * Math.cos(ths[i])) / (3 * r);
-			}
-		}
-
-		// now use eigenvalues to compute orthonormal eigenvectors
-		// (U - \lambda_i)(U - \lambda_j) has columns that are eigenvectors for the remaining eigenvalue \lambda_k
-		// we use this result, but we only need one column so we can avoid doing the full multiplication
-		// optimized result computed in Mathematica, of course
-
-		// if there are degenerate eigenvalues, use taylor series
-		if (Math.abs(1 - phases[0] / phases[1]) < degeneracyCutoff) {
-			return new double[]{taylorSeriesDegenerateIterations};
-		} else if (Math.abs(1 - phases[0] / phases[2]) < degeneracyCutoff) {
-			return new double[]{taylorSeriesDegenerateIterations};
-		} else if (Math.abs(1 - phases[1] / phases[2]) < degeneracyCutoff) {
-			return new double[]{taylorSeriesDegenerateIterations};
-		}
-
-		// get one eigenvector for each value
-		// normalize vectors in place
-		double[][] vectors = new double[3][6];
-		for (int i = 0; i < 3; i++) {
-			// product of other two phases besides phases[i]
-			double otherPhaseProduct = phases[(i + 1) % 3] * phases[(i + 2) % 3];
-			// sum of other two phases besides phases[i]
-			double otherPhaseSum = phases[0] + phases[1] + phases[2] - phases[i];
-
-			vectors[i][0] = v[0]*v[0]+v[1]*v[1]+v[2]*v[2]+v[3]*v[3]+v[6]*v[6]+otherPhaseProduct-v[0]*otherPhaseSum;
-			vectors[i][1] = v[2]*v[5]+v[6]*v[7]+v[1]*(v[0]+v[4]-otherPhaseSum);
-			vectors[i][2] = v[1]*v[5]-v[3]*v[7]+v[2]*(v[0]+v[8]-otherPhaseSum);
-			vectors[i][3] = 0;
-			vectors[i][4] = v[5]*v[6]-v[2]*v[7]+v[3]*(v[0]+v[4]-otherPhaseSum);
-			vectors[i][5] = v[3]*v[5]+v[1]*v[7]+v[6]*(v[0]+v[8]-otherPhaseSum);
-
-			boolean done = normalize(vectors[i]);
-
-			if (!done) {
-				vectors[i][0] = v[2]*v[5]+v[6]*v[7]+v[1]*(v[0]+v[4]-otherPhaseSum);
-				vectors[i][1] = v[1]*v[1]+v[3]*v[3]+v[4]*v[4]+v[5]*v[5]+v[7]*v[7]+otherPhaseProduct-v[4]*otherPhaseSum;
-				vectors[i][2] = v[1]*v[2]+v[3]*v[6]+v[5]*(v[4]+v[8]-otherPhaseSum);
-				vectors[i][3] = v[2]*v[7]-v[5]*v[6]-v[3]*(v[0]+v[4]-otherPhaseSum);
-				vectors[i][4] = 0;
-				vectors[i][5] = v[1]*v[6]-v[2]*v[3]+v[7]*(v[4]+v[8]-otherPhaseSum);
-
-				done = normalize(vectors[i]);
-
-				if (!done) {
-					vectors[i][0] = v[1]*v[5]-v[3]*v[7]+v[2]*(v[0]+v[8]-otherPhaseSum);
-					vectors[i][1] = v[1]*v[2]+v[3]*v[6]+v[5]*(v[4]+v[8]-otherPhaseSum);
-					vectors[i][2] = v[2]*v[2]+v[5]*v[5]+v[6]*v[6]+v[7]*v[7]+v[8]*v[8]+otherPhaseProduct-v[8]*otherPhaseSum;
-					vectors[i][3] = -v[3]*v[5]-v[1]*v[7]-v[6]*(v[0]+v[8]-otherPhaseSum);
-					vectors[i][4] = -v[1]*v[6]+v[2]*v[3]-v[7]*(v[4]+v[8]-otherPhaseSum);
-					vectors[i][5] = 0;
-
-					done = normalize(vectors[i]);
-
-					if (!done) {
-						for (int j = 0; j < 6; j++) {
-							vectors[i][j] = 0;
-						}
-						vectors[i][i] = 1;
-					}
-				}
-			}
-		}
-
-		// take log of eigenvalue matrix
-		double[] valuesRe = new double[3];
-		double[] valuesIm = new double[3];
-		for (int i = 0; i < 3; i++) {
-			valuesRe[i] = Math.cos(phases[i]);
-			valuesIm[i] = Math.sin(phases[i]);
-		}
-
-		// multiply U exp(D) U* to get algebra element
-		// exp(D) is just a (complex) diagonal matrix
-		SU3GroupElement unit = new SU3GroupElement(new double[]{vectors[0][0],vectors[1][0],vectors[2][0],
-		                                                        vectors[0][1],vectors[1][1],vectors[2][1],
-		                                                        vectors[0][2],vectors[1][2],vectors[2][2],
-		                                                        vectors[0][3],vectors[1][3],vectors[2][3],
-		                                                        vectors[0][4],vectors[1][4],vectors[2][4],
-		                                                        vectors[0][5],vectors[1][5],vectors[2][5]});
-		SU3GroupElement diag = new SU3GroupElement(new double[]{valuesRe[0],0,0,
-		                                                        0,valuesRe[1],0,
-		                                                        0,0,valuesRe[2],
-		                                                        valuesIm[0],0,0,
-		                                                        0,valuesIm[1],0,
-		                                                        0,0,valuesIm[2]});
-		return ((SU3GroupElement) unit.mult(diag).mult(unit.adj())).get();
-	}
-
-	/**
-	 * Calculates the group element using the taylor series expansion of exp.
-	 * WARNING: This decomposition only works well for "small" matrices!
-	 * @return coefficients to be fed into SU3GroupElement to give group element
-	 */
-	private double[] groupElementTaylorSeries(double iterations) {
-		SU3GroupElement result = new SU3GroupElement(new double[]{1,0,0,0,1,0,0,0,1,0,0,0,0,0,0,0,0,0});
-		SU3GroupElement intermediate = new SU3GroupElement(new double[]{1,0,0,0,1,0,0,0,1,0,0,0,0,0,0,0,0,0});
-		SU3GroupElement multiplier = new SU3GroupElement(new double[]{0,v[3],v[6],-v[3],0,v[7],-v[6],-v[7],0,v[0],v[1],v[2],v[1],v[4],v[5],v[2],v[5],v[8]});
-
-		for (int i = 1; i <= iterations; i++) {
-			intermediate = (SU3GroupElement) intermediate.mult(multiplier).mult(1.0 / i);
-			result = (SU3GroupElement) result.add(intermediate);
-		}
-
-		return result.get();
-	}
-
 	public GroupElement getLinearizedLink() {
 		double[] values = new double[]{1,v[3],v[6],-v[3],1,v[7],-v[6],-v[7],1,v[0],v[1],v[2],v[1],v[4],v[5],v[2],v[5],v[8]};
 		return new SU3GroupElement(values);
 	}
 
+	/**
+	 * Computes the group element exp(i H) with the closed-form expressions of {@link SU3Exponential}.
+	 */
 	public GroupElement getLink() {
-		// try exact method
-		double[] values = groupElementDecompositionMethod();
-
-		// if values has length 1 the exact method failed and values[0] is the requried taylorSeriesIterations
-		if (values.length == 1) {
-			values = groupElementTaylorSeries(values[0]);
-		}
+		SU3GroupElement result = new SU3GroupElement();
+		SU3Exponential.exp(v, 0, 1.0, result.e);
+		return result;
+	}
 
-		return new SU3GroupElement(values);
+	public void getLinkInto(GroupElement dest) {
+		SU3Exponential.exp(v, 0, 1.0, ((SU3GroupElement) dest).e);
 	}
 
 	public double proj(int c) {
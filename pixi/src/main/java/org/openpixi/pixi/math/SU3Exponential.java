@@ -0,0 +1,429 @@
+package org.openpixi.pixi.math;
+
+/**
+ * Closed-form exponential and logarithm of SU(3) matrices based on the Cayley-Hamilton theorem.
+ * <p>
+ * Every traceless Hermitian 3x3 matrix H satisfies H^3 = c1 H + c0 with c0 = det H and c1 = tr(H^2) / 2, so that
+ * exp(iH) = f0 + f1 H + f2 H^2. The complex coefficients f0, f1 and f2 only depend on c0 and c1 and are evaluated
+ * with the expressions of Morningstar and Peardon, Phys. Rev. D 69 (2004) 054501. For small c1 the closed-form
+ * expressions suffer from cancellations and the coefficients are summed from the exponential series instead, using
+ * the Cayley-Hamilton theorem to reduce the powers of H.
+ * <p>
+ * The logarithm obtains the eigenvalues sin(phi) of (U - U^dagger) / 2i from the trigonometric solution of the
+ * characteristic polynomial and recovers the phases phi of the eigenvalues of U from the trace and the determinant.
+ * The coefficients f_j of these phases relate U and U^dagger to H and H^2, which is solved for H.
+ * <p>
+ * All methods work directly on the parameter arrays of {@link SU3AlgebraElement} and {@link SU3GroupElement} and do
+ * not allocate any temporary objects.
+ */
+final class SU3Exponential {
+
+	// below this value of c1 = tr(H^2) / 2 the coefficients f_j are computed from the exponential series
+	private static final double SERIES_CUTOFF = 1.0;
+
+	// inverse factorials 1 / n! for the exponential series (sufficient for |eigenvalues| <= 2 sqrt(SERIES_CUTOFF / 3))
+	private static final double[] INVERSE_FACTORIALS = new double[22];
+
+	// the exponential series is truncated once the terms drop below this value
+	private static final double SERIES_ACCURACY = 1.E-18;
+
+	private static final double SQRT3 = Math.sqrt(3);
+
+	// below this value of w the function sin(w) / w is evaluated from its Taylor series
+	private static final double XI_CUTOFF = 5.E-2;
+
+	// phases with |cos(phi)| below this value (or pairs of sines closer than this value) are refined using the trace
+	private static final double REFINEMENT_CUTOFF = 1.E-1;
+
+	// minimal determinant of the refinement equations (nearly degenerate phases need no refinement)
+	private static final double REFINEMENT_DETERMINANT_CUTOFF = 1.E-6;
+
+	static {
+		INVERSE_FACTORIALS[0] = 1;
+		for (int n = 1; n < INVERSE_FACTORIALS.length; n++) {
+			INVERSE_FACTORIALS[n] = INVERSE_FACTORIALS[n - 1] / n;
+		}
+	}
+
+	private SU3Exponential() {
+	}
+
+	/**
+	 * Computes the group element exp(i x H) for the Hermitian traceless matrix H.
+	 * The algebra element may be stored in the same array as the result since it is read before any
+	 * value is written.
+	 *
+	 * @param v      Array containing H as in SU3AlgebraElement
+	 * @param offset Offset of H within v
+	 * @param x      Factor x
+	 * @param e      Array for the result as in SU3GroupElement
+	 */
+	static void exp(double[] v, int offset, double x, double[] e) {
+		double h0 = x * v[offset];
+		double h1 = x * v[offset + 1];
+		double h2 = x * v[offset + 2];
+		double h3 = x * v[offset + 3];
+		double h4 = x * v[offset + 4];
+		double h5 = x * v[offset + 5];
+		double h6 = x * v[offset + 6];
+		double h7 = x * v[offset + 7];
+		double h8 = x * v[offset + 8];
+
+		double c1 = (h0 * h0 + h4 * h4 + h8 * h8) / 2 + h1 * h1 + h2 * h2 + h3 * h3 + h5 * h5 + h6 * h6 + h7 * h7;
+		double c0 = det(h0, h1, h2, h3, h4, h5, h6, h7, h8);
+
+		// f0, f1 and f2 are temporarily stored in the result array
+		computeCoefficients(c0, c1, e, 0);
+		double f0r = e[0];
+		double f0i = e[1];
+		double f1r = e[2];
+		double f1i = e[3];
+		double f2r = e[4];
+		double f2i = e[5];
+
+		// H^2 is Hermitian as well
+		double q00 = h0 * h0 + h1 * h1 + h2 * h2 + h3 * h3 + h6 * h6;
+		double q11 = h1 * h1 + h3 * h3 + h4 * h4 + h5 * h5 + h7 * h7;
+		double q22 = h2 * h2 + h5 * h5 + h6 * h6 + h7 * h7 + h8 * h8;
+		double q01r = (h0 + h4) * h1 + h2 * h5 + h6 * h7;
+		double q01i = -(h0 + h4) * h3 + h2 * h7 - h5 * h6;
+		double q02r = (h0 + h8) * h2 + h1 * h5 - h3 * h7;
+		double q02i = -(h0 + h8) * h6 - h1 * h7 - h3 * h5;
+		double q12r = (h4 + h8) * h5 + h1 * h2 + h3 * h6;
+		double q12i = -(h4 + h8) * h7 + h2 * h3 - h1 * h6;
+
+		// exp(iH) = f0 + f1 H + f2 H^2
+		e[0] = f0r + f1r * h0 + f2r * q00;
+		e[9] = f0i + f1i * h0 + f2i * q00;
+		e[4] = f0r + f1r * h4 + f2r * q11;
+		e[13] = f0i + f1i * h4 + f2i * q11;
+		e[8] = f0r + f1r * h8 + f2r * q22;
+		e[17] = f0i + f1i * h8 + f2i * q22;
+		setOffDiagonal(e, 1, 3, f1r, f1i, f2r, f2i, h1, -h3, q01r, q01i);
+		setOffDiagonal(e, 2, 6, f1r, f1i, f2r, f2i, h2, -h6, q02r, q02i);
+		setOffDiagonal(e, 5, 7, f1r, f1i, f2r, f2i, h5, -h7, q12r, q12i);
+	}
+
+	/**
+	 * Computes the Hermitian traceless matrix H = -i log(U) of the special unitary matrix U.
+	 *
+	 * @param e      Array containing U as in SU3GroupElement
+	 * @param v      Array for the result as in SU3AlgebraElement
+	 * @param offset Offset of the result within v
+	 */
+	static void log(double[] e, double[] v, int offset) {
+		// A = (U - U^dagger) / 2i has the eigenvalues sin(phi_k)
+		double a0 = e[9];
+		double a4 = e[13];
+		double a8 = e[17];
+		double a1 = (e[10] + e[12]) / 2;
+		double a2 = (e[11] + e[15]) / 2;
+		double a5 = (e[14] + e[16]) / 2;
+		double a3 = (e[1] - e[3]) / 2;
+		double a6 = (e[2] - e[6]) / 2;
+		double a7 = (e[5] - e[7]) / 2;
+
+		// trigonometric solution of the characteristic polynomial of the traceless part of A
+		double m = (a0 + a4 + a8) / 3;
+		a0 -= m;
+		a4 -= m;
+		a8 -= m;
+		double p = (a0 * a0 + a4 * a4 + a8 * a8) / 6 + (a1 * a1 + a2 * a2 + a3 * a3 + a5 * a5 + a6 * a6 + a7 * a7) / 3;
+		double s0 = m;
+		double s1 = m;
+		double s2 = m;
+		if (p > 0) {
+			double sqrtP = Math.sqrt(p);
+			double r = det(a0, a1, a2, a3, a4, a5, a6, a7, a8) / (2 * p * sqrtP);
+			double angle = Math.acos(Math.max(-1.0, Math.min(1.0, r))) / 3;
+			// cos(angle +- 2 pi / 3) = -cos(angle) / 2 -+ sqrt(3) sin(angle) / 2
+			double cosAngle = sqrtP * Math.cos(angle);
+			double sinAngle = SQRT3 * sqrtP * Math.sin(angle);
+			s0 += 2 * cosAngle;
+			s1 -= cosAngle + sinAngle;
+			s2 -= cosAngle - sinAngle;
+		}
+		s0 = Math.max(-1.0, Math.min(1.0, s0));
+		s1 = Math.max(-1.0, Math.min(1.0, s1));
+		s2 = Math.max(-1.0, Math.min(1.0, s2));
+		double k0 = Math.sqrt((1 - s0) * (1 + s0));
+		double k1 = Math.sqrt((1 - s1) * (1 + s1));
+		double k2 = Math.sqrt((1 - s2) * (1 + s2));
+
+		// choose the signs of cos(phi_k) which reproduce the trace and the determinant of U
+		double trRe = e[0] + e[4] + e[8];
+		double trIm = e[9] + e[13] + e[17];
+		int bestSigns = 0;
+		double bestError = Double.MAX_VALUE;
+		for (int signs = 0; signs < 8; signs++) {
+			double c0 = ((signs & 1) == 0) ? k0 : -k0;
+			double c1 = ((signs & 2) == 0) ? k1 : -k1;
+			double c2 = ((signs & 4) == 0) ? k2 : -k2;
+			double productRe = c0 * c1 - s0 * s1;
+			double productIm = c0 * s1 + s0 * c1;
+			double detRe = productRe * c2 - productIm * s2 - 1;
+			double detIm = productRe * s2 + productIm * c2;
+			double traceRe = c0 + c1 + c2 - trRe;
+			double error = traceRe * traceRe + detRe * detRe + detIm * detIm;
+			if (error < bestError) {
+				bestError = error;
+				bestSigns = signs;
+			}
+		}
+		double c0 = ((bestSigns & 1) == 0) ? k0 : -k0;
+		double c1 = ((bestSigns & 2) == 0) ? k1 : -k1;
+		double c2 = ((bestSigns & 4) == 0) ? k2 : -k2;
+		double phi0 = Math.atan2(s0, c0);
+		double phi1 = Math.atan2(s1, c1);
+		double phi2 = Math.atan2(s2, c2);
+
+		// the phases add up to a multiple of 2 pi; shift the largest (or smallest) phase to make H traceless
+		double phaseSum = phi0 + phi1 + phi2;
+		if (phaseSum > Math.PI) {
+			if (phi0 >= phi1 && phi0 >= phi2) {
+				phi0 -= 2 * Math.PI;
+			} else if (phi1 >= phi2) {
+				phi1 -= 2 * Math.PI;
+			} else {
+				phi2 -= 2 * Math.PI;
+			}
+		} else if (phaseSum < -Math.PI) {
+			if (phi0 <= phi1 && phi0 <= phi2) {
+				phi0 += 2 * Math.PI;
+			} else if (phi1 <= phi2) {
+				phi1 += 2 * Math.PI;
+			} else {
+				phi2 += 2 * Math.PI;
+			}
+		}
+
+		// arcsin is ill-conditioned for |cos(phi)| close to zero, so the least accurate phase is fixed by the
+		// vanishing sum of all phases
+		double abs0 = Math.abs(c0);
+		double abs1 = Math.abs(c1);
+		double abs2 = Math.abs(c2);
+		if (abs0 <= abs1 && abs0 <= abs2) {
+			phi0 = -phi1 - phi2;
+		} else if (abs1 <= abs2) {
+			phi1 = -phi0 - phi2;
+		} else {
+			phi2 = -phi0 - phi1;
+		}
+
+		// Two phases are inaccurate if both have a small |cos(phi)| or if their sines are nearly degenerate while the
+		// cosines have opposite signs (the trigonometric solution only resolves the sum of degenerate eigenvalues).
+		// They are refined with Newton's method on tr U = sum_k exp(i phi_k).
+		int inaccuratePhases = (abs0 < REFINEMENT_CUTOFF ? 1 : 0) + (abs1 < REFINEMENT_CUTOFF ? 1 : 0)
+				+ (abs2 < REFINEMENT_CUTOFF ? 1 : 0);
+		boolean refine = inaccuratePhases > 1 || isOppositePair(s0, c0, s1, c1) || isOppositePair(s0, c0, s2, c2)
+				|| isOppositePair(s1, c1, s2, c2);
+		for (int iteration = 0; refine && iteration < 2; iteration++) {
+			double cos0 = Math.cos(phi0);
+			double cos1 = Math.cos(phi1);
+			double cos2 = Math.cos(phi2);
+			double sin0 = Math.sin(phi0);
+			double sin1 = Math.sin(phi1);
+			double sin2 = Math.sin(phi2);
+			double fRe = cos0 + cos1 + cos2 - trRe;
+			double fIm = sin0 + sin1 + sin2 - trIm;
+			// derivatives with respect to phi0 and phi1 at fixed phi0 + phi1 + phi2
+			double j00 = sin2 - sin0;
+			double j01 = sin2 - sin1;
+			double j10 = cos0 - cos2;
+			double j11 = cos1 - cos2;
+			double jacobian = j00 * j11 - j01 * j10;
+			if (Math.abs(jacobian) < REFINEMENT_DETERMINANT_CUTOFF) {
+				break;
+			}
+			double d0 = (j01 * fIm - j11 * fRe) / jacobian;
+			double d1 = (j10 * fRe - j00 * fIm) / jacobian;
+			phi0 += d0;
+			phi1 += d1;
+			phi2 -= d0 + d1;
+		}
+
+		// f0, f1 and f2 of exp(iH) are temporarily stored in the result array. With the eigenvalues 2u, -u + w and
+		// -u - w of H (or -H for negative determinants) already known, the closed-form expressions need no arccos.
+		double detH = phi0 * phi1 * phi2;
+		double halfTraceSquare = (phi0 * phi0 + phi1 * phi1 + phi2 * phi2) / 2;
+		if (halfTraceSquare < SERIES_CUTOFF) {
+			computeSeriesCoefficients(detH, halfTraceSquare, v, offset);
+		} else {
+			double sign = (detH < 0) ? -1 : 1;
+			double u, w;
+			if (sign * phi0 >= sign * phi1 && sign * phi0 >= sign * phi2) {
+				u = sign * phi0 / 2;
+				w = Math.abs(phi1 - phi2) / 2;
+			} else if (sign * phi1 >= sign * phi2) {
+				u = sign * phi1 / 2;
+				w = Math.abs(phi0 - phi2) / 2;
+			} else {
+				u = sign * phi2 / 2;
+				w = Math.abs(phi0 - phi1) / 2;
+			}
+			computeClosedFormCoefficients(u, w, detH < 0, v, offset);
+		}
+		double f0r = v[offset];
+		double f0i = v[offset + 1];
+		double f1r = v[offset + 2];
+		double f1i = v[offset + 3];
+		double f2r = v[offset + 4];
+		double f2i = v[offset + 5];
+
+		// U = f0 + f1 H + f2 H^2 and U^dagger = f0* + f1* H + f2* H^2 are solved for
+		// H = (f2* (U - f0) - f2 (U^dagger - f0*)) / (f1 f2* - f1* f2)
+		double d = 2 * (f1i * f2r - f1r * f2i);
+		double h0 = 2 * (f2r * (e[9] - f0i) - f2i * (e[0] - f0r)) / d;
+		double h4 = 2 * (f2r * (e[13] - f0i) - f2i * (e[4] - f0r)) / d;
+		double h8 = 2 * (f2r * (e[17] - f0i) - f2i * (e[8] - f0r)) / d;
+		double trace = (h0 + h4 + h8) / 3;
+		v[offset] = h0 - trace;
+		v[offset + 4] = h4 - trace;
+		v[offset + 8] = h8 - trace;
+		v[offset + 1] = (f2r * (e[10] + e[12]) - f2i * (e[1] + e[3])) / d;
+		v[offset + 3] = (f2r * (e[1] - e[3]) + f2i * (e[10] - e[12])) / d;
+		v[offset + 2] = (f2r * (e[11] + e[15]) - f2i * (e[2] + e[6])) / d;
+		v[offset + 6] = (f2r * (e[2] - e[6]) + f2i * (e[11] - e[15])) / d;
+		v[offset + 5] = (f2r * (e[14] + e[16]) - f2i * (e[5] + e[7])) / d;
+		v[offset + 7] = (f2r * (e[5] - e[7]) + f2i * (e[14] - e[16])) / d;
+	}
+
+	/**
+	 * Checks whether two phases have nearly degenerate sines but cosines of opposite signs.
+	 */
+	private static boolean isOppositePair(double sinA, double cosA, double sinB, double cosB) {
+		return cosA * cosB < 0 && Math.abs(sinA - sinB) < REFINEMENT_CUTOFF;
+	}
+
+	/**
+	 * Computes the coefficients f0, f1 and f2 of exp(iH) = f0 + f1 H + f2 H^2.
+	 *
+	 * @param c0     Determinant of H
+	 * @param c1     tr(H^2) / 2
+	 * @param out    Array for the real and imaginary parts of f0, f1 and f2 (in this order)
+	 * @param offset Offset of f0 within out
+	 */
+	private static void computeCoefficients(double c0, double c1, double[] out, int offset) {
+		if (c1 < SERIES_CUTOFF) {
+			computeSeriesCoefficients(c0, c1, out, offset);
+		} else {
+			double sqrtC1 = Math.sqrt(c1 / 3);
+			double c0max = 2 * c1 / 3 * sqrtC1;
+			double theta = Math.acos(Math.min(1.0, Math.abs(c0) / c0max));
+			double u = sqrtC1 * Math.cos(theta / 3);
+			double w = Math.sqrt(c1) * Math.sin(theta / 3);
+			computeClosedFormCoefficients(u, w, c0 < 0, out, offset);
+		}
+	}
+
+	/**
+	 * Sums the coefficients f0, f1 and f2 from the exponential series. The powers (iH)^n = a + b H + c H^2 are
+	 * reduced with H^3 = c0 + c1 H and weighted with the precomputed inverse factorials.
+	 */
+	private static void computeSeriesCoefficients(double c0, double c1, double[] out, int offset) {
+		double ar = 1, ai = 0, br = 0, bi = 0, cr = 0, ci = 0;
+		double f0r = 1, f0i = 0, f1r = 0, f1i = 0, f2r = 0, f2i = 0;
+		for (int n = 1; n < INVERSE_FACTORIALS.length; n++) {
+			double nar = -c0 * ci;
+			double nai = c0 * cr;
+			double nbr = -(ai + c1 * ci);
+			double nbi = ar + c1 * cr;
+			cr = -bi;
+			ci = br;
+			ar = nar;
+			ai = nai;
+			br = nbr;
+			bi = nbi;
+			double factor = INVERSE_FACTORIALS[n];
+			f0r += factor * ar;
+			f0i += factor * ai;
+			f1r += factor * br;
+			f1i += factor * bi;
+			f2r += factor * cr;
+			f2i += factor * ci;
+			if (factor * (Math.abs(ar) + Math.abs(ai) + Math.abs(br) + Math.abs(bi) + Math.abs(cr) + Math.abs(ci))
+					< SERIES_ACCURACY) {
+				break;
+			}
+		}
+		out[offset] = f0r;
+		out[offset + 1] = f0i;
+		out[offset + 2] = f1r;
+		out[offset + 3] = f1i;
+		out[offset + 4] = f2r;
+		out[offset + 5] = f2i;
+	}
+
+	/**
+	 * Evaluates the closed-form coefficients of Morningstar and Peardon. H (or -H if the determinant is negative)
+	 * has the eigenvalues 2u, -u + w and -u - w with u, w >= 0.
+	 * The coefficients for negative determinants follow from f_j(-c0, c1) = (-1)^j f_j(c0, c1)*.
+	 */
+	private static void computeClosedFormCoefficients(double u, double w, boolean negative, double[] out,
+			int offset) {
+		double u2 = u * u;
+		double w2 = w * w;
+
+		double xi0;
+		if (w < XI_CUTOFF) {
+			xi0 = 1 - w2 / 6 * (1 - w2 / 20 * (1 - w2 / 42));
+		} else {
+			xi0 = Math.sin(w) / w;
+		}
+		double cosW = Math.cos(w);
+		double cosU = Math.cos(u);
+		double sinU = Math.sin(u);
+		double cos2U = cosU * cosU - sinU * sinU;
+		double sin2U = 2 * sinU * cosU;
+
+		// h0 = (u^2 - w^2) exp(2iu) + exp(-iu) (8 u^2 cos(w) + 2iu (3 u^2 + w^2) xi0(w))
+		double xr = 8 * u2 * cosW;
+		double xi = 2 * u * (3 * u2 + w2) * xi0;
+		double h0r = (u2 - w2) * cos2U + cosU * xr + sinU * xi;
+		double h0i = (u2 - w2) * sin2U + cosU * xi - sinU * xr;
+		// h1 = 2u exp(2iu) - exp(-iu) (2u cos(w) - i (3 u^2 - w^2) xi0(w))
+		xr = 2 * u * cosW;
+		xi = -(3 * u2 - w2) * xi0;
+		double h1r = 2 * u * cos2U - cosU * xr - sinU * xi;
+		double h1i = 2 * u * sin2U - cosU * xi + sinU * xr;
+		// h2 = exp(2iu) - exp(-iu) (cos(w) + 3iu xi0(w))
+		xr = cosW;
+		xi = 3 * u * xi0;
+		double h2r = cos2U - cosU * xr - sinU * xi;
+		double h2i = sin2U - cosU * xi + sinU * xr;
+
+		double denominator = 9 * u2 - w2;
+		double sign = negative ? -1 : 1;
+		out[offset] = h0r / denominator;
+		out[offset + 1] = sign * h0i / denominator;
+		out[offset + 2] = sign * h1r / denominator;
+		out[offset + 3] = h1i / denominator;
+		out[offset + 4] = h2r / denominator;
+		out[offset + 5] = sign * h2i / denominator;
+	}
+
+	/**
+	 * Sets the off-diagonal entries (r, c) and (c, r) of f1 H + f2 H^2.
+	 *
+	 * @param e     Array for the result as in SU3GroupElement
+	 * @param upper Index of the entry (r, c) with r < c
+	 * @param lower Index of the entry (c, r)
+	 */
+	private static void setOffDiagonal(double[] e, int upper, int lower, double f1r, double f1i, double f2r,
+			double f2i, double hr, double hi, double qr, double qi) {
+		e[upper] = f1r * hr - f1i * hi + f2r * qr - f2i * qi;
+		e[upper + 9] = f1r * hi + f1i * hr + f2r * qi + f2i * qr;
+		// the lower entries of H and H^2 are the complex conjugates
+		e[lower] = f1r * hr + f1i * hi + f2r * qr + f2i * qi;
+		e[lower + 9] = -f1r * hi + f1i * hr - f2r * qi + f2i * qr;
+	}
+
+	/**
+	 * Determinant of a Hermitian matrix in the parametrization of SU3AlgebraElement.
+	 */
+	private static double det(double v0, double v1, double v2, double v3, double v4, double v5, double v6, double v7,
+			double v8) {
+		return -v2 * v2 * v4 + v6 * (2 * v3 * v5 - v4 * v6 + 2 * v1 * v7) + 2 * v2 * (v1 * v5 - v3 * v7)
+				- (v1 * v1 + v3 * v3) * v8 - v0 * (v5 * v5 + v7 * v7 - v4 * v8);
+	}
+}
@@ -11,18 +11,7 @@ package org.openpixi.pixi.math;
  */
 public class SU3GroupElement implements GroupElement {
 
-	// thresholds for getAlgebraElement method to use Taylor series
-	private final double degeneracyCutoff = 1.E-4;
-	private final double unityCutoff = 3 - 1.E-2;
-
-	// number of iterations to use in Taylor series for each case
-	private final int taylorSeriesUnityIterations = 15;
-	private final int taylorSeriesDegenerateIterations = 50;
-
-	// threshold to determine zero vectors in normalize method
-	private final double normalizationAccuracy = 1.E-12;
-
-	private double[] e;
+	protected double[] e;
 
 	public SU3GroupElement() {
 
@@ -60,6 +49,13 @@ public class SU3GroupElement implements GroupElement {
 		}
 	}
 
+	public void addAssign(GroupElement arg, double factor) {
+		double[] a = ((SU3GroupElement) arg).e;
+		for (int i = 0; i < 18; i++) {
+			e[i] += factor * a[i];
+		}
+	}
+
 	public GroupElement sub(GroupElement arg) {
 		SU3GroupElement b = (SU3GroupElement) this.copy();
 		b.subAssign(arg);
@@ -82,6 +78,21 @@ public class SU3GroupElement implements GroupElement {
 		}
 	}
 
+	public void setZero() {
+		for (int i = 0; i < 18; i++) {
+			e[i] = 0.0;
+		}
+	}
+
+	public void setIdentity() {
+		for (int i = 0; i < 18; i++) {
+			e[i] = 0.0;
+		}
+		e[0] = 1.0;
+		e[4] = 1.0;
+		e[8] = 1.0;
+	}
+
 	public void set(int j, double value) {
 
 		e[j] = value;
@@ -181,308 +192,194 @@ public class SU3GroupElement implements GroupElement {
 	}
 
 	public GroupElement mult(GroupElement arg) {
-
-		SU3GroupElement a = (SU3GroupElement) arg;
-
-		// computed in Mathematica
 		SU3GroupElement b = new SU3GroupElement();
-		b.set(0, a.get(0)*e[0]+a.get(3)*e[1]-a.get(12)*e[10]-a.get(15)*e[11]+a.get(6)*e[2]-a.get(9)*e[9]);
-		b.set(1, a.get(1) * e[0] + a.get(4) * e[1] - a.get(13) * e[10] - a.get(16) * e[11] + a.get(7) * e[2] - a.get(10) * e[9]);
-		b.set(2, a.get(2) * e[0] + a.get(5) * e[1] - a.get(14) * e[10] - a.get(17) * e[11] + a.get(8) * e[2] - a.get(11) * e[9]);
-		b.set(3, -a.get(9)*e[12]-a.get(12)*e[13]-a.get(15)*e[14]+a.get(0)*e[3]+a.get(3)*e[4]+a.get(6)*e[5]);
-		b.set(4, -a.get(10) * e[12] - a.get(13) * e[13] - a.get(16) * e[14] + a.get(1) * e[3] + a.get(4) * e[4] + a.get(7) * e[5]);
-		b.set(5, -a.get(11) * e[12] - a.get(14) * e[13] - a.get(17) * e[14] + a.get(2) * e[3] + a.get(5) * e[4] + a.get(8) * e[5]);
-		b.set(6, -a.get(9)*e[15]-a.get(12)*e[16]-a.get(15)*e[17]+a.get(0)*e[6]+a.get(3)*e[7]+a.get(6)*e[8]);
-		b.set(7, -a.get(10) * e[15] - a.get(13) * e[16] - a.get(16) * e[17] + a.get(1) * e[6] + a.get(4) * e[7] + a.get(7) * e[8]);
-		b.set(8, -a.get(11) * e[15] - a.get(14) * e[16] - a.get(17) * e[17] + a.get(2) * e[6] + a.get(5) * e[7] + a.get(8) * e[8]);
-		b.set(9, a.get(9)*e[0]+a.get(12)*e[1]+a.get(3)*e[10]+a.get(6)*e[11]+a.get(15)*e[2]+a.get(0)*e[9]);
-		b.set(10, a.get(10) * e[0] + a.get(13) * e[1] + a.get(4) * e[10] + a.get(7) * e[11] + a.get(16) * e[2] + a.get(1) * e[9]);
-		b.set(11, a.get(11) * e[0] + a.get(14) * e[1] + a.get(5) * e[10] + a.get(8) * e[11] + a.get(17) * e[2] + a.get(2) * e[9]);
-		b.set(12, a.get(0)*e[12]+a.get(3)*e[13]+a.get(6)*e[14]+a.get(9)*e[3]+a.get(12)*e[4]+a.get(15)*e[5]);
-		b.set(13, a.get(1) * e[12] + a.get(4) * e[13] + a.get(7) * e[14] + a.get(10) * e[3] + a.get(13) * e[4] + a.get(16) * e[5]);
-		b.set(14, a.get(2) * e[12] + a.get(5) * e[13] + a.get(8) * e[14] + a.get(11) * e[3] + a.get(14) * e[4] + a.get(17) * e[5]);
-		b.set(15, a.get(0)*e[15]+a.get(3)*e[16]+a.get(6)*e[17]+a.get(9)*e[6]+a.get(12)*e[7]+a.get(15)*e[8]);
-		b.set(16, a.get(1) * e[15] + a.get(4) * e[16] + a.get(7) * e[17] + a.get(10) * e[6] + a.get(13) * e[7] + a.get(16) * e[8]);
-		b.set(17, a.get(2) * e[15] + a.get(5) * e[16] + a.get(8) * e[17] + a.get(11) * e[6] + a.get(14) * e[7] + a.get(17) * e[8]);
+		multiply(e, false, ((SU3GroupElement) arg).e, false, b.e);
 		return b;
 	}
 
 	public void multAssign(GroupElement arg) {
-		GroupElement U = this.mult(arg);
-		this.set(U);
+		if (arg == this) {
+			this.set(this.mult(arg));
+		} else {
+			// the product is computed row by row, so the result may overwrite the left factor
+			multiply(e, false, ((SU3GroupElement) arg).e, false, e);
+		}
 	}
 
-	public double[] det() {
-		// computed in Mathematica
-		double[] out = new double[2];
+	public void multInto(GroupElement arg, GroupElement dest) {
+		multiply(e, false, ((SU3GroupElement) arg).e, false, ((SU3GroupElement) dest).e);
+	}
 
-		// real part
-		out[0] = e[13]*e[15]*e[2]-e[12]*e[16]*e[2]-e[11]*e[16]*e[3]+e[10]*e[17]*e[3]+e[11]*e[15]*e[4]-e[10]*e[15]*e[5]+
-				e[11]*e[13]*e[6]-e[10]*e[14]*e[6]-e[2]*e[4]*e[6]-e[11]*e[12]*e[7]+e[2]*e[3]*e[7]+e[10]*e[12]*e[8]+
-				e[1]*(-e[14]*e[15]+e[12]*e[17]+e[5]*e[6]-e[3]*e[8])+e[0]*(e[14]*e[16]-e[13]*e[17]-e[5]*e[7]+e[4]*e[8])-
-				e[17]*e[4]*e[9]+e[16]*e[5]*e[9]+e[14]*e[7]*e[9]-e[13]*e[8]*e[9];
+	public void multAdjInto(GroupElement arg, GroupElement dest) {
+		multiply(e, false, ((SU3GroupElement) arg).e, true, ((SU3GroupElement) dest).e);
+	}
 
-		// imag. part
-		out[1] = -e[1]*e[17]*e[3]+e[16]*e[2]*e[3]+e[0]*e[17]*e[4]-e[15]*e[2]*e[4]+e[1]*e[15]*e[5]-e[0]*e[16]*e[5]+
-				e[1]*e[14]*e[6]-e[13]*e[2]*e[6]-e[0]*e[14]*e[7]+e[12]*e[2]*e[7]+e[11]*(e[13]*e[15]-e[12]*e[16]-e[4]*e[6]+e[3]*e[7])-
-				e[1]*e[12]*e[8]+e[0]*e[13]*e[8]+e[10]*(-e[14]*e[15]+e[12]*e[17]+e[5]*e[6]-e[3]*e[8])+
-				(e[14]*e[16]-e[13]*e[17]-e[5]*e[7]+e[4]*e[8])*e[9];
+	public void adjMultInto(GroupElement arg, GroupElement dest) {
+		multiply(e, true, ((SU3GroupElement) arg).e, false, ((SU3GroupElement) dest).e);
+	}
 
-		return out;
+	public void actOnComponents(double[] components, int offset) {
+		actOnComponents(components, offset, false);
+	}
+
+	public void adjActOnComponents(double[] components, int offset) {
+		actOnComponents(components, offset, true);
 	}
 
 	/**
-	 * Normalizes (complex) vector in place
-	 * Vector is stored as three real components followed by three imag. components
-	 * @param vector to be normalized
+	 * Computes W X W^\dagger with W = U or W = U^\dagger for an algebra element X given by its color components.
+	 * The matrix products are written out explicitly so that no arrays are allocated.
 	 */
-	private boolean normalize(double[] vector) {
-		double norm = 0;
-		for (int i = 0; i < 6; i++) {
-			norm += vector[i] * vector[i];
-		}
-		norm = Math.sqrt(norm);
-		if (Math.abs(norm) < normalizationAccuracy) {
-			return false;
+	private void actOnComponents(double[] c, int offset, boolean adjoint) {
+		// Hermitian matrix M = \sum_a c_a t_a (see SU3AlgebraElement.get(int))
+		double sqrt3 = Math.sqrt(3);
+		double m00 = 0.5 * c[offset + 2] + 0.5 * c[offset + 7] / sqrt3;
+		double m11 = -0.5 * c[offset + 2] + 0.5 * c[offset + 7] / sqrt3;
+		double m22 = -c[offset + 7] / sqrt3;
+		double m01r = 0.5 * c[offset], m01i = -0.5 * c[offset + 1];
+		double m02r = 0.5 * c[offset + 3], m02i = -0.5 * c[offset + 4];
+		double m12r = 0.5 * c[offset + 5], m12i = -0.5 * c[offset + 6];
+
+		// W = U or W = U^\dagger
+		double w00r, w01r, w02r, w10r, w11r, w12r, w20r, w21r, w22r;
+		double w00i, w01i, w02i, w10i, w11i, w12i, w20i, w21i, w22i;
+		if (adjoint) {
+			w00r = e[0]; w01r = e[3]; w02r = e[6];
+			w10r = e[1]; w11r = e[4]; w12r = e[7];
+			w20r = e[2]; w21r = e[5]; w22r = e[8];
+			w00i = -e[9]; w01i = -e[12]; w02i = -e[15];
+			w10i = -e[10]; w11i = -e[13]; w12i = -e[16];
+			w20i = -e[11]; w21i = -e[14]; w22i = -e[17];
 		} else {
-			for (int i = 0; i < 6; i++) {
-				vector[i] /= norm;
-			}
-			return true;
+			w00r = e[0]; w01r = e[1]; w02r = e[2];
+			w10r = e[3]; w11r = e[4]; w12r = e[5];
+			w20r = e[6]; w21r = e[7]; w22r = e[8];
+			w00i = e[9]; w01i = e[10]; w02i = e[11];
+			w10i = e[12]; w11i = e[13]; w12i = e[14];
+			w20i = e[15]; w21i = e[16]; w22i = e[17];
 		}
+
+		// T = W M
+		double t00r = w00r * m00 + w01r * m01r + w01i * m01i + w02r * m02r + w02i * m02i;
+		double t00i = w00i * m00 + w01i * m01r - w01r * m01i + w02i * m02r - w02r * m02i;
+		double t01r = w00r * m01r - w00i * m01i + w01r * m11 + w02r * m12r + w02i * m12i;
+		double t01i = w00i * m01r + w00r * m01i + w01i * m11 + w02i * m12r - w02r * m12i;
+		double t02r = w00r * m02r - w00i * m02i + w01r * m12r - w01i * m12i + w02r * m22;
+		double t02i = w00i * m02r + w00r * m02i + w01i * m12r + w01r * m12i + w02i * m22;
+		double t10r = w10r * m00 + w11r * m01r + w11i * m01i + w12r * m02r + w12i * m02i;
+		double t10i = w10i * m00 + w11i * m01r - w11r * m01i + w12i * m02r - w12r * m02i;
+		double t11r = w10r * m01r - w10i * m01i + w11r * m11 + w12r * m12r + w12i * m12i;
+		double t11i = w10i * m01r + w10r * m01i + w11i * m11 + w12i * m12r - w12r * m12i;
+		double t12r = w10r * m02r - w10i * m02i + w11r * m12r - w11i * m12i + w12r * m22;
+		double t12i = w10i * m02r + w10r * m02i + w11i * m12r + w11r * m12i + w12i * m22;
+		double t20r = w20r * m00 + w21r * m01r + w21i * m01i + w22r * m02r + w22i * m02i;
+		double t20i = w20i * m00 + w21i * m01r - w21r * m01i + w22i * m02r - w22r * m02i;
+		double t21r = w20r * m01r - w20i * m01i + w21r * m11 + w22r * m12r + w22i * m12i;
+		double t21i = w20i * m01r + w20r * m01i + w21i * m11 + w22i * m12r - w22r * m12i;
+		double t22r = w20r * m02r - w20i * m02i + w21r * m12r - w21i * m12i + w22r * m22;
+		double t22i = w20i * m02r + w20r * m02i + w21i * m12r + w21r * m12i + w22i * m22;
+
+		// M' = T W^\dagger, only the upper triangle is needed
+		double n00 = t00r * w00r + t00i * w00i + t01r * w01r + t01i * w01i + t02r * w02r + t02i * w02i;
+		double n11 = t10r * w10r + t10i * w10i + t11r * w11r + t11i * w11i + t12r * w12r + t12i * w12i;
+		double n22 = t20r * w20r + t20i * w20i + t21r * w21r + t21i * w21i + t22r * w22r + t22i * w22i;
+		double n01r = t00r * w10r + t00i * w10i + t01r * w11r + t01i * w11i + t02r * w12r + t02i * w12i;
+		double n01i = t00i * w10r - t00r * w10i + t01i * w11r - t01r * w11i + t02i * w12r - t02r * w12i;
+		double n02r = t00r * w20r + t00i * w20i + t01r * w21r + t01i * w21i + t02r * w22r + t02i * w22i;
+		double n02i = t00i * w20r - t00r * w20i + t01i * w21r - t01r * w21i + t02i * w22r - t02r * w22i;
+		double n12r = t10r * w20r + t10i * w20i + t11r * w21r + t11i * w21i + t12r * w22r + t12i * w22i;
+		double n12i = t10i * w20r - t10r * w20i + t11i * w21r - t11r * w21i + t12i * w22r - t12r * w22i;
+
+		c[offset] = 2 * n01r;
+		c[offset + 1] = -2 * n01i;
+		c[offset + 2] = n00 - n11;
+		c[offset + 3] = 2 * n02r;
+		c[offset + 4] = -2 * n02i;
+		c[offset + 5] = 2 * n12r;
+		c[offset + 6] = -2 * n12i;
+		c[offset + 7] = (n00 + n11 - 2 * n22) / sqrt3;
 	}
 
 	/**
-	 * Calculates the algebra element by first eigendecomposing into UDU* and then finding log D
-	 * WARNING: This decomposition only works for SU(3) matrices due to certain optimizations
-	 * @return coefficients to be fed into SU3AlgebraElement to give algebra element
+	 * Computes the matrix product x.y of two matrices in the parametrization used by SU3GroupElement. Either factor
+	 * can be replaced by its hermitian conjugate. The product is computed row by row, so out may be the same array as
+	 * x as long as x is not conjugated. out must never be the same array as y.
+	 *
+	 * @param x     parameters of the left factor
+	 * @param adjX  use the hermitian conjugate of x
+	 * @param y     parameters of the right factor
+	 * @param adjY  use the hermitian conjugate of y
+	 * @param out   array the parameters of the product are written to
 	 */
-	private double[] algebraElementDecompositionMethod() {
-
-		// real and imag. parts of trace
-		double trRe, trIm;
-		trRe = e[0] + e[4] + e[8];
-		trIm = e[13] + e[17] + e[9];
-
-		// if matrix is too close to unity, use taylor series for better accuracy
-		if (trRe >= unityCutoff) {
-			return new double[]{taylorSeriesUnityIterations};
-		}
-
-		// real and imag. parts of trace of matrix squared
-		double trSqRe, trSqIm;
-		trSqRe = e[0]*e[0]-2*e[10]*e[12]-e[13]*e[13]-2*e[11]*e[15]-2*e[14]*e[16]-e[17]*e[17]+2*e[1]*e[3]+e[4]*e[4]+2*e[2]*e[6]+2*e[5]*e[7]+e[8]*e[8]-e[9]*e[9];
-		trSqIm = 2*(e[1]*e[12]+e[15]*e[2]+e[10]*e[3]+e[13]*e[4]+e[16]*e[5]+e[11]*e[6]+e[14]*e[7]+e[17]*e[8]+e[0]*e[9]);
-
-		// coefficients in reduced cubic equation
-		// \lambda = X + tr(U)/3
-		// X^3 + X * (1/6 tr^2(U) - 1/2 tr(U^2)) - (det(U) + 1/6 tr(U^2) tr(U) - 5/54 tr^3(U)) == 0
-		double linTermRe, linTermIm, constTermRe, constTermIm;
-		linTermRe = (trRe*trRe - trIm*trIm)/6 - trSqRe/2;
-		linTermIm = trRe*trIm/3 - trSqIm/2;
-		constTermRe = -1 - (trRe*trSqRe - trIm*trSqIm)/6 + 5*trRe*(trRe*trRe - 3*trIm*trIm)/54;
-		constTermIm = -(trRe*trSqIm + trIm*trSqRe)/6 + 5*trIm*(3*trRe*trRe - trIm*trIm)/54;
-
-		// cubic is now in form X^3 + p X + q == 0
-		// transform to W^6 + q W^3 - 1/27 p^3 == 0
-		// then W^3 == (-q + sqrt(q^2 + 4/27 p^3))/2
-		// (pick positive solution)
-		// preRad is real and imag. parts of radical in solution for W^3
-
-		double preRad, radRe;
-		preRad = constTermRe*constTermRe - constTermIm*constTermIm + 4*linTermRe*(linTermRe*linTermRe - 3*linTermIm*linTermIm)/27;
-		if (preRad < 0) {
-			preRad = 0;
-		}
-		radRe = Math.sqrt(preRad);
-
-		// convert W^3 to polar
-		double preOmegaRe, preOmegaIm, r, th;
-		preOmegaRe = (-constTermRe + radRe)/2;
-		preOmegaIm = -constTermIm / 2;
-		th = Math.atan2(preOmegaIm, preOmegaRe);
-		r = Math.pow(preOmegaRe * preOmegaRe + preOmegaIm * preOmegaIm, 1. / 6);
-
-		// three angles of cube roots of W^3
-		double[] ths = new double[3];
-		for (int i = 0; i < 3; i++) {
-			ths[i] = (th + 2 * Math.PI * i) / 3;
-		}
-
-		// the end is near!
-		// X_i = W_i - p / (3 W_i)
-		// then \lambda_i = X_i + 1/3 tr(U)
-		// this gives us the real and imag. parts of the three eigenvalues to high precision
-		double[] valuesRe = new double[3];
-		double[] valuesIm = new double[3];
-		for (int i = 0; i < 3; i++) {
-			if (Math.abs(r) == 0) {
-				valuesRe[i] = trRe / 3;
-				valuesIm[i] = trIm / 3;
+	private static void multiply(double[] x, boolean adjX, double[] y, boolean adjY, double[] out) {
+		for (int r = 0; r < 3; r++) {
+			// row r of the left factor
+			double x0r, x0i, x1r, x1i, x2r, x2i;
+			if (adjX) {
+				x0r = x[r];
+				x0i = -x[9 + r];
+				x1r = x[3 + r];
+				x1i = -x[12 + r];
+				x2r = x[6 + r];
+				x2i = -x[15 + r];
 			} else {
-				valuesRe[i] = r * Math.cos(ths[i]) - (linTermRe * Math.cos(ths[i]) + linTermIm * Math.sin(ths[i])) / (3 * r) + trRe / 3;
-				valuesIm[i] = r * Math.sin(ths[i]) + (linTermRe * Math.sin(ths[i]) - linTermIm * Math.cos(ths[i])) / (3 * r) + trIm / 3;
+				x0r = x[3 * r];
+				x0i = x[9 + 3 * r];
+				x1r = x[3 * r + 1];
+				x1i = x[10 + 3 * r];
+				x2r = x[3 * r + 2];
+				x2i = x[11 + 3 * r];
 			}
-		}
-
-		// now use eigenvalues to compute orthonormal eigenvectors
-		// (U - \lambda_i)(U - \lambda_j) has columns that are eigenvectors for the remaining eigenvalue \lambda_k
-		// we use this result, but we only need one column so we can avoid doing the full multiplication
-		// optimized result computed in Mathematica, of course
-
-		// if there are degenerate eigenvalues, use taylor series
-		if (Math.abs(1 - valuesRe[0] / valuesRe[1]) < degeneracyCutoff && Math.abs(1 - valuesIm[0] / valuesIm[1]) < degeneracyCutoff) {
-			return new double[]{taylorSeriesDegenerateIterations};
-		} else if (Math.abs(1 - valuesRe[0] / valuesRe[2]) < degeneracyCutoff && Math.abs(1 - valuesIm[0] / valuesIm[2]) < degeneracyCutoff) {
-			return new double[]{taylorSeriesDegenerateIterations};
-		} else if (Math.abs(1 - valuesRe[1] / valuesRe[2]) < degeneracyCutoff && Math.abs(1 - valuesIm[1] / valuesIm[2]) < degeneracyCutoff) {
-			return new double[]{taylorSeriesDegenerateIterations};
-		}
-
-		// get one eigenvector for each value
-		// normalize vectors in place
-		double[][] vectors = new double[3][6];
-		for (int i = 0; i < 3; i++) {
-			// product of other two valuesRe besides valuesRe[i]
-			double otherValueReProduct = valuesRe[(i + 1) % 3] * valuesRe[(i + 2) % 3];
-			// sum of other two valuesRe besides valuesRe[i]
-			double otherValueReSum = valuesRe[0] + valuesRe[1] + valuesRe[2] - valuesRe[i];
-			// product of other two valuesIm besides valuesIm[i]
-			double otherValueImProduct = valuesIm[(i + 1) % 3] * valuesIm[(i + 2) % 3];
-			// sum of other two valuesIm besides valuesIm[i]
-			double otherValueImSum = valuesIm[0] + valuesIm[1] + valuesIm[2] - valuesIm[i];
-			//  sum of products of valuesIm and valuesRe for other two values
-			double otherReImSum = (valuesRe[0]*valuesIm[0] + valuesRe[1]*valuesIm[1] + valuesRe[2]*valuesIm[2] - valuesRe[i]*valuesIm[i]);
-
-			vectors[i][0] = (e[0]-otherValueReSum)*e[0]+(otherValueImSum-e[9])*e[9]+otherValueReProduct-otherValueImProduct-e[10]*e[12]-e[11]*e[15]+e[1]*e[3]+e[2]*e[6];
-			vectors[i][1] = (e[0]+e[4]-otherValueReSum)*e[3]+e[6]*e[5]+(otherValueImSum-e[9]-e[13])*e[12]-e[15]*e[14];
-			vectors[i][2] = (e[0]+e[8]-otherValueReSum)*e[6]+e[3]*e[7]+(otherValueImSum-e[9]-e[17])*e[15]-e[16]*e[12];
-			vectors[i][3] = (otherValueReSum-e[0])*(otherValueImSum-e[9])-otherReImSum+e[1]*e[12]+e[15]*e[2]+e[10]*e[3]+e[11]*e[6]+e[0]*e[9];
-			vectors[i][4] = (e[0]+e[4]-otherValueReSum)*e[12]+e[15]*e[5]+(e[9]+e[13]-otherValueImSum)*e[3]+e[6]*e[14];
-			vectors[i][5] = (e[0]+e[8]-otherValueReSum)*e[15]+e[12]*e[7]+(e[9]+e[17]-otherValueImSum)*e[6]+e[3]*e[16];
-
-			boolean done = normalize(vectors[i]);
-
-			if (!done) {
-				vectors[i][0] = (e[0]+e[4]-otherValueReSum)*e[1]+e[7]*e[2]+(otherValueImSum-e[9]-e[13])*e[10]-e[16]*e[11];
-				vectors[i][1] = (e[4]-otherValueReSum)*e[4]+(otherValueImSum-e[13])*e[13]+otherValueReProduct-otherValueImProduct-e[10]*e[12]-e[14]*e[16]+e[1]*e[3]+e[5]*e[7];
-				vectors[i][2] = (e[4]+e[8]-otherValueReSum)*e[7]+e[1]*e[6]+(otherValueImSum-e[13]-e[17])*e[16]-e[10]*e[15];
-				vectors[i][3] = (e[0]+e[4]-otherValueReSum)*e[10]+e[16]*e[2]+(e[9]+e[13]-otherValueImSum)*e[1]+e[7]*e[11];
-				vectors[i][4] = (otherValueReSum-e[4])*(otherValueImSum-e[13])-otherReImSum+e[1]*e[12]+e[16]*e[5]+e[10]*e[3]+e[14]*e[7]+e[4]*e[13];
-				vectors[i][5] = (e[4]+e[8]-otherValueReSum)*e[16]+e[10]*e[6]+(e[13]+e[17]-otherValueImSum)*e[7]+e[1]*e[15];
-
-				done = normalize(vectors[i]);
-
-				if (!done) {
-					vectors[i][0] = (e[0]+e[8]-otherValueReSum)*e[2]+e[1]*e[5]+(otherValueImSum-e[9]-e[17])*e[11]-e[10]*e[14];
-					vectors[i][1] = (e[4]+e[8]-otherValueReSum)*e[5]+e[2]*e[3]+(otherValueImSum-e[13]-e[17])*e[14]-e[11]*e[12];
-					vectors[i][2] = (e[8]-otherValueReSum)*e[8]+(otherValueImSum-e[17])*e[17]+otherValueReProduct-otherValueImProduct-e[14]*e[16]-e[11]*e[15]+e[5]*e[7]+e[2]*e[6];
-					vectors[i][3] = (e[0]+e[8]-otherValueReSum)*e[11]+e[14]*e[1]+(e[9]+e[17]-otherValueImSum)*e[2]+e[5]*e[10];
-					vectors[i][4] = (e[4]+e[8]-otherValueReSum)*e[14]+e[11]*e[3]+(e[13]+e[17]-otherValueImSum)*e[5]+e[2]*e[12];
-					vectors[i][5] = (otherValueReSum-e[8])*(otherValueImSum-e[17])-otherReImSum+e[7]*e[14]+e[15]*e[2]+e[16]*e[5]+e[11]*e[6]+e[8]*e[17];
-
-					done = normalize(vectors[i]);
-
-					if (!done) {
-						for (int j = 0; j < 6; j++) {
-							vectors[i][j] = 0;
-						}
-						vectors[i][i] = 1;
-					}
+			for (int c = 0; c < 3; c++) {
+				// column c of the right factor
+				double y0r, y0i, y1r, y1i, y2r, y2i;
+				if (adjY) {
+					y0r = y[3 * c];
+					y0i = -y[9 + 3 * c];
+					y1r = y[3 * c + 1];
+					y1i = -y[10 + 3 * c];
+					y2r = y[3 * c + 2];
+					y2i = -y[11 + 3 * c];
+				} else {
+					y0r = y[c];
+					y0i = y[9 + c];
+					y1r = y[3 + c];
+					y1i = y[12 + c];
+					y2r = y[6 + c];
+					y2i = y[15 + c];
 				}
+				out[3 * r + c] = x0r * y0r - x0i * y0i + x1r * y1r - x1i * y1i + x2r * y2r - x2i * y2i;
+				out[9 + 3 * r + c] = x0r * y0i + x0i * y0r + x1r * y1i + x1i * y1r + x2r * y2i + x2i * y2r;
 			}
 		}
-
-		// take log of eigenvalue matrix
-		double[] phases = new double[3];
-		for (int i = 0; i < 3; i++) {
-			phases[i] = Math.atan2(valuesIm[i],valuesRe[i]);
-		}
-
-		// ensure algebra element is traceless!
-		// make phases sum to zero
-		double phaseSum = phases[0] + phases[1] + phases[2];
-		phases[0] -= phaseSum;
-
-
-		// multiply U log(D) U* to get algebra element
-		// log(D) is just a real diagonal matrix so multiplication is included in construction of U
-		SU3GroupElement ULnD = new SU3GroupElement(new double[]{vectors[0][0]*phases[0],vectors[1][0]*phases[1],vectors[2][0]*phases[2],
-		                                                        vectors[0][1]*phases[0],vectors[1][1]*phases[1],vectors[2][1]*phases[2],
-		                                                        vectors[0][2]*phases[0],vectors[1][2]*phases[1],vectors[2][2]*phases[2],
-		                                                        vectors[0][3]*phases[0],vectors[1][3]*phases[1],vectors[2][3]*phases[2],
-		                                                        vectors[0][4]*phases[0],vectors[1][4]*phases[1],vectors[2][4]*phases[2],
-		                                                        vectors[0][5]*phases[0],vectors[1][5]*phases[1],vectors[2][5]*phases[2]});
-		SU3GroupElement UAdj = new SU3GroupElement(new double[]{vectors[0][0], vectors[0][1], vectors[0][2],
-		                                                        vectors[1][0], vectors[1][1], vectors[1][2],
-		                                                        vectors[2][0], vectors[2][1], vectors[2][2],
-		                                                       -vectors[0][3],-vectors[0][4],-vectors[0][5],
-		                                                       -vectors[1][3],-vectors[1][4],-vectors[1][5],
-		                                                       -vectors[2][3],-vectors[2][4],-vectors[2][5]});
-
-		double[] values = ((SU3GroupElement) ULnD.mult(UAdj)).get();
-		// now normalize to ensure hermiticity!
-		return hermiticize(values);
 	}
 
-	/**
-	 * Calculates the group element using the taylor series expansion of exp.
-	 * WARNING: This decomposition only works well for "small" matrices!
-	 * @return coefficients to be fed into SU3GroupElement to give group element
-	 */
-	private double[] algebraElementTaylorSeries(double iterations) {
-		SU3GroupElement result = new SU3GroupElement();
-		SU3GroupElement intermediate = new SU3GroupElement(new double[]{-1,0,0,0,-1,0,0,0,-1,0,0,0,0,0,0,0,0,0});
-		// series for log(1+x), so subtract I from A
-		SU3GroupElement multiplier = (SU3GroupElement) this.add(intermediate).mult(-1);
-
-		for (int i = 1; i <= iterations; i++) {
-			intermediate = (SU3GroupElement) intermediate.mult(multiplier);
-			result = (SU3GroupElement) result.add(intermediate.mult(1.0 / i));
-		}
+	public double[] det() {
+		// computed in Mathematica
+		double[] out = new double[2];
 
-		double[] values = new double[18];
+		// real part
+		out[0] = e[13]*e[15]*e[2]-e[12]*e[16]*e[2]-e[11]*e[16]*e[3]+e[10]*e[17]*e[3]+e[11]*e[15]*e[4]-e[10]*e[15]*e[5]+
+				e[11]*e[13]*e[6]-e[10]*e[14]*e[6]-e[2]*e[4]*e[6]-e[11]*e[12]*e[7]+e[2]*e[3]*e[7]+e[10]*e[12]*e[8]+
+				e[1]*(-e[14]*e[15]+e[12]*e[17]+e[5]*e[6]-e[3]*e[8])+e[0]*(e[14]*e[16]-e[13]*e[17]-e[5]*e[7]+e[4]*e[8])-
+				e[17]*e[4]*e[9]+e[16]*e[5]*e[9]+e[14]*e[7]*e[9]-e[13]*e[8]*e[9];
 
-		for (int i = 0; i < 9; i++) {
-			values[i] = result.get(i + 9);
-			values[i + 9] = -result.get(i);
-		}
+		// imag. part
+		out[1] = -e[1]*e[17]*e[3]+e[16]*e[2]*e[3]+e[0]*e[17]*e[4]-e[15]*e[2]*e[4]+e[1]*e[15]*e[5]-e[0]*e[16]*e[5]+
+				e[1]*e[14]*e[6]-e[13]*e[2]*e[6]-e[0]*e[14]*e[7]+e[12]*e[2]*e[7]+e[11]*(e[13]*e[15]-e[12]*e[16]-e[4]*e[6]+e[3]*e[7])-
+				e[1]*e[12]*e[8]+e[0]*e[13]*e[8]+e[10]*(-e[14]*e[15]+e[12]*e[17]+e[5]*e[6]-e[3]*e[8])+
+				(e[14]*e[16]-e[13]*e[17]-e[5]*e[7]+e[4]*e[8])*e[9];
 
-		return hermiticize(values);
+		return out;
 	}
 
 	/**
-	 * (anti)symmetrizes matrix to ensure hermiticity
-	 * @param values list of 18 values as in SU3GroupElement
-	 * @return list of 9 values as in SU3AlgebraElement
+	 * Computes the algebra element -i log(U) with the closed-form expressions of {@link SU3Exponential}.
 	 */
-	private double[] hermiticize(double[] values) {
-		double[] fieldValues = new double[9];
-		// diagonal is just the real diagonal of result
-		fieldValues[0] = values[0];
-		fieldValues[4] = values[4];
-		fieldValues[8] = values[8];
-		// off-diagonal real values are symmetric averages of pairs
-		fieldValues[1] = (values[1] + values[3])/2;
-		fieldValues[2] = (values[2] + values[6])/2;
-		fieldValues[5] = (values[5] + values[7])/2;
-		// off-diagonal imag. values are asymmetric averages of pairs
-		fieldValues[3] = (values[12] - values[10])/2;
-		fieldValues[6] = (values[15] - values[11])/2;
-		fieldValues[7] = (values[16] - values[14])/2;
-		return fieldValues;
-	}
-
 	public AlgebraElement getAlgebraElement() {
-		// try exact method
-		double[] values = algebraElementDecompositionMethod();
-
-		// if values has length 1 the exact method failed and values[0] is the requried taylorSeriesIterations
-		if (values.length == 1) {
-			values = algebraElementTaylorSeries(values[0]);
-		}
-
-		return new SU3AlgebraElement(values);
+		SU3AlgebraElement result = new SU3AlgebraElement();
+		SU3Exponential.log(e, result.v, 0);
+		return result;
 	}
 
 	/**
@@ -504,6 +401,19 @@ public class SU3GroupElement implements GroupElement {
 		return new SU3AlgebraElement(fieldValues);
 	}
 
+	public void projInto(AlgebraElement dest) {
+		double[] fieldValues = ((SU3AlgebraElement) dest).v;
+		fieldValues[0] = (2*e[9]-e[13]-e[17])/3;
+		fieldValues[1] = (e[10]+e[12])/2;
+		fieldValues[2] = (e[11]+e[15])/2;
+		fieldValues[3] = (e[1]-e[3])/2;
+		fieldValues[4] = (2*e[13]-e[17]-e[9])/3;
+		fieldValues[5] = (e[14]+e[16])/2;
+		fieldValues[6] = (e[2]-e[6])/2;
+		fieldValues[7] = (e[5]-e[7])/2;
+		fieldValues[8] = (2*e[17]-e[9]-e[13])/3;
+	}
+
 	/**
 	 * Returns the real trace of the matrix.
 	 *
@@ -514,7 +424,11 @@ public class SU3GroupElement implements GroupElement {
 	}
 
 	public GroupElement pow(double x) {
-		return this.getAlgebraElement().mult(x).getLink();
+		// the logarithm is stored in the imaginary parts of the result, which are only written after it has been read
+		SU3GroupElement result = new SU3GroupElement();
+		SU3Exponential.log(e, result.e, 9);
+		SU3Exponential.exp(result.e, 9, x, result.e);
+		return result;
 	}
 
 	public GroupElement copy() {
@@ -524,4 +438,6 @@ public class SU3GroupElement implements GroupElement {
 	public int getNumberOfColors() {return 3;}
 
 	public int getAdjointDimension() {return 8;}
+
+	public int getNumberOfParameters() {return 18;}
 }
@@ -0,0 +1,310 @@
+package org.openpixi.pixi.parallel.cellaccess;
+
+import org.openpixi.pixi.physics.grid.Grid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes action upon cells in parallel using threads. In contrast to {@link ParallelCellIterator} the lattice is
+ * decomposed into contiguous blocks, so that neighbouring cells are mostly handled by the same thread.
+ * <p>
+ * Without a block shape the lattice is cut into slabs along the slowest axis (consecutive ranges of cell indices).
+ * With a block shape the lattice is cut into boxes of the given extent; an extent smaller than one stands for the
+ * full length of the lattice in that direction. Boxes at the upper boundaries may be smaller.
+ * <p>
+ * By default every thread handles one consecutive range of blocks. With dynamic scheduling the lattice is cut into
+ * more blocks than threads and idle threads fetch the next unprocessed block, which balances the load when
+ * the work per cell is uneven (e.g. restricted active regions).
+ * <p>
+ * Boxes which fit into the cache (see {@link #getCacheBlockShape(int[], int, int)}) are used as tiles for the
+ * field solvers: the neighbours needed by a stencil are then mostly loaded from the cache instead of main memory.
+ * With a single thread the blocks are traversed in the calling thread and no executor is needed.
+ */
+public class BlockCellIterator extends CellIterator {
+
+	/**
+	 * Number of blocks per thread used by the automatic slab decomposition with dynamic scheduling.
+	 */
+	private static final int BLOCKS_PER_THREAD = 8;
+
+	/* These are exposed here for inner classes
+	   since they can not be passed to them as method arguments. */
+	private Grid grid;
+	private CellAction action;
+	int numOfThreads;
+
+	private int[] blockShape;
+	private boolean dynamicScheduling;
+
+	private int numDim;
+	private int[] numCells;
+	private int[] strides;
+
+	/**
+	 * Number of blocks and their extent. For slabs the blocks are the index ranges [blockMin[b], blockMax[b]),
+	 * for boxes blockMin and blockMax hold the lower (inclusive) and upper (exclusive) lattice coordinates
+	 * of block b at position b * numDim.
+	 */
+	private int numOfBlocks;
+	private int[] blockMin;
+	private int[] blockMax;
+
+	private AtomicInteger nextBlock = new AtomicInteger();
+
+	private List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+	private ExecutorService threadExecutor;
+
+	/**
+	 * Creates a block iterator with slab decomposition and static scheduling.
+	 */
+	public BlockCellIterator(int numOfThreads, ExecutorService threadExecutor) {
+		this(numOfThreads, threadExecutor, null, false);
+	}
+
+	/**
+	 * @param numOfThreads      Number of threads
+	 * @param threadExecutor    Executor running the threads
+	 * @param blockShape        Extent of the blocks in each direction or null for slabs along the slowest axis
+	 * @param dynamicScheduling Hand out blocks on demand instead of a fixed range of blocks per thread
+	 */
+	public BlockCellIterator(int numOfThreads, ExecutorService threadExecutor, int[] blockShape,
+							 boolean dynamicScheduling) {
+		this.threadExecutor = threadExecutor;
+		this.numOfThreads = numOfThreads;
+		this.blockShape = (blockShape != null) ? blockShape.clone() : null;
+		this.dynamicScheduling = dynamicScheduling;
+		for (int i = 0; i < numOfThreads; ++i) {
+			tasks.add(new Task(i));
+		}
+	}
+
+	public void execute(Grid grid, CellAction action) {
+		this.grid = grid;
+		this.action = action;
+		nextBlock.set(0);
+		if (numOfThreads == 1) {
+			((Task) tasks.get(0)).call();
+			return;
+		}
+		try {
+			List<Future<Object>> futures = threadExecutor.invokeAll(tasks);
+			for (Future<Object> f : futures) {
+				// Retrieving the result throws possible exceptions
+				f.get();
+			}
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			// Throw exceptions that happened in a thread
+			throw new RuntimeException(e);
+		}
+	}
+
+	public CellIterator copy() {
+		BlockCellIterator copy = new BlockCellIterator(numOfThreads, threadExecutor, blockShape, dynamicScheduling);
+		copyIterationRange(copy);
+		return copy;
+	}
+
+	@Override
+	public void setNormalMode(int[] numCells) {
+		super.setNormalMode(numCells);
+		createBlocks(numCells);
+	}
+
+	/**
+	 * In region mode the slabs are ranges of rows of the region and the boxes are clipped to the region.
+	 */
+	@Override
+	public void setRegionMode(int[] numCells, int[] regionPoint1, int[] regionPoint2) {
+		super.setRegionMode(numCells, regionPoint1, regionPoint2);
+		createBlocks(numCells);
+	}
+
+	private void createBlocks(int[] numCells) {
+		this.numDim = numCells.length;
+		this.numCells = numCells.clone();
+		this.strides = new int[numDim];
+		int stride = 1;
+		for (int i = numDim - 1; i >= 0; i--) {
+			strides[i] = stride;
+			stride *= numCells[i];
+		}
+		if (blockShape == null) {
+			createSlabs((regionLattice != null) ? numberOfRows : dimensions.getNumCells());
+		} else {
+			createBoxes();
+		}
+	}
+
+	/**
+	 * Returns a block shape whose cells, together with their nearest neighbours, fit into a cache of the given size.
+	 * Blocks are elongated along the last (fastest) axis so that rows of consecutive cell indices are long enough for
+	 * hardware prefetching: the extent along the last axis is four times the extent along the other axes.
+	 *
+	 * @param numCells      Size of the lattice
+	 * @param bytesPerCell  Memory used by the fields of a single cell
+	 * @param cacheSize     Size of the cache in bytes
+	 * @return              Block shape (entries equal to the lattice size stand for the full length)
+	 */
+	public static int[] getCacheBlockShape(int[] numCells, int bytesPerCell, int cacheSize) {
+		int numDim = numCells.length;
+		int[] shape = getBoxShape(numCells, 1);
+		for (int s = 2; ; s++) {
+			int[] candidate = getBoxShape(numCells, s);
+			long bytes = bytesPerCell;
+			for (int i = 0; i < numDim; i++) {
+				// Neighbours on both sides of the block are loaded as well.
+				bytes *= Math.min(candidate[i] + 2, numCells[i]);
+			}
+			if (bytes > cacheSize || Arrays.equals(candidate, shape)) {
+				return shape;
+			}
+			shape = candidate;
+		}
+	}
+
+	private static int[] getBoxShape(int[] numCells, int extent) {
+		int last = numCells.length - 1;
+		int[] shape = new int[numCells.length];
+		for (int i = 0; i < numCells.length; i++) {
+			shape[i] = Math.min(numCells[i], (i == last) ? 4 * extent : extent);
+		}
+		return shape;
+	}
+
+	/**
+	 * @return Number of blocks the lattice is decomposed into.
+	 */
+	public int getNumberOfBlocks() {
+		return numOfBlocks;
+	}
+
+	/**
+	 * Cuts the lattice into consecutive index ranges of (almost) equal size. Since the last axis is the fastest
+	 * running one, these ranges are slabs along the first axis if the number of cells allows it. In region mode
+	 * the ranges refer to the rows of the region instead of single cells.
+	 */
+	private void createSlabs(int length) {
+		int requestedBlocks = dynamicScheduling ? BLOCKS_PER_THREAD * numOfThreads : numOfThreads;
+		numOfBlocks = Math.max(1, Math.min(requestedBlocks, length));
+		blockMin = new int[numOfBlocks];
+		blockMax = new int[numOfBlocks];
+		for (int b = 0; b < numOfBlocks; b++) {
+			blockMin[b] = (int) ((long) b * length / numOfBlocks);
+			blockMax[b] = (int) ((long) (b + 1) * length / numOfBlocks);
+		}
+	}
+
+	/**
+	 * Cuts the lattice (or the region in region mode) into boxes of the requested shape. The boxes are numbered
+	 * such that consecutive blocks are neighbours along the last axis.
+	 */
+	private void createBoxes() {
+		if (blockShape.length != numDim) {
+			throw new RuntimeException("Block shape does not match the number of dimensions.");
+		}
+		int[] shape = new int[numDim];
+		int[] blocksPerDirection = new int[numDim];
+		numOfBlocks = 1;
+		for (int i = 0; i < numDim; i++) {
+			int size = dimensions.getSize(i);
+			shape[i] = Math.max(1, (blockShape[i] < 1) ? size : Math.min(blockShape[i], size));
+			blocksPerDirection[i] = (size + shape[i] - 1) / shape[i];
+			numOfBlocks *= blocksPerDirection[i];
+		}
+		blockMin = new int[numOfBlocks * numDim];
+		blockMax = new int[numOfBlocks * numDim];
+		for (int b = 0; b < numOfBlocks; b++) {
+			int remainder = b;
+			for (int i = numDim - 1; i >= 0; i--) {
+				int blockPosition = remainder % blocksPerDirection[i];
+				remainder /= blocksPerDirection[i];
+				blockMin[b * numDim + i] = dimensions.getMin(i) + blockPosition * shape[i];
+				blockMax[b * numDim + i] = Math.min(blockMin[b * numDim + i] + shape[i], dimensions.getMax(i) + 1);
+			}
+		}
+	}
+
+	/**
+	 * Applies the action to all cells of a block.
+	 *
+	 * @param b     Block index
+	 * @param pos   Array of length numDim used as lattice coordinate counter
+	 */
+	private void executeBlock(int b, int[] pos) {
+		if (blockShape == null) {
+			if (regionLattice != null) {
+				executeRows(grid, action, blockMin[b], blockMax[b], 1);
+				return;
+			}
+			for (int cellIdx = blockMin[b]; cellIdx < blockMax[b]; cellIdx++) {
+				action.execute(grid, cellIdx);
+			}
+			return;
+		}
+
+		int offset = b * numDim;
+		int last = numDim - 1;
+		for (int i = 0; i < numDim; i++) {
+			pos[i] = blockMin[offset + i];
+		}
+		while (true) {
+			// Innermost loop runs along the last (fastest) axis over consecutive cell indices.
+			int rowIdx = 0;
+			for (int i = 0; i < last; i++) {
+				rowIdx += pos[i] * strides[i];
+			}
+			for (int x = blockMin[offset + last]; x < blockMax[offset + last]; x++) {
+				action.execute(grid, rowIdx + x);
+			}
+
+			// Advance the remaining coordinates.
+			int i = last - 1;
+			while (i >= 0) {
+				pos[i]++;
+				if (pos[i] < blockMax[offset + i]) {
+					break;
+				}
+				pos[i] = blockMin[offset + i];
+				i--;
+			}
+			if (i < 0) {
+				return;
+			}
+		}
+	}
+
+	private class Task implements Callable<Object> {
+
+		private int threadIdx;
+
+		private Task(int threadIdx) {
+			this.threadIdx = threadIdx;
+		}
+
+		public Object call() {
+			int[] pos = new int[numDim];
+			if (dynamicScheduling) {
+				int b;
+				while ((b = nextBlock.getAndIncrement()) < numOfBlocks) {
+					executeBlock(b, pos);
+				}
+			} else {
+				int first = (int) ((long) threadIdx * numOfBlocks / numOfThreads);
+				int end = (int) ((long) (threadIdx + 1) * numOfBlocks / numOfThreads);
+				for (int b = first; b < end; b++) {
+					executeBlock(b, pos);
+				}
+			}
+			return null;
+		}
+	}
+}
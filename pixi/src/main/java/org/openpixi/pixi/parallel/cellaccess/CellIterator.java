@@ -11,13 +11,28 @@ public abstract class CellIterator {
 
 	protected IntBox dimensions;
 
+	/**
+	 * Size of the lattice in region mode, null in normal mode.
+	 */
+	protected int[] regionLattice;
+
+	/**
+	 * Index strides of the lattice in region mode (the last direction is the fastest).
+	 */
+	protected int[] regionStrides;
+
+	/**
+	 * Number of rows (consecutive runs of cells along the last direction) of the region.
+	 */
+	protected int numberOfRows;
+
 	public abstract void execute(Grid grid, CellAction action);
 
 	/**
 	 * In this mode the iterator does not calculate the extra cells.
 	 */
 	public void setNormalMode(int[] numCells) {
-		
+
 		int length = numCells.length;
 		int[] min = new int[length];
 		int[] max = new int[length];
@@ -26,6 +41,82 @@ public abstract class CellIterator {
 			max[i] = numCells[i] - 1;
 		}
 		dimensions = new IntBox(length, min, max);
+		regionLattice = null;
+		regionStrides = null;
+	}
+
+	/**
+	 * In this mode the iterator only visits the cells within a box of the lattice. All other cells are skipped
+	 * without calling the action, so the cost of an iteration is proportional to the volume of the box.
+	 *
+	 * @param numCells      Size of the lattice
+	 * @param regionPoint1  Lower corner of the box (inclusive)
+	 * @param regionPoint2  Upper corner of the box (inclusive)
+	 */
+	public void setRegionMode(int[] numCells, int[] regionPoint1, int[] regionPoint2) {
+		int length = numCells.length;
+		int[] min = new int[length];
+		int[] max = new int[length];
+		for (int i = 0; i < length; i++) {
+			min[i] = Math.max(0, regionPoint1[i]);
+			// An empty range is stored as max = min - 1.
+			max[i] = Math.max(min[i] - 1, Math.min(numCells[i] - 1, regionPoint2[i]));
+		}
+		dimensions = new IntBox(length, min, max);
+
+		regionLattice = numCells.clone();
+		regionStrides = new int[length];
+		int stride = 1;
+		for (int i = length - 1; i >= 0; i--) {
+			regionStrides[i] = stride;
+			stride *= numCells[i];
+		}
+		int rowLength = dimensions.getSize(length - 1);
+		numberOfRows = (rowLength > 0) ? dimensions.getNumCells() / rowLength : 0;
+	}
+
+	/**
+	 * Applies the action to the rows firstRow, firstRow + rowStep, ... (below endRow) of the region.
+	 * Only used in region mode.
+	 */
+	protected void executeRows(Grid grid, CellAction action, int firstRow, int endRow, int rowStep) {
+		int last = regionLattice.length - 1;
+		int rowMin = dimensions.getMin(last);
+		int rowMax = dimensions.getMax(last);
+		for (int row = firstRow; row < endRow; row += rowStep) {
+			int remainder = row;
+			int rowIdx = 0;
+			for (int i = last - 1; i >= 0; i--) {
+				int size = dimensions.getSize(i);
+				rowIdx += (dimensions.getMin(i) + remainder % size) * regionStrides[i];
+				remainder /= size;
+			}
+			for (int x = rowMin; x <= rowMax; x++) {
+				action.execute(grid, rowIdx + x);
+			}
+		}
+	}
+
+	/**
+	 * Sets up the iteration range of a copy of this iterator.
+	 */
+	protected void copyIterationRange(CellIterator copy) {
+		if (regionLattice != null) {
+			int length = regionLattice.length;
+			int[] min = new int[length];
+			int[] max = new int[length];
+			for (int i = 0; i < length; i++) {
+				min[i] = dimensions.getMin(i);
+				max[i] = dimensions.getMax(i);
+			}
+			copy.setRegionMode(regionLattice, min, max);
+		} else if (dimensions != null) {
+			int[] numCells = new int[dimensions.getDim()];
+			for (int i = 0; i < numCells.length; i++) {
+				numCells[i] = dimensions.getSize(i);
+			}
+			copy.setNormalMode(numCells);
+		}
 	}
 
 	public abstract CellIterator copy();
@@ -0,0 +1,14 @@
+package org.openpixi.pixi.parallel.cellaccess;
+
+/**
+ * Work distribution of the parallel cell iterator.
+ * <ul>
+ *     <li>Interleaved: thread i handles the cells i, i + numOfThreads, ... ({@link ParallelCellIterator}).</li>
+ *     <li>Blocks: the lattice is split into contiguous blocks which are handed to the threads
+ *     ({@link BlockCellIterator}).</li>
+ * </ul>
+ */
+public enum CellIteratorType {
+	Interleaved,
+	Blocks
+}
@@ -1,7 +1,6 @@
 package org.openpixi.pixi.parallel.cellaccess;
 
 import org.openpixi.pixi.physics.grid.Grid;
-import org.openpixi.pixi.physics.util.IntBox;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -56,8 +55,7 @@ public class ParallelCellIterator extends CellIterator {
 
 	public CellIterator copy(){
 		ParallelCellIterator copy = new ParallelCellIterator(this.numOfThreads, this.threadExecutor);
-		copy.dimensions = dimensions.copy();
-		copy.numOfCells = this.numOfCells;
+		copyIterationRange(copy);
 
 		return copy;
 	}
@@ -79,6 +77,11 @@ public class ParallelCellIterator extends CellIterator {
 		}
 
 		public Object call() throws Exception {
+			if (regionLattice != null) {
+				// Rows of the region are distributed in the same interleaved fashion as single cells.
+				executeRows(grid, action, threadIdx, numberOfRows, numOfThreads);
+				return null;
+			}
 			for (int cellIdx = threadIdx; cellIdx < numOfCells; cellIdx += numOfThreads) {
 				action.execute(grid, cellIdx);
 			}
@@ -0,0 +1,79 @@
+package org.openpixi.pixi.parallel.cellaccess;
+
+import java.util.Arrays;
+
+import org.openpixi.pixi.physics.grid.Grid;
+
+/**
+ * Executes an action for the indices 0, ..., size - 1 on the threads of the cell iterator of a grid. The indices
+ * stand for units of work other than single cells, e.g. slices of the lattice, transverse positions or chunks of
+ * consecutive cells (see {@link #CHUNK_SIZE}).
+ */
+public class RangeIterator {
+
+	/**
+	 * Number of consecutive cells processed by one task if the lattice is split into chunks.
+	 */
+	public static final int CHUNK_SIZE = 512;
+
+	private CellIterator iterator;
+	private int size;
+
+	/**
+	 * @param grid  Grid whose cell iterator is used
+	 * @param size  Number of indices
+	 */
+	public RangeIterator(Grid grid, int size) {
+		this.size = size;
+		iterator = grid.getCellIterator().copy();
+		int[] iterationShape = new int[grid.getNumberOfDimensions()];
+		Arrays.fill(iterationShape, 1);
+		iterationShape[0] = size;
+		iterator.setNormalMode(iterationShape);
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Calls the action once for every index. Returns after all calls have finished.
+	 *
+	 * @param grid      Grid which is passed to the action
+	 * @param action    Action which is called with the grid and the index
+	 */
+	public void execute(Grid grid, CellAction action) {
+		iterator.execute(grid, action);
+	}
+
+	/**
+	 * Number of chunks of {@link #CHUNK_SIZE} consecutive cells needed to cover a lattice.
+	 *
+	 * @param numberOfCells Number of cells of the lattice
+	 * @return              Number of chunks
+	 */
+	public static int getNumberOfChunks(int numberOfCells) {
+		return (numberOfCells + CHUNK_SIZE - 1) / CHUNK_SIZE;
+	}
+
+	/**
+	 * Index of the first cell of a chunk.
+	 *
+	 * @param chunk Index of the chunk
+	 * @return      Cell index
+	 */
+	public static int getChunkStart(int chunk) {
+		return chunk * CHUNK_SIZE;
+	}
+
+	/**
+	 * Index after the last cell of a chunk.
+	 *
+	 * @param chunk         Index of the chunk
+	 * @param numberOfCells Number of cells of the lattice
+	 * @return              Cell index (exclusive)
+	 */
+	public static int getChunkEnd(int chunk, int numberOfCells) {
+		return Math.min((chunk + 1) * CHUNK_SIZE, numberOfCells);
+	}
+}
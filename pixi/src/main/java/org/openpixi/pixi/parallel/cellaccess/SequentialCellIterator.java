@@ -1,7 +1,6 @@
 package org.openpixi.pixi.parallel.cellaccess;
 
 import org.openpixi.pixi.physics.grid.Grid;
-import org.openpixi.pixi.physics.util.IntBox;
 
 /**
  * Iterates over all the cells in sequential order.
@@ -9,7 +8,11 @@ import org.openpixi.pixi.physics.util.IntBox;
 public class SequentialCellIterator extends CellIterator {
 
 	public void execute(Grid grid, CellAction action) {
-		
+		if (regionLattice != null) {
+			executeRows(grid, action, 0, numberOfRows, 1);
+			return;
+		}
+
 		int numOfCells = dimensions.getNumCells();
 		for (int cellIdx = 0; cellIdx < numOfCells; cellIdx++) {
 			action.execute(grid, cellIdx);
@@ -18,7 +21,7 @@ public class SequentialCellIterator extends CellIterator {
 
 	public CellIterator copy() {
 		SequentialCellIterator copy = new SequentialCellIterator();
-		copy.dimensions = dimensions.copy();
+		copyIterationRange(copy);
 		return copy;
 	}
 }
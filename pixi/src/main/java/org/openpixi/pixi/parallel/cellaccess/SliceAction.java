@@ -0,0 +1,18 @@
+package org.openpixi.pixi.parallel.cellaccess;
+
+import org.openpixi.pixi.physics.grid.Grid;
+
+/**
+ * Action executed by a {@link SliceIterator}. All cells of a slice are visited by the same thread, so results can be
+ * accumulated into arrays indexed by the slice without synchronization.
+ */
+public interface SliceAction {
+	/**
+	 * Executes the action on a cell.
+	 *
+	 * @param grid  Grid
+	 * @param index Lattice index of the cell
+	 * @param slice Longitudinal position of the cell
+	 */
+	void execute(Grid grid, int index, int slice);
+}
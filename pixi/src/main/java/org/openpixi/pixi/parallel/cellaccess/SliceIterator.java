@@ -0,0 +1,54 @@
+package org.openpixi.pixi.parallel.cellaccess;
+
+import org.openpixi.pixi.physics.grid.Grid;
+import org.openpixi.pixi.physics.util.GridFunctions;
+
+/**
+ * Iterates over the lattice slice by slice, where a slice is the transverse plane at a fixed position along a
+ * longitudinal direction. The slices are distributed over the threads of the cell iterator of the grid and every
+ * slice is visited by exactly one thread in a fixed order. Projections onto the longitudinal direction therefore need
+ * no locks and do not depend on the number of threads.
+ * <br>
+ * The lattice index of a cell is computed from the transverse base indices and the longitudinal stride (see
+ * {@link GridFunctions#getTransverseBaseIndices(int[], int)}).
+ */
+public class SliceIterator {
+
+	private int numberOfSlices;
+	private int stride;
+	private int[] baseIndices;
+	private RangeIterator iterator;
+
+	/**
+	 * @param grid      Grid whose cell iterator is used
+	 * @param direction Longitudinal direction
+	 */
+	public SliceIterator(Grid grid, int direction) {
+		numberOfSlices = grid.getNumCells(direction);
+		stride = grid.getShiftOffset(direction, 1);
+		baseIndices = GridFunctions.getTransverseBaseIndices(grid.getNumCells(), direction);
+
+		iterator = new RangeIterator(grid, numberOfSlices);
+	}
+
+	public int getNumberOfSlices() {
+		return numberOfSlices;
+	}
+
+	/**
+	 * Executes an action for every cell of the grid.
+	 *
+	 * @param grid   Grid the iterator was created for
+	 * @param action Action which is called with the lattice index and the longitudinal position of every cell
+	 */
+	public void execute(Grid grid, final SliceAction action) {
+		iterator.execute(grid, new CellAction() {
+			public void execute(Grid grid, int slice) {
+				int offset = slice * stride;
+				for (int i = 0; i < baseIndices.length; i++) {
+					action.execute(grid, baseIndices[i] + offset, slice);
+				}
+			}
+		});
+	}
+}
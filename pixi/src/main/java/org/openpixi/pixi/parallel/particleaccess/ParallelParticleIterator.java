@@ -10,7 +10,9 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
 /**
- * Executes action upon particles in parallel using threads.
+ * Executes action upon particles in parallel using threads. Each thread processes a contiguous block of the list, so
+ * that a list sorted by cells (see {@link org.openpixi.pixi.physics.particles.ParticleSorter}) assigns contiguous
+ * regions of the grid to each thread.
  *
  * Why do we use Callable interface instead of Runnable?
  * - Because we want to use the invokeAll() method of ExecutorService.
@@ -64,7 +66,9 @@ public class ParallelParticleIterator implements ParticleIterator {
 
 		public Object call() throws Exception {
 			int size = particles.size();
-			for (int particleIdx = threadIdx; particleIdx < size; particleIdx += numOfThreads) {
+			int first = (int) ((long) size * threadIdx / numOfThreads);
+			int last = (int) ((long) size * (threadIdx + 1) / numOfThreads);
+			for (int particleIdx = first; particleIdx < last; particleIdx++) {
 				action.execute(particles.get(particleIdx));
 			}
 			return null;
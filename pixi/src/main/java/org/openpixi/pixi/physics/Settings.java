@@ -7,6 +7,7 @@ import org.openpixi.pixi.physics.fields.*;
 import org.openpixi.pixi.physics.fields.fieldgenerators.IFieldGenerator;
 import org.openpixi.pixi.physics.fields.currentgenerators.ICurrentGenerator;
 import org.openpixi.pixi.physics.force.*;
+import org.openpixi.pixi.physics.gauge.FFTService;
 import org.openpixi.pixi.physics.grid.*;
 import org.openpixi.pixi.physics.initial.IInitialCondition;
 import org.openpixi.pixi.physics.particles.*;
@@ -58,6 +59,10 @@ public class Settings {
 	private FieldSolver fieldSolver = new FieldSolver();
 	private PoissonSolver poissonSolver = new EmptyPoissonSolver();
 	private boolean useGrid = true;
+	private GridStorageType gridStorage = GridStorageType.Cells;
+	private ParticleStorageType particleStorage = ParticleStorageType.Objects;
+	private DepositionMode depositionMode = DepositionMode.Synchronized;
+	private int particleSortInterval = 0;
 	private boolean relativistic = true;
 	// Regions
 	private boolean evaluationRegionEnabled = false;
@@ -66,6 +71,7 @@ public class Settings {
 	private boolean activeRegionEnabled = false;
 	private int[] activeRegionPoint1;
 	private int[] activeRegionPoint2;
+	private double[] activeRegionExpansion;
 
 	// Particle related settings
 	private int numOfParticles = 0;
@@ -94,15 +100,35 @@ public class Settings {
 	 */
 	private String runid = "default-run";
 	private ArrayList<Diagnostics> diagnostics = new ArrayList<Diagnostics>();
+	private int diagnosticsQueueDepth = 0;
+	// Checkpoint settings
+	private int checkpointInterval = 0;
+	private String checkpointPath = "checkpoint.bin";
+	private String resumeCheckpoint = null;
+	// Performance metrics
+	private int metricsInterval = 0;
+	private String metricsPath = "metrics.tsv";
+	private boolean metricsJmx = false;
 	// Batch version settings
 	private int iterations = (int) Math.ceil(tMax/timeStep);
 	// Parallel (threaded) version settings
 	private int numOfThreads = 1;
+	private CellIteratorType cellIteratorType = CellIteratorType.Interleaved;
+	private int[] cellBlockShape = null;
+	private boolean dynamicCellScheduling = false;
+	private int[] fieldSolverTileShape = null;
+	private boolean automaticFieldSolverTiling = false;
+	private int tileCacheSize = 512 * 1024;
 	/* The creation and start of the new threads is expensive. Therefore, in the parallel
 	 * simulation we use ExecutorService which is maintaining a fixed number of threads running
 	 * all the time and assigns work to the threads on the fly according to demand. */
 	private ExecutorService threadsExecutor;
 
+	/**
+	 * Fourier transforms of the solvers and diagnostics share the threads of the executor.
+	 */
+	private FFTService fftService;
+
 	// Panel management
 	private YamlPanels yamlPanels;
 
@@ -212,10 +238,101 @@ public class Settings {
 		return useGrid;
 	}
 
+	public GridStorageType getGridStorage() {
+		return gridStorage;
+	}
+
+	public ParticleStorageType getParticleStorage() {
+		return particleStorage;
+	}
+
+	public DepositionMode getDepositionMode() {
+		return depositionMode;
+	}
+
+	/**
+	 * Number of simulation steps between two reorderings of the particle list by lattice cells (see
+	 * {@link org.openpixi.pixi.physics.particles.ParticleSorter}). The particles are never sorted if this is smaller
+	 * than one.
+	 */
+	public int getParticleSortInterval() {
+		return particleSortInterval;
+	}
+
+	/**
+	 * Maximum number of grid snapshots in flight for asynchronous diagnostics. If this is smaller than one, all
+	 * diagnostics are evaluated synchronously.
+	 */
+	public int getDiagnosticsQueueDepth() {
+		return diagnosticsQueueDepth;
+	}
+
+	/**
+	 * Number of simulation steps between two checkpoints. Checkpoints are disabled if this is smaller than one.
+	 */
+	public int getCheckpointInterval() {
+		return checkpointInterval;
+	}
+
+	public String getCheckpointPath() {
+		return checkpointPath;
+	}
+
+	/**
+	 * Path of the checkpoint the simulation should be resumed from or null if the simulation starts from the
+	 * initial conditions.
+	 */
+	public String getResumeCheckpoint() {
+		return resumeCheckpoint;
+	}
+
+	/**
+	 * Number of simulation steps between two reports written to the metrics file. No file is written if this is
+	 * smaller than one.
+	 */
+	public int getMetricsInterval() {
+		return metricsInterval;
+	}
+
+	public String getMetricsPath() {
+		return metricsPath;
+	}
+
+	/**
+	 * Whether the performance metrics are registered as an MBean with the platform MBean server.
+	 */
+	public boolean getMetricsJmx() {
+		return metricsJmx;
+	}
+
 	public int getNumOfThreads() {
 		return numOfThreads;
 	}
 
+	public CellIteratorType getCellIteratorType() {
+		return cellIteratorType;
+	}
+
+	public int[] getCellBlockShape() {
+		return cellBlockShape;
+	}
+
+	public boolean useDynamicCellScheduling() {
+		return dynamicCellScheduling;
+	}
+
+	public int[] getFieldSolverTileShape() {
+		return fieldSolverTileShape;
+	}
+
+	public boolean useAutomaticFieldSolverTiling() {
+		return automaticFieldSolverTiling;
+	}
+
+	public int getTileCacheSize() {
+		return tileCacheSize;
+	}
+
 	public ArrayList<IFieldGenerator> getFieldGenerators() {
 		return this.fieldGenerators;
 	}
@@ -258,6 +375,14 @@ public class Settings {
 		return activeRegionPoint2;
 	}
 
+	/**
+	 * Velocities (in physical units) with which the faces of the active region move outwards in each direction,
+	 * or null for a fixed active region.
+	 */
+	public double[] getActiveRegionExpansion() {
+		return activeRegionExpansion;
+	}
+
 	public int getImplicitSolverIterations() { return implicitSolverIterations; }
 
 	public double getImplicitSolverDamping() { return implicitSolverDamping; }
@@ -308,12 +433,63 @@ public class Settings {
 		if (numOfThreads == 1) {
 			return new SequentialCellIterator();
 		} else if (numOfThreads > 1) {
-			return new ParallelCellIterator(numOfThreads, getThreadsExecutor());
+			switch (cellIteratorType) {
+				case Blocks:
+					return new BlockCellIterator(numOfThreads, getThreadsExecutor(), cellBlockShape,
+							dynamicCellScheduling);
+				case Interleaved:
+				default:
+					return new ParallelCellIterator(numOfThreads, getThreadsExecutor());
+			}
+		} else {
+			throw new RuntimeException("Invalid number of threads: " + numOfThreads);
+		}
+	}
+
+	/**
+	 * Returns the cell iterator of the field solver. If tiling is enabled, the lattice is traversed in tiles (see
+	 * {@link BlockCellIterator}), so that the neighbouring links needed by the staple sums are reused from the cache.
+	 * Otherwise this is the same as {@link #getCellIterator()}.
+	 */
+	public CellIterator getFieldSolverCellIterator() {
+		int[] tileShape = fieldSolverTileShape;
+		if (automaticFieldSolverTiling) {
+			int[] numCells = new int[numberOfDimensions];
+			for (int i = 0; i < numberOfDimensions; i++) {
+				numCells[i] = getGridCells(i);
+			}
+			// Memory of U, Unext, E and J of all links of a cell.
+			int groupParameters = (numberOfColors == 2) ? 4 : 2 * numberOfColors * numberOfColors;
+			int algebraParameters = (numberOfColors == 2) ? 3 : numberOfColors * numberOfColors;
+			int bytesPerCell = 8 * numberOfDimensions * (2 * groupParameters + 2 * algebraParameters);
+			tileShape = BlockCellIterator.getCacheBlockShape(numCells, bytesPerCell, tileCacheSize);
+		}
+		if (tileShape == null) {
+			return getCellIterator();
+		}
+		if (numOfThreads > 1) {
+			return new BlockCellIterator(numOfThreads, getThreadsExecutor(), tileShape, dynamicCellScheduling);
+		} else if (numOfThreads == 1) {
+			return new BlockCellIterator(1, null, tileShape, false);
 		} else {
 			throw new RuntimeException("Invalid number of threads: " + numOfThreads);
 		}
 	}
 
+	/**
+	 * Returns the FFT service which distributes batches of Fourier transforms over the threads of the simulation.
+	 */
+	public FFTService getFFTService() {
+		if (fftService == null) {
+			if (numOfThreads > 1) {
+				fftService = new FFTService(numOfThreads, getThreadsExecutor());
+			} else {
+				fftService = FFTService.getSerialService();
+			}
+		}
+		return fftService;
+	}
+
 	/**
 	 * Create threads executor on the fly according to demand.
 	 */
@@ -453,10 +629,102 @@ public class Settings {
 		this.useGrid = useGrid;
 	}
 
+	public void setGridStorage(GridStorageType gridStorage) {
+		this.gridStorage = gridStorage;
+	}
+
+	/**
+	 * Sets the storage of the particles of CGC simulations with NGP interpolation and selects the matching particle
+	 * solver and interpolator. {@link ParticleStorageType#Primitive} is only supported by
+	 * {@link SimulationType#TemporalCGCNGP} and {@link SimulationType#TemporalImplicitCGCNGP} and has to be set after
+	 * the simulation type.
+	 */
+	public void setParticleStorage(ParticleStorageType particleStorage) {
+		this.particleStorage = particleStorage;
+		applyParticleStorageSetting();
+	}
+
+	public void setDepositionMode(DepositionMode depositionMode) {
+		this.depositionMode = depositionMode;
+	}
+
+	public void setParticleSortInterval(int particleSortInterval) {
+		this.particleSortInterval = particleSortInterval;
+	}
+
+	public void setDiagnosticsQueueDepth(int diagnosticsQueueDepth) {
+		this.diagnosticsQueueDepth = diagnosticsQueueDepth;
+	}
+
+	public void setCheckpointInterval(int checkpointInterval) {
+		this.checkpointInterval = checkpointInterval;
+	}
+
+	public void setCheckpointPath(String checkpointPath) {
+		this.checkpointPath = checkpointPath;
+	}
+
+	public void setResumeCheckpoint(String resumeCheckpoint) {
+		this.resumeCheckpoint = resumeCheckpoint;
+	}
+
+	public void setMetricsInterval(int metricsInterval) {
+		this.metricsInterval = metricsInterval;
+	}
+
+	public void setMetricsPath(String metricsPath) {
+		this.metricsPath = metricsPath;
+	}
+
+	public void setMetricsJmx(boolean metricsJmx) {
+		this.metricsJmx = metricsJmx;
+	}
+
 	public void setNumOfThreads(int numOfThreads) {
 		this.numOfThreads = numOfThreads;
 	}
 
+	public void setCellIteratorType(CellIteratorType cellIteratorType) {
+		this.cellIteratorType = cellIteratorType;
+	}
+
+	/**
+	 * Sets the block shape of the block cell iterator.
+	 * @param cellBlockShape    Extent of the blocks in each direction (values smaller than one stand for the full
+	 *                          lattice length) or null for slabs along the first axis.
+	 */
+	public void setCellBlockShape(int[] cellBlockShape) {
+		this.cellBlockShape = cellBlockShape;
+	}
+
+	public void useDynamicCellScheduling(boolean dynamicCellScheduling) {
+		this.dynamicCellScheduling = dynamicCellScheduling;
+	}
+
+	/**
+	 * Sets the tile shape used by the field solvers to traverse the lattice.
+	 * @param fieldSolverTileShape  Extent of the tiles in each direction (values smaller than one stand for the full
+	 *                              lattice length) or null for the traversal of {@link #getCellIterator()}.
+	 */
+	public void setFieldSolverTileShape(int[] fieldSolverTileShape) {
+		this.fieldSolverTileShape = fieldSolverTileShape;
+	}
+
+	/**
+	 * Chooses the tile shape of the field solvers at startup such that a tile and its neighbours fit into a cache of
+	 * size {@link #getTileCacheSize()}. Overrides {@link #setFieldSolverTileShape(int[])}.
+	 */
+	public void useAutomaticFieldSolverTiling(boolean automaticFieldSolverTiling) {
+		this.automaticFieldSolverTiling = automaticFieldSolverTiling;
+	}
+
+	/**
+	 * @param tileCacheSize Cache size in bytes per thread used for the automatic tile shape.
+	 */
+	public void setTileCacheSize(int tileCacheSize) {
+		this.tileCacheSize = tileCacheSize;
+	}
+
 	public void setFieldGenerators(ArrayList<IFieldGenerator> fieldGenerators) {
 		this.fieldGenerators = fieldGenerators;
 	}
@@ -507,6 +775,10 @@ public class Settings {
 		this.activeRegionPoint2 = point;
 	}
 
+	public void setActiveRegionExpansion(double[] velocity) {
+		this.activeRegionExpansion = velocity;
+	}
+
 	public void setImplicitSolverIterations(int implicitSolverIterations) { this.implicitSolverIterations = implicitSolverIterations; }
 
 	public void setImplicitSolverDamping(double implicitSolverDamping) { this.implicitSolverDamping = implicitSolverDamping; }
@@ -554,14 +826,10 @@ public class Settings {
 			case TemporalCGCNGP:
 				setBoundary(GeneralBoundaryType.Absorbing);
 				setFieldSolver(new FastTYMSolver());
-				setParticleSolver(new CGCParticleSolver());
-				setInterpolator(new CGCParticleInterpolationNGP());
 				break;
 			case TemporalImplicitCGCNGP:
 				setBoundary(GeneralBoundaryType.Absorbing);
 				setFieldSolver(new ImplicitTYMSolver(implicitSolverIterations, implicitSolverDamping));
-				setParticleSolver(new CGCParticleSolver());
-				setInterpolator(new CGCParticleInterpolationNGP());
 				break;
 			case TemporalOptimizedCGCNGP:
 				setBoundary(GeneralBoundaryType.Absorbing);
@@ -578,6 +846,32 @@ public class Settings {
 			case BoostInvariantCGC:
 				break;
 		}
+		applyParticleStorageSetting();
+	}
+
+	/**
+	 * Sets up the particle solver and interpolator of the CGC simulation types with NGP interpolation according to
+	 * ParticleStorageType. Other simulation types only support {@link ParticleStorageType#Objects}.
+	 */
+	private void applyParticleStorageSetting() {
+		if (simulationType != SimulationType.TemporalCGCNGP && simulationType != SimulationType.TemporalImplicitCGCNGP) {
+			if (particleStorage != ParticleStorageType.Objects) {
+				throw new RuntimeException("Particle storage " + particleStorage + " is not supported by the simulation type "
+						+ simulationType + ". Use TemporalCGCNGP or TemporalImplicitCGCNGP.");
+			}
+			return;
+		}
+		switch (particleStorage) {
+			case Primitive:
+				setParticleSolver(new CGCParticleArraySolver());
+				setInterpolator(new CGCParticleArrayInterpolationNGP());
+				break;
+			case Objects:
+			default:
+				setParticleSolver(new CGCParticleSolver());
+				setInterpolator(new CGCParticleInterpolationNGP());
+				break;
+		}
 	}
 
 	/**
@@ -590,5 +884,6 @@ public class Settings {
 			threadsExecutor.shutdown();
 			threadsExecutor = null;
 		}
+		fftService = null;
 	}
 }
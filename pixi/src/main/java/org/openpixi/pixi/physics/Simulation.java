@@ -18,8 +18,11 @@
  */
 package org.openpixi.pixi.physics;
 
+import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 
+import org.openpixi.pixi.physics.checkpoint.SimulationCheckpoint;
 import org.openpixi.pixi.physics.fields.fieldgenerators.IFieldGenerator;
 import org.openpixi.pixi.physics.fields.currentgenerators.ICurrentGenerator;
 import org.openpixi.pixi.physics.fields.PoissonSolver;
@@ -30,14 +33,21 @@ import org.openpixi.pixi.physics.force.relativistic.SimpleGridForceRelativistic;
 import org.openpixi.pixi.physics.grid.Grid;
 import org.openpixi.pixi.physics.grid.Interpolation;
 import org.openpixi.pixi.physics.grid.LocalInterpolation;
+import org.openpixi.pixi.physics.grid.PrimitiveGrid;
 import org.openpixi.pixi.physics.initial.IInitialCondition;
+import org.openpixi.pixi.physics.metrics.SimulationMetrics;
 import org.openpixi.pixi.physics.movement.ParticleMover;
 import org.openpixi.pixi.physics.movement.boundary.AbsorbingParticleBoundaryConditions;
 import org.openpixi.pixi.physics.movement.boundary.IParticleBoundaryConditions;
 import org.openpixi.pixi.physics.movement.boundary.PeriodicParticleBoundaryConditions;
+import org.openpixi.pixi.physics.particles.CGCParticleArray;
+import org.openpixi.pixi.physics.particles.CGCSuperParticle;
 import org.openpixi.pixi.physics.particles.IParticle;
+import org.openpixi.pixi.physics.particles.ParticleSorter;
+import org.openpixi.pixi.physics.particles.ParticleStorageType;
+import org.openpixi.pixi.diagnostics.AsynchronousDiagnostics;
 import org.openpixi.pixi.diagnostics.Diagnostics;
-import org.openpixi.pixi.physics.util.PerformanceTimer;
+import org.openpixi.pixi.diagnostics.DiagnosticsPipeline;
 
 import java.util.ArrayList;
 
@@ -48,6 +58,7 @@ public class Simulation {
 	 * Type of the simulation (pure temporal/lorenz Yang-Mills, CGC, boost-invariant CGC, temporal CPIC, ..)
 	 */
 	private SimulationType simulationType;
+	private ParticleStorageType particleStorage;
 
 	/**
 	 * Timestep
@@ -119,18 +130,63 @@ public class Simulation {
      */
     private ArrayList<Diagnostics>  diagnostics;
 
+	/**
+	 * Evaluates asynchronous diagnostics on a separate thread (null if all diagnostics run synchronously).
+	 */
+	private DiagnosticsPipeline diagnosticsPipeline;
+
 	/**
 	 * List of external current generators which are applied during the whole runtime of the simulation.
 	 */
 	private ArrayList<ICurrentGenerator>  currentGenerators;
 
-	private PerformanceTimer timer;
+	/**
+	 * Number of steps between two checkpoints (no checkpoints if smaller than one) and checkpoint file.
+	 */
+	private int checkpointInterval;
+	private File checkpointFile;
+
+	/**
+	 * Diagnostics are initialized at the beginning of the first step, which is not necessarily step zero if the
+	 * simulation has been resumed from a checkpoint.
+	 */
+	private boolean diagnosticsInitialized = false;
+
+	/**
+	 * True if the simulation has been resumed from a checkpoint.
+	 */
+	private boolean resumed;
+
+	/**
+	 * Timing of the phases of a simulation step. The report interval is given in steps, no metrics file is written if
+	 * it is smaller than one.
+	 */
+	private SimulationMetrics metrics;
+	private int metricsInterval;
+	private String metricsPath;
+
+	/**
+	 * Number of steps between two reorderings of the particles by lattice cells (never if smaller than one).
+	 */
+	private int particleSortInterval;
+	private ParticleSorter particleSorter = new ParticleSorter();
+
+	/**
+	 * Initial corners of the active region and the velocities of its faces (null for a fixed active region).
+	 */
+	private int[] activeRegionPoint1;
+	private int[] activeRegionPoint2;
+	private double[] activeRegionExpansion;
 
 
 	public SimulationType getSimulationType() {
 		return simulationType;
 	}
 
+	public ParticleStorageType getParticleStorage() {
+		return particleStorage;
+	}
+
 	public Interpolation getInterpolation() {
 		return interpolation;
 	}
@@ -185,6 +241,7 @@ public class Simulation {
 	public Simulation(Settings settings) {
 
 		simulationType = settings.getSimulationType();
+		particleStorage = settings.getParticleStorage();
 		tstep = settings.getTimeStep();
 
 		this.simulationBoxSize = new double[settings.getNumberOfDimensions()];
@@ -208,7 +265,19 @@ public class Simulation {
 		particles = (ArrayList<IParticle>) settings.getParticles();
 		f = settings.getForce();
 
+		metricsInterval = settings.getMetricsInterval();
+		metricsPath = settings.getMetricsPath();
+		metrics = new SimulationMetrics(metricsInterval > 0 || settings.getMetricsJmx());
+		metrics.setAppend(settings.getResumeCheckpoint() != null);
+		if (settings.getMetricsJmx()) {
+			metrics.registerMBean();
+		}
+
 		diagnostics = settings.getDiagnostics();
+		if (settings.getDiagnosticsQueueDepth() > 0) {
+			diagnosticsPipeline = new DiagnosticsPipeline(settings.getDiagnosticsQueueDepth());
+			diagnosticsPipeline.setMetrics(metrics);
+		}
 
 		IParticleBoundaryConditions particleBoundaryConditions;
 		switch (settings.getBoundaryType())
@@ -230,8 +299,18 @@ public class Simulation {
 				settings.getParticleIterator());
 
 		numberOfThreads = settings.getNumOfThreads();
+		particleSortInterval = settings.getParticleSortInterval();
 
-		grid = new Grid(settings);
+		switch (settings.getGridStorage())
+		{
+			case Primitive:
+				grid = new PrimitiveGrid(settings);
+				break;
+			case Cells:
+			default:
+				grid = new Grid(settings);
+				break;
+		}
 		if (settings.useGrid()) {
 			turnGridForceOn();
 		} else {
@@ -245,39 +324,57 @@ public class Simulation {
 		}
 
 		if(settings.isActiveRegionEnabled()) {
-			grid.setActiveRegion(settings.getActiveRegionPoint1(), settings.getActiveRegionPoint2());
+			activeRegionPoint1 = settings.getActiveRegionPoint1();
+			activeRegionPoint2 = settings.getActiveRegionPoint2();
+			activeRegionExpansion = settings.getActiveRegionExpansion();
+			grid.setActiveRegion(activeRegionPoint1, activeRegionPoint2);
 		}
 
 		poisolver = settings.getPoissonSolver();
 		interpolation = new LocalInterpolation(
-				settings.getInterpolator(), settings.getParticleIterator());
-		particleGridInitializer.initialize(interpolation, poisolver, particles, grid);
+				settings.getInterpolator(), settings.getParticleIterator(), settings.getDepositionMode());
 
-        // Cycle through field generators and apply field configurations to the Grid.
-        fieldGenerators = settings.getFieldGenerators();
-		for (IFieldGenerator f: fieldGenerators)
-        {
-            f.applyFieldConfiguration(this);
-        }
-		/*
-			TODO After running through each field generator we should check if the intial state is consistent.
-			(e.g. check if Gauss law is fulfilled.)
-		 */
+		checkpointInterval = settings.getCheckpointInterval();
+		checkpointFile = new File(settings.getCheckpointPath());
+
+		if (settings.getResumeCheckpoint() == null) {
+			particleGridInitializer.initialize(interpolation, poisolver, particles, grid);
+
+			// Cycle through field generators and apply field configurations to the Grid.
+			fieldGenerators = settings.getFieldGenerators();
+			for (IFieldGenerator f : fieldGenerators) {
+				f.applyFieldConfiguration(this);
+			}
+			/*
+				TODO After running through each field generator we should check if the intial state is consistent.
+				(e.g. check if Gauss law is fulfilled.)
+			 */
+		}
 
 		// Copy current generators from Settings.
 		currentGenerators = settings.getCurrentGenerators();
-		// Initialize external currents on the grid
-		for (ICurrentGenerator c: currentGenerators) {
-			c.initializeCurrent(this, currentGenerators.size());
-		}
+		resumed = settings.getResumeCheckpoint() != null;
 
-		for(IInitialCondition ic : settings.getInitialConditions()) {
-			ic.applyInitialCondition(this);
-		}
+		if (!resumed) {
+			// Initialize external currents on the grid
+			for (ICurrentGenerator c: currentGenerators) {
+				c.initializeCurrent(this, currentGenerators.size());
+			}
 
-		initialize();
+			for (IInitialCondition ic : settings.getInitialConditions()) {
+				ic.applyInitialCondition(this);
+			}
 
-		timer = new PerformanceTimer();
+			initialize();
+		} else {
+			// Fields, particles, step counters and the state of the current generators are restored from the
+			// checkpoint (see ICurrentGenerator#resumeCurrent).
+			try {
+				SimulationCheckpoint.read(this, new File(settings.getResumeCheckpoint()));
+			} catch (IOException e) {
+				throw new RuntimeException("Could not read checkpoint " + settings.getResumeCheckpoint() + ".", e);
+			}
+		}
 	}
 
 	public void turnGridForceOn() {
@@ -355,10 +452,11 @@ public class Simulation {
 	 * Runs the simulation in steps. (for interactive simulations)
 	 * The algorithm goes as follows:
 	 * 1) Initialize and run diagnostics if first simulation step, i.e. t == 0.
-	 * 2) Increase simulation time variable from t to t+dt.
+	 * 2) Increase simulation time variable from t to t+dt and move the faces of an expanding active region.
 	 * 3) Reassign particle positions, charges and gauge links.
 	 *    Particle position and charge and now refer to quantities at t+dt.
 	 *    U refers to U(t+dt/2), Unext to U(t+3d/2).
+	 *    Every particleSortInterval steps the particles are reordered by lattice cells.
 	 * 4) Compute E(t+dt) from E(t), U(t+dt/2) and j(t+dt/2).
 	 * 5) Compute U(t+3dt/2) using E(t+dt) and U(t+dt/2).
 	 * 6) Interpolate charge density rho(t+dt) using particle position x(t+dt) and charge Q(t+dt).
@@ -369,69 +467,102 @@ public class Simulation {
 	 * 11) Interpolate current j(t+3dt/2) using particle positions [x(t+dt) and x(t+2dt)] velocities [v(t+3dt/2)] charges [Q(t+dt) and Q(t+2dt)].
 	 * 12) Apply external currents and charge densities to j(t+3dt/2) and rho(t+dt).
 	 * 13) Run diagnostics at t+dt.
+	 * 14) Write a checkpoint if requested.
+	 * 15) Record the performance metrics of the step.
 	 */
 	public void step() throws IOException {
 
 		// 1) Initialize and run diagnostics before first simulation step.
-		if(totalSimulationSteps == 0) {
+		if(!diagnosticsInitialized) {
 			for (int i = 0; i< diagnostics.size(); i++) {	//Attention! Size of the diagnostics may change during the initialization!!
 				diagnostics.get(i).initialize(this);
 			}
-			runDiagnostics();
+			diagnosticsInitialized = true;
+			metrics.setDiagnostics(diagnostics);
+			// A resumed simulation has already been evaluated at the current step before the checkpoint was written.
+			if (totalSimulationSteps == 0) {
+				runDiagnostics();
+			}
 		}
 
 		// 2) Step counter
+		long stepStart = metrics.start();
 		totalSimulationSteps++;
 		totalSimulationTime =  totalSimulationSteps * tstep;
 		grid.setSimulationSteps(totalSimulationSteps);
+		updateActiveRegion();
 
 		// 3) Reassign particle charges, positions and gauge links
 		mover.reassign(particles);
 		grid.storeFields();
+		if (particleSortInterval > 0 && totalSimulationSteps % particleSortInterval == 0) {
+			long sortStart = metrics.start();
+			particleSorter.sort(particles, grid);
+			metrics.stop(SimulationMetrics.PARTICLE_SORT, sortStart);
+		}
 
-		timer.reset();
 		// 4) Compute electric fields from links and currents
 		// 5) Update links
+		long start = metrics.start();
 		grid.updateGrid(tstep);
-		timer.lap("EOM");
+		metrics.stop(SimulationMetrics.EQUATIONS_OF_MOTION, start);
 
 		// 6) Interpolate charge density
+		start = metrics.start();
 		grid.resetCharge();
 		interpolation.interpolateChargedensity(particles, grid);
-		timer.lap("CIN");
+		metrics.stop(SimulationMetrics.CHARGE_INTERPOLATION, start);
 
 		// 7) Update particle velocities
 		//updateVelocities();
 
 		// 8) Update particle positions
+		start = metrics.start();
 		mover.updatePositions(particles, f, grid, tstep);
-		timer.lap("PUP");
+		metrics.stop(SimulationMetrics.PARTICLE_UPDATE, start);
 
 		// 9) Interpolate fields to particles
+		start = metrics.start();
 		interpolation.interpolateToParticle(particles, grid);
-		timer.lap("PIN");
+		metrics.stop(SimulationMetrics.FIELD_INTERPOLATION, start);
 
 		// 10) Update particle charges
+		start = metrics.start();
 		mover.updateCharges(particles, f, grid, tstep);
-		timer.lap("CUP");
+		metrics.stop(SimulationMetrics.CHARGE_UPDATE, start);
 
 		// 11) Interpolate currents
+		start = metrics.start();
 		grid.resetCurrent();
 		interpolation.interpolateToGrid(particles, grid);
-		timer.lap("JIN");
+		metrics.stop(SimulationMetrics.CURRENT_INTERPOLATION, start);
 
 		// 12) Generate external currents on the grid
+		start = metrics.start();
 		for (ICurrentGenerator c: currentGenerators)
 		{
 			c.applyCurrent(this);
 		}
+		metrics.stop(SimulationMetrics.EXTERNAL_CURRENTS, start);
 
 		// 13) Run diagnostics.
-
-		timer.reset();
 		runDiagnostics();
-		timer.lap("DIA");
 
+		// 14) Write checkpoint.
+		if (checkpointInterval > 0 && totalSimulationSteps % checkpointInterval == 0) {
+			start = metrics.start();
+			finishDiagnostics();
+			SimulationCheckpoint.write(this, checkpointFile);
+			metrics.stop(SimulationMetrics.CHECKPOINT, start);
+		}
+
+		// 15) Record performance metrics.
+		if (metrics.isEnabled()) {
+			metrics.stepCompleted(stepStart, grid.getTotalNumberOfCells(), getNumberOfParticleUpdates());
+			if (metricsInterval > 0 && totalSimulationSteps % metricsInterval == 0) {
+				metrics.writeReport(metricsPath);
+			}
+		}
 	}
 
 	/**
@@ -446,17 +577,152 @@ public class Simulation {
 	 * Runs the entire simulation at once. (for non-interactive simulations)
 	 */
 	public void run() throws IOException {
-		while (continues()) {
-			step();
+		try {
+			while (continues()) {
+				step();
+			}
+		} finally {
+			closeDiagnostics();
+		}
+		if (metricsInterval > 0 && totalSimulationSteps % metricsInterval != 0) {
+			metrics.writeReport(metricsPath);
 		}
+		metrics.unregisterMBean();
 	}
-	
-	public void runDiagnostics() throws IOException {
 
+	/**
+	 * Runs all diagnostics in the order of the diagnostics list. If asynchronous diagnostics are enabled, consecutive
+	 * {@link AsynchronousDiagnostics} share one snapshot of the grid which is taken after all preceding synchronous
+	 * diagnostics (which may modify the grid) have been evaluated.
+	 */
+	public void runDiagnostics() throws IOException {
+		ArrayList<AsynchronousDiagnostics> pending = new ArrayList<AsynchronousDiagnostics>();
 		for (int f = 0; f < diagnostics.size(); f++)
         {
-			diagnostics.get(f).calculate(grid, particles, this.totalSimulationSteps);
+			Diagnostics d = diagnostics.get(f);
+			if (diagnosticsPipeline != null && d instanceof AsynchronousDiagnostics) {
+				pending.add((AsynchronousDiagnostics) d);
+			} else {
+				if (!pending.isEmpty()) {
+					submitDiagnostics(pending);
+					pending.clear();
+				}
+				long start = metrics.start();
+				d.calculate(grid, particles, this.totalSimulationSteps);
+				metrics.stop(metrics.getDiagnosticsPhase(d), start);
+			}
         }
+		if (!pending.isEmpty()) {
+			submitDiagnostics(pending);
+		}
+	}
+
+	private void submitDiagnostics(ArrayList<AsynchronousDiagnostics> pending) throws IOException {
+		long start = metrics.start();
+		diagnosticsPipeline.submit(grid, pending, this.totalSimulationSteps);
+		metrics.stop(SimulationMetrics.DIAGNOSTICS_SUBMIT, start);
+	}
+
+	/**
+	 * Waits until all asynchronous diagnostics have been evaluated.
+	 */
+	public void finishDiagnostics() throws IOException {
+		if (diagnosticsPipeline != null) {
+			diagnosticsPipeline.flush();
+		}
+	}
+
+	/**
+	 * Waits until all asynchronous diagnostics have been evaluated and closes the files of the diagnostics which
+	 * implement {@link Closeable}. This is called at the end of {@link #run()}. Code which calls {@link #step()}
+	 * itself has to call it when the simulation ends. It may be called more than once.
+	 */
+	public void closeDiagnostics() throws IOException {
+		IOException error = null;
+		try {
+			finishDiagnostics();
+		} catch (IOException ex) {
+			error = ex;
+		}
+		for (Diagnostics d : diagnostics) {
+			if (d instanceof Closeable) {
+				try {
+					((Closeable) d).close();
+				} catch (IOException ex) {
+					if (error == null) {
+						error = ex;
+					}
+				}
+			}
+		}
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	/**
+	 * Returns the performance metrics of the simulation steps.
+	 * @return metrics (disabled unless requested in the settings)
+	 */
+	public SimulationMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Moves the faces of an expanding active region to their position at the current simulation time. The grid is
+	 * only updated if the region grows by at least one cell.
+	 */
+	private void updateActiveRegion() {
+		if (activeRegionExpansion == null) {
+			return;
+		}
+		int[] point1 = new int[numberOfDimensions];
+		int[] point2 = new int[numberOfDimensions];
+		boolean changed = false;
+		for (int i = 0; i < numberOfDimensions; i++) {
+			int distance = (int) Math.ceil(activeRegionExpansion[i] * totalSimulationTime / grid.getLatticeSpacing(i));
+			point1[i] = Math.max(0, activeRegionPoint1[i] - distance);
+			point2[i] = Math.min(grid.getNumCells(i) - 1, activeRegionPoint2[i] + distance);
+			changed |= point1[i] < grid.getActiveRegionPoint1()[i] || point2[i] > grid.getActiveRegionPoint2()[i];
+		}
+		if (changed) {
+			grid.expandActiveRegion(point1, point2);
+		}
+	}
+
+	/**
+	 * Counts the particles moved in a step. A {@link CGCSuperParticle} or {@link CGCParticleArray} counts as the number
+	 * of particles it represents.
+	 */
+	private long getNumberOfParticleUpdates() {
+		long count = 0;
+		for (IParticle p : particles) {
+			if (p instanceof CGCSuperParticle) {
+				count += ((CGCSuperParticle) p).numberOfParticles;
+			} else if (p instanceof CGCParticleArray) {
+				count += ((CGCParticleArray) p).numberOfParticles;
+			} else {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Return list of external current generators.
+	 * @return list of current generators
+	 */
+	public ArrayList<ICurrentGenerator> getCurrentGenerators() {
+		return currentGenerators;
+	}
+
+	/**
+	 * Returns whether the simulation has been resumed from a checkpoint. Diagnostics append to their output files
+	 * instead of overwriting them in this case.
+	 * @return true if the simulation has been resumed
+	 */
+	public boolean isResumed() {
+		return resumed;
 	}
 
 	/**
@@ -0,0 +1,113 @@
+package org.openpixi.pixi.physics.checkpoint;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Sequential binary reader for files written by {@link CheckpointOutput}. The file is mapped window by window into
+ * memory and primitive arrays are filled in bulk.
+ */
+public class CheckpointInput {
+
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final long size;
+	private MappedByteBuffer buffer;
+	private long windowStart;
+
+	public CheckpointInput(File path) throws IOException {
+		file = new RandomAccessFile(path, "r");
+		channel = file.getChannel();
+		size = channel.size();
+		windowStart = 0;
+	}
+
+	/**
+	 * Returns the number of bytes read so far.
+	 *
+	 * @return current position in the file
+	 */
+	public long position() {
+		return (buffer == null) ? windowStart : windowStart + buffer.position();
+	}
+
+	public int getInt() throws IOException {
+		ensureRemaining(4);
+		return buffer.getInt();
+	}
+
+	public long getLong() throws IOException {
+		ensureRemaining(8);
+		return buffer.getLong();
+	}
+
+	public double getDouble() throws IOException {
+		ensureRemaining(8);
+		return buffer.getDouble();
+	}
+
+	public byte getByte() throws IOException {
+		ensureRemaining(1);
+		return buffer.get();
+	}
+
+	/**
+	 * Reads a range of a double array in bulk.
+	 *
+	 * @param values    destination array
+	 * @param offset    index of the first value
+	 * @param length    number of values to read
+	 */
+	public void getDoubles(double[] values, int offset, int length) throws IOException {
+		while (length > 0) {
+			ensureRemaining(8);
+			int n = Math.min(length, buffer.remaining() / 8);
+			buffer.asDoubleBuffer().get(values, offset, n);
+			buffer.position(buffer.position() + 8 * n);
+			offset += n;
+			length -= n;
+		}
+	}
+
+	/**
+	 * Reads a range of a byte array in bulk.
+	 *
+	 * @param values    destination array
+	 * @param offset    index of the first value
+	 * @param length    number of values to read
+	 */
+	public void getBytes(byte[] values, int offset, int length) throws IOException {
+		while (length > 0) {
+			ensureRemaining(1);
+			int n = Math.min(length, buffer.remaining());
+			buffer.get(values, offset, n);
+			offset += n;
+			length -= n;
+		}
+	}
+
+	public void close() throws IOException {
+		buffer = null;
+		channel.close();
+		file.close();
+	}
+
+	private void ensureRemaining(int bytes) throws IOException {
+		if (buffer != null && buffer.remaining() >= bytes) {
+			return;
+		}
+		long start = position();
+		long length = Math.min(Math.max(CheckpointOutput.WINDOW_SIZE, bytes), size - start);
+		if (length < bytes) {
+			throw new EOFException("Unexpected end of checkpoint file.");
+		}
+		buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		windowStart = start;
+	}
+}
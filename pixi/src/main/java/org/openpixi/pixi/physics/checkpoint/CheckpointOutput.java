@@ -0,0 +1,124 @@
+package org.openpixi.pixi.physics.checkpoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Sequential binary writer which maps the output file window by window into memory. Primitive arrays are copied
+ * in bulk into the mapped windows, so writing the lattice fields is limited by the memory and disk bandwidth only.
+ * All values are stored in little endian byte order.
+ */
+public class CheckpointOutput {
+
+	/**
+	 * Size of the memory mapped windows in bytes.
+	 */
+	static final int WINDOW_SIZE = 1 << 26;
+
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private MappedByteBuffer buffer;
+	private long windowStart;
+
+	public CheckpointOutput(File path) throws IOException {
+		file = new RandomAccessFile(path, "rw");
+		file.setLength(0);
+		channel = file.getChannel();
+		windowStart = 0;
+	}
+
+	/**
+	 * Returns the number of bytes written so far.
+	 *
+	 * @return current position in the file
+	 */
+	public long position() {
+		return (buffer == null) ? windowStart : windowStart + buffer.position();
+	}
+
+	public void putInt(int value) throws IOException {
+		ensureRemaining(4);
+		buffer.putInt(value);
+	}
+
+	public void putLong(long value) throws IOException {
+		ensureRemaining(8);
+		buffer.putLong(value);
+	}
+
+	public void putDouble(double value) throws IOException {
+		ensureRemaining(8);
+		buffer.putDouble(value);
+	}
+
+	public void putByte(byte value) throws IOException {
+		ensureRemaining(1);
+		buffer.put(value);
+	}
+
+	/**
+	 * Writes a range of a double array in bulk.
+	 *
+	 * @param values    source array
+	 * @param offset    index of the first value
+	 * @param length    number of values to write
+	 */
+	public void putDoubles(double[] values, int offset, int length) throws IOException {
+		while (length > 0) {
+			ensureRemaining(8);
+			int n = Math.min(length, buffer.remaining() / 8);
+			buffer.asDoubleBuffer().put(values, offset, n);
+			buffer.position(buffer.position() + 8 * n);
+			offset += n;
+			length -= n;
+		}
+	}
+
+	/**
+	 * Writes a range of a byte array in bulk.
+	 *
+	 * @param values    source array
+	 * @param offset    index of the first value
+	 * @param length    number of values to write
+	 */
+	public void putBytes(byte[] values, int offset, int length) throws IOException {
+		while (length > 0) {
+			ensureRemaining(1);
+			int n = Math.min(length, buffer.remaining());
+			buffer.put(values, offset, n);
+			offset += n;
+			length -= n;
+		}
+	}
+
+	/**
+	 * Flushes the mapped windows to the disk and truncates the file to the number of bytes written.
+	 */
+	public void close() throws IOException {
+		long size = position();
+		if (buffer != null) {
+			buffer.force();
+			buffer = null;
+		}
+		channel.truncate(size);
+		channel.close();
+		file.close();
+	}
+
+	private void ensureRemaining(int bytes) throws IOException {
+		if (buffer != null && buffer.remaining() >= bytes) {
+			return;
+		}
+		long start = position();
+		if (buffer != null) {
+			buffer.force();
+		}
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.max(WINDOW_SIZE, bytes));
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		windowStart = start;
+	}
+}
@@ -0,0 +1,311 @@
+package org.openpixi.pixi.physics.checkpoint;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.ElementFactory;
+import org.openpixi.pixi.math.GroupElement;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.fields.currentgenerators.ICurrentGenerator;
+import org.openpixi.pixi.physics.grid.Grid;
+import org.openpixi.pixi.physics.particles.CGCParticle;
+import org.openpixi.pixi.physics.particles.CGCParticleArray;
+import org.openpixi.pixi.physics.particles.CGCSuperParticle;
+import org.openpixi.pixi.physics.particles.IParticle;
+import org.openpixi.pixi.physics.particles.YangMillsParticle;
+import org.openpixi.pixi.physics.util.GridFunctions;
+
+/**
+ * Binary checkpoints of the full dynamical state of a simulation. A checkpoint contains
+ * <ul>
+ *     <li>a header with the lattice size, the gauge group and the step counters,</li>
+ *     <li>the state of the current generators (see {@link ICurrentGenerator#writeState(CheckpointOutput)}),</li>
+ *     <li>the lattice fields U, Unext, E, J, rho and the cell flags (see {@link Grid#writeFields(CheckpointOutput)}),</li>
+ *     <li>the particles ({@link YangMillsParticle}, {@link CGCParticle}, {@link CGCSuperParticle} and
+ *     {@link CGCParticleArray}).</li>
+ * </ul>
+ * Checkpoints are written to a temporary file which replaces the previous checkpoint only once it is complete.
+ * <br>
+ * A simulation is resumed by constructing it with {@link org.openpixi.pixi.physics.Settings#setResumeCheckpoint(String)}
+ * from the same input file that was used to create the checkpoint. The initial conditions are then skipped, the
+ * current generators are set up with {@link ICurrentGenerator#resumeCurrent(Simulation, int, CheckpointInput)} and the
+ * state is loaded with {@link #read(Simulation, File)}.
+ */
+public class SimulationCheckpoint {
+
+	private static final int MAGIC = 0x50495843;
+	private static final int VERSION = 3;
+
+	private static final byte YANG_MILLS_PARTICLE = 1;
+	private static final byte CGC_PARTICLE = 2;
+	private static final byte CGC_SUPER_PARTICLE = 3;
+	private static final byte CGC_PARTICLE_ARRAY = 4;
+
+	/**
+	 * Writes the state of the simulation to a checkpoint file.
+	 *
+	 * @param s     Simulation
+	 * @param file  Checkpoint file (will be overwritten)
+	 */
+	public static void write(Simulation s, File file) throws IOException {
+		File temporaryFile = new File(file.getPath() + ".tmp");
+		CheckpointOutput output = new CheckpointOutput(temporaryFile);
+		try {
+			Grid grid = s.grid;
+			output.putInt(MAGIC);
+			output.putInt(VERSION);
+			output.putInt(grid.getNumberOfColors());
+			output.putInt(grid.getNumberOfDimensions());
+			for (int i = 0; i < grid.getNumberOfDimensions(); i++) {
+				output.putInt(grid.getNumCells(i));
+			}
+			output.putInt(s.totalSimulationSteps);
+			output.putDouble(s.totalSimulationTime);
+			output.putDouble(s.getTimeStep());
+
+			ArrayList<ICurrentGenerator> currentGenerators = s.getCurrentGenerators();
+			output.putInt(currentGenerators.size());
+			for (ICurrentGenerator c : currentGenerators) {
+				c.writeState(output);
+			}
+
+			grid.writeFields(output);
+
+			int algebraSize = grid.getElementFactory().numberOfComponents;
+			output.putInt(s.particles.size());
+			for (IParticle p : s.particles) {
+				if (p instanceof CGCSuperParticle) {
+					output.putByte(CGC_SUPER_PARTICLE);
+					writeSuperParticle((CGCSuperParticle) p, algebraSize, output);
+				} else if (p instanceof CGCParticleArray) {
+					output.putByte(CGC_PARTICLE_ARRAY);
+					writeParticleArray((CGCParticleArray) p, output);
+				} else if (p instanceof CGCParticle) {
+					output.putByte(CGC_PARTICLE);
+					writeParticle((YangMillsParticle) p, output);
+					CGCParticle q = (CGCParticle) p;
+					output.putInt(q.direction);
+					output.putByte((byte) (q.updateCharge ? 1 : 0));
+					writeGroupElement(q.U, output);
+				} else if (p instanceof YangMillsParticle) {
+					output.putByte(YANG_MILLS_PARTICLE);
+					writeParticle((YangMillsParticle) p, output);
+				} else {
+					throw new RuntimeException("Checkpoints do not support particles of type "
+							+ p.getClass().getSimpleName() + ".");
+				}
+			}
+		} finally {
+			output.close();
+		}
+
+		if (!temporaryFile.renameTo(file)) {
+			// Some platforms do not allow to rename onto an existing file.
+			if (!file.delete() || !temporaryFile.renameTo(file)) {
+				throw new IOException("Could not move checkpoint to " + file.getPath());
+			}
+		}
+	}
+
+	/**
+	 * Restores the state of the simulation from a checkpoint file. The simulation has to be set up with the same
+	 * lattice and gauge group as the simulation the checkpoint was created from. The particle list of the simulation
+	 * is replaced by the particles stored in the checkpoint.
+	 *
+	 * @param s     Simulation
+	 * @param file  Checkpoint file
+	 */
+	public static void read(Simulation s, File file) throws IOException {
+		CheckpointInput input = new CheckpointInput(file);
+		try {
+			Grid grid = s.grid;
+			if (input.getInt() != MAGIC) {
+				throw new RuntimeException(file.getPath() + " is not a checkpoint file.");
+			}
+			if (input.getInt() != VERSION) {
+				throw new RuntimeException("Unsupported checkpoint version in " + file.getPath() + ".");
+			}
+			boolean compatible = input.getInt() == grid.getNumberOfColors();
+			int numberOfDimensions = input.getInt();
+			compatible &= numberOfDimensions == grid.getNumberOfDimensions();
+			for (int i = 0; i < numberOfDimensions; i++) {
+				int numCells = input.getInt();
+				compatible &= numCells == grid.getNumCells(i);
+			}
+			if (!compatible) {
+				throw new RuntimeException("Checkpoint " + file.getPath() + " does not match the lattice of the simulation.");
+			}
+			s.totalSimulationSteps = input.getInt();
+			s.totalSimulationTime = input.getDouble();
+			double timeStep = input.getDouble();
+			if (timeStep != s.getTimeStep()) {
+				throw new RuntimeException("Checkpoint " + file.getPath() + " was created with a different time step.");
+			}
+			grid.setSimulationSteps(s.totalSimulationSteps);
+
+			// Current generators may write to the grid while they are set up. This is overwritten by the fields below.
+			ArrayList<ICurrentGenerator> currentGenerators = s.getCurrentGenerators();
+			if (input.getInt() != currentGenerators.size()) {
+				throw new RuntimeException("Checkpoint " + file.getPath() + " was created with different current generators.");
+			}
+			for (ICurrentGenerator c : currentGenerators) {
+				c.resumeCurrent(s, currentGenerators.size(), input);
+			}
+
+			grid.readFields(input);
+
+			ElementFactory factory = grid.getElementFactory();
+			int numberOfParticles = input.getInt();
+			ArrayList<IParticle> particles = new ArrayList<IParticle>(numberOfParticles);
+			for (int i = 0; i < numberOfParticles; i++) {
+				byte type = input.getByte();
+				switch (type) {
+					case CGC_SUPER_PARTICLE:
+						particles.add(readSuperParticle(grid, input));
+						break;
+					case CGC_PARTICLE_ARRAY:
+						particles.add(readParticleArray(input));
+						break;
+					case CGC_PARTICLE:
+						int dimensions = input.getInt();
+						CGCParticle q = new CGCParticle(dimensions, factory.numberOfColors, 0);
+						readParticle(q, input);
+						q.direction = input.getInt();
+						q.updateCharge = input.getByte() != 0;
+						readGroupElement(q.U, input);
+						particles.add(q);
+						break;
+					case YANG_MILLS_PARTICLE:
+						YangMillsParticle p = new YangMillsParticle(input.getInt(), factory.numberOfColors);
+						readParticle(p, input);
+						particles.add(p);
+						break;
+					default:
+						throw new RuntimeException("Unknown particle type in checkpoint " + file.getPath() + ".");
+				}
+			}
+			s.particles.clear();
+			s.particles.addAll(particles);
+		} finally {
+			input.close();
+		}
+	}
+
+	/**
+	 * Writes the state of a particle. The number of dimensions is written first so that the particle can be
+	 * constructed before {@link #readParticle(YangMillsParticle, CheckpointInput)} is called.
+	 */
+	private static void writeParticle(YangMillsParticle p, CheckpointOutput output) throws IOException {
+		int dimensions = p.getNumberOfDimensions();
+		output.putInt(dimensions);
+		output.putDoubles(p.pos0, 0, dimensions);
+		output.putDoubles(p.pos1, 0, dimensions);
+		output.putDoubles(p.vel, 0, dimensions);
+		output.putDoubles(p.acc, 0, dimensions);
+		writeAlgebraElement(p.Q0, output);
+		writeAlgebraElement(p.Q1, output);
+		output.putDouble(p.mass);
+		output.putDouble(p.r);
+		output.putByte((byte) (p.col != null ? 1 : 0));
+		output.putInt(p.col != null ? p.col.getRGB() : 0);
+	}
+
+	private static void readParticle(YangMillsParticle p, CheckpointInput input) throws IOException {
+		int dimensions = p.getNumberOfDimensions();
+		input.getDoubles(p.pos0, 0, dimensions);
+		input.getDoubles(p.pos1, 0, dimensions);
+		input.getDoubles(p.vel, 0, dimensions);
+		input.getDoubles(p.acc, 0, dimensions);
+		readAlgebraElement(p.Q0, input);
+		readAlgebraElement(p.Q1, input);
+		p.mass = input.getDouble();
+		p.r = input.getDouble();
+		boolean hasColor = input.getByte() != 0;
+		int rgb = input.getInt();
+		p.col = hasColor ? new Color(rgb, true) : null;
+	}
+
+	private static void writeSuperParticle(CGCSuperParticle p, int algebraSize, CheckpointOutput output) throws IOException {
+		output.putInt(p.orientation);
+		output.putInt(p.direction);
+		output.putInt(p.numberOfParticles);
+		output.putInt(p.indexOffset);
+		output.putInt(p.particlesPerPlane);
+		output.putInt(p.subLatticeShift);
+		output.putInt(p.particlePerCell);
+
+		output.putDoubles(p.Q, 0, p.numberOfParticles * algebraSize);
+	}
+
+	private static CGCSuperParticle readSuperParticle(Grid grid, CheckpointInput input) throws IOException {
+		int orientation = input.getInt();
+		int direction = input.getInt();
+		int numberOfParticles = input.getInt();
+		int indexOffset = input.getInt();
+		int particlesPerPlane = input.getInt();
+		int subLatticeShift = input.getInt();
+		int particlePerCell = input.getInt();
+		int algebraSize = grid.getElementFactory().numberOfComponents;
+		CGCSuperParticle p = new CGCSuperParticle(orientation, direction, numberOfParticles, indexOffset,
+				particlesPerPlane, subLatticeShift, particlePerCell, algebraSize);
+		if (direction != 0) {
+			p.setLatticeLayout(GridFunctions.getTransverseBaseIndices(grid.getNumCells(), direction),
+					grid.getShiftOffset(direction, 1));
+		}
+		input.getDoubles(p.Q, 0, p.Q.length);
+		return p;
+	}
+
+	private static void writeParticleArray(CGCParticleArray p, CheckpointOutput output) throws IOException {
+		output.putInt(p.numberOfParticles);
+		output.putInt(p.numberOfDimensions);
+		output.putInt(p.numberOfComponents);
+		output.putInt(p.direction);
+
+		output.putDoubles(p.pos0, 0, p.pos0.length);
+		output.putDoubles(p.pos1, 0, p.pos1.length);
+		output.putDoubles(p.vel, 0, p.vel.length);
+		output.putDoubles(p.Q, 0, p.Q.length);
+	}
+
+	private static CGCParticleArray readParticleArray(CheckpointInput input) throws IOException {
+		int numberOfParticles = input.getInt();
+		int numberOfDimensions = input.getInt();
+		int numberOfComponents = input.getInt();
+		int direction = input.getInt();
+		CGCParticleArray p = new CGCParticleArray(numberOfParticles, numberOfDimensions, numberOfComponents, direction);
+
+		input.getDoubles(p.pos0, 0, p.pos0.length);
+		input.getDoubles(p.pos1, 0, p.pos1.length);
+		input.getDoubles(p.vel, 0, p.vel.length);
+		input.getDoubles(p.Q, 0, p.Q.length);
+		return p;
+	}
+
+	private static void writeAlgebraElement(AlgebraElement a, CheckpointOutput output) throws IOException {
+		for (int k = 0; k < a.getAdjointDimension(); k++) {
+			output.putDouble(a.get(k));
+		}
+	}
+
+	private static void readAlgebraElement(AlgebraElement a, CheckpointInput input) throws IOException {
+		for (int k = 0; k < a.getAdjointDimension(); k++) {
+			a.set(k, input.getDouble());
+		}
+	}
+
+	private static void writeGroupElement(GroupElement g, CheckpointOutput output) throws IOException {
+		for (int k = 0; k < g.getNumberOfParameters(); k++) {
+			output.putDouble(g.get(k));
+		}
+	}
+
+	private static void readGroupElement(GroupElement g, CheckpointInput input) throws IOException {
+		for (int k = 0; k < g.getNumberOfParameters(); k++) {
+			g.set(k, input.getDouble());
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package org.openpixi.pixi.physics.fields;
 
+import org.openpixi.pixi.math.AlgebraElement;
 import org.openpixi.pixi.math.GroupElement;
 import org.openpixi.pixi.parallel.cellaccess.CellAction;
 import org.openpixi.pixi.physics.grid.Grid;
@@ -49,14 +50,18 @@ public class FastTYMSolver extends FieldSolver
 		 */
 		public void execute(Grid grid, int index) {
 			if(grid.isActive(index)) {
-				GroupElement V;
+				SolverWorkspace w = SolverWorkspace.get(grid);
 				for (int i = 0; i < grid.getNumberOfDimensions(); i++) {
-					GroupElement temp = grid.getU(index, i).mult(grid.getStapleSum(index, i));
-					grid.addE(index, i, temp.proj().mult(at)); // area factors already included in getStapleSum()
-					grid.addE(index, i, grid.getJ(index, i).mult(unitFactor[i]));
-					V = grid.getE(index, i).mult(-at).getLink();
-					V.multAssign(grid.getU(index, i));
-					grid.setUnext(index, i, V);
+					GroupElement U = grid.getU(index, i, w.gridU);
+					grid.getStapleSum(index, i, w.staples, w.temp1, w.temp2);
+					U.multInto(w.staples, w.temp1);
+					w.temp1.projInto(w.algebra);
+					AlgebraElement E = w.field;
+					E.set(grid.getE(index, i, w.gridE));
+					E.addAssign(w.algebra, at); // area factors already included in getStapleSum()
+					E.addAssign(grid.getJ(index, i, w.gridJ), unitFactor[i]);
+					grid.setE(index, i, E);
+					grid.setUnext(index, i, w.evolveLink(E, at, U));
 				}
 			}
 		}
@@ -72,12 +77,9 @@ public class FastTYMSolver extends FieldSolver
 		 */
 		public void execute(Grid grid, int index) {
 			if(grid.isActive(index)) {
-				GroupElement V;
+				SolverWorkspace w = SolverWorkspace.get(grid);
 				for (int k = 0; k < grid.getNumberOfDimensions(); k++) {
-					V = grid.getE(index, k).mult(-at).getLink();
-					V.multAssign(grid.getU(index, k));
-					grid.setUnext(index, k, V);
-
+					grid.setUnext(index, k, w.evolveLink(grid.getE(index, k, w.gridE), at, grid.getU(index, k, w.gridU)));
 				}
 			}
 		}
@@ -60,6 +60,18 @@ public class FieldSolver {
 		this.cellIterator.setNormalMode(numCells);
 	}
 
+	/**
+	 * Restricts the iteration of the solver to a box of the lattice. The equations of motion are only solved for
+	 * active cells, so the box has to contain all of them. Cells outside of the box are skipped entirely.
+	 *
+	 * @param numCells      Size of the lattice
+	 * @param regionPoint1  Lower corner of the box (inclusive)
+	 * @param regionPoint2  Upper corner of the box (inclusive)
+	 */
+	public void setActiveRegion(int[] numCells, int[] regionPoint1, int[] regionPoint2) {
+		this.cellIterator.setRegionMode(numCells, regionPoint1, regionPoint2);
+	}
+
 	public void step(Grid g, double timeStep) {
 
 	}
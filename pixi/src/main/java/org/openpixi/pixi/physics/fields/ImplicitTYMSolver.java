@@ -1,5 +1,7 @@
 package org.openpixi.pixi.physics.fields;
 
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.ElementFactory;
 import org.openpixi.pixi.math.GroupElement;
 import org.openpixi.pixi.parallel.cellaccess.CellAction;
 import org.openpixi.pixi.physics.grid.Grid;
@@ -13,9 +15,23 @@ public class ImplicitTYMSolver extends FieldSolver
 	private UpdateLinks linkUpdater = new UpdateLinks();
 	private ImplicitBegin implicitBegin = new ImplicitBegin();
 	private ImplicitStep implicitStep = new ImplicitStep();
-	private ImplicitDamping implicitDamping = new ImplicitDamping();
 	private ImplicitEnd implicitEnd = new ImplicitEnd();
 
+	/**
+	 * Shadow lattice of the implicit iteration, indexed by index * numberOfDimensions + direction. It holds the
+	 * electric field and two estimates of the links at the next time step, which are swapped after every iteration.
+	 * The buffers are allocated once and reused in every time step.
+	 */
+	private AlgebraElement[] implicitE;
+	private GroupElement[] implicitU;
+	private GroupElement[] implicitUnext;
+
+	/**
+	 * True during odd iterations. Inactive cells are never updated by the iteration, their future links alternate
+	 * between U and Unext of the grid (see {@link ImplicitStep#getU(int, int, int)}).
+	 */
+	private boolean oddIteration;
+
 	public ImplicitTYMSolver(double implicitIterations, double implicitDampingFactor) {
 		this.implicitIterations = implicitIterations;
 		this.implicitDampingFactor = implicitDampingFactor;
@@ -33,29 +49,54 @@ public class ImplicitTYMSolver extends FieldSolver
 
 	@Override
 	public void step(Grid grid, double timeStep) {
-		Grid implicitGrid = new Grid(grid); // Copy grid.
+		allocateBuffers(grid);
 
 		implicitBegin.at = timeStep;
 		implicitBegin.unitFactor = new double[grid.getNumberOfDimensions()];
 		for (int i = 0; i < grid.getNumberOfDimensions(); i++) {
 			implicitBegin.unitFactor[i] =  - grid.getLatticeUnitFactor(i) * grid.getTemporalSpacing();
 		}
-		implicitBegin.implicitGrid = implicitGrid;
 		cellIterator.execute(grid, implicitBegin);
 
-		implicitStep.implicitGrid = implicitGrid;
 		implicitStep.at = implicitBegin.at;
 		implicitStep.unitFactor = implicitBegin.unitFactor;
 		for (int i = 0; i < implicitIterations; i++) {
-			implicitGrid.storeFields(); // swap U <-> Unext
+			// The last estimate becomes the one the next estimate is computed from.
+			swapBuffers();
+			oddIteration = !oddIteration;
 			cellIterator.execute(grid, implicitStep);
-			cellIterator.execute(implicitGrid, implicitDamping);
 		}
+		oddIteration = false;
 
-		implicitEnd.implicitGrid = implicitGrid;
 		cellIterator.execute(grid, implicitEnd);
 	}
 
+	/**
+	 * Allocates the shadow lattice unless it already matches the grid.
+	 */
+	private void allocateBuffers(Grid grid) {
+		int numberOfLinks = grid.getTotalNumberOfCells() * grid.getNumberOfDimensions();
+		if (implicitE != null && implicitE.length == numberOfLinks
+				&& implicitE[0].getNumberOfColors() == grid.getNumberOfColors()) {
+			return;
+		}
+		ElementFactory factory = grid.getElementFactory();
+		implicitE = new AlgebraElement[numberOfLinks];
+		implicitU = new GroupElement[numberOfLinks];
+		implicitUnext = new GroupElement[numberOfLinks];
+		for (int i = 0; i < numberOfLinks; i++) {
+			implicitE[i] = factory.algebraZero();
+			implicitU[i] = factory.groupIdentity();
+			implicitUnext[i] = factory.groupIdentity();
+		}
+	}
+
+	private void swapBuffers() {
+		GroupElement[] temp = implicitU;
+		implicitU = implicitUnext;
+		implicitUnext = temp;
+	}
+
 	@Override
 	public void stepLinks(Grid grid, double timeStep) {
 		linkUpdater.at = timeStep;
@@ -66,23 +107,27 @@ public class ImplicitTYMSolver extends FieldSolver
 
 		private double at;
 		private double[] unitFactor;
-		private Grid implicitGrid;
 
 		/**
-		 * Combined update of fields and links using the sum of staples.
+		 * Combined update of fields and links using the sum of staples. The result is the first estimate of the
+		 * links at the next time step.
 		 * @param grid
 		 * @param index
 		 */
 		public void execute(Grid grid, int index) {
 			if(grid.isActive(index)) {
-				GroupElement V;
-				for (int i = 0; i < grid.getNumberOfDimensions(); i++) {
-					GroupElement temp = grid.getU(index, i).mult(grid.getStapleSum(index, i));
-					implicitGrid.addE(index, i, temp.proj().mult(at)); // area factors already included in getStapleSum()
-					implicitGrid.addE(index, i, grid.getJ(index, i).mult(unitFactor[i]));
-					V = implicitGrid.getE(index, i).mult(-at).getLink();
-					V.multAssign(grid.getU(index, i));
-					implicitGrid.setUnext(index, i, V);
+				SolverWorkspace w = SolverWorkspace.get(grid);
+				int numberOfDimensions = grid.getNumberOfDimensions();
+				for (int i = 0; i < numberOfDimensions; i++) {
+					GroupElement U = grid.getU(index, i, w.gridU);
+					grid.getStapleSum(index, i, w.staples, w.temp1, w.temp2);
+					U.multInto(w.staples, w.temp1);
+					w.temp1.projInto(w.algebra);
+					AlgebraElement E = implicitE[index * numberOfDimensions + i];
+					E.set(grid.getE(index, i, w.gridE));
+					E.addAssign(w.algebra, at); // area factors already included in getStapleSum()
+					E.addAssign(grid.getJ(index, i, w.gridJ), unitFactor[i]);
+					implicitUnext[index * numberOfDimensions + i].set(w.evolveLink(E, at, U));
 				}
 			}
 		}
@@ -94,11 +139,12 @@ public class ImplicitTYMSolver extends FieldSolver
 		private double[] unitFactor;
 		private int beamdirection = 0;
 
-		private Grid implicitGrid;
 		private Grid explicitGrid;
 
 		/**
-		 * Combined update of fields and links using the sum of staples.
+		 * Combined update of fields and links using the sum of staples, followed by the damping of the new estimate
+		 * of the links with the previous one. Both only depend on the links of the cell itself, so a single sweep
+		 * over the lattice is sufficient.
 		 * @param grid
 		 * @param index
 		 */
@@ -106,23 +152,31 @@ public class ImplicitTYMSolver extends FieldSolver
 			explicitGrid = grid;
 			if(grid.isActive(index)) {
 				GroupElement V;
-				for (int i = 0; i < grid.getNumberOfDimensions(); i++) {
+				int numberOfDimensions = grid.getNumberOfDimensions();
+				for (int i = 0; i < numberOfDimensions; i++) {
+					int link = index * numberOfDimensions + i;
+					AlgebraElement E = implicitE[link];
+
 					// Start from previous E
-					implicitGrid.setE(index, i, grid.getE(index,i));
+					E.set(grid.getE(index,i));
 
 					// add 1/2 of future contributions:
 					GroupElement temp = getPlaquetteSum(index, i, beamdirection, +1);
-					implicitGrid.addE(index, i, temp.proj().mult(at * 0.5)); // area factors already included in getStapleSum()
+					E.addAssign(temp.proj().mult(at * 0.5)); // area factors already included in getStapleSum()
 
 					// add 1/2 of past contributions:
 					temp = getPlaquetteSum(index, i, beamdirection, -1);
-					implicitGrid.addE(index, i, temp.proj().mult(at * 0.5)); // area factors already included in getStapleSum()
+					E.addAssign(temp.proj().mult(at * 0.5)); // area factors already included in getStapleSum()
 
 					// add current:
-					implicitGrid.addE(index, i, grid.getJ(index, i).mult(unitFactor[i]));
-					V = implicitGrid.getE(index, i).mult(-at).getLink();
+					E.addAssign(grid.getJ(index, i).mult(unitFactor[i]));
+					V = E.mult(-at).getLink();
 					V.multAssign(explicitGrid.getU(index, i));
-					implicitGrid.setUnext(index, i, V);
+
+					// Damping with the previous estimate.
+					GroupElement U1 = V.pow(1 - implicitDampingFactor);
+					GroupElement U2 = implicitU[link].pow(implicitDampingFactor);
+					implicitUnext[link].set(U2.mult(U1));
 				}
 			}
 		}
@@ -195,7 +249,12 @@ public class ImplicitTYMSolver extends FieldSolver
 				case 0:
 					return explicitGrid.getU(index, dir);
 				case 1:
-					return implicitGrid.getU(index, dir);
+					if (explicitGrid.isActive(index)) {
+						return implicitU[index * explicitGrid.getNumberOfDimensions() + dir];
+					}
+					// Inactive cells keep their links. Since U and Unext are swapped after every iteration,
+					// the future link of an inactive cell is Unext in odd and U in even iterations.
+					return oddIteration ? explicitGrid.getUnext(index, dir) : explicitGrid.getU(index, dir);
 				default:
 					throw new RuntimeException("Invalid time step " + time);
 			}
@@ -203,38 +262,19 @@ public class ImplicitTYMSolver extends FieldSolver
 
 	}
 
-	private class ImplicitDamping implements CellAction {
-
-		/**
-		 * Damping of the fields of the implicit grid.
-		 * @param grid
-		 * @param index
-		 */
-		public void execute(Grid grid, int index) {
-			if(grid.isActive(index)) {
-				for (int i = 0; i < grid.getNumberOfDimensions(); i++) {
-					GroupElement U1 = grid.getUnext(index,  i).pow(1 - implicitDampingFactor);
-					GroupElement U2 = grid.getU(index, i).pow(implicitDampingFactor);
-					grid.setUnext(index, i, U2.mult(U1));
-				}
-			}
-		}
-	}
-
 	private class ImplicitEnd implements CellAction {
 
-		private Grid implicitGrid;
-
 		/**
-		 * Combined update of fields and links using the sum of staples.
+		 * Copies the electric field and the last estimate of the links from the shadow lattice to the grid.
 		 * @param grid
 		 * @param index
 		 */
 		public void execute(Grid grid, int index) {
 			if(grid.isActive(index)) {
-				for (int i = 0; i < grid.getNumberOfDimensions(); i++) {
-					grid.setE(index, i, implicitGrid.getE(index, i));
-					grid.setUnext(index, i, implicitGrid.getUnext(index, i));
+				int numberOfDimensions = grid.getNumberOfDimensions();
+				for (int i = 0; i < numberOfDimensions; i++) {
+					grid.setE(index, i, implicitE[index * numberOfDimensions + i]);
+					grid.setUnext(index, i, implicitUnext[index * numberOfDimensions + i]);
 				}
 			}
 		}
@@ -250,12 +290,9 @@ public class ImplicitTYMSolver extends FieldSolver
 		 */
 		public void execute(Grid grid, int index) {
 			if(grid.isActive(index)) {
-				GroupElement V;
+				SolverWorkspace w = SolverWorkspace.get(grid);
 				for (int k = 0; k < grid.getNumberOfDimensions(); k++) {
-					V = grid.getE(index, k).mult(-at).getLink();
-					V.multAssign(grid.getU(index, k));
-					grid.setUnext(index, k, V);
-
+					grid.setUnext(index, k, w.evolveLink(grid.getE(index, k, w.gridE), at, grid.getU(index, k, w.gridU)));
 				}
 			}
 		}
@@ -73,6 +73,7 @@ public class LightConePoissonSolver {
 				}
 			}
 
+			DoubleFFT_2D fft = new DoubleFFT_2D(size[0], size[1]);
 			for(int i = 0; i < numberOfComponents; i++) {
 				//prepare input for fft
 				for(int j = 0; j < size[0]; j++) {
@@ -92,7 +93,6 @@ public class LightConePoissonSolver {
 					}
 				}
 				//perform Fourier transformation
-				DoubleFFT_2D fft = new DoubleFFT_2D(size[0], size[1]);
 				fft.complexForward(charge);
 				fft.complexForward(current);
 				//perform computation in Fourier space
@@ -152,6 +152,7 @@ public class LightConePoissonSolver {
 				E0List[j] = factory.algebraZero(colors);
 			}
 
+			DoubleFFT_1D fft = new DoubleFFT_1D(size[0]);
 			for(int i = 0; i < numberOfComponents; i++) {
 				//prepare input for fft
 				for(int j = 0; j < size[0]; j++) {
@@ -168,7 +169,6 @@ public class LightConePoissonSolver {
 					current[2*j + 1] = 0.0;
 				}
 				//perform Fourier transformation
-				DoubleFFT_1D fft = new DoubleFFT_1D(size[0]);
 				fft.complexForward(charge);
 				fft.complexForward(current);
 				//perform computation in Fourier space
@@ -5,7 +5,6 @@ import org.openpixi.pixi.math.ElementFactory;
 import org.openpixi.pixi.math.GroupElement;
 import org.openpixi.pixi.parallel.cellaccess.CellAction;
 import org.openpixi.pixi.physics.Simulation;
-import org.openpixi.pixi.physics.gauge.DoubleFFTWrapper;
 import org.apache.commons.math3.special.Erf;
 import org.openpixi.pixi.physics.grid.Grid;
 import org.openpixi.pixi.physics.util.GridFunctions;
@@ -71,46 +70,34 @@ public class NewLCPoissonSolver {
 	}
 
 	public void solve(Simulation s) {
-		DoubleFFTWrapper fft = new DoubleFFTWrapper(transversalNumCells);
-
 		// UV Regulator (in lattice energy units)
 		double lambdaSquared = lowPassCoefficient * lowPassCoefficient;
 
 		// IR Regulator (in lattice energy units)
 		double mSquared = infraredCoefficient * infraredCoefficient;
 
-		// First step: compute transversal potential phi
+		// Inverse Laplace operator in momentum space, implemented with a momentum cutoff.
+		double[] invLaplace = new double[totalTransversalCells];
+		for (int j = 1; j < totalTransversalCells; j++) {
+			double pEffSquared = computeEffectiveLatticeMomentumSquared(j);
+			double pSquare = computeLatticeMomentumSquared(j);
+			if(pSquare <= lambdaSquared) {
+				invLaplace[j] = 1.0 / (pEffSquared + mSquared);
+			}
+		}
+
+		// First step: compute transversal potential phi by solving the Poisson equation for all color components
+		// in momentum space.
+		double[][] potential = new double[factory.numberOfComponents][totalTransversalCells];
 		for (int i = 0; i < factory.numberOfComponents; i++) {
-			// Initialize array for FFT and fill it with charge density of component i.
-			double[] fftArray = new double[fft.getFFTArraySize()];
 			for (int j = 0; j < totalTransversalCells; j++) {
-				fftArray[fft.getFFTArrayIndex(j)] = transversalChargeDensity[j].get(i);
-			}
-			// Transform charge density to momentum space.
-			fft.complexForward(fftArray);
-			// Solve Poisson equation in momentum space.
-			for (int j = 1; j < totalTransversalCells; j++) {
-				double pEffSquared = computeEffectiveLatticeMomentumSquared(j);
-				double pSquare = computeLatticeMomentumSquared(j);
-				double invLaplace;
-				// Implement as momentum cutoff
-				if(pSquare <= lambdaSquared) {
-					invLaplace = 1.0 / (pEffSquared + mSquared);
-				} else {
-					invLaplace = 0.0;
-				}
-				fftArray[fft.getFFTArrayIndex(j)] *= invLaplace;
-				fftArray[fft.getFFTArrayIndex(j) + 1] *= invLaplace;
+				potential[i][j] = transversalChargeDensity[j].get(i);
 			}
-			fftArray[0] = 0.0;
-			fftArray[1] = 0.0;
-
-			// Transform back to position space.
-			fft.complexInverse(fftArray, true);
-
-			// Set transversal potential.
+		}
+		s.grid.getFFTService().applyKernel(transversalNumCells, potential, invLaplace);
+		for (int i = 0; i < factory.numberOfComponents; i++) {
 			for (int j = 0; j < totalTransversalCells; j++) {
-				this.phi[j].set(i, fftArray[fft.getFFTArrayIndex(j)]);
+				this.phi[j].set(i, potential[i][j]);
 			}
 		}
 
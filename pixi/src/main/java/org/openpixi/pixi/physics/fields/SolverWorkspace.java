@@ -0,0 +1,79 @@
+package org.openpixi.pixi.physics.fields;
+
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.ElementFactory;
+import org.openpixi.pixi.math.GroupElement;
+import org.openpixi.pixi.physics.grid.Grid;
+
+/**
+ * Scratch space for the allocation-free field updates of the temporal gauge Yang-Mills solvers.
+ * CellActions are shared by all threads of a cell iterator, therefore every thread owns its own workspace
+ * which is obtained by {@link #get(Grid)}.
+ */
+class SolverWorkspace {
+
+	private static final ThreadLocal<SolverWorkspace> workspaces = new ThreadLocal<SolverWorkspace>();
+
+	final int colors;
+	final GroupElement staples;
+	final GroupElement link;
+	final GroupElement temp1;
+	final GroupElement temp2;
+	final AlgebraElement algebra;
+
+	/*
+	 * Electric field which is updated by the solvers and written back to the grid.
+	 */
+	final AlgebraElement field;
+
+	/*
+	 * Scratch elements for the allocation-free getters of the grid, e.g. Grid.getU(int, int, GroupElement).
+	 */
+	final GroupElement gridU;
+	final AlgebraElement gridE;
+	final AlgebraElement gridJ;
+
+	private SolverWorkspace(ElementFactory factory) {
+		colors = factory.numberOfColors;
+		staples = factory.groupZero();
+		link = factory.groupIdentity();
+		temp1 = factory.groupZero();
+		temp2 = factory.groupZero();
+		algebra = factory.algebraZero();
+		field = factory.algebraZero();
+		gridU = factory.groupIdentity();
+		gridE = factory.algebraZero();
+		gridJ = factory.algebraZero();
+	}
+
+	/**
+	 * Returns the workspace of the current thread which matches the gauge group of the grid.
+	 *
+	 * @param grid  Grid the workspace is used for
+	 * @return      Workspace of the current thread
+	 */
+	static SolverWorkspace get(Grid grid) {
+		SolverWorkspace workspace = workspaces.get();
+		if (workspace == null || workspace.colors != grid.getNumberOfColors()) {
+			workspace = new SolverWorkspace(grid.getElementFactory());
+			workspaces.set(workspace);
+		}
+		return workspace;
+	}
+
+	/**
+	 * Computes the evolved gauge link exp(-at E) U and stores it in {@link #link}. Uses algebra and temp1.
+	 *
+	 * @param E     Electric field
+	 * @param at    Time step
+	 * @param U     Gauge link
+	 * @return      The scratch element link containing the result
+	 */
+	GroupElement evolveLink(AlgebraElement E, double at, GroupElement U) {
+		algebra.set(E);
+		algebra.multAssign(-at);
+		algebra.getLinkInto(temp1);
+		temp1.multInto(U, link);
+		return link;
+	}
+}
@@ -74,6 +74,7 @@ public class TempGaugeLightConePoissonSolver extends LightConePoissonSolver {
 				}
 			}
 
+			DoubleFFT_2D fft = new DoubleFFT_2D(size[0], size[1]);
 			for(int i = 0; i < numberOfComponents; i++) {
 				//prepare input for fft
 				for(int j = 0; j < size[0]; j++) {
@@ -91,7 +92,6 @@ public class TempGaugeLightConePoissonSolver extends LightConePoissonSolver {
 					}
 				}
 				//perform Fourier transformation
-				DoubleFFT_2D fft = new DoubleFFT_2D(size[0], size[1]);
 				fft.complexForward(charge);
 				//perform computation in Fourier space
 				for(int j = 0; j < size[0]; j++) {
@@ -148,6 +148,7 @@ public class TempGaugeLightConePoissonSolver extends LightConePoissonSolver {
 				E0List[j] = factory.algebraZero(colors);
 			}
 
+			DoubleFFT_1D fft = new DoubleFFT_1D(size[0]);
 			for(int i = 0; i < numberOfComponents; i++) {
 				//prepare input for fft
 				for(int j = 0; j < size[0]; j++) {
@@ -162,7 +163,6 @@ public class TempGaugeLightConePoissonSolver extends LightConePoissonSolver {
 					charge[2*j + 1] = 0.0;
 				}
 				//perform Fourier transformation
-				DoubleFFT_1D fft = new DoubleFFT_1D(size[0]);
 				fft.complexForward(charge);
 				//perform computation in Fourier space
 				for(int j = 0; j < size[0]; j++) {
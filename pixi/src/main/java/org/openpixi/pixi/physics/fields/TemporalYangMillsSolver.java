@@ -2,7 +2,7 @@ package org.openpixi.pixi.physics.fields;
 
 import org.openpixi.pixi.parallel.cellaccess.CellAction;
 import org.openpixi.pixi.physics.grid.Grid;
-import org.openpixi.pixi.math.GroupElement;
+import org.openpixi.pixi.math.AlgebraElement;
 
 public class TemporalYangMillsSolver extends FieldSolver
 {
@@ -58,16 +58,23 @@ public class TemporalYangMillsSolver extends FieldSolver
 		 */
 		public void execute(Grid grid, int index) {
 			if(grid.isActive(index)) {
+				SolverWorkspace w = SolverWorkspace.get(grid);
 				for (int i = 0; i < grid.getNumberOfDimensions(); i++) {
-					GroupElement temp = grid.getElementFactory().groupZero();
+					w.staples.setZero();
 					for (int j = 0; j < grid.getNumberOfDimensions(); j++) {
 						if (j != i) {
-							temp.addAssign(grid.getPlaquette(index, i, j, 1, 1, 0).mult(plaquetteFactor[j]));
-							temp.addAssign(grid.getPlaquette(index, i, j, 1, -1, 0).mult(plaquetteFactor[j]));
+							grid.getPlaquette(index, i, j, 1, 1, 0, w.temp1, w.temp2);
+							w.staples.addAssign(w.temp1, plaquetteFactor[j]);
+							grid.getPlaquette(index, i, j, 1, -1, 0, w.temp1, w.temp2);
+							w.staples.addAssign(w.temp1, plaquetteFactor[j]);
 						}
 					}
-					grid.addE(index, i, temp.proj());
-					grid.addE(index, i, grid.getJ(index, i).mult(unitFactor[i]));
+					w.staples.projInto(w.algebra);
+					AlgebraElement E = w.field;
+					E.set(grid.getE(index, i, w.gridE));
+					E.addAssign(w.algebra);
+					E.addAssign(grid.getJ(index, i, w.gridJ), unitFactor[i]);
+					grid.setE(index, i, E);
 				}
 			}
 		}
@@ -83,12 +90,9 @@ public class TemporalYangMillsSolver extends FieldSolver
 		 */
 		public void execute(Grid grid, int index) {
 			if(grid.isActive(index)) {
-				GroupElement V;
+				SolverWorkspace w = SolverWorkspace.get(grid);
 				for (int k = 0; k < grid.getNumberOfDimensions(); k++) {
-					V = grid.getE(index, k).mult(-at).getLink();
-					V.multAssign(grid.getU(index, k));
-					grid.setUnext(index, k, V);
-
+					grid.setUnext(index, k, w.evolveLink(grid.getE(index, k, w.gridE), at, grid.getU(index, k, w.gridU)));
 				}
 			}
 		}
@@ -1,18 +1,18 @@
 package org.openpixi.pixi.physics.fields.currentgenerators;
 
-import org.openpixi.pixi.diagnostics.FileFunctions;
+import org.openpixi.pixi.diagnostics.output.OutputFormat;
+import org.openpixi.pixi.diagnostics.output.OutputSink;
 import org.openpixi.pixi.math.AlgebraElement;
 import org.openpixi.pixi.math.GroupElement;
 import org.openpixi.pixi.math.SU2AlgebraElement;
 import org.openpixi.pixi.math.SU2GroupElement;
 import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.checkpoint.CheckpointInput;
+import org.openpixi.pixi.physics.checkpoint.CheckpointOutput;
 import org.openpixi.pixi.physics.fields.NewLCPoissonSolver;
 import org.openpixi.pixi.physics.util.GridFunctions;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.text.DecimalFormat;
 
 public class DualMVModel implements ICurrentGenerator {
 
@@ -61,6 +61,11 @@ public class DualMVModel implements ICurrentGenerator {
 	private String outputFile;
 	private boolean createInitialConditionsOutput;
 
+	/**
+	 * File format of the initial condition output.
+	 */
+	public OutputFormat outputFormat = OutputFormat.Text;
+
 	/**
 	 * Option whether to use the \mu^2 (true) or the g^2 \mu^2 (false) normalization for the Gaussian
 	 * probability distribution of the color charge densities.
@@ -94,11 +99,7 @@ public class DualMVModel implements ICurrentGenerator {
 
 	public void initializeCurrent(Simulation s, int totalInstances) {
 
-		mv1 = new MVModel(direction, 1, location, longitudinalWidth, mu, useSeed, seed1,
-				lowPassCoefficient, infraredCoefficient, useAlternativeNormalization);
-
-		mv2 = new MVModel(direction, -1,  -(location+1), longitudinalWidth, mu, useSeed, seed2,
-				lowPassCoefficient, infraredCoefficient, useAlternativeNormalization);
+		createModels();
 
 		mv1.initializeCurrent(s, totalInstances);
 		mv2.initializeCurrent(s, totalInstances);
@@ -169,26 +170,16 @@ public class DualMVModel implements ICurrentGenerator {
 			}
 
 			// File output ((d-1)x3 transversal gauge field components, 1x3 longitudinal electric field component)
-			FileFunctions.clearFile(outputFile);
-			File file = FileFunctions.getFile(outputFile);
-			try {
-				FileWriter pw = new FileWriter(file, true);
-
-				// Transverse fields
-				for (int i = 0; i < effDimensions-1; i++) {
-					double[][] output = convertToDoubleArray(transverseFields[i]);
-					pw.write(generateTSVString(output[0]) + "\n");
-					pw.write(generateTSVString(output[1]) + "\n");
-					pw.write(generateTSVString(output[2]) + "\n");
-				}
-
-				// Longitudinal fields
-				double[][] output = convertToDoubleArray(longitudinalFields);
-				pw.write(generateTSVString(output[0]) + "\n");
-				pw.write(generateTSVString(output[1]) + "\n");
-				pw.write(generateTSVString(output[2]) + "\n");
+			double[][] rows = new double[3 * effDimensions][];
+			for (int i = 0; i < effDimensions-1; i++) {
+				System.arraycopy(convertToDoubleArray(transverseFields[i]), 0, rows, 3 * i, 3);
+			}
+			System.arraycopy(convertToDoubleArray(longitudinalFields), 0, rows, 3 * (effDimensions - 1), 3);
 
-				pw.close();
+			OutputSink sink = outputFormat.createSink(outputFile, false, false);
+			try {
+				sink.write(s.totalSimulationTime, rows);
+				sink.close();
 			} catch (IOException ex) {
 				System.out.println("DualMVModel: Error writing to file.");
 			}
@@ -196,23 +187,30 @@ public class DualMVModel implements ICurrentGenerator {
 		}
 	}
 
+	public void writeState(CheckpointOutput output) {
+		// The charges are carried by the particles, which are part of the checkpoint.
+	}
+
+	public void resumeCurrent(Simulation s, int totalInstances, CheckpointInput input) throws IOException {
+		createModels();
+
+		mv1.resumeCurrent(s, totalInstances, input);
+		mv2.resumeCurrent(s, totalInstances, input);
+	}
+
+	private void createModels() {
+		mv1 = new MVModel(direction, 1, location, longitudinalWidth, mu, useSeed, seed1,
+				lowPassCoefficient, infraredCoefficient, useAlternativeNormalization);
+
+		mv2 = new MVModel(direction, -1,  -(location+1), longitudinalWidth, mu, useSeed, seed2,
+				lowPassCoefficient, infraredCoefficient, useAlternativeNormalization);
+	}
+
 	public void applyCurrent(Simulation s) {
 		mv1.applyCurrent(s);
 		mv2.applyCurrent(s);
 	}
 
-	private String generateTSVString(double[] array) {
-		StringBuilder outputStringBuilder = new StringBuilder();
-		DecimalFormat formatter = new DecimalFormat("0.################E0");
-		for (int i = 0; i < array.length; i++) {
-			outputStringBuilder.append(formatter.format(array[i]));
-			if(i < array.length - 1) {
-				outputStringBuilder.append("\t");
-			}
-		}
-		return outputStringBuilder.toString();
-	}
-
 	private double[][] convertToDoubleArray(AlgebraElement[] array) {
 		double[][] output = new double[3][array.length];
 		for (int i = 0; i < array.length; i++) {
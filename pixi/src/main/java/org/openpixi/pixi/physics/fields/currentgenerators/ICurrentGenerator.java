@@ -1,8 +1,32 @@
 package org.openpixi.pixi.physics.fields.currentgenerators;
 
 import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.checkpoint.CheckpointInput;
+import org.openpixi.pixi.physics.checkpoint.CheckpointOutput;
+
+import java.io.IOException;
 
 public interface ICurrentGenerator {
 	void applyCurrent(Simulation s);
 	void initializeCurrent(Simulation s, int totalInstances);
+
+	/**
+	 * Writes the state which {@link #applyCurrent(Simulation)} depends on and which can not be reconstructed from
+	 * the parameters of the generator (e.g. random charges) to a checkpoint.
+	 *
+	 * @param output    Checkpoint file
+	 */
+	void writeState(CheckpointOutput output) throws IOException;
+
+	/**
+	 * Prepares the generator for {@link #applyCurrent(Simulation)} when a simulation is resumed from a checkpoint.
+	 * This replaces {@link #initializeCurrent(Simulation, int)}: particles and fields created during the
+	 * initialization are part of the checkpoint and must not be created again. Fields written to the grid by this
+	 * method are overwritten by the checkpoint afterwards.
+	 *
+	 * @param s                 Simulation
+	 * @param totalInstances    Number of current generators
+	 * @param input             Checkpoint file positioned at the state written by {@link #writeState(CheckpointOutput)}
+	 */
+	void resumeCurrent(Simulation s, int totalInstances, CheckpointInput input) throws IOException;
 }
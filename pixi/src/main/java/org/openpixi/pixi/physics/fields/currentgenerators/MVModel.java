@@ -3,8 +3,11 @@ package org.openpixi.pixi.physics.fields.currentgenerators;
 import org.openpixi.pixi.math.AlgebraElement;
 import org.openpixi.pixi.physics.Simulation;
 import org.openpixi.pixi.physics.SimulationType;
+import org.openpixi.pixi.physics.checkpoint.CheckpointInput;
+import org.openpixi.pixi.physics.checkpoint.CheckpointOutput;
 import org.openpixi.pixi.physics.util.GridFunctions;
 
+import java.io.IOException;
 import java.util.Random;
 
 public class MVModel implements ICurrentGenerator {
@@ -137,6 +140,16 @@ public class MVModel implements ICurrentGenerator {
 
 	}
 
+	public void writeState(CheckpointOutput output) {
+		// The charges are carried by the particles, which are part of the checkpoint.
+	}
+
+	public void resumeCurrent(Simulation s, int totalInstances, CheckpointInput input) throws IOException {
+		// The particles and the fields are restored from the checkpoint.
+		particleLCCurrent = new ParticleLCCurrent(direction, orientation, location, longitudinalWidth);
+		particleLCCurrent.resumeCurrent(s, totalInstances, input);
+	}
+
 
 	public void applyCurrent(Simulation s) {
 		particleLCCurrent.applyCurrent(s);
@@ -4,6 +4,8 @@ import org.apache.commons.math3.analysis.function.Gaussian;
 import org.openpixi.pixi.math.AlgebraElement;
 import org.openpixi.pixi.math.GroupElement;
 import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.checkpoint.CheckpointInput;
+import org.openpixi.pixi.physics.checkpoint.CheckpointOutput;
 import org.openpixi.pixi.physics.fields.NewLCPoissonSolver;
 import org.openpixi.pixi.physics.util.GridFunctions;
 
@@ -83,6 +85,15 @@ public class NewLCCurrent implements ICurrentGenerator {
 		// You're done: charge density, current density and the fields are set up correctly.
 	}
 
+	public void writeState(CheckpointOutput output) {
+		// The charges are parameters of the generator.
+	}
+
+	public void resumeCurrent(Simulation s, int totalInstances, CheckpointInput input) {
+		// The initialization is deterministic and only needed for the Poisson solver used by applyCurrent.
+		initializeCurrent(s, totalInstances);
+	}
+
 	public void applyCurrent(Simulation s) {
 		int maxDirection = numCells[direction];
 		double t = s.totalSimulationTime;
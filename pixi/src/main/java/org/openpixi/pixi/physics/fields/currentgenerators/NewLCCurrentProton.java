@@ -4,9 +4,12 @@ import org.apache.commons.math3.analysis.function.Gaussian;
 import org.openpixi.pixi.math.AlgebraElement;
 import org.openpixi.pixi.math.GroupElement;
 import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.checkpoint.CheckpointInput;
+import org.openpixi.pixi.physics.checkpoint.CheckpointOutput;
 import org.openpixi.pixi.physics.fields.NewLCPoissonSolver;
 import org.openpixi.pixi.physics.util.GridFunctions;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Random;
 
@@ -50,21 +53,10 @@ public class NewLCCurrentProton implements ICurrentGenerator {
 
 	public void initializeCurrent(Simulation s, int totalInstances) {
 		// 0) Define some variables.
-		numberOfColors = s.getNumberOfColors();
-		numberOfComponents = s.grid.getElementFactory().numberOfComponents;
-		as = s.grid.getLatticeSpacing();
-		at = s.getTimeStep();
-		g = s.getCouplingConstant();
+		initializeVariables(s);
 
 		// 1) Initialize transversal charge density grid using the charges array.
-		numCells = s.grid.getNumCells();
-		transversalNumCells = GridFunctions.reduceGridPos(numCells, direction);
-		totalTransversalCells = GridFunctions.getTotalNumberOfCells(transversalNumCells);
 		double[] transversalWidths = new double[totalTransversalCells];
-		transversalChargeDensity = new AlgebraElement[totalTransversalCells];
-		for (int i = 0; i < totalTransversalCells; i++) {
-			transversalChargeDensity[i] = s.grid.getElementFactory().algebraZero();
-		}
 
 		// Iterate over (point) charges, create a Gaussian charge distribution around them and add them to the transversal charge density.
 		for (int i = 0; i < charges.size(); i++) {
@@ -102,6 +94,40 @@ public class NewLCCurrentProton implements ICurrentGenerator {
 		// You're done: charge density, current density and the fields are set up correctly.
 	}
 
+	public void writeState(CheckpointOutput output) throws IOException {
+		// The transversal charge density is random and can not be reconstructed from the parameters.
+		for (int i = 0; i < totalTransversalCells; i++) {
+			for (int j = 0; j < numberOfComponents; j++) {
+				output.putDouble(transversalChargeDensity[i].get(j));
+			}
+		}
+	}
+
+	public void resumeCurrent(Simulation s, int totalInstances, CheckpointInput input) throws IOException {
+		initializeVariables(s);
+		for (int i = 0; i < totalTransversalCells; i++) {
+			for (int j = 0; j < numberOfComponents; j++) {
+				transversalChargeDensity[i].set(j, input.getDouble());
+			}
+		}
+	}
+
+	private void initializeVariables(Simulation s) {
+		numberOfColors = s.getNumberOfColors();
+		numberOfComponents = s.grid.getElementFactory().numberOfComponents;
+		as = s.grid.getLatticeSpacing();
+		at = s.getTimeStep();
+		g = s.getCouplingConstant();
+
+		numCells = s.grid.getNumCells();
+		transversalNumCells = GridFunctions.reduceGridPos(numCells, direction);
+		totalTransversalCells = GridFunctions.getTotalNumberOfCells(transversalNumCells);
+		transversalChargeDensity = new AlgebraElement[totalTransversalCells];
+		for (int i = 0; i < totalTransversalCells; i++) {
+			transversalChargeDensity[i] = s.grid.getElementFactory().algebraZero();
+		}
+	}
+
 	public void applyCurrent(Simulation s) {
 		int maxDirection = numCells[direction];
 		double t = s.totalSimulationTime;
@@ -4,8 +4,11 @@ import org.apache.commons.math3.analysis.function.Gaussian;
 import org.openpixi.pixi.math.AlgebraElement;
 import org.openpixi.pixi.physics.Simulation;
 import org.openpixi.pixi.physics.SimulationType;
+import org.openpixi.pixi.physics.checkpoint.CheckpointInput;
+import org.openpixi.pixi.physics.checkpoint.CheckpointOutput;
 import org.openpixi.pixi.physics.util.GridFunctions;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Random;
 
@@ -230,6 +233,16 @@ public class NucleusLCCurrent implements ICurrentGenerator {
 		particleLCCurrent.initializeCurrent(s, dummy);
 	}
 
+	public void writeState(CheckpointOutput output) {
+		// The charges are carried by the particles, which are part of the checkpoint.
+	}
+
+	public void resumeCurrent(Simulation s, int totalInstances, CheckpointInput input) throws IOException {
+		// The particles and the fields are restored from the checkpoint.
+		particleLCCurrent = new ParticleLCCurrent(direction, orientation, location, longitudinalWidth);
+		particleLCCurrent.resumeCurrent(s, totalInstances, input);
+	}
+
 	/**
 	 * Removes the dipole moment by adding dipoles for each color component. These dipoles cancel the total dipole moment.
 	 *
@@ -3,6 +3,8 @@ package org.openpixi.pixi.physics.fields.currentgenerators;
 import org.openpixi.pixi.math.AlgebraElement;
 import org.openpixi.pixi.math.GroupElement;
 import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.checkpoint.CheckpointInput;
+import org.openpixi.pixi.physics.checkpoint.CheckpointOutput;
 import org.openpixi.pixi.physics.fields.NewLCPoissonSolver;
 import org.openpixi.pixi.physics.particles.CGCParticle;
 import org.openpixi.pixi.physics.util.GridFunctions;
@@ -149,6 +151,14 @@ public class ParticleLCCurrent implements ICurrentGenerator {
 		// You're done: charge density, current density and the fields are set up correctly.
 	}
 
+	public void writeState(CheckpointOutput output) {
+		// The charges are carried by the particles, which are part of the checkpoint.
+	}
+
+	public void resumeCurrent(Simulation s, int totalInstances, CheckpointInput input) {
+		// The particles and the fields are restored from the checkpoint. The current is generated by the particles.
+	}
+
 
 	/**
 	 * Interpolates and evolves the charges and currents to the grid.
@@ -3,7 +3,8 @@ package org.openpixi.pixi.physics.fields.currentgenerators;
 import org.openpixi.pixi.math.AlgebraElement;
 import org.openpixi.pixi.physics.Simulation;
 import org.openpixi.pixi.physics.particles.CGCParticle;
-import org.openpixi.pixi.physics.particles.IParticle;
+import org.openpixi.pixi.physics.particles.CGCParticleArray;
+import org.openpixi.pixi.physics.particles.ParticleStorageType;
 import org.openpixi.pixi.physics.util.GridFunctions;
 
 import java.util.ArrayList;
@@ -28,6 +29,7 @@ public class ParticleLCCurrentNGP extends ParticleLCCurrent {
 	public void initializeParticles(Simulation s, int particlesPerLink) {
 		double cutoffCharge = 10E-22 * Math.pow( g * as, 2) / (Math.pow(as, 3) * particlesPerLink);
 
+		ArrayList<CGCParticle> particles = new ArrayList<CGCParticle>();
 		ArrayList<ArrayList<CGCParticle>> longitudinalParticleList = new ArrayList<ArrayList<CGCParticle>>(totalTransversalCells);
 		for (int i = 0; i < totalTransversalCells; i++) {
 			longitudinalParticleList.add(new ArrayList<CGCParticle>());
@@ -74,7 +76,7 @@ public class ParticleLCCurrentNGP extends ParticleLCCurrent {
 				p.Q1 = charge.copy();       // charge at t = dt, assume that there is no parallel transport initially (also optional).
 
 				if(charge.square() > cutoffCharge) {
-					s.particles.add(p);
+					particles.add(p);
 
 					// Add to extra particle array for charge refinement.
 					int transversalIndex = GridFunctions.getCellIndex(GridFunctions.reduceGridPos(gridPos, direction), transversalNumCells);
@@ -103,11 +105,26 @@ public class ParticleLCCurrentNGP extends ParticleLCCurrent {
 		}
 
 		// Make sure particle charges Q0 and Q1 are the same.
-		for(IParticle p : s.particles) {
-			CGCParticle P = (CGCParticle) p;
-			P.Q1 = P.Q0.copy();
+		for(CGCParticle p : particles) {
+			p.Q1 = p.Q0.copy();
 		}
 
+		if (s.getParticleStorage() == ParticleStorageType.Primitive) {
+			// Copy the particles to populations of about the size of a transverse plane.
+			int populationSize = Math.max(totalTransversalCells * particlesPerCell, 1);
+			int numberOfComponents = s.grid.getElementFactory().numberOfComponents;
+			for (int start = 0; start < particles.size(); start += populationSize) {
+				int end = Math.min(start + populationSize, particles.size());
+				CGCParticleArray population = new CGCParticleArray(end - start, s.getNumberOfDimensions(),
+						numberOfComponents, direction);
+				for (int i = start; i < end; i++) {
+					population.set(i - start, particles.get(i));
+				}
+				s.particles.add(population);
+			}
+		} else {
+			s.particles.addAll(particles);
+		}
 	}
 
 	private void refine2(int i, ArrayList<CGCParticle> list, int particlesPerLink) {
@@ -3,8 +3,11 @@ package org.openpixi.pixi.physics.fields.currentgenerators;
 import org.openpixi.pixi.math.AlgebraElement;
 import org.openpixi.pixi.physics.Simulation;
 import org.openpixi.pixi.physics.SimulationType;
+import org.openpixi.pixi.physics.checkpoint.CheckpointInput;
+import org.openpixi.pixi.physics.checkpoint.CheckpointOutput;
 import org.openpixi.pixi.physics.util.GridFunctions;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 /**
@@ -168,6 +171,16 @@ public class PointChargeLCCurrent implements ICurrentGenerator {
 		particleLCCurrent.initializeCurrent(s, dummy);
 	}
 
+	public void writeState(CheckpointOutput output) {
+		// The charges are carried by the particles, which are part of the checkpoint.
+	}
+
+	public void resumeCurrent(Simulation s, int totalInstances, CheckpointInput input) throws IOException {
+		// The particles and the fields are restored from the checkpoint.
+		particleLCCurrent = new ParticleLCCurrent(direction, orientation, location, longitudinalWidth);
+		particleLCCurrent.resumeCurrent(s, totalInstances, input);
+	}
+
 
 	/**
 	 *
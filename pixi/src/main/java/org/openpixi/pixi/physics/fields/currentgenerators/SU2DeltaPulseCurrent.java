@@ -2,6 +2,8 @@ package org.openpixi.pixi.physics.fields.currentgenerators;
 
 import org.openpixi.pixi.math.SU2AlgebraElement;
 import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.checkpoint.CheckpointInput;
+import org.openpixi.pixi.physics.checkpoint.CheckpointOutput;
 import org.openpixi.pixi.physics.grid.Grid;
 
 public class SU2DeltaPulseCurrent implements ICurrentGenerator {
@@ -31,6 +33,14 @@ public class SU2DeltaPulseCurrent implements ICurrentGenerator {
 		applyCurrent(s);
 	}
 
+	public void writeState(CheckpointOutput output) {
+		// The current only depends on the parameters and the simulation time.
+	}
+
+	public void resumeCurrent(Simulation s, int totalInstances, CheckpointInput input) {
+		// The current only depends on the parameters and the simulation time.
+	}
+
 	public void applyCurrent(Simulation s) {
 		this.grid = s.grid;
 		double as = grid.getLatticeSpacing();
@@ -2,6 +2,8 @@ package org.openpixi.pixi.physics.fields.currentgenerators;
 
 import org.openpixi.pixi.math.SU2AlgebraElement;
 import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.checkpoint.CheckpointInput;
+import org.openpixi.pixi.physics.checkpoint.CheckpointOutput;
 import org.openpixi.pixi.physics.grid.Grid;
 import org.openpixi.pixi.physics.fields.LightConePoissonSolver;
 import org.openpixi.pixi.physics.fields.TempGaugeLightConePoissonSolver;
@@ -40,6 +42,14 @@ public class SU2LightConeDeltaPulseCurrent implements ICurrentGenerator {
 		poisson.solve(s.grid);
 	}
 
+	public void writeState(CheckpointOutput output) {
+		// The current only depends on the parameters and the simulation time.
+	}
+
+	public void resumeCurrent(Simulation s, int totalInstances, CheckpointInput input) {
+		// The current only depends on the parameters and the simulation time.
+	}
+
 	public void applyCurrent(Simulation s) {
 		this.grid = s.grid;
 		double as = grid.getLatticeSpacing();
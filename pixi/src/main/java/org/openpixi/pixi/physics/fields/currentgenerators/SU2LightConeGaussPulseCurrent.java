@@ -4,6 +4,8 @@ import org.apache.commons.math3.analysis.function.Gaussian;
 import org.openpixi.pixi.math.SU2AlgebraElement;
 import org.openpixi.pixi.math.SU2GroupElement;
 import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.checkpoint.CheckpointInput;
+import org.openpixi.pixi.physics.checkpoint.CheckpointOutput;
 import org.openpixi.pixi.physics.fields.*;
 import org.openpixi.pixi.physics.grid.Grid;
 
@@ -50,6 +52,14 @@ public class SU2LightConeGaussPulseCurrent implements ICurrentGenerator {
 		}
 	}
 
+	public void writeState(CheckpointOutput output) {
+		// The current only depends on the parameters and the simulation time.
+	}
+
+	public void resumeCurrent(Simulation s, int totalInstances, CheckpointInput input) {
+		// The current only depends on the parameters and the simulation time.
+	}
+
 	public void gaugeTransform(SU2GroupElement transformationMatrix) {
 		transform.set(transformationMatrix);
 	}
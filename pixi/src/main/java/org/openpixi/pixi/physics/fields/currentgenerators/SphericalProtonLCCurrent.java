@@ -4,8 +4,11 @@ import org.apache.commons.math3.analysis.function.Gaussian;
 import org.openpixi.pixi.math.AlgebraElement;
 import org.openpixi.pixi.physics.Simulation;
 import org.openpixi.pixi.physics.SimulationType;
+import org.openpixi.pixi.physics.checkpoint.CheckpointInput;
+import org.openpixi.pixi.physics.checkpoint.CheckpointOutput;
 import org.openpixi.pixi.physics.util.GridFunctions;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Random;
 
@@ -199,6 +202,16 @@ public class SphericalProtonLCCurrent implements ICurrentGenerator {
 		particleLCCurrent.initializeCurrent(s, dummy);
 	}
 
+	public void writeState(CheckpointOutput output) {
+		// The charges are carried by the particles, which are part of the checkpoint.
+	}
+
+	public void resumeCurrent(Simulation s, int totalInstances, CheckpointInput input) throws IOException {
+		// The particles and the fields are restored from the checkpoint.
+		particleLCCurrent = new ParticleLCCurrent(direction, orientation, location, longitudinalWidth);
+		particleLCCurrent.resumeCurrent(s, totalInstances, input);
+	}
+
 	public AlgebraElement[] computeChargeDensity(Simulation s) {
 		// 0) Define some variables.
 		numberOfColors = s.getNumberOfColors();
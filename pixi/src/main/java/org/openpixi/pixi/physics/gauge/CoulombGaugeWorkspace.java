@@ -0,0 +1,402 @@
+package org.openpixi.pixi.physics.gauge;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.ElementFactory;
+import org.openpixi.pixi.math.GroupElement;
+import org.openpixi.pixi.parallel.cellaccess.CellAction;
+import org.openpixi.pixi.parallel.cellaccess.RangeIterator;
+import org.openpixi.pixi.physics.grid.Grid;
+
+/**
+ * Coulomb gauge fixing of the links of a grid without copying the grid.
+ * <p>
+ * Only the gauge links are copied into primitive arrays (see {@link GroupElement#getNumberOfParameters()}), which are
+ * allocated once and reused for every call of {@link #fixGauge(Grid)}. The links can optionally be mirrored along one
+ * direction while they are copied, which doubles the lattice in that direction. The gauge transformations of all
+ * iterations are accumulated into a single transformation G(x). The other fields of the grid are left untouched;
+ * they can be transformed on the fly with
+ * {@link #transformLink(int, int, GroupElement, GroupElement, GroupElement)} and
+ * {@link #transformComponents(int, double[], int, GroupElement)}, or all at once with {@link CoulombGauge}.
+ * <p>
+ * The cells are processed in chunks of consecutive cells which are distributed over the threads of the cell iterator
+ * of the grid.
+ */
+public class CoulombGaugeWorkspace {
+
+	/**
+	 * Maximum number of interations.
+	 */
+	private int maxIteration = 100;
+
+	/**
+	 * Accuracy goal for the transformation.
+	 */
+	private double accuracyGoal = 1e-18;
+
+	/**
+	 * Squared divergence before each iteration of the last call of {@link #fixGauge(Grid)}.
+	 */
+	private List<Double> lastConvergence = new ArrayList<Double>(maxIteration);
+
+	private int numDim;
+	private int numberOfParameters;
+	private int numberOfComponents;
+	private int mirroredDirection;
+	private ElementFactory factory;
+
+	/**
+	 * Size of the grid.
+	 */
+	private int[] numCells;
+
+	/**
+	 * Size of the workspace lattice, the size of the grid doubled in the mirrored direction.
+	 */
+	private int[] workspaceNumCells;
+	private int[] workspaceStrides;
+	private int workspaceNumberOfCells;
+	private int numberOfChunks;
+
+	/**
+	 * Gauge links U_d(x) starting at (x * numDim + d) * numberOfParameters.
+	 */
+	private double[] links;
+
+	/**
+	 * Accumulated gauge transformation G(x) starting at x * numberOfParameters.
+	 */
+	private double[] gauge;
+
+	/**
+	 * Gauge transformation g(x) of the current iteration.
+	 */
+	private double[] step;
+
+	/**
+	 * Divergence of the gauge field for each color component, indexed by cell index.
+	 */
+	private double[][] divergence;
+
+	/**
+	 * Inverse of the lattice Laplace operator in momentum space.
+	 */
+	private double[] inverseLaplace;
+
+	private RangeIterator chunkIterator;
+
+	private LoadLinks loadLinks = new LoadLinks();
+	private CalculateDivergence calculateDivergence = new CalculateDivergence();
+	private CalculateStep calculateStep = new CalculateStep();
+	private ApplyStep applyStep = new ApplyStep();
+
+	/**
+	 * Creates the workspace for a grid.
+	 *
+	 * @param grid              Grid whose links are gauge fixed
+	 * @param mirroredDirection Direction in which the lattice is mirrored, -1 if the lattice is not mirrored
+	 */
+	public CoulombGaugeWorkspace(Grid grid, int mirroredDirection) {
+		this.mirroredDirection = mirroredDirection;
+		numDim = grid.getNumberOfDimensions();
+		factory = grid.getElementFactory();
+		numberOfParameters = factory.groupIdentity().getNumberOfParameters();
+		numberOfComponents = factory.numberOfComponents;
+
+		numCells = grid.getNumCells().clone();
+		workspaceNumCells = numCells.clone();
+		if (mirroredDirection >= 0) {
+			workspaceNumCells[mirroredDirection] *= 2;
+		}
+		workspaceStrides = new int[numDim];
+		workspaceNumberOfCells = 1;
+		for (int d = numDim - 1; d >= 0; d--) {
+			workspaceStrides[d] = workspaceNumberOfCells;
+			workspaceNumberOfCells *= workspaceNumCells[d];
+		}
+		numberOfChunks = RangeIterator.getNumberOfChunks(workspaceNumberOfCells);
+
+		links = new double[workspaceNumberOfCells * numDim * numberOfParameters];
+		gauge = new double[workspaceNumberOfCells * numberOfParameters];
+		step = new double[workspaceNumberOfCells * numberOfParameters];
+		divergence = new double[numberOfComponents][workspaceNumberOfCells];
+
+		inverseLaplace = new double[workspaceNumberOfCells];
+		for (int index = 1; index < workspaceNumberOfCells; index++) {
+			// Calculate inverse Laplace operator on the lattice for discrete derivatives,
+			// the zero vector component does not contribute.
+			double sum = 0.0;
+			for (int d = 0; d < numDim; d++) {
+				sum += Math.cos(2 * Math.PI * getWorkspacePosition(index, d) / workspaceNumCells[d]);
+			}
+			inverseLaplace[index] = -0.5 / (sum - numDim);
+		}
+
+		chunkIterator = new RangeIterator(grid, numberOfChunks);
+	}
+
+	public double getAccuracyGoal() {
+		return accuracyGoal;
+	}
+
+	public Double[] getLastConvergence() {
+		return lastConvergence.toArray(new Double[0]);
+	}
+
+	/**
+	 * Copies the links of a grid into the workspace and computes the gauge transformation to Coulomb gauge. The grid
+	 * has to have the size the workspace was created for.
+	 *
+	 * @param grid  Grid
+	 */
+	public void fixGauge(Grid grid) {
+		for (int d = 0; d < numDim; d++) {
+			if (grid.getNumCells(d) != numCells[d]) {
+				throw new RuntimeException("CoulombGaugeWorkspace: the grid does not match the size of the workspace.");
+			}
+		}
+		chunkIterator.execute(grid, loadLinks);
+
+		int iteration = 0;
+		double divergenceSquaredSum = 0;
+		lastConvergence.clear();
+		while (iteration < maxIteration) {
+			chunkIterator.execute(grid, calculateDivergence);
+			divergenceSquaredSum = 0;
+			for (int color = 0; color < numberOfComponents; color++) {
+				for (int i = 0; i < workspaceNumberOfCells; i++) {
+					divergenceSquaredSum += divergence[color][i] * divergence[color][i];
+				}
+			}
+			lastConvergence.add(divergenceSquaredSum);
+
+			// Solve Poisson's equation by applying the inverse Laplace operator
+			// for discrete lattice derivatives in Fourier space:
+			grid.getFFTService().applyKernel(workspaceNumCells, divergence, inverseLaplace);
+
+			chunkIterator.execute(grid, calculateStep);
+			chunkIterator.execute(grid, applyStep);
+			iteration++;
+			if (divergenceSquaredSum < accuracyGoal) {
+				break;
+			}
+		}
+		if (divergenceSquaredSum >= accuracyGoal) {
+			System.out.println("Warning: accuracy goal NOT reached within " + iteration + " iterations.");
+		}
+	}
+
+	/**
+	 * Returns the gauge fixed link U_d(x).
+	 *
+	 * @param index Cell index x of the grid
+	 * @param dir   Direction d
+	 * @param dest  Group element the link is written to
+	 */
+	public void getLink(int index, int dir, GroupElement dest) {
+		read(links, (getWorkspaceIndex(index) * numDim + dir) * numberOfParameters, dest);
+	}
+
+	/**
+	 * Returns the accumulated gauge transformation G(x).
+	 *
+	 * @param index Cell index x of the grid
+	 * @param dest  Group element the gauge transformation is written to
+	 */
+	public void getGaugeTransformation(int index, GroupElement dest) {
+		read(gauge, getWorkspaceIndex(index) * numberOfParameters, dest);
+	}
+
+	/**
+	 * Applies the gauge transformation to a link of the grid in place, U_d(x) -> G(x) U_d(x) G^\dagger(x+d).
+	 *
+	 * @param index Cell index x of the grid
+	 * @param dir   Direction d
+	 * @param link  Link U_d(x) of the grid, overwritten with the result
+	 * @param temp1 Temporary group element
+	 * @param temp2 Temporary group element
+	 */
+	public void transformLink(int index, int dir, GroupElement link, GroupElement temp1, GroupElement temp2) {
+		int workspaceIndex = getWorkspaceIndex(index);
+		read(gauge, workspaceIndex * numberOfParameters, temp1);
+		temp1.multInto(link, temp2);
+		read(gauge, shift(workspaceIndex, dir) * numberOfParameters, temp1);
+		temp2.multAdjInto(temp1, link);
+	}
+
+	/**
+	 * Applies the gauge transformation to an algebra element of the grid given by its color components,
+	 * X(x) -> G(x) X(x) G^\dagger(x).
+	 *
+	 * @param index         Cell index x of the grid
+	 * @param components    Array containing the color components
+	 * @param offset        Index of the first component in the array
+	 * @param temp          Temporary group element
+	 */
+	public void transformComponents(int index, double[] components, int offset, GroupElement temp) {
+		read(gauge, getWorkspaceIndex(index) * numberOfParameters, temp);
+		temp.actOnComponents(components, offset);
+	}
+
+	/**
+	 * Returns the index in the workspace lattice of a cell of the grid. Both have the same position.
+	 */
+	private int getWorkspaceIndex(int index) {
+		if (mirroredDirection < 0) {
+			return index;
+		}
+		int workspaceIndex = 0;
+		for (int d = numDim - 1; d >= 0; d--) {
+			workspaceIndex += (index % numCells[d]) * workspaceStrides[d];
+			index /= numCells[d];
+		}
+		return workspaceIndex;
+	}
+
+	private int getWorkspacePosition(int workspaceIndex, int dir) {
+		return (workspaceIndex / workspaceStrides[dir]) % workspaceNumCells[dir];
+	}
+
+	/**
+	 * Periodic shift by one cell in the positive direction on the workspace lattice.
+	 */
+	private int shift(int workspaceIndex, int dir) {
+		if (getWorkspacePosition(workspaceIndex, dir) == workspaceNumCells[dir] - 1) {
+			return workspaceIndex - (workspaceNumCells[dir] - 1) * workspaceStrides[dir];
+		}
+		return workspaceIndex + workspaceStrides[dir];
+	}
+
+	/**
+	 * Periodic shift by one cell in the negative direction on the workspace lattice.
+	 */
+	private int shiftBack(int workspaceIndex, int dir) {
+		if (getWorkspacePosition(workspaceIndex, dir) == 0) {
+			return workspaceIndex + (workspaceNumCells[dir] - 1) * workspaceStrides[dir];
+		}
+		return workspaceIndex - workspaceStrides[dir];
+	}
+
+	private void read(double[] array, int offset, GroupElement dest) {
+		for (int j = 0; j < numberOfParameters; j++) {
+			dest.set(j, array[offset + j]);
+		}
+	}
+
+	private void write(GroupElement source, double[] array, int offset) {
+		for (int j = 0; j < numberOfParameters; j++) {
+			array[offset + j] = source.get(j);
+		}
+	}
+
+	/**
+	 * Copies the links of the grid into the workspace. In the mirrored half, the links in the mirrored direction are
+	 * taken from the neighbouring cell (same convention as the mirrored grid of the occupation numbers diagnostic).
+	 * The accumulated gauge transformation is reset to the identity.
+	 */
+	private class LoadLinks implements CellAction {
+		public void execute(Grid grid, int chunk) {
+			GroupElement identity = factory.groupIdentity();
+			int end = RangeIterator.getChunkEnd(chunk, workspaceNumberOfCells);
+			for (int x = RangeIterator.getChunkStart(chunk); x < end; x++) {
+				// Position of the source cell in the grid.
+				int index = 0;
+				int sourceIndexInMirroredDirection = 0;
+				boolean mirrored = false;
+				for (int d = 0; d < numDim; d++) {
+					int pos = getWorkspacePosition(x, d);
+					if (d == mirroredDirection && pos >= numCells[d]) {
+						pos = 2 * numCells[d] - pos - 1;
+						mirrored = true;
+					}
+					index = index * numCells[d] + pos;
+				}
+				if (mirrored) {
+					// Switch gauge links in the mirrored direction.
+					sourceIndexInMirroredDirection = index;
+					if (getWorkspacePosition(x, mirroredDirection) < workspaceNumCells[mirroredDirection] - 1) {
+						sourceIndexInMirroredDirection -= grid.getShiftOffset(mirroredDirection, 1);
+					}
+				}
+				for (int d = 0; d < numDim; d++) {
+					int sourceIndex = (mirrored && d == mirroredDirection) ? sourceIndexInMirroredDirection : index;
+					write(grid.getU(sourceIndex, d), links, (x * numDim + d) * numberOfParameters);
+				}
+				write(identity, gauge, x * numberOfParameters);
+			}
+		}
+	}
+
+	private class CalculateDivergence implements CellAction {
+		public void execute(Grid grid, int chunk) {
+			GroupElement temp = factory.groupIdentity();
+			int end = RangeIterator.getChunkEnd(chunk, workspaceNumberOfCells);
+			for (int x = RangeIterator.getChunkStart(chunk); x < end; x++) {
+				for (int color = 0; color < numberOfComponents; color++) {
+					divergence[color][x] = 0;
+				}
+				for (int dir = 0; dir < numDim; dir++) {
+					/*
+					 * U_i(x) - U_i(x-i)
+					 */
+					read(links, (x * numDim + dir) * numberOfParameters, temp);
+					AlgebraElement U = temp.getAlgebraElement();
+					read(links, (shiftBack(x, dir) * numDim + dir) * numberOfParameters, temp);
+					AlgebraElement Ushifted = temp.getAlgebraElement();
+
+					for (int color = 0; color < numberOfComponents; color++) {
+						divergence[color][x] += U.get(color) - Ushifted.get(color);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Calculates g(x) = exp(i g psi^\dagger) from the solution psi of the Poisson equation.
+	 */
+	private class CalculateStep implements CellAction {
+		public void execute(Grid grid, int chunk) {
+			AlgebraElement psidagger = factory.algebraZero();
+			GroupElement g = factory.groupIdentity();
+			int end = RangeIterator.getChunkEnd(chunk, workspaceNumberOfCells);
+			for (int x = RangeIterator.getChunkStart(chunk); x < end; x++) {
+				// Field generators are antihermitian so multiply psi by -1 to get psidagger
+				for (int color = 0; color < numberOfComponents; color++) {
+					psidagger.set(color, -divergence[color][x]);
+				}
+				psidagger.getLinkInto(g);
+				write(g, step, x * numberOfParameters);
+			}
+		}
+	}
+
+	/**
+	 * Applies g(x) to the links, U_i(x) -> g(x) U_i(x) g^\dagger(x+i), and accumulates it, G(x) -> g(x) G(x).
+	 */
+	private class ApplyStep implements CellAction {
+		public void execute(Grid grid, int chunk) {
+			GroupElement g = factory.groupIdentity();
+			GroupElement gshifted = factory.groupIdentity();
+			GroupElement U = factory.groupIdentity();
+			GroupElement temp = factory.groupIdentity();
+			int end = RangeIterator.getChunkEnd(chunk, workspaceNumberOfCells);
+			for (int x = RangeIterator.getChunkStart(chunk); x < end; x++) {
+				read(step, x * numberOfParameters, g);
+				for (int dir = 0; dir < numDim; dir++) {
+					int offset = (x * numDim + dir) * numberOfParameters;
+					read(links, offset, U);
+					read(step, shift(x, dir) * numberOfParameters, gshifted);
+					g.multInto(U, temp);
+					temp.multAdjInto(gshifted, U);
+					write(U, links, offset);
+				}
+				read(gauge, x * numberOfParameters, U);
+				g.multInto(U, temp);
+				write(temp, gauge, x * numberOfParameters);
+			}
+		}
+	}
+}
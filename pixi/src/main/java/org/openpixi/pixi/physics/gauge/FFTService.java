@@ -0,0 +1,228 @@
+package org.openpixi.pixi.physics.gauge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Shared service for the Fourier transforms of the solvers and diagnostics.
+ * <p>
+ * Creating a {@link DoubleFFTWrapper} computes twiddle factors and allocates scratch space, and the JTransforms plans
+ * may not be used by several threads at the same time. The service therefore caches one plan per lattice shape and
+ * thread and keeps a pool of interleaved complex work arrays (see {@link DoubleFFTWrapper#getFFTArrayIndex(int)})
+ * for every thread.
+ * <p>
+ * Batches of arrays of the same shape (e.g. all color components of a field) are distributed over the threads of the
+ * executor. Every array is transformed by exactly one thread, so the results do not depend on the number of threads.
+ * Batches must not be submitted from a thread of the same executor.
+ */
+public class FFTService {
+
+	private static final ThreadLocal<HashMap<String, DoubleFFTWrapper>> plans =
+			new ThreadLocal<HashMap<String, DoubleFFTWrapper>>() {
+				@Override
+				protected HashMap<String, DoubleFFTWrapper> initialValue() {
+					return new HashMap<String, DoubleFFTWrapper>();
+				}
+			};
+
+	private static final ThreadLocal<HashMap<String, double[][]>> buffers =
+			new ThreadLocal<HashMap<String, double[][]>>() {
+				@Override
+				protected HashMap<String, double[][]> initialValue() {
+					return new HashMap<String, double[][]>();
+				}
+			};
+
+	private static final FFTService serialService = new FFTService(1, null);
+
+	private int numberOfThreads;
+	private ExecutorService executor;
+
+	/**
+	 * @param numberOfThreads   Number of threads a batch is distributed over
+	 * @param executor          Executor running the threads (may be null if numberOfThreads is one)
+	 */
+	public FFTService(int numberOfThreads, ExecutorService executor) {
+		if (numberOfThreads > 1 && executor == null) {
+			throw new RuntimeException("FFTService: an executor is required for " + numberOfThreads + " threads.");
+		}
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+		this.executor = executor;
+	}
+
+	/**
+	 * Returns a service which transforms batches in the calling thread.
+	 */
+	public static FFTService getSerialService() {
+		return serialService;
+	}
+
+	/**
+	 * Returns the cached plan of the calling thread for a lattice shape.
+	 *
+	 * @param shape Size of the lattice in each direction
+	 * @return      Plan which may only be used by the calling thread
+	 */
+	public static DoubleFFTWrapper getPlan(int[] shape) {
+		HashMap<String, DoubleFFTWrapper> threadPlans = plans.get();
+		String key = Arrays.toString(shape);
+		DoubleFFTWrapper plan = threadPlans.get(key);
+		if (plan == null) {
+			plan = new DoubleFFTWrapper(shape.clone());
+			threadPlans.put(key, plan);
+		}
+		return plan;
+	}
+
+	/**
+	 * Returns pooled work arrays of the calling thread for a lattice shape. The arrays have the size
+	 * {@link DoubleFFTWrapper#getFFTArraySize()} and their content is undefined. They are handed out again by the next
+	 * call with the same shape in the same thread (also by {@link #applyKernel(int[], double[][], double[])}), so they
+	 * must not be kept.
+	 *
+	 * @param shape Size of the lattice in each direction
+	 * @param count Number of arrays
+	 * @return      Work arrays which may only be used by the calling thread
+	 */
+	public static double[][] getBuffers(int[] shape, int count) {
+		HashMap<String, double[][]> threadBuffers = buffers.get();
+		String key = Arrays.toString(shape);
+		double[][] pool = threadBuffers.get(key);
+		if (pool == null || pool.length < count) {
+			int size = getPlan(shape).getFFTArraySize();
+			double[][] newPool = new double[count][];
+			for (int i = 0; i < count; i++) {
+				newPool[i] = (pool != null && i < pool.length) ? pool[i] : new double[size];
+			}
+			pool = newPool;
+			threadBuffers.put(key, pool);
+		}
+		return (pool.length == count) ? pool : Arrays.copyOf(pool, count);
+	}
+
+	/**
+	 * Forward transforms of a batch of interleaved complex arrays (in place).
+	 *
+	 * @param shape Size of the lattice in each direction
+	 * @param batch Arrays to transform
+	 */
+	public void complexForward(int[] shape, double[][] batch) {
+		execute(shape, batch, true, false);
+	}
+
+	/**
+	 * Inverse transforms of a batch of interleaved complex arrays (in place).
+	 *
+	 * @param shape Size of the lattice in each direction
+	 * @param batch Arrays to transform
+	 * @param scale Whether to divide by the number of cells
+	 */
+	public void complexInverse(int[] shape, double[][] batch, boolean scale) {
+		execute(shape, batch, false, scale);
+	}
+
+	/**
+	 * Multiplies real fields with a real kernel in momentum space, f(x) -> F^{-1}[K(k) F[f](k)](x), in place. The kernel
+	 * has to be even, K(k) = K(-k), so that the results are real. Two fields are then transformed at once as real and
+	 * imaginary part of a single complex field, which halves the number of transforms.
+	 *
+	 * @param shape     Size of the lattice in each direction
+	 * @param fields    Real fields indexed by cell index
+	 * @param kernel    Kernel indexed by the cell index of the lattice momentum
+	 */
+	public void applyKernel(int[] shape, final double[][] fields, final double[] kernel) {
+		final int[] plainShape = shape.clone();
+		final int numberOfPairs = (fields.length + 1) / 2;
+		final int totalNumberOfCells = kernel.length;
+		runTasks(numberOfPairs, new Task() {
+			public void execute(int pair) {
+				double[] re = fields[2 * pair];
+				double[] im = (2 * pair + 1 < fields.length) ? fields[2 * pair + 1] : null;
+				DoubleFFTWrapper fft = getPlan(plainShape);
+				double[] data = getBuffers(plainShape, 1)[0];
+				for (int i = 0; i < totalNumberOfCells; i++) {
+					int k = fft.getFFTArrayIndex(i);
+					data[k] = re[i];
+					data[k + 1] = (im != null) ? im[i] : 0.0;
+				}
+				fft.complexForward(data);
+				for (int i = 0; i < totalNumberOfCells; i++) {
+					int k = fft.getFFTArrayIndex(i);
+					data[k] *= kernel[i];
+					data[k + 1] *= kernel[i];
+				}
+				fft.complexInverse(data, true);
+				for (int i = 0; i < totalNumberOfCells; i++) {
+					int k = fft.getFFTArrayIndex(i);
+					re[i] = data[k];
+					if (im != null) {
+						im[i] = data[k + 1];
+					}
+				}
+			}
+		});
+	}
+
+	private void execute(int[] shape, final double[][] batch, final boolean forward, final boolean scale) {
+		final int[] plainShape = shape.clone();
+		runTasks(batch.length, new Task() {
+			public void execute(int b) {
+				DoubleFFTWrapper fft = getPlan(plainShape);
+				if (forward) {
+					fft.complexForward(batch[b]);
+				} else {
+					fft.complexInverse(batch[b], scale);
+				}
+			}
+		});
+	}
+
+	private interface Task {
+		void execute(int item);
+	}
+
+	/**
+	 * Executes a task for the items 0, ..., count - 1. Items are distributed in an interleaved fashion over the threads.
+	 */
+	private void runTasks(final int count, final Task task) {
+		int threads = Math.min(numberOfThreads, count);
+		if (threads <= 1) {
+			for (int i = 0; i < count; i++) {
+				task.execute(i);
+			}
+			return;
+		}
+
+		List<Callable<Object>> callables = new ArrayList<Callable<Object>>();
+		for (int t = 0; t < threads; t++) {
+			final int first = t;
+			final int step = threads;
+			callables.add(new Callable<Object>() {
+				public Object call() throws Exception {
+					for (int i = first; i < count; i += step) {
+						task.execute(i);
+					}
+					return null;
+				}
+			});
+		}
+		try {
+			List<Future<Object>> futures = executor.invokeAll(callables);
+			for (Future<Object> f : futures) {
+				// Retrieving the result throws possible exceptions
+				f.get();
+			}
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			// Throw exceptions that happened in a thread
+			throw new RuntimeException(e);
+		}
+	}
+}
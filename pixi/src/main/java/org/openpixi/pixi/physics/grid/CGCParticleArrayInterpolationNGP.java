@@ -0,0 +1,99 @@
+package org.openpixi.pixi.physics.grid;
+
+import org.openpixi.pixi.math.GroupElement;
+import org.openpixi.pixi.physics.particles.CGCParticleArray;
+import org.openpixi.pixi.physics.particles.IParticle;
+
+/**
+ * NGP interpolation of {@link CGCParticleArray} populations. This is the same algorithm as
+ * {@link CGCParticleInterpolationNGP}, but all particles of a population are handled in a single loop over the
+ * primitive arrays without temporary objects.
+ * <p>
+ * As in {@link CGCSuperParticleInterpolationNGP}, the charges are parallel transported in place by
+ * {@link #interpolateToGrid(IParticle, Grid)} when a particle crosses into the next cell. The gauge links Unext are
+ * the same as in {@link #interpolateToParticle(IParticle, Grid)}, so the result is unchanged.
+ */
+public class CGCParticleArrayInterpolationNGP implements InterpolatorAlgorithm {
+
+	/**
+	 * Scratch link of each thread for {@link Grid#getUnext(int, int, GroupElement)}.
+	 */
+	private final ThreadLocal<GroupElement> links = new ThreadLocal<GroupElement>();
+
+	public void interpolateToGrid(IParticle p, Grid g) {
+		CGCParticleArray P = (CGCParticleArray) p;
+		int numberOfDimensions = P.numberOfDimensions;
+		int n = P.numberOfComponents;
+		int dir = P.direction;
+		double as = g.getLatticeSpacing(dir);
+		double at = g.getTemporalSpacing();
+		GroupElement link = getLink(g);
+
+		for (int i = 0; i < P.numberOfParticles; i++) {
+			int offset = i * numberOfDimensions;
+			int ngpOld = (int) Math.rint(P.pos0[offset + dir] / as);
+			int ngpNew = (int) Math.rint(P.pos1[offset + dir] / as);
+			if (ngpOld == ngpNew) {
+				// one cell move
+				continue;
+			}
+
+			// two cell move
+			if (P.vel[i] > 0) {
+				int cellIndexOld = getNearestCellIndex(P.pos0, offset, numberOfDimensions, g);
+				g.addJ(cellIndexOld, dir, P.Q, i * n, as / at);
+				g.getUnext(cellIndexOld, dir, link).adjActOnComponents(P.Q, i * n);
+			} else {
+				int cellIndexNew = getNearestCellIndex(P.pos1, offset, numberOfDimensions, g);
+				g.getUnext(cellIndexNew, dir, link).actOnComponents(P.Q, i * n);
+				g.addJ(cellIndexNew, dir, P.Q, i * n, -as / at);
+			}
+		}
+	}
+
+	private GroupElement getLink(Grid g) {
+		GroupElement link = links.get();
+		if (link == null) {
+			link = g.getElementFactory().groupIdentity();
+			links.set(link);
+		}
+		return link;
+	}
+
+	public void interpolateChargedensity(IParticle p, Grid g) {
+		CGCParticleArray P = (CGCParticleArray) p;
+		int numberOfDimensions = P.numberOfDimensions;
+		int n = P.numberOfComponents;
+
+		for (int i = 0; i < P.numberOfParticles; i++) {
+			int cellIndex = getNearestCellIndex(P.pos0, i * numberOfDimensions, numberOfDimensions, g);
+			g.addRho(cellIndex, P.Q, i * n, 1.0);
+		}
+	}
+
+	public void interpolateToParticle(IParticle p, Grid g) {
+		/*
+		Parallel transport is taken care of by interpolateToGrid().
+		 */
+	}
+
+	/**
+	 * Lattice index of the nearest grid point of a particle position (using periodic boundary conditions).
+	 *
+	 * @param positions          array of particle positions
+	 * @param offset             position of the first component of the particle position in the array
+	 * @param numberOfDimensions number of components of the particle position
+	 * @param g                  grid
+	 * @return                   lattice index of the nearest grid point
+	 */
+	private int getNearestCellIndex(double[] positions, int offset, int numberOfDimensions, Grid g) {
+		int cellIndex = 0;
+		for (int d = 0; d < numberOfDimensions; d++) {
+			int numCells = g.getNumCells(d);
+			int coordinate = (int) Math.rint(positions[offset + d] / g.getLatticeSpacing(d));
+			coordinate = (coordinate % numCells + numCells) % numCells;
+			cellIndex = cellIndex * numCells + coordinate;
+		}
+		return cellIndex;
+	}
+}
@@ -1,6 +1,5 @@
 package org.openpixi.pixi.physics.grid;
 
-import org.openpixi.pixi.math.AlgebraElement;
 import org.openpixi.pixi.math.GroupElement;
 import org.openpixi.pixi.physics.particles.CGCSuperParticle;
 import org.openpixi.pixi.physics.particles.IParticle;
@@ -11,17 +10,26 @@ import org.openpixi.pixi.physics.particles.IParticle;
  * moves along a grid axis such that there is no ambiguity in defining parallel transport for the color charges of the
  * particles. The super particle classes encapsulate larger collections of particles whose relative positions are fixed
  * during the simulation and whose charges are updated at the same time when they cross into other cells.
+ * <p>
+ * Particle positions are handled in the longitudinal-major ordering of {@link CGCSuperParticle} and translated to
+ * lattice indices with {@link CGCSuperParticle#getLatticeIndex(int)}, so any grid axis can be the direction of
+ * movement.
  */
 public class CGCSuperParticleInterpolationNGP implements InterpolatorAlgorithm {
 
 	private boolean useOffset = false;
 
+	/**
+	 * Scratch link of each thread for {@link Grid#getUnext(int, int, GroupElement)}.
+	 */
+	private final ThreadLocal<GroupElement> links = new ThreadLocal<GroupElement>();
+
 	public void interpolateToGrid(IParticle p, Grid g) {
 		double at = g.getTemporalSpacing();
-		double as = g.getLatticeSpacing(0);
+		CGCSuperParticle P = (CGCSuperParticle) p;
+		double as = g.getLatticeSpacing(P.direction);
 		int totalNumberOfCells = g.getTotalNumberOfCells();
 
-		CGCSuperParticle P = (CGCSuperParticle) p;
 		if (P.needsUpdate(g.getSimulationSteps())) {
 			int indexOffset = P.getCurrentOffset(g.getSimulationSteps());
 
@@ -50,28 +58,37 @@ public class CGCSuperParticleInterpolationNGP implements InterpolatorAlgorithm {
 			if (useOffset) {
 				offset = ireg * P.subLatticeShift / P.particlePerCell;
 			}
+			// The charges are deposited and parallel transported in place, without temporary algebra elements.
+			GroupElement link = getLink(g);
+			int n = P.numberOfComponents;
+			int dir = P.direction;
 			if (P.orientation > 0) {
 				for (int i = 0; i < ireg; i++) {
 					int j = (i + offset) % ireg + imin;
-					int index = indexOffset + j;
-					AlgebraElement J = P.Q[j].mult(as / at);
-					g.addJ(index + quickfix, 0, J); // Optimizations only work for x-direction!
-					GroupElement U = g.getUnext(index, 0);
-					P.Q[j].actAssign(U.adj());
+					int position = indexOffset + j;
+					g.addJ(P.getLatticeIndex(position + quickfix), dir, P.Q, j * n, as / at);
+					g.getUnext(P.getLatticeIndex(position), dir, link).adjActOnComponents(P.Q, j * n);
 				}
 			} else {
 				for (int i = 0; i < ireg; i++) {
 					int j = (i + offset) % ireg + imin;
-					int index = indexOffset + j;
-					GroupElement U = g.getUnext(index, 0);
-					P.Q[j].actAssign(U);
-					AlgebraElement J = P.Q[j].mult(-as / at);
-					g.addJ(index, 0, J); // Optimizations only work for x-direction!
+					int index = P.getLatticeIndex(indexOffset + j);
+					g.getUnext(index, dir, link).actOnComponents(P.Q, j * n);
+					g.addJ(index, dir, P.Q, j * n, -as / at);
 				}
 			}
 		}
 	}
 
+	private GroupElement getLink(Grid g) {
+		GroupElement link = links.get();
+		if (link == null) {
+			link = g.getElementFactory().groupIdentity();
+			links.set(link);
+		}
+		return link;
+	}
+
 	public void interpolateChargedensity(IParticle p, Grid g) {
 		CGCSuperParticle P = (CGCSuperParticle) p;
 		int indexOffset = P.getCurrentNGPOffset(g.getSimulationSteps());
@@ -87,8 +104,7 @@ public class CGCSuperParticleInterpolationNGP implements InterpolatorAlgorithm {
 		}
 		for (int i = 0; i < ireg; i++) {
 			int j = (i + offset) % ireg + imin;
-			int index = indexOffset + j;
-			g.addRho(index, P.Q[j]);
+			g.addRho(P.getLatticeIndex(indexOffset + j), P.Q, j * P.numberOfComponents, 1.0);
 		}
 	}
 
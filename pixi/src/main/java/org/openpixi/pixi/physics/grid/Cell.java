@@ -73,6 +73,21 @@ public class Cell implements Serializable {
 		}
 	}
 
+	/**
+	 * Constructor for subclasses which keep the fields of the cell in a different storage (see {@link PrimitiveGrid}).
+	 * No group or algebra elements are allocated and all accessors have to be overridden.
+	 * @param factory Factory for group and algebra elements
+	 * @param dimensions Number of spatial dimensions (e.g. 3)
+	 * @param colors Number of colors N for the gauge group SU(N)
+	 */
+	protected Cell(ElementFactory factory, int dimensions, int colors) {
+		this.dimensions = dimensions;
+		this.colors = colors;
+		this.factory = factory;
+		this.evaluatable = true;
+		this.active = true;
+	}
+
 	/**
 	 * Needs to be synchronized as we expect in the parallel version
 	 * two threads trying to update the field at the same time.
@@ -81,6 +96,13 @@ public class Cell implements Serializable {
 		J[dir].addAssign(current);
 	}
 
+	/**
+	 * Adds a multiple of a current given by its color components. Synchronized like {@link #addJ(int, AlgebraElement)}.
+	 */
+	public synchronized void addJ(int dir, double[] components, int offset, double factor) {
+		J[dir].addAssign(components, offset, factor);
+	}
+
 	public AlgebraElement getJ(int dir) {
 		return J[dir];
 	}
@@ -101,6 +123,14 @@ public class Cell implements Serializable {
 		this.rho.addAssign(rho);
 	}
 
+	/**
+	 * Adds a multiple of a charge density given by its color components. Synchronized like
+	 * {@link #addRho(AlgebraElement)}.
+	 */
+	public synchronized void addRho(double[] components, int offset, double factor) {
+		this.rho.addAssign(components, offset, factor);
+	}
+
 	public AlgebraElement getE(int dir) {
 		return E[dir];
 	}
@@ -192,15 +222,15 @@ public class Cell implements Serializable {
 		}
 		*/
 
-		for(int i = 0; i < E.length; i++) {
-			this.E[i] = other.E[i].copy();
-			this.J[i] = other.J[i].copy();
-			this.U[i] = other.U[i].copy();
-			this.Unext[i] = other.Unext[i].copy();
+		for(int i = 0; i < dimensions; i++) {
+			this.E[i] = other.getE(i).copy();
+			this.J[i] = other.getJ(i).copy();
+			this.U[i] = other.getU(i).copy();
+			this.Unext[i] = other.getUnext(i).copy();
 		}
-		this.rho.set(other.rho);
-		this.evaluatable = other.evaluatable;
-		this.active = other.active;
+		this.rho.set(other.getRho());
+		this.evaluatable = other.isEvaluatable();
+		this.active = other.isActive();
 	}
 
 	/**
@@ -0,0 +1,279 @@
+package org.openpixi.pixi.physics.grid;
+
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.parallel.cellaccess.CellAction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Thread-private accumulation buffers for currents and charge densities. While a Grid deposits into
+ * DepositionBuffers (see {@link Grid#beginBufferedDeposition(DepositionBuffers)}), {@link Grid#addJ} and
+ * {@link Grid#addRho} write to a buffer owned by the calling thread instead of the cells, so that no locks are
+ * needed. {@link Grid#endBufferedDeposition()} adds all buffers to the grid in parallel and clears them.
+ * <p>
+ * The buffers store the color components of the algebra elements as returned by {@link AlgebraElement#get(int)}.
+ * A buffer does not cover the whole lattice, but only a window of consecutive cell indices which is enlarged when a
+ * thread deposits outside of it. Threads which process contiguous blocks of (sorted) particles only touch a slab of
+ * the lattice, so the memory of the buffers scales with the size of these slabs instead of the number of threads
+ * times the size of the lattice. Every buffer also remembers the range of cell indices it has touched, so that the
+ * reduction only visits cells which have received contributions.
+ */
+public class DepositionBuffers {
+
+	/**
+	 * Minimal number of cells by which the window of a buffer is enlarged.
+	 */
+	private static final int MINIMAL_GROWTH = 64;
+
+	private final int totalNumberOfCells;
+	private final int numDim;
+	private final int numberOfComponents;
+
+	private final List<Buffer> buffers = new ArrayList<Buffer>();
+	private final ThreadLocal<Buffer> localBuffer = new ThreadLocal<Buffer>();
+	private final ThreadLocal<AlgebraElement> localElement = new ThreadLocal<AlgebraElement>();
+
+	private Buffer[] reducedBuffers;
+	private int reductionMin;
+	private int reductionMax;
+	private ReductionAction reductionAction = new ReductionAction();
+
+	public DepositionBuffers(Grid grid) {
+		this.totalNumberOfCells = grid.getTotalNumberOfCells();
+		this.numDim = grid.getNumberOfDimensions();
+		this.numberOfComponents = grid.getElementFactory().numberOfComponents;
+	}
+
+	/**
+	 * Checks if the buffers have the right size for a grid.
+	 *
+	 * @param grid  Grid instance
+	 * @return      true if the buffers can be used with this grid
+	 */
+	public boolean fits(Grid grid) {
+		return totalNumberOfCells == grid.getTotalNumberOfCells()
+				&& numDim == grid.getNumberOfDimensions()
+				&& numberOfComponents == grid.getElementFactory().numberOfComponents;
+	}
+
+	/**
+	 * Adds a current to the buffer of the calling thread.
+	 */
+	public void addJ(int index, int dir, AlgebraElement field) {
+		Buffer buffer = getLocalBuffer();
+		int offset = (buffer.locate(index) * numDim + dir) * numberOfComponents;
+		for (int k = 0; k < numberOfComponents; k++) {
+			buffer.J[offset + k] += field.get(k);
+		}
+	}
+
+	/**
+	 * Adds a current given by its color components to the buffer of the calling thread.
+	 */
+	public void addJ(int index, int dir, double[] components, int componentOffset, double factor) {
+		Buffer buffer = getLocalBuffer();
+		int offset = (buffer.locate(index) * numDim + dir) * numberOfComponents;
+		for (int k = 0; k < numberOfComponents; k++) {
+			buffer.J[offset + k] += factor * components[componentOffset + k];
+		}
+	}
+
+	/**
+	 * Adds a charge density to the buffer of the calling thread.
+	 */
+	public void addRho(int index, AlgebraElement field) {
+		Buffer buffer = getLocalBuffer();
+		int offset = buffer.locate(index) * numberOfComponents;
+		for (int k = 0; k < numberOfComponents; k++) {
+			buffer.rho[offset + k] += field.get(k);
+		}
+	}
+
+	/**
+	 * Adds a charge density given by its color components to the buffer of the calling thread.
+	 */
+	public void addRho(int index, double[] components, int componentOffset, double factor) {
+		Buffer buffer = getLocalBuffer();
+		int offset = buffer.locate(index) * numberOfComponents;
+		for (int k = 0; k < numberOfComponents; k++) {
+			buffer.rho[offset + k] += factor * components[componentOffset + k];
+		}
+	}
+
+	/**
+	 * Adds the content of all buffers to the grid and clears the buffers. The cells are distributed among the
+	 * threads of the cell iterator of the grid, so every cell is written by exactly one thread.
+	 * Must not be called while particles are still depositing.
+	 *
+	 * @param grid  Grid instance to which the buffers are added
+	 */
+	void reduce(Grid grid) {
+		synchronized (buffers) {
+			reducedBuffers = buffers.toArray(new Buffer[buffers.size()]);
+		}
+		reductionMin = Integer.MAX_VALUE;
+		reductionMax = -1;
+		for (Buffer buffer : reducedBuffers) {
+			reductionMin = Math.min(reductionMin, buffer.min);
+			reductionMax = Math.max(reductionMax, buffer.max);
+		}
+		if (reductionMax >= reductionMin) {
+			grid.getCellIterator().execute(grid, reductionAction);
+		}
+		for (Buffer buffer : reducedBuffers) {
+			buffer.min = Integer.MAX_VALUE;
+			buffer.max = -1;
+		}
+	}
+
+	/**
+	 * Total number of cells covered by the windows of all buffers.
+	 */
+	int getNumberOfBufferedCells() {
+		int numberOfCells = 0;
+		synchronized (buffers) {
+			for (Buffer buffer : buffers) {
+				numberOfCells += buffer.size;
+			}
+		}
+		return numberOfCells;
+	}
+
+	private Buffer getLocalBuffer() {
+		Buffer buffer = localBuffer.get();
+		if (buffer == null) {
+			buffer = new Buffer();
+			localBuffer.set(buffer);
+			synchronized (buffers) {
+				buffers.add(buffer);
+			}
+		}
+		return buffer;
+	}
+
+	private class Buffer {
+		double[] J = new double[0];
+		double[] rho = new double[0];
+
+		/**
+		 * The buffer stores the cells base to base + size - 1.
+		 */
+		int base = 0;
+		int size = 0;
+
+		/**
+		 * Range of cells touched since the last reduction.
+		 */
+		int min = Integer.MAX_VALUE;
+		int max = -1;
+
+		/**
+		 * Returns the position of a cell in the buffer, enlarges the buffer if necessary and marks the cell as
+		 * touched.
+		 *
+		 * @param index Lattice index of the cell
+		 * @return      Position of the cell in the buffer
+		 */
+		int locate(int index) {
+			if (index < base || index >= base + size) {
+				grow(index);
+			}
+			if (index < min) {
+				min = index;
+			}
+			if (index > max) {
+				max = index;
+			}
+			return index - base;
+		}
+
+		/**
+		 * Enlarges the window of the buffer such that it contains the cell. The window is extended by at least half
+		 * of its size in the direction of the cell, so that a thread sweeping over the lattice only causes a
+		 * logarithmic number of reallocations.
+		 */
+		private void grow(int index) {
+			int growth = Math.max(MINIMAL_GROWTH, size / 2);
+			int newBase;
+			int newEnd;
+			if (size == 0) {
+				newBase = Math.max(0, index - growth / 2);
+				newEnd = Math.min(totalNumberOfCells, index + growth / 2 + 1);
+			} else if (index < base) {
+				newBase = Math.max(0, Math.min(index, base - growth));
+				newEnd = base + size;
+			} else {
+				newBase = base;
+				newEnd = Math.min(totalNumberOfCells, Math.max(index + 1, base + size + growth));
+			}
+
+			double[] newJ = new double[(newEnd - newBase) * numDim * numberOfComponents];
+			double[] newRho = new double[(newEnd - newBase) * numberOfComponents];
+			if (size > 0) {
+				System.arraycopy(J, 0, newJ, (base - newBase) * numDim * numberOfComponents, J.length);
+				System.arraycopy(rho, 0, newRho, (base - newBase) * numberOfComponents, rho.length);
+			}
+			J = newJ;
+			rho = newRho;
+			base = newBase;
+			size = newEnd - newBase;
+		}
+
+		boolean contains(int index) {
+			return index >= min && index <= max;
+		}
+	}
+
+	private class ReductionAction implements CellAction {
+
+		public void execute(Grid grid, int index) {
+			if (index < reductionMin || index > reductionMax) {
+				return;
+			}
+			AlgebraElement element = localElement.get();
+			if (element == null) {
+				element = grid.getElementFactory().algebraZero();
+				localElement.set(element);
+			}
+
+			for (int dir = 0; dir < numDim; dir++) {
+				if (sumAndClear(index, dir, true, element)) {
+					grid.addJ(index, dir, element);
+				}
+			}
+			if (sumAndClear(index, 0, false, element)) {
+				grid.addRho(index, element);
+			}
+		}
+
+		/**
+		 * Sums the components of a current or charge density over all buffers which touched the cell into element
+		 * and resets them to zero.
+		 *
+		 * @return true if any of the buffers contained a non-zero contribution
+		 */
+		private boolean sumAndClear(int index, int dir, boolean current, AlgebraElement element) {
+			boolean nonZero = false;
+			element.reset();
+			for (int k = 0; k < numberOfComponents; k++) {
+				double sum = 0.0;
+				for (Buffer buffer : reducedBuffers) {
+					if (!buffer.contains(index)) {
+						continue;
+					}
+					int offset = current ? ((index - buffer.base) * numDim + dir) * numberOfComponents
+							: (index - buffer.base) * numberOfComponents;
+					double[] data = current ? buffer.J : buffer.rho;
+					sum += data[offset + k];
+					data[offset + k] = 0.0;
+				}
+				if (sum != 0.0) {
+					element.set(k, sum);
+					nonZero = true;
+				}
+			}
+			return nonZero;
+		}
+	}
+}
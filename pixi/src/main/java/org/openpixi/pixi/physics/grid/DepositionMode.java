@@ -0,0 +1,14 @@
+package org.openpixi.pixi.physics.grid;
+
+/**
+ * How particles deposit currents and charges on the grid during the interpolation.
+ * <ul>
+ *     <li>Synchronized: every contribution is added directly to the grid while holding a lock on the cell.</li>
+ *     <li>Buffered: every thread accumulates its contributions in a private buffer. The buffers are added to the grid
+ *     in a parallel reduction after all particles have been processed ({@link DepositionBuffers}).</li>
+ * </ul>
+ */
+public enum DepositionMode {
+	Synchronized,
+	Buffered
+}
@@ -6,7 +6,12 @@ import org.openpixi.pixi.math.GroupElement;
 import org.openpixi.pixi.parallel.cellaccess.CellAction;
 import org.openpixi.pixi.parallel.cellaccess.CellIterator;
 import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.checkpoint.CheckpointInput;
+import org.openpixi.pixi.physics.checkpoint.CheckpointOutput;
 import org.openpixi.pixi.physics.fields.FieldSolver;
+import org.openpixi.pixi.physics.gauge.FFTService;
+
+import java.io.IOException;
 
 public class Grid {
 
@@ -83,6 +88,26 @@ public class Grid {
 	 */
 	protected int cummulatedCellCount[];
 
+	/**
+	 * Marks the cells at the faces of the lattice. Bit 2 * d is set if the cell has coordinate 0 in direction d,
+	 * bit 2 * d + 1 if it has coordinate numCells[d] - 1. Together with {@link #cummulatedCellCount} this replaces
+	 * the integer division and modulo in {@link #shift(int, int, int)} by a table lookup. Cells without any flag are
+	 * interior cells: all their nearest neighbours are reached by the constant offsets of
+	 * {@link #getShiftOffset(int, int)}.
+	 */
+	protected byte boundaryFlags[];
+
+	/**
+	 * Corners of the active region (inclusive), null if the whole lattice is active.
+	 */
+	protected int[] activeRegionPoint1;
+	protected int[] activeRegionPoint2;
+
+	/**
+	 * Service for the Fourier transforms on this grid, shared with the copies of the grid.
+	 */
+	protected FFTService fftService = FFTService.getSerialService();
+
 	/**
 	 * Factory for SU(n) group and algebra elements.
 	 */
@@ -93,6 +118,17 @@ public class Grid {
 	 */
 	protected int simulationSteps;
 
+	/**
+	 * Thread-private buffers which receive currents and charges during buffered deposition, null otherwise.
+	 */
+	protected DepositionBuffers depositionBuffers;
+
+	/**
+	 * Bit flags used to store {@link #isEvaluatable(int)} and {@link #isActive(int)} in checkpoints.
+	 */
+	protected static final byte FLAG_EVALUATABLE = 1;
+	protected static final byte FLAG_ACTIVE = 2;
+
 	public void setSimulationSteps(int simulationSteps) {
 		this.simulationSteps = simulationSteps;
 	}
@@ -134,9 +170,30 @@ public class Grid {
 	 * @param field     AlgebraElement to be added to the (dir)-component of the current.
 	 */
 	public void addJ(int index, int dir, AlgebraElement field) {
+		if (depositionBuffers != null) {
+			depositionBuffers.addJ(index, dir, field);
+			return;
+		}
 		cells[index].addJ(dir, field);
 	}
 
+	/**
+	 * Adds a multiple of a current given by its color components (see {@link AlgebraElement#get(int)}) to the
+	 * (dir)-component of the current. This avoids temporary AlgebraElement instances during deposition.
+	 * @param index         Lattice index of the current
+	 * @param dir           Index of the component
+	 * @param components    Array containing the color components
+	 * @param offset        Position of the first color component in the array
+	 * @param factor        Factor multiplying the color components
+	 */
+	public void addJ(int index, int dir, double[] components, int offset, double factor) {
+		if (depositionBuffers != null) {
+			depositionBuffers.addJ(index, dir, components, offset, factor);
+			return;
+		}
+		cells[index].addJ(dir, components, offset, factor);
+	}
+
 	/**
 	 * Returns the AlgebraElement instance of the charge density.
 	 * @param index     Lattice index of the charge density
@@ -161,9 +218,28 @@ public class Grid {
 	 * @param field     AlgebraElement instance which should be added.
 	 */
 	public void addRho(int index, AlgebraElement field) {
+		if (depositionBuffers != null) {
+			depositionBuffers.addRho(index, field);
+			return;
+		}
 		cells[index].addRho(field);
 	}
 
+	/**
+	 * Adds a multiple of a charge density given by its color components (see {@link AlgebraElement#get(int)}).
+	 * @param index         Lattice index of the charge density
+	 * @param components    Array containing the color components
+	 * @param offset        Position of the first color component in the array
+	 * @param factor        Factor multiplying the color components
+	 */
+	public void addRho(int index, double[] components, int offset, double factor) {
+		if (depositionBuffers != null) {
+			depositionBuffers.addRho(index, components, offset, factor);
+			return;
+		}
+		cells[index].addRho(components, offset, factor);
+	}
+
 	/**
 	 * Returns the AlgebraElement instance of the (dir)-component of the electric field.
 	 * @param index     Lattice index of the electric field
@@ -260,6 +336,75 @@ public class Grid {
 		cells[index].setUnext(dir, mat);
 	}
 
+	/**
+	 * Allocation-free read access to the gauge link at time (t). Returns the stored instance if the grid keeps
+	 * GroupElement instances, otherwise the link is copied to scratch and scratch is returned. The result must not be
+	 * modified and is only valid until the link or scratch are changed.
+	 * @param index     Lattice index of the gauge link
+	 * @param dir       Direction of the gauge link
+	 * @param scratch   GroupElement which may be used to hold the link
+	 * @return          Gauge link
+	 */
+	public GroupElement getU(int index, int dir, GroupElement scratch) {
+		return cells[index].getU(dir);
+	}
+
+	/**
+	 * Allocation-free read access to the gauge link at time (t+dt). See {@link #getU(int, int, GroupElement)}.
+	 * @param index     Lattice index of the gauge link
+	 * @param dir       Direction of the gauge link
+	 * @param scratch   GroupElement which may be used to hold the link
+	 * @return          Gauge link
+	 */
+	public GroupElement getUnext(int index, int dir, GroupElement scratch) {
+		return cells[index].getUnext(dir);
+	}
+
+	/**
+	 * Allocation-free read access to the electric field. See {@link #getU(int, int, GroupElement)}.
+	 * @param index     Lattice index of the electric field
+	 * @param dir       Index of the component
+	 * @param scratch   AlgebraElement which may be used to hold the field
+	 * @return          Electric field
+	 */
+	public AlgebraElement getE(int index, int dir, AlgebraElement scratch) {
+		return cells[index].getE(dir);
+	}
+
+	/**
+	 * Allocation-free read access to the current. See {@link #getU(int, int, GroupElement)}.
+	 * @param index     Lattice index of the current
+	 * @param dir       Index of the component
+	 * @param scratch   AlgebraElement which may be used to hold the current
+	 * @return          Current
+	 */
+	public AlgebraElement getJ(int index, int dir, AlgebraElement scratch) {
+		return cells[index].getJ(dir);
+	}
+
+	/**
+	 * Redirects all subsequent calls of {@link #addJ(int, int, AlgebraElement)} and
+	 * {@link #addRho(int, AlgebraElement)} to thread-private buffers. Has to be followed by
+	 * {@link #endBufferedDeposition()} once all threads have finished depositing.
+	 *
+	 * @param buffers   Deposition buffers matching the size of this grid
+	 */
+	public void beginBufferedDeposition(DepositionBuffers buffers) {
+		depositionBuffers = buffers;
+	}
+
+	/**
+	 * Adds the contents of the deposition buffers to the currents and charges of the grid (in parallel) and
+	 * switches back to direct deposition.
+	 */
+	public void endBufferedDeposition() {
+		DepositionBuffers buffers = depositionBuffers;
+		depositionBuffers = null;
+		if (buffers != null) {
+			buffers.reduce(this);
+		}
+	}
+
 	/**
 	 * Resets charge in a cell at a given lattice index.
 	 * @param index  Lattice index of the cell
@@ -400,6 +545,14 @@ public class Grid {
 		return cellIterator;
 	}
 
+	/**
+	 * Returns the service for Fourier transforms on this grid.
+	 * @return  FFT service.
+	 */
+	public FFTService getFFTService() {
+		return fftService;
+	}
+
 	/**
 	 * Returns the element factory
 	 * @return Element factory
@@ -465,11 +618,12 @@ public class Grid {
 		createGrid();
 				
 		this.fsolver = settings.getFieldSolver();
-		this.fsolver.initializeIterator(settings.getCellIterator(), numCells);
+		this.fsolver.initializeIterator(settings.getFieldSolverCellIterator(), numCells);
 
 		this.cellIterator = settings.getCellIterator();
 		this.cellIterator.setNormalMode(numCells);
-		
+
+		this.fftService = settings.getFFTService();
 	}
 
 	/**
@@ -504,6 +658,9 @@ public class Grid {
 
 		this.fsolver = grid.fsolver;
 		this.cellIterator = grid.cellIterator.copy();
+		this.fftService = grid.fftService;
+		this.activeRegionPoint1 = grid.activeRegionPoint1;
+		this.activeRegionPoint2 = grid.activeRegionPoint2;
 
 		this.simulationSteps = grid.simulationSteps;
 	}
@@ -515,15 +672,132 @@ public class Grid {
 	public void copyValuesFrom(Grid grid) {
 		int numberOfCells = grid.getTotalNumberOfCells();
 		for (int ci = 0; ci < numberOfCells; ci++) {
-			cells[ci].copyFrom(grid.cells[ci]);
+			getCell(ci).copyFrom(grid.getCell(ci));
+		}
+	}
+
+	/**
+	 * Writes the fields U, Unext, E, J and rho followed by the evaluation and activity flags of all cells to a
+	 * checkpoint. Each field is stored as one contiguous block ordered by lattice index, direction and the internal
+	 * parameters of the group and algebra elements, i.e. the same layout {@link PrimitiveGrid} uses in memory.
+	 *
+	 * @param output    Checkpoint file
+	 */
+	public void writeFields(CheckpointOutput output) throws IOException {
+		int numberOfCells = getTotalNumberOfCells();
+		int groupSize = factory.groupZero().getNumberOfParameters();
+		int algebraSize = factory.numberOfComponents;
+		double[] links = new double[numDim * groupSize];
+		double[] fields = new double[numDim * algebraSize];
+
+		for (int timeIndex = 0; timeIndex < 2; timeIndex++) {
+			for (int i = 0; i < numberOfCells; i++) {
+				for (int d = 0; d < numDim; d++) {
+					GroupElement U = (timeIndex == 0) ? getU(i, d) : getUnext(i, d);
+					for (int k = 0; k < groupSize; k++) {
+						links[d * groupSize + k] = U.get(k);
+					}
+				}
+				output.putDoubles(links, 0, links.length);
+			}
+		}
+		for (int field = 0; field < 2; field++) {
+			for (int i = 0; i < numberOfCells; i++) {
+				for (int d = 0; d < numDim; d++) {
+					AlgebraElement A = (field == 0) ? getE(i, d) : getJ(i, d);
+					for (int k = 0; k < algebraSize; k++) {
+						fields[d * algebraSize + k] = A.get(k);
+					}
+				}
+				output.putDoubles(fields, 0, fields.length);
+			}
+		}
+		for (int i = 0; i < numberOfCells; i++) {
+			AlgebraElement rho = getRho(i);
+			for (int k = 0; k < algebraSize; k++) {
+				fields[k] = rho.get(k);
+			}
+			output.putDoubles(fields, 0, algebraSize);
+		}
+		for (int i = 0; i < numberOfCells; i++) {
+			output.putByte(encodeFlags(isEvaluatable(i), isActive(i)));
 		}
 	}
 
+	/**
+	 * Reads the fields and cell flags written by {@link #writeFields(CheckpointOutput)}. The grid has to have the
+	 * same size and gauge group as the grid the checkpoint was created from.
+	 *
+	 * @param input     Checkpoint file
+	 */
+	public void readFields(CheckpointInput input) throws IOException {
+		int numberOfCells = getTotalNumberOfCells();
+		int groupSize = factory.groupZero().getNumberOfParameters();
+		int algebraSize = factory.numberOfComponents;
+		double[] links = new double[numDim * groupSize];
+		double[] fields = new double[numDim * algebraSize];
+
+		for (int timeIndex = 0; timeIndex < 2; timeIndex++) {
+			for (int i = 0; i < numberOfCells; i++) {
+				input.getDoubles(links, 0, links.length);
+				for (int d = 0; d < numDim; d++) {
+					GroupElement U = (timeIndex == 0) ? getU(i, d) : getUnext(i, d);
+					for (int k = 0; k < groupSize; k++) {
+						U.set(k, links[d * groupSize + k]);
+					}
+				}
+			}
+		}
+		for (int field = 0; field < 2; field++) {
+			for (int i = 0; i < numberOfCells; i++) {
+				input.getDoubles(fields, 0, fields.length);
+				for (int d = 0; d < numDim; d++) {
+					AlgebraElement A = (field == 0) ? getE(i, d) : getJ(i, d);
+					for (int k = 0; k < algebraSize; k++) {
+						A.set(k, fields[d * algebraSize + k]);
+					}
+				}
+			}
+		}
+		for (int i = 0; i < numberOfCells; i++) {
+			input.getDoubles(fields, 0, algebraSize);
+			AlgebraElement rho = getRho(i);
+			for (int k = 0; k < algebraSize; k++) {
+				rho.set(k, fields[k]);
+			}
+		}
+		for (int i = 0; i < numberOfCells; i++) {
+			byte flags = input.getByte();
+			setEvaluatable(i, (flags & FLAG_EVALUATABLE) != 0);
+			setActive(i, (flags & FLAG_ACTIVE) != 0);
+		}
+	}
+
+	protected static byte encodeFlags(boolean evaluatable, boolean active) {
+		return (byte) ((evaluatable ? FLAG_EVALUATABLE : 0) | (active ? FLAG_ACTIVE : 0));
+	}
+
 	/**
 	 * This methods initializes each cell in the grid.
 	 */
 	public void createGrid() {
 
+		int length = initializeLattice();
+
+		cells = new Cell[length];
+
+		for(int i = 0; i < length; i++) {
+			cells[i] = new Cell(numDim, numCol, factory);
+		}
+	}
+
+	/**
+	 * Sets up the element factory, the cummulated cell count and the boundary flags used by
+	 * {@link #shift(int, int, int)}.
+	 * @return  Total number of cells in the grid.
+	 */
+	protected int initializeLattice() {
+
 		factory = new ElementFactory(numCol);
 
 		int length = 1;
@@ -537,11 +811,33 @@ public class Grid {
 			cummulatedCellCount[i] = cummulatedCellCount[i + 1] * numCells[i];
 		}
 
-		cells = new Cell[length];
+		if (numDim > 4) {
+			throw new RuntimeException("Grid supports at most four dimensions.");
+		}
+		boundaryFlags = new byte[length];
+		int[] pos = new int[numDim];
+		for (int index = 0; index < length; index++) {
+			int flags = 0;
+			for (int i = 0; i < numDim; i++) {
+				if (pos[i] == 0) {
+					flags |= 1 << (2 * i);
+				}
+				if (pos[i] == numCells[i] - 1) {
+					flags |= 1 << (2 * i + 1);
+				}
+			}
+			boundaryFlags[index] = (byte) flags;
 
-		for(int i = 0; i < length; i++) {
-			cells[i] = new Cell(numDim, numCol, factory);
+			// Advance the lattice coordinates (the last direction is the fastest).
+			for (int i = numDim - 1; i >= 0; i--) {
+				if (++pos[i] < numCells[i]) {
+					break;
+				}
+				pos[i] = 0;
+			}
 		}
+
+		return length;
 	}
 
 	/**
@@ -607,38 +903,50 @@ public class Grid {
 	 * @return      	Plaquette as GroupElement with correct orientation
 	 */
 	public GroupElement getPlaquette(int index, int d1, int d2, int o1, int o2, int timeIndex)
+	{
+		GroupElement U = factory.groupIdentity();
+		getPlaquette(index, d1, d2, o1, o2, timeIndex, U, factory.groupIdentity());
+		return U;
+	}
+
+	/**
+	 * Allocation-free version of {@link #getPlaquette(int, int, int, int, int, int)}. The plaquette is written to
+	 * result, temp is used as intermediate storage. Neither of them may be a gauge link of the grid.
+	 *
+	 * @param index 	Lattice index from where the plaquette starts
+	 * @param d1    	Index of the first direction
+	 * @param d2    	Index of the second direction
+	 * @param o1    	Orientation of the first direction
+	 * @param o2    	Orientation of the second direction
+	 * @param timeIndex Option to select between U (timeIndex = 0) and Unext (timeIndex != 0).
+	 * @param result	GroupElement the plaquette is written to
+	 * @param temp		GroupElement used as scratch space
+	 */
+	public void getPlaquette(int index, int d1, int d2, int o1, int o2, int timeIndex,
+							 GroupElement result, GroupElement temp)
 	{
 		/*
 			The four lattice indices associated with the plaquette.
 		 */
 		int x1 = index;
-		int x2 = shift(x1, d1, o1);
-		int x3 = shift(x2, d2, o2);
-		int x4 = shift(x3, d1, -o1);
-
-		/*
-			The four gauge links associated with the plaquette.
-		 */
-
-		GroupElement U1 = getLink(x1, d1, o1, timeIndex);
-		GroupElement U2 = getLink(x2, d2, o2, timeIndex);
-		GroupElement U3 = getLink(x3, d1, -o1, timeIndex);
-		GroupElement U4 = getLink(x4, d2, -o2, timeIndex);
+		int x2, x3, x4;
+		if (d1 != d2 && isInteriorCell(index)) {
+			x2 = x1 + getShiftOffset(d1, o1);
+			x3 = x2 + getShiftOffset(d2, o2);
+			x4 = x3 - getShiftOffset(d1, o1);
+		} else {
+			x2 = shift(x1, d1, o1);
+			x3 = shift(x2, d2, o2);
+			x4 = shift(x3, d1, -o1);
+		}
 
 		/*
-			Plaquette calculation
+			Plaquette calculation: U_1 U_2 U_3 U_4, alternating between result and temp.
 		 */
-
-
-		GroupElement U = factory.groupIdentity();
-		U.multAssign(U1);
-		U.multAssign(U2);
-		U.multAssign(U3);
-		U.multAssign(U4);
-
-		return U;
-
-		//return U1.mult(U2.mult(U3.mult(U4)));
+		setLink(x1, d1, o1, timeIndex, temp);
+		multLinkInto(temp, x2, d2, o2, timeIndex, result);
+		multLinkInto(result, x3, d1, -o1, timeIndex, temp);
+		multLinkInto(temp, x4, d2, -o2, timeIndex, result);
 	}
 
 	/**
@@ -674,25 +982,48 @@ public class Grid {
 	 */
 	public GroupElement getStapleSum(int index, int d) {
 		GroupElement S = factory.groupZero();
-		int ci1 = shift(index, d, 1);
+		getStapleSum(index, d, S, factory.groupZero(), factory.groupZero());
+		return S;
+	}
+
+	/**
+	 * Allocation-free version of {@link #getStapleSum(int, int)}. The sum of staples is written to result, temp1 and
+	 * temp2 are used as intermediate storage. None of them may be a gauge link of the grid.
+	 *
+	 * @param index		Lattice index
+	 * @param d			Direction
+	 * @param result	GroupElement the sum of all surrounding staples is written to
+	 * @param temp1		GroupElement used as scratch space
+	 * @param temp2		GroupElement used as scratch space
+	 */
+	public void getStapleSum(int index, int d, GroupElement result, GroupElement temp1, GroupElement temp2) {
+		result.setZero();
+		boolean interior = isInteriorCell(index);
+		int ci1 = interior ? index + cummulatedCellCount[d + 1] : shift(index, d, 1);
 		int ci2, ci3, ci4;
 		for (int i = 0; i < numDim; i++) {
 			if(i != d) {
-				ci2 = shift(index, i, 1);
-				ci3 = shift(ci1, i, -1);
-				ci4 = shift(index, i, -1);
-				GroupElement U1 = getU(ci1, i).mult(getU(ci2, d).adj());
-				U1.multAssign(getU(index, i).adj());
-				GroupElement U2 = getU(ci4, d).mult(getU(ci3, i));
-				U2.adjAssign();
-				U2.multAssign(getU(ci4, i));
-				double areaFactor = 1.0 / Math.pow(getLatticeSpacing(i), 2);
-				U1.addAssign(U2);
-				U1.multAssign(areaFactor);
-				S.addAssign(U1);
+				if (interior) {
+					int offset = cummulatedCellCount[i + 1];
+					ci2 = index + offset;
+					ci3 = ci1 - offset;
+					ci4 = index - offset;
+				} else {
+					ci2 = shift(index, i, 1);
+					ci3 = shift(ci1, i, -1);
+					ci4 = shift(index, i, -1);
+				}
+				double areaFactor = 1.0 / (getLatticeSpacing(i) * getLatticeSpacing(i));
+				// U_{x+d, i} U_{x+i, d}^t U_{x, i}^t
+				getU(ci1, i).multAdjInto(getU(ci2, d), temp1);
+				temp1.multAdjInto(getU(index, i), temp2);
+				result.addAssign(temp2, areaFactor);
+				// (U_{x-i, d} U_{x+d-i, i})^t U_{x-i, i}
+				getU(ci4, d).multInto(getU(ci3, i), temp1);
+				temp1.adjMultInto(getU(ci4, i), temp2);
+				result.addAssign(temp2, areaFactor);
 			}
 		}
-		return S;
 	}
 
 	/**
@@ -715,14 +1046,44 @@ public class Grid {
 		{
 			if(orientation < 0)
 			{
-				return getCell(shift(index, direction, orientation)).getU(direction).adj();
+				return getU(shift(index, direction, orientation), direction).adj();
 			}
-			return getCell(index).getU(direction);
+			return getU(index, direction);
 		} else {
 			if(orientation < 0) {
-				return getCell(shift(index, direction, orientation)).getUnext(direction).adj();
+				return getUnext(shift(index, direction, orientation), direction).adj();
 			}
-			return getCell(index).getUnext(direction);
+			return getUnext(index, direction);
+		}
+	}
+
+	/**
+	 * Copies the gauge link starting from a certain lattice index with given direction and orientation to dest.
+	 * See {@link #getLink(int, int, int, int)}.
+	 */
+	private void setLink(int index, int direction, int orientation, int timeIndex, GroupElement dest)
+	{
+		if(orientation < 0) {
+			index = shift(index, direction, orientation);
+		}
+		dest.set((timeIndex == 0) ? getU(index, direction) : getUnext(index, direction));
+		if(orientation < 0) {
+			dest.adjAssign();
+		}
+	}
+
+	/**
+	 * Multiplies left with the gauge link starting from a certain lattice index with given direction and orientation
+	 * and writes the product to dest. See {@link #getLink(int, int, int, int)}.
+	 */
+	private void multLinkInto(GroupElement left, int index, int direction, int orientation, int timeIndex,
+							  GroupElement dest)
+	{
+		if(orientation < 0) {
+			index = shift(index, direction, orientation);
+			left.multAdjInto((timeIndex == 0) ? getU(index, direction) : getUnext(index, direction), dest);
+		} else {
+			left.multInto((timeIndex == 0) ? getU(index, direction) : getUnext(index, direction), dest);
 		}
 	}
 
@@ -801,25 +1162,42 @@ public class Grid {
 	 */
 	public int shift(int index, int direction, int orientation)
 	{
-		int result = index;
-		int directionIndex = index / cummulatedCellCount[direction + 1];
-		int withinDirectionIndex = directionIndex % numCells[direction];
 		if (orientation > 0) {
-			if (withinDirectionIndex == numCells[direction] - 1) {
-				// wrap around along positive direction
-				result -= cummulatedCellCount[direction];
-			}
-			result += cummulatedCellCount[direction + 1];
+			// wrap around along positive direction for cells at the upper face
+			int wrap = (boundaryFlags[index] >> (2 * direction + 1)) & 1;
+			return index + cummulatedCellCount[direction + 1] - wrap * cummulatedCellCount[direction];
 		} else if (orientation < 0) {
-			if (withinDirectionIndex == 0) {
-				// wrap around along negative direction
-				result += cummulatedCellCount[direction];
-			}
-			result -= cummulatedCellCount[direction + 1];
-		} else {
-			// do nothing if orientation == 0
+			// wrap around along negative direction for cells at the lower face
+			int wrap = (boundaryFlags[index] >> (2 * direction)) & 1;
+			return index - cummulatedCellCount[direction + 1] + wrap * cummulatedCellCount[direction];
 		}
-		return result;
+		// do nothing if orientation == 0
+		return index;
+	}
+
+	/**
+	 * Checks whether a cell lies in the interior of the lattice, i.e. whether none of its coordinates is at a face of
+	 * the lattice. Any path of nearest-neighbour steps which stays within one cell of an interior cell in every
+	 * direction (e.g. plaquettes in two different directions and staples) does not wrap around and the corresponding indices can be computed with
+	 * {@link #getShiftOffset(int, int)}.
+	 *
+	 * @param index Lattice index
+	 * @return      true if no coordinate of the cell is 0 or numCells - 1
+	 */
+	public boolean isInteriorCell(int index) {
+		return boundaryFlags[index] == 0;
+	}
+
+	/**
+	 * Returns the index offset of a nearest-neighbour step without wraparound. For interior cells
+	 * (see {@link #isInteriorCell(int)}) shift(index, direction, orientation) == index + getShiftOffset(direction, orientation).
+	 *
+	 * @param direction     Direction of the shift
+	 * @param orientation   Orientation of the shift (1 or -1)
+	 * @return              Offset of the lattice index
+	 */
+	public int getShiftOffset(int direction, int orientation) {
+		return orientation * cummulatedCellCount[direction + 1];
 	}
 
 	/*
@@ -975,32 +1353,110 @@ public class Grid {
 		return cells[index].isActive();
 	}
 
+	public void setEvaluatable(int index, boolean value) {
+		cells[index].setEvaluatable(value);
+	}
+
+	public void setActive(int index, boolean value) {
+		cells[index].setActive(value);
+	}
+
 	public void setEvaluationRegion(int[] regionPoint1, int[] regionPoint2) {
 		int totalNumberOfCells = getTotalNumberOfCells();
 		for (int i = 0; i < totalNumberOfCells; i++) {
 			int[] gridPos = getCellPos(i);
-			cells[i].setEvaluatable(true);
+			setEvaluatable(i, true);
 			for (int j = 0; j < numDim; j++) {
 				if(gridPos[j] < regionPoint1[j] || regionPoint2[j] < gridPos[j]) {
-					cells[i].setEvaluatable(false);
+					setEvaluatable(i, false);
 					break;
 				}
 			}
 		}
 	}
 
+	/**
+	 * Activates the cells within the box spanned by regionPoint1 and regionPoint2 (inclusive) and deactivates all
+	 * other cells. The field solver only iterates over this box from now on.
+	 *
+	 * @param regionPoint1  Lower corner of the active region
+	 * @param regionPoint2  Upper corner of the active region
+	 */
 	public void setActiveRegion(int[] regionPoint1, int[] regionPoint2) {
 		int totalNumberOfCells = getTotalNumberOfCells();
 		for (int i = 0; i < totalNumberOfCells; i++) {
 			int[] gridPos = getCellPos(i);
-			cells[i].setActive(true);
+			setActive(i, true);
 			for (int j = 0; j < numDim; j++) {
 				if(gridPos[j] < regionPoint1[j] || regionPoint2[j] < gridPos[j]) {
-					cells[i].setActive(false);
+					setActive(i, false);
 					break;
 				}
 			}
 		}
+		activeRegionPoint1 = regionPoint1.clone();
+		activeRegionPoint2 = regionPoint2.clone();
+		fsolver.setActiveRegion(numCells, activeRegionPoint1, activeRegionPoint2);
+	}
+
+	/**
+	 * Enlarges the active region set by {@link #setActiveRegion(int[], int[])} to the box spanned by regionPoint1
+	 * and regionPoint2. The new box is clipped to the lattice and must contain the previous one. Only the cells of
+	 * the new box are visited, so moving the faces of a small active region is cheap.
+	 *
+	 * @param regionPoint1  Lower corner of the enlarged active region
+	 * @param regionPoint2  Upper corner of the enlarged active region
+	 */
+	public void expandActiveRegion(int[] regionPoint1, int[] regionPoint2) {
+		if (activeRegionPoint1 == null) {
+			throw new RuntimeException("Active region has not been set.");
+		}
+		int[] min = new int[numDim];
+		int[] max = new int[numDim];
+		for (int j = 0; j < numDim; j++) {
+			min[j] = Math.max(0, Math.min(regionPoint1[j], activeRegionPoint1[j]));
+			max[j] = Math.min(numCells[j] - 1, Math.max(regionPoint2[j], activeRegionPoint2[j]));
+		}
+
+		// Activate the cells of the new box which are not part of the old box.
+		int[] pos = min.clone();
+		while (true) {
+			for (int j = 0; j < numDim; j++) {
+				if (pos[j] < activeRegionPoint1[j] || activeRegionPoint2[j] < pos[j]) {
+					setActive(getCellIndex(pos), true);
+					break;
+				}
+			}
+			int j = numDim - 1;
+			while (j >= 0) {
+				if (++pos[j] <= max[j]) {
+					break;
+				}
+				pos[j] = min[j];
+				j--;
+			}
+			if (j < 0) {
+				break;
+			}
+		}
+
+		activeRegionPoint1 = min;
+		activeRegionPoint2 = max;
+		fsolver.setActiveRegion(numCells, activeRegionPoint1, activeRegionPoint2);
+	}
+
+	/**
+	 * @return  Lower corner of the active region or null if the whole lattice is active.
+	 */
+	public int[] getActiveRegionPoint1() {
+		return activeRegionPoint1;
+	}
+
+	/**
+	 * @return  Upper corner of the active region or null if the whole lattice is active.
+	 */
+	public int[] getActiveRegionPoint2() {
+		return activeRegionPoint2;
 	}
 
 	/**
@@ -0,0 +1,13 @@
+package org.openpixi.pixi.physics.grid;
+
+/**
+ * Storage backend of the lattice fields.
+ * <ul>
+ *     <li>Cells: one {@link Cell} object with separate group and algebra elements per lattice site ({@link Grid}).</li>
+ *     <li>Primitive: contiguous primitive arrays indexed by cell id ({@link PrimitiveGrid}).</li>
+ * </ul>
+ */
+public enum GridStorageType {
+	Cells,
+	Primitive
+}
@@ -2,6 +2,7 @@ package org.openpixi.pixi.physics.grid;
 
 import org.openpixi.pixi.parallel.particleaccess.ParticleAction;
 import org.openpixi.pixi.parallel.particleaccess.ParticleIterator;
+import org.openpixi.pixi.parallel.particleaccess.SequentialParticleIterator;
 import org.openpixi.pixi.physics.particles.IParticle;
 
 import java.util.List;
@@ -14,6 +15,12 @@ public class LocalInterpolation extends Interpolation {
 
 	private ParticleIterator particleIterator;
 
+	/**
+	 * Deposition of currents and charges. Buffered deposition is only used with parallel particle iterators.
+	 */
+	private DepositionMode depositionMode;
+	private DepositionBuffers depositionBuffers;
+
 	private Grid grid;
 	private double timeStep;
 
@@ -23,8 +30,14 @@ public class LocalInterpolation extends Interpolation {
 
 	public LocalInterpolation(InterpolatorAlgorithm interpolator,
 			ParticleIterator particleIterator) {
+		this(interpolator, particleIterator, DepositionMode.Synchronized);
+	}
+
+	public LocalInterpolation(InterpolatorAlgorithm interpolator,
+			ParticleIterator particleIterator, DepositionMode depositionMode) {
 		super(interpolator);
 		this.particleIterator = particleIterator;
+		this.depositionMode = depositionMode;
 	}
 
 	@Override
@@ -32,7 +45,7 @@ public class LocalInterpolation extends Interpolation {
 		//grid.resetCurrent();
 		this.grid = grid;
 		this.timeStep = grid.getTemporalSpacing();
-		particleIterator.execute(particles, interpolateToGrid);
+		executeDeposition(particles, interpolateToGrid);
 	}
 
 	@Override
@@ -45,7 +58,27 @@ public class LocalInterpolation extends Interpolation {
 	public void interpolateChargedensity(List<IParticle> particles, Grid grid) {
 		//grid.resetCharge();
 		this.grid = grid;
-		particleIterator.execute(particles, interpolateChargedensity);
+		executeDeposition(particles, interpolateChargedensity);
+	}
+
+	/**
+	 * Executes an action which deposits currents or charges on the grid, either directly or via thread-private
+	 * buffers which are reduced afterwards.
+	 */
+	private void executeDeposition(List<IParticle> particles, ParticleAction action) {
+		if (depositionMode != DepositionMode.Buffered || particleIterator instanceof SequentialParticleIterator) {
+			particleIterator.execute(particles, action);
+			return;
+		}
+		if (depositionBuffers == null || !depositionBuffers.fits(grid)) {
+			depositionBuffers = new DepositionBuffers(grid);
+		}
+		grid.beginBufferedDeposition(depositionBuffers);
+		try {
+			particleIterator.execute(particles, action);
+		} finally {
+			grid.endBufferedDeposition();
+		}
 	}
 
 	private class InterpolateToGrid implements ParticleAction {
@@ -0,0 +1,948 @@
+package org.openpixi.pixi.physics.grid;
+
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.GroupElement;
+import org.openpixi.pixi.math.SU2AlgebraElement;
+import org.openpixi.pixi.math.SU2GroupElement;
+import org.openpixi.pixi.math.SU3AlgebraElement;
+import org.openpixi.pixi.math.SU3GroupElement;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.checkpoint.CheckpointInput;
+import org.openpixi.pixi.physics.checkpoint.CheckpointOutput;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Grid implementation which keeps the fields in contiguous primitive arrays (structure of arrays) instead of one
+ * {@link Cell} object per lattice site. Every field (U, Unext, E, J, rho) is stored in a single double[] indexed by
+ * cell id, direction and component:
+ * <pre>
+ *     U[(index * numDim + dir) * groupSize + k]
+ *     E[(index * numDim + dir) * algebraSize + k]
+ *     rho[index * algebraSize + k]
+ * </pre>
+ * The components are the internal parametrizations of the SU(2) and SU(3) element classes, i.e. groupSize is 4 or 18
+ * and algebraSize is 3 or 9.
+ * <br>
+ * The public API of {@link Grid} is preserved. Getters like {@link #getU(int, int)} or {@link #getE(int, int)} return
+ * views: the values are loaded from the arrays when the view is created and every modification of the view
+ * (addAssign, set, multAssign, ...) is written back. Modifications done through other views or the setters after a
+ * view has been created are not visible in that view. Similarly, {@link #getCell(int)} returns a Cell view which
+ * forwards all accessors to the arrays.
+ * <br>
+ * Views are allocated on every call. Performance critical code (e.g. the field solvers) should use the scratch
+ * getters like {@link #getU(int, int, GroupElement)} together with the setters, which copy the values between the
+ * arrays and thread-owned elements without allocating.
+ */
+public class PrimitiveGrid extends Grid {
+
+	/**
+	 * Number of locks used for the synchronization of {@link #addJ(int, int, AlgebraElement)} and
+	 * {@link #addRho(int, AlgebraElement)}. Cells share locks in a striped manner.
+	 */
+	private static final int NUMBER_OF_LOCKS = 1024;
+
+	protected int groupSize;
+	protected int algebraSize;
+
+	protected double[] U;
+	protected double[] Unext;
+	protected double[] E;
+	protected double[] J;
+	protected double[] rho;
+
+	protected boolean[] evaluatable;
+	protected boolean[] active;
+
+	private Object[] locks;
+
+	/**
+	 * Scratch links used by {@link #getStapleSum(int, int, GroupElement, GroupElement, GroupElement)}, one pair per
+	 * thread.
+	 */
+	private final ThreadLocal<GroupElement[]> stapleLinks = new ThreadLocal<GroupElement[]>() {
+		@Override
+		protected GroupElement[] initialValue() {
+			return new GroupElement[]{factory.groupIdentity(), factory.groupIdentity()};
+		}
+	};
+
+	/**
+	 * Main constructor for the PrimitiveGrid class. See {@link Grid#Grid(Settings)}.
+	 * @param settings  Settings instance
+	 */
+	public PrimitiveGrid(Settings settings) {
+		super(settings);
+	}
+
+	/**
+	 * Allocates the primitive arrays for all fields and sets the links to unity.
+	 */
+	@Override
+	public void createGrid() {
+		int length = initializeLattice();
+
+		int colors = getNumberOfColors();
+		switch (colors) {
+			case 2:
+				groupSize = 4;
+				algebraSize = 3;
+				break;
+			case 3:
+				groupSize = 18;
+				algebraSize = 9;
+				break;
+			default:
+				throw new RuntimeException("PrimitiveGrid does not support SU(" + colors + ").");
+		}
+
+		int links = length * numDim;
+		U = new double[links * groupSize];
+		Unext = new double[links * groupSize];
+		E = new double[links * algebraSize];
+		J = new double[links * algebraSize];
+		rho = new double[length * algebraSize];
+
+		evaluatable = new boolean[length];
+		active = new boolean[length];
+		Arrays.fill(evaluatable, true);
+		Arrays.fill(active, true);
+
+		locks = new Object[NUMBER_OF_LOCKS];
+		for (int i = 0; i < NUMBER_OF_LOCKS; i++) {
+			locks[i] = new Object();
+		}
+
+		for (int i = 0; i < links; i++) {
+			setIdentity(U, i * groupSize);
+			setIdentity(Unext, i * groupSize);
+		}
+	}
+
+	/*
+	 *      Field accessors
+	 */
+
+	@Override
+	public AlgebraElement getJ(int index, int dir) {
+		return algebraView(J, linkOffset(index, dir, algebraSize));
+	}
+
+	@Override
+	public void addJ(int index, int dir, AlgebraElement field) {
+		if (depositionBuffers != null) {
+			depositionBuffers.addJ(index, dir, field);
+			return;
+		}
+		synchronized (locks[index % NUMBER_OF_LOCKS]) {
+			addAlgebra(J, linkOffset(index, dir, algebraSize), field);
+		}
+	}
+
+	@Override
+	public void addJ(int index, int dir, double[] components, int offset, double factor) {
+		if (depositionBuffers != null) {
+			depositionBuffers.addJ(index, dir, components, offset, factor);
+			return;
+		}
+		synchronized (locks[index % NUMBER_OF_LOCKS]) {
+			addComponents(J, linkOffset(index, dir, algebraSize), components, offset, factor);
+		}
+	}
+
+	@Override
+	public AlgebraElement getRho(int index) {
+		return algebraView(rho, index * algebraSize);
+	}
+
+	@Override
+	public void setRho(int index, AlgebraElement field) {
+		writeAlgebra(rho, index * algebraSize, field);
+	}
+
+	@Override
+	public void addRho(int index, AlgebraElement field) {
+		if (depositionBuffers != null) {
+			depositionBuffers.addRho(index, field);
+			return;
+		}
+		synchronized (locks[index % NUMBER_OF_LOCKS]) {
+			addAlgebra(rho, index * algebraSize, field);
+		}
+	}
+
+	@Override
+	public void addRho(int index, double[] components, int offset, double factor) {
+		if (depositionBuffers != null) {
+			depositionBuffers.addRho(index, components, offset, factor);
+			return;
+		}
+		synchronized (locks[index % NUMBER_OF_LOCKS]) {
+			addComponents(rho, index * algebraSize, components, offset, factor);
+		}
+	}
+
+	@Override
+	public AlgebraElement getE(int index, int dir) {
+		return algebraView(E, linkOffset(index, dir, algebraSize));
+	}
+
+	@Override
+	public void setE(int index, int dir, AlgebraElement field) {
+		writeAlgebra(E, linkOffset(index, dir, algebraSize), field);
+	}
+
+	@Override
+	public void addE(int index, int dir, AlgebraElement field) {
+		addAlgebra(E, linkOffset(index, dir, algebraSize), field);
+	}
+
+	@Override
+	public GroupElement getU(int index, int dir) {
+		return groupView(U, linkOffset(index, dir, groupSize));
+	}
+
+	@Override
+	public void setU(int index, int dir, GroupElement mat) {
+		writeGroup(U, linkOffset(index, dir, groupSize), mat);
+	}
+
+	@Override
+	public GroupElement getUnext(int index, int dir) {
+		return groupView(Unext, linkOffset(index, dir, groupSize));
+	}
+
+	@Override
+	public void setUnext(int index, int dir, GroupElement mat) {
+		writeGroup(Unext, linkOffset(index, dir, groupSize), mat);
+	}
+
+	@Override
+	public GroupElement getU(int index, int dir, GroupElement scratch) {
+		return loadGroup(U, linkOffset(index, dir, groupSize), scratch);
+	}
+
+	@Override
+	public GroupElement getUnext(int index, int dir, GroupElement scratch) {
+		return loadGroup(Unext, linkOffset(index, dir, groupSize), scratch);
+	}
+
+	@Override
+	public AlgebraElement getE(int index, int dir, AlgebraElement scratch) {
+		return loadAlgebra(E, linkOffset(index, dir, algebraSize), scratch);
+	}
+
+	@Override
+	public AlgebraElement getJ(int index, int dir, AlgebraElement scratch) {
+		return loadAlgebra(J, linkOffset(index, dir, algebraSize), scratch);
+	}
+
+	/**
+	 * Same as {@link Grid#getStapleSum(int, int, GroupElement, GroupElement, GroupElement)}, but the links are
+	 * copied from the arrays to two scratch elements owned by the calling thread instead of creating views.
+	 */
+	@Override
+	public void getStapleSum(int index, int d, GroupElement result, GroupElement temp1, GroupElement temp2) {
+		GroupElement[] links = stapleLinks.get();
+		GroupElement link1 = links[0];
+		GroupElement link2 = links[1];
+		result.setZero();
+		boolean interior = isInteriorCell(index);
+		int ci1 = interior ? index + cummulatedCellCount[d + 1] : shift(index, d, 1);
+		int ci2, ci3, ci4;
+		for (int i = 0; i < numDim; i++) {
+			if(i != d) {
+				if (interior) {
+					int offset = cummulatedCellCount[i + 1];
+					ci2 = index + offset;
+					ci3 = ci1 - offset;
+					ci4 = index - offset;
+				} else {
+					ci2 = shift(index, i, 1);
+					ci3 = shift(ci1, i, -1);
+					ci4 = shift(index, i, -1);
+				}
+				double areaFactor = 1.0 / (getLatticeSpacing(i) * getLatticeSpacing(i));
+				// U_{x+d, i} U_{x+i, d}^t U_{x, i}^t
+				getU(ci1, i, link1).multAdjInto(getU(ci2, d, link2), temp1);
+				temp1.multAdjInto(getU(index, i, link1), temp2);
+				result.addAssign(temp2, areaFactor);
+				// (U_{x-i, d} U_{x+d-i, i})^t U_{x-i, i}
+				getU(ci4, d, link1).multInto(getU(ci3, i, link2), temp1);
+				temp1.adjMultInto(getU(ci4, i, link1), temp2);
+				result.addAssign(temp2, areaFactor);
+			}
+		}
+	}
+
+	@Override
+	public void resetCharge(int index) {
+		Arrays.fill(rho, index * algebraSize, (index + 1) * algebraSize, 0.0);
+	}
+
+	@Override
+	public boolean isEvaluatable(int index) {
+		return evaluatable[index];
+	}
+
+	@Override
+	public boolean isActive(int index) {
+		return active[index];
+	}
+
+	@Override
+	public void setEvaluatable(int index, boolean value) {
+		evaluatable[index] = value;
+	}
+
+	@Override
+	public void setActive(int index, boolean value) {
+		active[index] = value;
+	}
+
+	/*
+	 *      Checkpoints (the file layout matches the arrays, so the fields are copied in bulk)
+	 */
+
+	@Override
+	public void writeFields(CheckpointOutput output) throws IOException {
+		output.putDoubles(U, 0, U.length);
+		output.putDoubles(Unext, 0, Unext.length);
+		output.putDoubles(E, 0, E.length);
+		output.putDoubles(J, 0, J.length);
+		output.putDoubles(rho, 0, rho.length);
+
+		byte[] flags = new byte[active.length];
+		for (int i = 0; i < flags.length; i++) {
+			flags[i] = encodeFlags(evaluatable[i], active[i]);
+		}
+		output.putBytes(flags, 0, flags.length);
+	}
+
+	@Override
+	public void readFields(CheckpointInput input) throws IOException {
+		input.getDoubles(U, 0, U.length);
+		input.getDoubles(Unext, 0, Unext.length);
+		input.getDoubles(E, 0, E.length);
+		input.getDoubles(J, 0, J.length);
+		input.getDoubles(rho, 0, rho.length);
+
+		byte[] flags = new byte[active.length];
+		input.getBytes(flags, 0, flags.length);
+		for (int i = 0; i < flags.length; i++) {
+			evaluatable[i] = (flags[i] & FLAG_EVALUATABLE) != 0;
+			active[i] = (flags[i] & FLAG_ACTIVE) != 0;
+		}
+	}
+
+	/**
+	 * Returns a view of the cell at given lattice index. All accessors of the returned Cell instance read from and
+	 * write to the primitive arrays of this grid.
+	 *
+	 * @param index  Index of the cell
+	 * @return       Cell view at lattice index
+	 */
+	@Override
+	public Cell getCell(int index) {
+		return new PrimitiveCell(index);
+	}
+
+	/**
+	 * Returns an array of Cell views (see {@link #getCell(int)}) indexed by cell ids. The array is created on every
+	 * call, but the views read from and write to the primitive arrays of this grid.
+	 *
+	 * @return  Full array with views of all cells
+	 */
+	@Override
+	public Cell[] getCells() {
+		int numberOfCells = getTotalNumberOfCells();
+		Cell[] cells = new Cell[numberOfCells];
+		for (int i = 0; i < numberOfCells; i++) {
+			cells[i] = new PrimitiveCell(i);
+		}
+		return cells;
+	}
+
+	/*
+	 *      Whole-lattice operations
+	 */
+
+	@Override
+	public void resetCurrent() {
+		Arrays.fill(J, 0.0);
+	}
+
+	@Override
+	public void resetCharge() {
+		Arrays.fill(rho, 0.0);
+	}
+
+	@Override
+	public void resetUnext() {
+		for (int i = 0; i < Unext.length; i += groupSize) {
+			setIdentity(Unext, i);
+		}
+	}
+
+	/**
+	 * Swaps the arrays of U and Unext. This is equivalent to {@link Cell#reassignLinks()} applied to every cell.
+	 */
+	@Override
+	public void storeFields() {
+		double[] temp = U;
+		U = Unext;
+		Unext = temp;
+	}
+
+	/*
+	 *      Helper methods
+	 */
+
+	private int linkOffset(int index, int dir, int size) {
+		return (index * numDim + dir) * size;
+	}
+
+	private void setIdentity(double[] data, int offset) {
+		Arrays.fill(data, offset, offset + groupSize, 0.0);
+		if (groupSize == 4) {
+			data[offset] = 1.0;
+		} else {
+			data[offset] = 1.0;
+			data[offset + 4] = 1.0;
+			data[offset + 8] = 1.0;
+		}
+	}
+
+	private GroupElement loadGroup(double[] data, int offset, GroupElement dest) {
+		if (groupSize == 4) {
+			for (int k = 0; k < 4; k++) {
+				dest.set(k, data[offset + k]);
+			}
+		} else {
+			System.arraycopy(data, offset, ((SU3GroupElement) dest).get(), 0, 18);
+		}
+		return dest;
+	}
+
+	private AlgebraElement loadAlgebra(double[] data, int offset, AlgebraElement dest) {
+		if (algebraSize == 3) {
+			for (int k = 0; k < 3; k++) {
+				dest.set(k, data[offset + k]);
+			}
+		} else {
+			System.arraycopy(data, offset, ((SU3AlgebraElement) dest).get(), 0, 9);
+		}
+		return dest;
+	}
+
+	private GroupElement groupView(double[] data, int offset) {
+		if (groupSize == 4) {
+			return new SU2GroupElementView(data, offset);
+		}
+		return new SU3GroupElementView(data, offset);
+	}
+
+	private AlgebraElement algebraView(double[] data, int offset) {
+		if (algebraSize == 3) {
+			return new SU2AlgebraElementView(data, offset);
+		}
+		return new SU3AlgebraElementView(data, offset);
+	}
+
+	private void writeGroup(double[] data, int offset, GroupElement mat) {
+		if (groupSize == 4) {
+			SU2GroupElement m = (SU2GroupElement) mat;
+			for (int k = 0; k < 4; k++) {
+				data[offset + k] = m.get(k);
+			}
+		} else {
+			System.arraycopy(((SU3GroupElement) mat).get(), 0, data, offset, 18);
+		}
+	}
+
+	private void writeAlgebra(double[] data, int offset, AlgebraElement field) {
+		if (algebraSize == 3) {
+			for (int k = 0; k < 3; k++) {
+				data[offset + k] = field.get(k);
+			}
+		} else {
+			System.arraycopy(((SU3AlgebraElement) field).get(), 0, data, offset, 9);
+		}
+	}
+
+	private void addAlgebra(double[] data, int offset, AlgebraElement field) {
+		if (algebraSize == 3) {
+			for (int k = 0; k < 3; k++) {
+				data[offset + k] += field.get(k);
+			}
+		} else {
+			double[] v = ((SU3AlgebraElement) field).get();
+			for (int k = 0; k < 9; k++) {
+				data[offset + k] += v[k];
+			}
+		}
+	}
+
+	private void addComponents(double[] data, int offset, double[] components, int componentOffset, double factor) {
+		if (algebraSize == 3) {
+			for (int k = 0; k < 3; k++) {
+				data[offset + k] += factor * components[componentOffset + k];
+			}
+		} else {
+			SU3AlgebraElement.addComponents(data, offset, components, componentOffset, factor);
+		}
+	}
+
+	/*
+	 *      Views
+	 */
+
+	/**
+	 * Cell view which forwards all accessors to the primitive arrays of the grid.
+	 */
+	private class PrimitiveCell extends Cell {
+
+		private int index;
+
+		private PrimitiveCell(int index) {
+			super(PrimitiveGrid.this.factory, numDim, getNumberOfColors());
+			this.index = index;
+		}
+
+		@Override
+		public void addJ(int dir, AlgebraElement current) {
+			PrimitiveGrid.this.addJ(index, dir, current);
+		}
+
+		@Override
+		public void addJ(int dir, double[] components, int offset, double factor) {
+			PrimitiveGrid.this.addJ(index, dir, components, offset, factor);
+		}
+
+		@Override
+		public AlgebraElement getJ(int dir) {
+			return PrimitiveGrid.this.getJ(index, dir);
+		}
+
+		@Override
+		public AlgebraElement getRho() {
+			return PrimitiveGrid.this.getRho(index);
+		}
+
+		@Override
+		public void setRho(AlgebraElement rho) {
+			PrimitiveGrid.this.setRho(index, rho);
+		}
+
+		@Override
+		public void addRho(AlgebraElement rho) {
+			PrimitiveGrid.this.addRho(index, rho);
+		}
+
+		@Override
+		public void addRho(double[] components, int offset, double factor) {
+			PrimitiveGrid.this.addRho(index, components, offset, factor);
+		}
+
+		@Override
+		public AlgebraElement getE(int dir) {
+			return PrimitiveGrid.this.getE(index, dir);
+		}
+
+		@Override
+		public void setE(int dir, AlgebraElement field) {
+			PrimitiveGrid.this.setE(index, dir, field);
+		}
+
+		@Override
+		public void addE(int dir, AlgebraElement field) {
+			PrimitiveGrid.this.addE(index, dir, field);
+		}
+
+		@Override
+		public GroupElement getU(int dir) {
+			return PrimitiveGrid.this.getU(index, dir);
+		}
+
+		@Override
+		public void setU(int dir, GroupElement link) {
+			PrimitiveGrid.this.setU(index, dir, link);
+		}
+
+		@Override
+		public GroupElement getUnext(int dir) {
+			return PrimitiveGrid.this.getUnext(index, dir);
+		}
+
+		@Override
+		public void setUnext(int dir, GroupElement link) {
+			PrimitiveGrid.this.setUnext(index, dir, link);
+		}
+
+		@Override
+		public boolean isEvaluatable() {
+			return evaluatable[index];
+		}
+
+		@Override
+		public void setEvaluatable(boolean value) {
+			evaluatable[index] = value;
+		}
+
+		@Override
+		public boolean isActive() {
+			return active[index];
+		}
+
+		@Override
+		public void setActive(boolean value) {
+			active[index] = value;
+		}
+
+		@Override
+		public void resetCurrent() {
+			Arrays.fill(J, linkOffset(index, 0, algebraSize), linkOffset(index + 1, 0, algebraSize), 0.0);
+		}
+
+		@Override
+		public void resetUnext(int colors) {
+			for (int dir = 0; dir < numDim; dir++) {
+				setIdentity(Unext, linkOffset(index, dir, groupSize));
+			}
+		}
+
+		@Override
+		public void resetCharge() {
+			PrimitiveGrid.this.resetCharge(index);
+		}
+
+		@Override
+		public void reassignLinks() {
+			int from = linkOffset(index, 0, groupSize);
+			int length = numDim * groupSize;
+			double[] temp = new double[length];
+			System.arraycopy(U, from, temp, 0, length);
+			System.arraycopy(Unext, from, U, from, length);
+			System.arraycopy(temp, 0, Unext, from, length);
+		}
+
+		@Override
+		public void copyFrom(Cell other) {
+			for (int dir = 0; dir < numDim; dir++) {
+				setE(dir, other.getE(dir));
+				writeAlgebra(J, linkOffset(index, dir, algebraSize), other.getJ(dir));
+				setU(dir, other.getU(dir));
+				setUnext(dir, other.getUnext(dir));
+			}
+			setRho(other.getRho());
+			setEvaluatable(other.isEvaluatable());
+			setActive(other.isActive());
+		}
+	}
+
+	/**
+	 * SU(2) group element view. Modifications are written back to the backing array.
+	 */
+	private static class SU2GroupElementView extends SU2GroupElement {
+
+		private final double[] data;
+		private final int offset;
+
+		private SU2GroupElementView(double[] data, int offset) {
+			super(data[offset], data[offset + 1], data[offset + 2], data[offset + 3]);
+			this.data = data;
+			this.offset = offset;
+		}
+
+		private void store() {
+			data[offset] = e0;
+			data[offset + 1] = e1;
+			data[offset + 2] = e2;
+			data[offset + 3] = e3;
+		}
+
+		@Override
+		public void addAssign(GroupElement arg) {
+			super.addAssign(arg);
+			store();
+		}
+
+		@Override
+		public void addAssign(GroupElement arg, double factor) {
+			super.addAssign(arg, factor);
+			store();
+		}
+
+		@Override
+		public void subAssign(GroupElement arg) {
+			super.subAssign(arg);
+			store();
+		}
+
+		@Override
+		public void setZero() {
+			super.setZero();
+			store();
+		}
+
+		@Override
+		public void setIdentity() {
+			super.setIdentity();
+			store();
+		}
+
+		@Override
+		public void set(GroupElement arg) {
+			super.set(arg);
+			store();
+		}
+
+		@Override
+		public void set(int j, double value) {
+			super.set(j, value);
+			store();
+		}
+
+		@Override
+		public void adjAssign() {
+			super.adjAssign();
+			store();
+		}
+
+		@Override
+		public void computeFirstParameter() {
+			super.computeFirstParameter();
+			store();
+		}
+
+		@Override
+		public void multAssign(double number) {
+			super.multAssign(number);
+			store();
+		}
+
+		@Override
+		public void multAssign(GroupElement arg) {
+			super.multAssign(arg);
+			store();
+		}
+	}
+
+	/**
+	 * SU(3) group element view. Modifications are written back to the backing array.
+	 */
+	private static class SU3GroupElementView extends SU3GroupElement {
+
+		private final double[] data;
+		private final int offset;
+
+		private SU3GroupElementView(double[] data, int offset) {
+			super();
+			System.arraycopy(data, offset, e, 0, 18);
+			this.data = data;
+			this.offset = offset;
+		}
+
+		private void store() {
+			System.arraycopy(e, 0, data, offset, 18);
+		}
+
+		@Override
+		public void addAssign(GroupElement arg) {
+			super.addAssign(arg);
+			store();
+		}
+
+		@Override
+		public void addAssign(GroupElement arg, double factor) {
+			super.addAssign(arg, factor);
+			store();
+		}
+
+		@Override
+		public void subAssign(GroupElement arg) {
+			super.subAssign(arg);
+			store();
+		}
+
+		@Override
+		public void setZero() {
+			super.setZero();
+			store();
+		}
+
+		@Override
+		public void setIdentity() {
+			super.setIdentity();
+			store();
+		}
+
+		@Override
+		public void set(GroupElement arg) {
+			super.set(arg);
+			store();
+		}
+
+		@Override
+		public void set(int j, double value) {
+			super.set(j, value);
+			data[offset + j] = value;
+		}
+
+		@Override
+		public void adjAssign() {
+			super.adjAssign();
+			store();
+		}
+
+		@Override
+		public void multAssign(double number) {
+			super.multAssign(number);
+			store();
+		}
+
+		@Override
+		public void multAssign(GroupElement arg) {
+			super.multAssign(arg);
+			store();
+		}
+	}
+
+	/**
+	 * SU(2) algebra element view. Modifications are written back to the backing array.
+	 */
+	private static class SU2AlgebraElementView extends SU2AlgebraElement {
+
+		private final double[] data;
+		private final int offset;
+
+		private SU2AlgebraElementView(double[] data, int offset) {
+			super(data[offset], data[offset + 1], data[offset + 2]);
+			this.data = data;
+			this.offset = offset;
+		}
+
+		private void store() {
+			data[offset] = v0;
+			data[offset + 1] = v1;
+			data[offset + 2] = v2;
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			store();
+		}
+
+		@Override
+		public void addAssign(AlgebraElement arg) {
+			super.addAssign(arg);
+			store();
+		}
+
+		@Override
+		public void addAssign(AlgebraElement arg, double factor) {
+			super.addAssign(arg, factor);
+			store();
+		}
+
+		@Override
+		public void addAssign(double[] components, int offset, double factor) {
+			super.addAssign(components, offset, factor);
+			store();
+		}
+
+		@Override
+		public void set(int j, double value) {
+			super.set(j, value);
+			store();
+		}
+
+		@Override
+		public void multAssign(double number) {
+			super.multAssign(number);
+			store();
+		}
+
+		@Override
+		public void set(AlgebraElement arg) {
+			super.set(arg);
+			store();
+		}
+
+		@Override
+		public void actAssign(GroupElement g) {
+			super.actAssign(g);
+			store();
+		}
+	}
+
+	/**
+	 * SU(3) algebra element view. Modifications are written back to the backing array.
+	 */
+	private static class SU3AlgebraElementView extends SU3AlgebraElement {
+
+		private final double[] data;
+		private final int offset;
+
+		private SU3AlgebraElementView(double[] data, int offset) {
+			super();
+			System.arraycopy(data, offset, v, 0, 9);
+			this.data = data;
+			this.offset = offset;
+		}
+
+		private void store() {
+			System.arraycopy(v, 0, data, offset, 9);
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			store();
+		}
+
+		@Override
+		public void addAssign(AlgebraElement arg) {
+			super.addAssign(arg);
+			store();
+		}
+
+		@Override
+		public void addAssign(AlgebraElement arg, double factor) {
+			super.addAssign(arg, factor);
+			store();
+		}
+
+		@Override
+		public void addAssign(double[] components, int offset, double factor) {
+			super.addAssign(components, offset, factor);
+			store();
+		}
+
+		@Override
+		public void set(int j, double value) {
+			super.set(j, value);
+			store();
+		}
+
+		@Override
+		public void multAssign(double number) {
+			super.multAssign(number);
+			store();
+		}
+
+		@Override
+		public void set(AlgebraElement arg) {
+			super.set(arg);
+			store();
+		}
+
+		@Override
+		public void actAssign(GroupElement g) {
+			super.actAssign(g);
+			store();
+		}
+	}
+}
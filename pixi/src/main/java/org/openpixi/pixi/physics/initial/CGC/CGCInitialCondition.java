@@ -3,6 +3,7 @@ package org.openpixi.pixi.physics.initial.CGC;
 import org.openpixi.pixi.physics.Simulation;
 import org.openpixi.pixi.physics.SimulationType;
 import org.openpixi.pixi.physics.initial.IInitialCondition;
+import org.openpixi.pixi.physics.particles.ParticleStorageType;
 
 /**
  * This abstract class implements the common steps for CGC initial conditions:
@@ -75,7 +76,11 @@ public class CGCInitialCondition implements IInitialCondition {
 		switch (s.getSimulationType()) {
 			case TemporalCGCNGP:
 			case TemporalImplicitCGCNGP:
-				initialParticleCreator = new LightConeNGPParticleCreator();
+				if (s.getParticleStorage() == ParticleStorageType.Primitive) {
+					initialParticleCreator = new LightConeNGPParticleArrayCreator();
+				} else {
+					initialParticleCreator = new LightConeNGPParticleCreator();
+				}
 				break;
 			case TemporalOptimizedCGCNGP:
 			case TemporalOptimizedImplicitCGCNGP:
@@ -1,6 +1,9 @@
 package org.openpixi.pixi.physics.initial.CGC;
 
-import org.openpixi.pixi.physics.gauge.DoubleFFTWrapper;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openpixi.pixi.physics.gauge.FFTService;
 import org.openpixi.pixi.physics.util.GridFunctions;
 
 /**
@@ -8,6 +11,9 @@ import org.openpixi.pixi.physics.util.GridFunctions;
  */
 public class FourierFunctions {
 
+	private static final ConcurrentHashMap<String, double[]> inverseLaplaceCache =
+			new ConcurrentHashMap<String, double[]>();
+
 	/**
 	 * Applies hard UV and IR regulation to (one color component of) a 3D charge density.
 	 *
@@ -21,22 +27,31 @@ public class FourierFunctions {
 	 */
 	public static double[] regulateChargeDensityHard(double[] rho, int[] numCells, double UVT, double UVL, double IR,
 													 int direction, double aT, double aL) {
-		int totalCells = numCells[0] * numCells[1] * numCells[2];
+		double[] rhoReg = rho.clone();
+		regulateChargeDensityHard(new double[][]{rhoReg}, numCells, UVT, UVL, IR, direction, aT, aL,
+				FFTService.getSerialService());
+		return rhoReg;
+	}
+
+	/**
+	 * Applies hard UV and IR regulation to several color components of a 3D charge density at once (in place).
+	 *
+	 * @param rho		Color components of the charge density
+	 * @param numCells	Grid size
+	 * @param UVT		Transverse UV cutoff
+	 * @param UVL		Longitudinal UV cutoff
+	 * @param IR		IR regulator
+	 * @param direction	Longitudinal direction
+	 * @param service	Service used for the Fourier transforms
+	 */
+	public static void regulateChargeDensityHard(double[][] rho, int[] numCells, double UVT, double UVL, double IR,
+												 int direction, double aT, double aL, FFTService service) {
+		int totalCells = numCells[0] * numCells[1] * numCells[2]; // hardcoded for 3D, I know.
 		int longitudinalNumCells = numCells[direction];
 		int[] transverseNumCells = GridFunctions.reduceGridPos(numCells, direction);
 
-		DoubleFFTWrapper fft = new DoubleFFTWrapper(numCells);
-		double[] rhoReg = new double[fft.getFFTArraySize()]; // hardcoded for 3D, I know.
-		for (int i = 0; i < totalCells; i++) {
-			rhoReg[fft.getFFTArrayIndex(i)] = rho[i];
-		}
-		fft.complexForward(rhoReg);
-
-		// Remove global charge
-		rhoReg[0] = 0.0;
-		rhoReg[1] = 0.0;
-
-		// Apply momentum regulation
+		// Momentum regulation, the global charge (k = 0) is removed.
+		double[] regulation = new double[totalCells];
 		for (int i = 0; i < totalCells; i++) {
 			int[] gridPos = GridFunctions.getCellPos(i, numCells);
 			int longPos = gridPos[direction];
@@ -50,20 +65,11 @@ public class FourierFunctions {
 			// Apply hard UV regulation
 			if(kT2 <=  UVT * UVT && kL <= UVL && kT2 > 0) {
 				// Apply 'soft' IR regulation
-				double regulator = kTeff2 / (kTeff2 + IR * IR);
-				rhoReg[fft.getFFTArrayIndex(i)] *= regulator;
-				rhoReg[fft.getFFTArrayIndex(i)+1] *= regulator;
-			} else {
-				rhoReg[fft.getFFTArrayIndex(i)] = 0.0;
-				rhoReg[fft.getFFTArrayIndex(i)+1] = 0.0;
+				regulation[i] = kTeff2 / (kTeff2 + IR * IR);
 			}
 		}
 
-		fft.complexInverse(rhoReg, true);
-		for (int i = 0; i < totalCells; i++) {
-			rho[i] = rhoReg[fft.getFFTArrayIndex(i)];
-		}
-		return rho;
+		service.applyKernel(numCells, rho, regulation);
 	}
 
 	public static double[] regulateChargeDensityHard(double[] rho, int[] numCells, double UVT, double UVL, double IR,
@@ -85,22 +91,33 @@ public class FourierFunctions {
          */
 	public static double[] regulateChargeDensityGaussian(double[] rho, int[] numCells, double UVT, double longWidth, double IR,
 													 int direction, double aT, double aL) {
-		int totalCells = numCells[0] * numCells[1] * numCells[2];
+		double[] rhoReg = rho.clone();
+		regulateChargeDensityGaussian(new double[][]{rhoReg}, numCells, UVT, longWidth, IR, direction, aT, aL,
+				FFTService.getSerialService());
+		return rhoReg;
+	}
+
+	/**
+	 * Applies Gaussian longitudinal and hard transverse regulation to several color components of a 3D charge
+	 * density at once (in place).
+	 *
+	 * @param rho			Color components of the charge density
+	 * @param numCells		Grid size
+	 * @param UVT			Transverse UV cutoff
+	 * @param longWidth		Longitudinal Gaussian width in momentum space
+	 * @param IR			IR regulator
+	 * @param direction		Longitudinal direction
+	 * @param service		Service used for the Fourier transforms
+	 */
+	public static void regulateChargeDensityGaussian(double[][] rho, int[] numCells, double UVT, double longWidth,
+													 double IR, int direction, double aT, double aL,
+													 FFTService service) {
+		int totalCells = numCells[0] * numCells[1] * numCells[2]; // hardcoded for 3D, I know.
 		int longitudinalNumCells = numCells[direction];
 		int[] transverseNumCells = GridFunctions.reduceGridPos(numCells, direction);
 
-		DoubleFFTWrapper fft = new DoubleFFTWrapper(numCells);
-		double[] rhoReg = new double[fft.getFFTArraySize()]; // hardcoded for 3D, I know.
-		for (int i = 0; i < totalCells; i++) {
-			rhoReg[fft.getFFTArrayIndex(i)] = rho[i];
-		}
-		fft.complexForward(rhoReg);
-
-		// Remove global charge
-		rhoReg[0] = 0.0;
-		rhoReg[1] = 0.0;
-
-		// Apply momentum regulation
+		// Momentum regulation, the global charge (k = 0) is removed.
+		double[] regulation = new double[totalCells];
 		for (int i = 0; i < totalCells; i++) {
 			int[] gridPos = GridFunctions.getCellPos(i, numCells);
 			int longPos = gridPos[direction];
@@ -116,19 +133,11 @@ public class FourierFunctions {
 				// Apply 'soft' IR regulation
 				double regulator = kTeff2 / (kTeff2 + IR * IR);
 				double longRegulator = Math.exp(-0.25*kL*kL*longWidth*longWidth);
-				rhoReg[fft.getFFTArrayIndex(i)] *= regulator*longRegulator;
-				rhoReg[fft.getFFTArrayIndex(i)+1] *= regulator*longRegulator;
-			} else {
-				rhoReg[fft.getFFTArrayIndex(i)] = 0.0;
-				rhoReg[fft.getFFTArrayIndex(i)+1] = 0.0;
+				regulation[i] = regulator*longRegulator;
 			}
 		}
 
-		fft.complexInverse(rhoReg, true);
-		for (int i = 0; i < totalCells; i++) {
-			rho[i] = rhoReg[fft.getFFTArrayIndex(i)];
-		}
-		return rho;
+		service.applyKernel(numCells, rho, regulation);
 	}
 
 	public static double[] regulateChargeDensityGaussian(double[] rho, int[] numCells, double UVT, double longWidth, double IR,
@@ -145,30 +154,43 @@ public class FourierFunctions {
          * @return
          */
 	public static double[] solvePoisson2D(double[] rho, int[] transNumCells, double aT) {
-		int totalCells = transNumCells[0] * transNumCells[1];
+		double[] phi = rho.clone();
+		solvePoisson2D(new double[][]{phi}, transNumCells, aT, FFTService.getSerialService());
+		return phi;
+	}
 
-		DoubleFFTWrapper fft = new DoubleFFTWrapper(transNumCells);
-		double[] phiFFT = new double[fft.getFFTArraySize()];
-		for (int i = 0; i < totalCells; i++) {
-			phiFFT[fft.getFFTArrayIndex(i)] = rho[i];
-		}
-		fft.complexForward(phiFFT);
-
-		phiFFT[0] = 0.0;
-		phiFFT[1] = 0.0;
-		for (int i = 1; i < totalCells; i++) {
-			double kTeff2 = computeEffectiveTransverseMomentumSquared(i, transNumCells, aT);
-			phiFFT[fft.getFFTArrayIndex(i)]   *= 1.0 / kTeff2;
-			phiFFT[fft.getFFTArrayIndex(i)+1] *= 1.0 / kTeff2;
-		}
-		fft.complexInverse(phiFFT, true);
+	/**
+	 * Solves the 2D transverse Poisson equation for several charge densities at once (in place).
+	 *
+	 * @param rho			2D charge densities, replaced by the solutions
+	 * @param transNumCells	grid size
+	 * @param aT			transverse lattice spacing
+	 * @param service		Service used for the Fourier transforms
+	 */
+	public static void solvePoisson2D(double[][] rho, int[] transNumCells, double aT, FFTService service) {
+		service.applyKernel(transNumCells, rho, getInverseLaplace2D(transNumCells, aT));
+	}
 
-		double[] phi = new double[totalCells];
-		for (int i = 0; i < totalCells; i++) {
-			phi[i] = phiFFT[fft.getFFTArrayIndex(i)];
+	/**
+	 * Returns the (cached) inverse of the transverse lattice Laplace operator in momentum space. The zero mode is
+	 * removed.
+	 *
+	 * @param transNumCells	grid size
+	 * @param aT			transverse lattice spacing
+	 * @return				1 / kTeff^2 indexed by transverse lattice index
+	 */
+	private static double[] getInverseLaplace2D(int[] transNumCells, double aT) {
+		String key = Arrays.toString(transNumCells) + aT;
+		double[] inverseLaplace = inverseLaplaceCache.get(key);
+		if (inverseLaplace == null) {
+			int totalCells = transNumCells[0] * transNumCells[1];
+			inverseLaplace = new double[totalCells];
+			for (int i = 1; i < totalCells; i++) {
+				inverseLaplace[i] = 1.0 / computeEffectiveTransverseMomentumSquared(i, transNumCells, aT);
+			}
+			inverseLaplaceCache.put(key, inverseLaplace);
 		}
-
-		return phi;
+		return inverseLaplace;
 	}
 
 	/**
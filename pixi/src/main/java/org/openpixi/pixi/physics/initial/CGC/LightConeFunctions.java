@@ -0,0 +1,81 @@
+package org.openpixi.pixi.physics.initial.CGC;
+
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.parallel.cellaccess.CellAction;
+import org.openpixi.pixi.parallel.cellaccess.RangeIterator;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.grid.Grid;
+import org.openpixi.pixi.physics.util.GridFunctions;
+
+/**
+ * Utility functions shared by the light cone Poisson solvers.
+ * <p>
+ * A cell of the grid is addressed by its transverse index i (see {@link GridFunctions#reduceGridPos(int[], int)}) and
+ * its longitudinal position z. Its lattice index is {@code baseIndices[i] + z * stride}, with the base indices from
+ * {@link GridFunctions#getTransverseBaseIndices(int[], int)} and the stride from
+ * {@link Grid#getShiftOffset(int, int)}. This avoids the allocation of position arrays for every cell.
+ */
+public class LightConeFunctions {
+
+	/**
+	 * Solves the transverse Poisson equation for all color components of a 3D charge density 'sheet by sheet'. All
+	 * sheets and color components are solved as one batch by the FFT service of the grid, which distributes them over
+	 * the threads of the simulation.
+	 *
+	 * @param s             Simulation
+	 * @param chargeDensity Charge density
+	 * @param aT            Transverse lattice spacing
+	 * @return              Transverse potential phi indexed by lattice index
+	 */
+	public static AlgebraElement[] solvePoissonSheetBySheet(Simulation s, IInitialChargeDensity chargeDensity,
+															double aT) {
+		Grid grid = s.grid;
+		int direction = chargeDensity.getDirection();
+		int longitudinalNumCells = grid.getNumCells(direction);
+		int[] transverseNumCells = GridFunctions.reduceGridPos(grid.getNumCells(), direction);
+		int totalTransverseCells = GridFunctions.getTotalNumberOfCells(transverseNumCells);
+		int numberOfComponents = grid.getElementFactory().numberOfComponents;
+		int[] baseIndices = GridFunctions.getTransverseBaseIndices(grid.getNumCells(), direction);
+		int stride = grid.getShiftOffset(direction, 1);
+
+		// Prepare 2D charge densities of all sheets and color components.
+		double[][] sheets = new double[longitudinalNumCells * numberOfComponents][totalTransverseCells];
+		for (int z = 0; z < longitudinalNumCells; z++) {
+			for (int i = 0; i < totalTransverseCells; i++) {
+				AlgebraElement rho = chargeDensity.getChargeDensity(baseIndices[i] + z * stride);
+				for (int c = 0; c < numberOfComponents; c++) {
+					sheets[z * numberOfComponents + c][i] = rho.get(c);
+				}
+			}
+		}
+
+		// Solve Poisson equations
+		FourierFunctions.solvePoisson2D(sheets, transverseNumCells, aT, grid.getFFTService());
+
+		// Put results into phi.
+		AlgebraElement[] phi = new AlgebraElement[grid.getTotalNumberOfCells()];
+		for (int z = 0; z < longitudinalNumCells; z++) {
+			for (int i = 0; i < totalTransverseCells; i++) {
+				AlgebraElement phiElement = grid.getElementFactory().algebraZero();
+				for (int c = 0; c < numberOfComponents; c++) {
+					phiElement.set(c, sheets[z * numberOfComponents + c][i]);
+				}
+				phi[baseIndices[i] + z * stride] = phiElement;
+			}
+		}
+		return phi;
+	}
+
+	/**
+	 * Executes an action for every transverse index. The transverse cells are distributed over the threads of the
+	 * cell iterator of the grid. This is used to construct Wilson lines, which are computed by a sequential scan in
+	 * the longitudinal direction at each transverse position.
+	 *
+	 * @param grid                  Grid whose cell iterator is used
+	 * @param totalTransverseCells  Number of transverse cells
+	 * @param action                Action which is called with the grid and the transverse index
+	 */
+	public static void executeForTransverseCells(Grid grid, int totalTransverseCells, CellAction action) {
+		new RangeIterator(grid, totalTransverseCells).execute(grid, action);
+	}
+}
@@ -0,0 +1,46 @@
+package org.openpixi.pixi.physics.initial.CGC;
+
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.particles.CGCParticleArray;
+
+import java.util.ArrayList;
+
+/**
+ * Same as {@link LightConeNGPParticleCreator}, but the particles are stored in {@link CGCParticleArray} populations.
+ * Each transverse plane of particles becomes a separate population, so that the populations can be processed by
+ * different threads.
+ */
+public class LightConeNGPParticleArrayCreator extends LightConeNGPParticleCreator {
+
+	@Override
+	protected void createParticles(Simulation s, int zStart, int zEnd,
+	                               ArrayList<ArrayList<AlgebraElement>> longitudinalChargeList, int particlesPerLink) {
+		double t0 = 0.0;
+		int numberOfDimensions = s.getNumberOfDimensions();
+		int numberOfComponents = s.grid.getElementFactory().numberOfComponents;
+		double[] position = new double[numberOfDimensions];
+		for (int z = zStart; z <= zEnd; z++) {
+			CGCParticleArray particles = new CGCParticleArray(totalTransversalCells * particlesPerCell,
+					numberOfDimensions, numberOfComponents, direction);
+			int n = 0;
+			for (int i = 0; i < totalTransversalCells; i++) {
+				int[] gridPos = getGridPos(z, i);
+				for (int j = 0; j < particlesPerCell; j++) {
+					setParticlePosition(gridPos, j, particlesPerLink, t0, position); // position at t = 0
+					for (int k = 0; k < numberOfDimensions; k++) {
+						particles.setPosition(n, k, position[k]);
+					}
+					setParticlePosition(gridPos, j, particlesPerLink, t0 + at, position); // position at t = dt
+					for (int k = 0; k < numberOfDimensions; k++) {
+						particles.setPrevPosition(n, k, position[k]);
+					}
+					particles.vel[n] = 1.0 * orientation;
+					particles.setCharge(n, longitudinalChargeList.get(i).get((z - zStart) * particlesPerCell + j));
+					n++;
+				}
+			}
+			s.particles.add(particles);
+		}
+	}
+}
@@ -6,7 +6,6 @@ import org.openpixi.pixi.physics.fields.NewLCPoissonSolver;
 import org.openpixi.pixi.physics.fields.currentgenerators.ICurrentGenerator;
 import org.openpixi.pixi.physics.initial.CGC.IParticleCreator;
 import org.openpixi.pixi.physics.particles.CGCParticle;
-import org.openpixi.pixi.physics.particles.IParticle;
 import org.openpixi.pixi.physics.util.GridFunctions;
 
 import java.util.ArrayList;
@@ -109,13 +108,15 @@ public class LightConeNGPParticleCreator implements IParticleCreator {
 	 */
 	public void initializeParticles(Simulation s, int particlesPerLink) {
 		// Find max charges in transverse planes for each longitudinal coordinate and global charge maximum.
-		int lnum = s.grid.getNumCells(0);
+		int[] transverseBaseIndices = GridFunctions.getTransverseBaseIndices(s.grid.getNumCells(), direction);
+		int longitudinalStride = s.grid.getShiftOffset(direction, 1);
+		int lnum = s.grid.getNumCells(direction);
 		double[] maxCharges = new double[lnum];
 		double globalMax = 0.0;
 		for (int z = 0; z < lnum; z++) {
 			double max = 0.0;
 			for (int j = 0; j < totalTransversalCells; j++) {
-				int index = z * totalTransversalCells + j;
+				int index = transverseBaseIndices[j] + z * longitudinalStride;
 				double charge = Math.sqrt(gaussConstraint[index].square());
 				if (max < charge) {
 					max = charge;
@@ -149,92 +150,115 @@ public class LightConeNGPParticleCreator implements IParticleCreator {
 		// Set width of particle block.
 		int blockWidth = zEnd - zStart;
 
-		ArrayList<ArrayList<CGCParticle>> longitudinalParticleList = new ArrayList<ArrayList<CGCParticle>>(totalTransversalCells);
+		// Traverse through charge density and sample the charge distribution. The charges are collected in
+		// longitudinal order for each transverse cell for the charge refinement.
+		ArrayList<ArrayList<AlgebraElement>> longitudinalChargeList = new ArrayList<ArrayList<AlgebraElement>>(totalTransversalCells);
 		for (int i = 0; i < totalTransversalCells; i++) {
-			longitudinalParticleList.add(new ArrayList<CGCParticle>());
+			longitudinalChargeList.add(new ArrayList<AlgebraElement>());
 		}
-		// Traverse through charge density and add particles by sampling the charge distribution
 		double t0 = 0.0;	// Particles should be initialized at t = 0 and t = dt.
+		double[] particlePosition = new double[s.getNumberOfDimensions()];
 		for (int z = zStart; z <= zEnd; z++) {
 			for (int i = 0; i < totalTransversalCells; i++) {
-				int[] transGridPos = GridFunctions.getCellPos(i, transversalNumCells);
-				int[] gridPos = GridFunctions.insertGridPos(transGridPos, direction, z);
-				int index = s.grid.getCellIndex(gridPos);
+				int[] gridPos = getGridPos(z, i);
 				for (int j = 0; j < particlesPerCell; j++) {
-					// Position within cell
-					double x = (1.0 * j - particlesPerLink/2) / (particlesPerLink);
-					double dz = x * as[direction];
-
+					setParticlePosition(gridPos, j, particlesPerLink, t0, particlePosition);
+					AlgebraElement charge = this.interpolateChargeFromGrid(s, particlePosition).mult(1.0 / particlesPerLink);
+					longitudinalChargeList.get(i).add(charge);
+				}
+			}
+		}
 
-					// Particle position
-					double[] particlePosition0 = new double[gridPos.length];
-					double[] particlePosition1 = new double[gridPos.length];
-					for (int k = 0; k < gridPos.length; k++) {
-						double FIX_ROUND_ERRORS = 10E-12 * as[k];
-						particlePosition0[k] = gridPos[k] * as[k] + FIX_ROUND_ERRORS;
-						particlePosition1[k] = gridPos[k] * as[k] + FIX_ROUND_ERRORS;
-						if(k == direction) {
-							particlePosition0[k] += t0 * orientation + dz;
-							particlePosition1[k] += (t0 + at) * orientation + dz;
-						}
-					}
+		// Charge refinement
+		int numberOfIterations = 100;
+		for (int i = 0; i < totalTransversalCells; i++) {
+			ArrayList<AlgebraElement> chargeList = longitudinalChargeList.get(i);
+			// 2nd order refinement
+			for (int iteration = 0; iteration < numberOfIterations; iteration++) {
+				for (int j = 0; j < chargeList.size(); j++) {
+					refine2(j, chargeList, particlesPerLink);
+				}
+			}
 
+			// 4th order refinement
+			for (int iteration = 0; iteration < numberOfIterations; iteration++) {
+				for (int j = 0; j < chargeList.size(); j++) {
+					refine4(j, chargeList, particlesPerLink);
+				}
+			}
+		}
 
-					AlgebraElement charge = this.interpolateChargeFromGrid(s, particlePosition0).mult(1.0 / particlesPerLink);
+		createParticles(s, zStart, zEnd, longitudinalChargeList, particlesPerLink);
+	}
 
+	/**
+	 * Adds the particles with the refined charges to the simulation. The particles are created at t = 0 and t = dt
+	 * and move at the speed of light in the longitudinal direction.
+	 *
+	 * @param s                      Simulation
+	 * @param zStart                 first longitudinal grid position of the particles
+	 * @param zEnd                   last longitudinal grid position of the particles
+	 * @param longitudinalChargeList charges in longitudinal order for each transverse cell
+	 * @param particlesPerLink       number of particles per cell
+	 */
+	protected void createParticles(Simulation s, int zStart, int zEnd,
+	                               ArrayList<ArrayList<AlgebraElement>> longitudinalChargeList, int particlesPerLink) {
+		double t0 = 0.0;
+		for (int z = zStart; z <= zEnd; z++) {
+			for (int i = 0; i < totalTransversalCells; i++) {
+				int[] gridPos = getGridPos(z, i);
+				for (int j = 0; j < particlesPerCell; j++) {
+					AlgebraElement charge = longitudinalChargeList.get(i).get((z - zStart) * particlesPerCell + j);
 
 					// Particle velocity
 					double[] particleVelocity = new double[gridPos.length];
-					for (int k = 0; k < gridPos.length; k++) {
-						if(k == direction) {
-							particleVelocity[k] = 1.0 * orientation;
-						} else {
-							particleVelocity[k] = 0.0;
-						}
-					}
+					particleVelocity[direction] = 1.0 * orientation;
 
 					CGCParticle p = new CGCParticle(s.getNumberOfDimensions(), s.getNumberOfColors(), direction);
-					p.pos0 = particlePosition0; // position at t = 0
-					p.pos1 = particlePosition1; // position at t = dt (optional)
+					setParticlePosition(gridPos, j, particlesPerLink, t0, p.pos0); // position at t = 0
+					setParticlePosition(gridPos, j, particlesPerLink, t0 + at, p.pos1); // position at t = dt (optional)
 					p.vel = particleVelocity;   // particle velocity at t = -dt/2.
 					p.Q0 = charge;              // charge at t = 0
 					p.Q1 = charge.copy();       // charge at t = dt, assume that there is no parallel transport initially (also optional).
 
 					s.particles.add(p);
-					// Add to extra particle array for charge refinement.
-					longitudinalParticleList.get(i).add(p);
 				}
 			}
 		}
+	}
 
-		// Charge refinement
-		int numberOfIterations = 100;
-		for (int i = 0; i < totalTransversalCells; i++) {
-			ArrayList<CGCParticle> particleList = longitudinalParticleList.get(i);
-			// 2nd order refinement
-			for (int iteration = 0; iteration < numberOfIterations; iteration++) {
-				for (int j = 0; j < particleList.size(); j++) {
-					refine2(j, particleList, particlesPerLink);
-				}
-			}
+	/**
+	 * Grid position of a cell given by its longitudinal position and its transverse index.
+	 */
+	protected int[] getGridPos(int z, int transverseIndex) {
+		int[] transGridPos = GridFunctions.getCellPos(transverseIndex, transversalNumCells);
+		return GridFunctions.insertGridPos(transGridPos, direction, z);
+	}
 
-			// 4th order refinement
-			for (int iteration = 0; iteration < numberOfIterations; iteration++) {
-				for (int j = 0; j < particleList.size(); j++) {
-					refine4(j, particleList, particlesPerLink);
-				}
+	/**
+	 * Computes the position of the j-th particle within a cell at time t.
+	 *
+	 * @param gridPos          grid position of the cell
+	 * @param j                index of the particle within the cell
+	 * @param particlesPerLink number of particles per cell
+	 * @param t                time
+	 * @param position         array which is set to the particle position
+	 */
+	protected void setParticlePosition(int[] gridPos, int j, int particlesPerLink, double t, double[] position) {
+		// Position within cell
+		double x = (1.0 * j - particlesPerLink/2) / (particlesPerLink);
+		double dz = x * as[direction];
+
+		for (int k = 0; k < gridPos.length; k++) {
+			double FIX_ROUND_ERRORS = 10E-12 * as[k];
+			position[k] = gridPos[k] * as[k] + FIX_ROUND_ERRORS;
+			if(k == direction) {
+				position[k] += t * orientation + dz;
 			}
 		}
-
-		// Make sure particle charges Q0 and Q1 are the same.
-		for(IParticle p : s.particles) {
-			CGCParticle P = (CGCParticle) p;
-			P.Q1 = P.Q0.copy();
-		}
-
 	}
 
-	private void refine2(int i, ArrayList<CGCParticle> list, int particlesPerLink) {
+	private void refine2(int i, ArrayList<AlgebraElement> list, int particlesPerLink) {
 		int jmod = i % particlesPerLink;
 		int n = list.size();
 		// Refinement can not be applied to the last charge in an NGP cell.
@@ -245,10 +269,10 @@ public class LightConeNGPParticleCreator implements IParticleCreator {
 			int i2 = p(i+1, n);
 			int i3 = p(i+2, n);
 
-			AlgebraElement Q0 = list.get(i0).Q0;
-			AlgebraElement Q1 = list.get(i1).Q0;
-			AlgebraElement Q2 = list.get(i2).Q0;
-			AlgebraElement Q3 = list.get(i3).Q0;
+			AlgebraElement Q0 = list.get(i0);
+			AlgebraElement Q1 = list.get(i1);
+			AlgebraElement Q2 = list.get(i2);
+			AlgebraElement Q3 = list.get(i3);
 
 			AlgebraElement DQ = Q0.mult(-1);
 			DQ.addAssign(Q1.mult(3));
@@ -262,7 +286,7 @@ public class LightConeNGPParticleCreator implements IParticleCreator {
 	}
 
 
-	private void refine4(int i, ArrayList<CGCParticle> list, int particlesPerLink) {
+	private void refine4(int i, ArrayList<AlgebraElement> list, int particlesPerLink) {
 		int jmod = i % particlesPerLink;
 		int n = list.size();
 		// Refinement can not be applied to the last charge in an NGP cell.
@@ -275,12 +299,12 @@ public class LightConeNGPParticleCreator implements IParticleCreator {
 			int i4 = p(i+2, n);
 			int i5 = p(i+3, n);
 
-			AlgebraElement Q0 = list.get(i0).Q0;
-			AlgebraElement Q1 = list.get(i1).Q0;
-			AlgebraElement Q2 = list.get(i2).Q0;
-			AlgebraElement Q3 = list.get(i3).Q0;
-			AlgebraElement Q4 = list.get(i4).Q0;
-			AlgebraElement Q5 = list.get(i5).Q0;
+			AlgebraElement Q0 = list.get(i0);
+			AlgebraElement Q1 = list.get(i1);
+			AlgebraElement Q2 = list.get(i2);
+			AlgebraElement Q3 = list.get(i3);
+			AlgebraElement Q4 = list.get(i4);
+			AlgebraElement Q5 = list.get(i5);
 
 			AlgebraElement DQ = Q0.mult(+1);
 			DQ.addAssign(Q1.mult(-5));
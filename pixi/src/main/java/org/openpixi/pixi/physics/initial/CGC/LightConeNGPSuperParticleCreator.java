@@ -107,14 +107,20 @@ public class LightConeNGPSuperParticleCreator implements IParticleCreator {
 		law at the boundaries of the regions, but these errors are (supposed to be) negligible.
 		 */
 
+		// Lattice layout of the longitudinal direction. For direction 0 the longitudinal-major ordering of the particles
+		// (see CGCSuperParticle) coincides with the lattice index and no lookup is needed.
+		int[] transverseBaseIndices = GridFunctions.getTransverseBaseIndices(s.grid.getNumCells(), direction);
+		int longitudinalStride = s.grid.getShiftOffset(direction, 1);
+		int[] particleLayout = (direction == 0) ? null : transverseBaseIndices;
+
 		// Find max charges in transverse planes for each longitudinal coordinate and global charge maximum.
-		int lnum = s.grid.getNumCells(0);
+		int lnum = s.grid.getNumCells(direction);
 		double[] maxCharges = new double[lnum];
 		double globalMax = 0.0;
 		for (int z = 0; z < lnum; z++) {
 			double max = 0.0;
 			for (int j = 0; j < totalTransversalCells; j++) {
-				int index = z * totalTransversalCells + j;
+				int index = transverseBaseIndices[j] + z * longitudinalStride;
 				double charge = Math.sqrt(gaussConstraint[index].square());
 				if (max < charge) {
 					max = charge;
@@ -173,43 +179,54 @@ public class LightConeNGPSuperParticleCreator implements IParticleCreator {
 			}
 		}
 
-		// Spawn super particles.
+		// Spawn super particles. Their charges are kept as AlgebraElements until the refinement is done.
+		int numberOfComponents = s.grid.getElementFactory().numberOfComponents;
 		CGCSuperParticle[] superParticles = new CGCSuperParticle[numberOfSuperParticles];
+		AlgebraElement[][] superParticleCharges = new AlgebraElement[numberOfSuperParticles][];
 		for (int j = 0; j < numberOfSubdivisions; j++) {
 			// Initialize super particles for subdivision of the particle block.
 			for (int k = 0; k < particlesPerCell; k++) {
 				if (j < nl) {
 					superParticles[particlesPerCell * j + k] = new CGCSuperParticle(orientation,
+							direction,
 							pl,
 							indexOffset,
 							totalTransversalCells,
 							k,
-							particlesPerCell);
+							particlesPerCell,
+							numberOfComponents);
 				} else {
 					superParticles[particlesPerCell * j + k] = new CGCSuperParticle(orientation,
+							direction,
 							ps,
 							indexOffset,
 							totalTransversalCells,
 							k,
-							particlesPerCell);
+							particlesPerCell,
+							numberOfComponents);
 				}
+				superParticles[particlesPerCell * j + k].setLatticeLayout(particleLayout, longitudinalStride);
 				s.particles.add(superParticles[particlesPerCell * j + k]);
+				superParticleCharges[particlesPerCell * j + k] =
+						new AlgebraElement[superParticles[particlesPerCell * j + k].numberOfParticles];
 			}
 
 			// Set super particle charges for subdivision.
 			int maxParticleNum = (j < nl) ? pl : ps;
 			for (int i = 0; i < maxParticleNum; i++) {
 				int index = indexOffset + i;
+				int latticeIndex = transverseBaseIndices[index % totalTransversalCells]
+						+ (index / totalTransversalCells) * longitudinalStride;
 				for (int k = 0; k < particlesPerCell; k++) {
-					int ngp = (k < particlesPerCell / 2) ? index : s.grid.shift(index, 0, 1);
+					int ngp = (k < particlesPerCell / 2) ? latticeIndex : s.grid.shift(latticeIndex, direction, 1);
 					AlgebraElement charge = gaussConstraint[ngp].copy();
 					charge.multAssign(1.0 / particlesPerCell);
-					superParticles[j * particlesPerCell + k].Q[i] = charge;
+					superParticleCharges[j * particlesPerCell + k][i] = charge;
 
 					int transverseIndex = index % totalTransversalCells;
 					int shiftedIndex = index - zStart * totalTransversalCells;
 					int longitudinalIndex = (int) Math.floor(shiftedIndex / totalTransversalCells) * particlesPerCell + k;
-					longitudinalParticleArray[transverseIndex][longitudinalIndex] = superParticles[j * particlesPerCell + k].Q[i];
+					longitudinalParticleArray[transverseIndex][longitudinalIndex] = charge;
 				}
 			}
 			if (j < nl) {
@@ -240,6 +257,13 @@ public class LightConeNGPSuperParticleCreator implements IParticleCreator {
 				}
 			}
 		}
+
+		// Copy the refined charges to the primitive charge arrays of the super particles.
+		for (int j = 0; j < numberOfSuperParticles; j++) {
+			for (int i = 0; i < superParticles[j].numberOfParticles; i++) {
+				superParticles[j].setCharge(i, superParticleCharges[j][i]);
+			}
+		}
 	}
 
 	private void refine2(int i, AlgebraElement[] list, int particlesPerLink) {
@@ -2,6 +2,7 @@ package org.openpixi.pixi.physics.initial.CGC;
 
 import org.openpixi.pixi.math.AlgebraElement;
 import org.openpixi.pixi.math.GroupElement;
+import org.openpixi.pixi.parallel.cellaccess.CellAction;
 import org.openpixi.pixi.physics.Simulation;
 import org.openpixi.pixi.physics.grid.Grid;
 import org.openpixi.pixi.physics.util.GridFunctions;
@@ -37,56 +38,26 @@ public class LightConePoissonSolver implements ICGCPoissonSolver {
 	 * @param chargeDensity Reference to an IInitialChargeDensity object.
 	 */
 	public void solve(IInitialChargeDensity chargeDensity) {
-		AlgebraElement[] phi0;
+		final AlgebraElement[] phi0;
 /*		AlgebraElement[] phi1;*/
-		AlgebraElement[] deltaphi;
-		GroupElement[] V;
+		final AlgebraElement[] deltaphi;
+		final GroupElement[] V;
 
-		int direction = chargeDensity.getDirection();
-		int orientation = chargeDensity.getOrientation();
+		final int direction = chargeDensity.getDirection();
+		final int orientation = chargeDensity.getOrientation();
 
-		int longitudinalNumCells = s.grid.getNumCells(direction);
+		final int longitudinalNumCells = s.grid.getNumCells(direction);
 		int[] transverseNumCells = GridFunctions.reduceGridPos(s.grid.getNumCells(), direction);
 		int totalTransverseCells = GridFunctions.getTotalNumberOfCells(transverseNumCells);
-		int numberOfColors = s.getNumberOfColors();
-		int numberOfComponents = (numberOfColors > 1) ? numberOfColors * numberOfColors - 1 : 1;
+		final int[] baseIndices = GridFunctions.getTransverseBaseIndices(s.grid.getNumCells(), direction);
+		final int stride = s.grid.getShiftOffset(direction, 1);
 
 		// Longitudinal and transverse lattice spacing
 		double aL = s.grid.getLatticeSpacing(direction);
 		double aT = s.grid.getLatticeSpacing((direction + 1) % s.getNumberOfDimensions());
 
 		// Solve for phi at t = - at/2 'sheet by sheet'
-		phi0 = new AlgebraElement[s.grid.getTotalNumberOfCells()];
-		for (int i = 0; i < s.grid.getTotalNumberOfCells(); i++) {
-			phi0[i] = s.grid.getElementFactory().algebraZero();
-		}
-
-		for (int z = 0; z < longitudinalNumCells; z++) {
-			for (int c = 0; c < numberOfComponents; c++) {
-				// Prepare 2D charge density.
-				double[] rho2D = new double[totalTransverseCells];
-				for (int i = 0; i < totalTransverseCells; i++) {
-					int[] transGridPos = GridFunctions.getCellPos(i, transverseNumCells);
-					int[] gridPos = GridFunctions.insertGridPos(transGridPos, direction, z);
-					int index = s.grid.getCellIndex(gridPos);
-
-					rho2D[i] = chargeDensity.getChargeDensity(index).get(c);
-				}
-
-				// Solve Poisson equation
-				double[] phi2D = FourierFunctions.solvePoisson2D(rho2D, transverseNumCells, aT);
-
-				// Put result into phi0.
-				for (int i = 0; i < totalTransverseCells; i++) {
-					int[] transGridPos = GridFunctions.getCellPos(i, transverseNumCells);
-					int[] gridPos = GridFunctions.insertGridPos(transGridPos, direction, z);
-					int index = s.grid.getCellIndex(gridPos);
-
-					// Already include gauge factor for Wilson line here.
-					phi0[index].set(c, phi2D[i]);
-				}
-			}
-		}
+		phi0 = LightConeFunctions.solvePoissonSheetBySheet(s, chargeDensity, aT);
 
 		// Compute V at t = - at/2 by constructing the Wilson line from gauge links.
 		V = new GroupElement[s.grid.getTotalNumberOfCells()];
@@ -95,35 +66,31 @@ public class LightConePoissonSolver implements ICGCPoissonSolver {
 		}
 
 		// Is the multiplication with orientation correct?
-		double gaugeFactor = - s.getCouplingConstant() * aL;
-		for (int k = 0; k < longitudinalNumCells; k++) {
-			int z = (orientation < 0) ? k : (longitudinalNumCells - k - 1);
-			for (int i = 0; i < totalTransverseCells; i++) {
-				// Current position
-				int[] transGridPos = GridFunctions.getCellPos(i, transverseNumCells);
-				int[] gridPos = GridFunctions.insertGridPos(transGridPos, direction, z);
-				int index = s.grid.getCellIndex(gridPos);
-
-				// Last position in longitudinal direction at same transverse position
-				int indexL = s.grid.shift(index, direction, orientation);
-
-				// Compute V from V directly behind it in the longitudinal direction.
-				GroupElement gaugeLink = V[indexL].copy();
-				gaugeLink.multAssign(phi0[index].mult(gaugeFactor).getLink());
-				V[index] = gaugeLink;
+		final double gaugeFactor = - s.getCouplingConstant() * aL;
+		LightConeFunctions.executeForTransverseCells(s.grid, totalTransverseCells, new CellAction() {
+			public void execute(Grid grid, int i) {
+				for (int k = 0; k < longitudinalNumCells; k++) {
+					int z = (orientation < 0) ? k : (longitudinalNumCells - k - 1);
+					// Current position
+					int index = baseIndices[i] + z * stride;
+
+					// Last position in longitudinal direction at same transverse position
+					int indexL = grid.shift(index, direction, orientation);
+
+					// Compute V from V directly behind it in the longitudinal direction.
+					GroupElement gaugeLink = V[indexL].copy();
+					gaugeLink.multAssign(phi0[index].mult(gaugeFactor).getLink());
+					V[index] = gaugeLink;
+				}
 			}
-		}
+		});
 
 		// Store V at longitudinal boundary behind nucleus.
 		VT = new GroupElement[totalTransverseCells];
 		for (int i = 0; i < totalTransverseCells; i++) {
 			// Longitudinal coordinate of transverse plane "far behind" nucleus.
 			int z = (orientation > 0) ? 0 : (longitudinalNumCells - 1);
-			int[] transPos = GridFunctions.getCellPos(i, transverseNumCells);
-			int[] gridPos = GridFunctions.insertGridPos(transPos, direction, z);
-			int index = s.grid.getCellIndex(gridPos);
-
-			VT[i] = V[index].copy();
+			VT[i] = V[baseIndices[i] + z * stride].copy();
 		}
 
 		// Make a copy of the grid. Ugly, but needed for Gauss constraint calculation.
@@ -161,23 +128,23 @@ public class LightConePoissonSolver implements ICGCPoissonSolver {
 		}
 
 		// Compute V at t = at / 2 by adjusting V at t = - at / 2 slightly
-		for (int k = 0; k < longitudinalNumCells; k++) {
-			int z = (orientation < 0) ? k : (longitudinalNumCells - k - 1);
-			for (int i = 0; i < totalTransverseCells; i++) {
-				// Current position
-				int[] transGridPos = GridFunctions.getCellPos(i, transverseNumCells);
-				int[] gridPos = GridFunctions.insertGridPos(transGridPos, direction, z);
-				int index = s.grid.getCellIndex(gridPos);
+		LightConeFunctions.executeForTransverseCells(s.grid, totalTransverseCells, new CellAction() {
+			public void execute(Grid grid, int i) {
+				for (int k = 0; k < longitudinalNumCells; k++) {
+					int z = (orientation < 0) ? k : (longitudinalNumCells - k - 1);
+					// Current position
+					int index = baseIndices[i] + z * stride;
 
-				// Last position in longitudinal direction at same transverse position
-				int indexL = s.grid.shift(index, direction, orientation);
+					// Last position in longitudinal direction at same transverse position
+					int indexL = grid.shift(index, direction, orientation);
 
-				GroupElement deltaV = deltaphi[index].mult(gaugeFactor).getLink();
+					GroupElement deltaV = deltaphi[index].mult(gaugeFactor).getLink();
 
-				// Adjust V by slightly adding a contribution from the next longitudinal position
-				V[indexL] = V[indexL].mult(deltaV);
+					// Adjust V by slightly adding a contribution from the next longitudinal position
+					V[indexL] = V[indexL].mult(deltaV);
+				}
 			}
-		}
+		});
 
 		// Set gauge links at t = at/2
 		for (int i = 0; i < s.grid.getTotalNumberOfCells(); i++) {
@@ -2,12 +2,11 @@ package org.openpixi.pixi.physics.initial.CGC;
 
 import org.openpixi.pixi.math.AlgebraElement;
 import org.openpixi.pixi.math.GroupElement;
+import org.openpixi.pixi.parallel.cellaccess.CellAction;
 import org.openpixi.pixi.physics.Simulation;
 import org.openpixi.pixi.physics.grid.Grid;
 import org.openpixi.pixi.physics.util.GridFunctions;
 
-import java.security.acl.Group;
-
 /**
  * This class solves the transverse Poisson equation for a three-dimensional (Lorenz gauge) charge density
  * 'sheet by sheet' in the longitudinal direction and then initializes the fields in the temporal gauge.
@@ -40,54 +39,24 @@ public class LightConePoissonSolverImproved implements ICGCPoissonSolver {
 	 * @param chargeDensity Reference to an IInitialChargeDensity object.
 	 */
 	public void solve(IInitialChargeDensity chargeDensity) {
-		AlgebraElement[] phi0;
-		GroupElement[] V;
+		final AlgebraElement[] phi0;
+		final GroupElement[] V;
 
-		int direction = chargeDensity.getDirection();
-		int orientation = chargeDensity.getOrientation();
+		final int direction = chargeDensity.getDirection();
+		final int orientation = chargeDensity.getOrientation();
 
-		int longitudinalNumCells = s.grid.getNumCells(direction);
+		final int longitudinalNumCells = s.grid.getNumCells(direction);
 		int[] transverseNumCells = GridFunctions.reduceGridPos(s.grid.getNumCells(), direction);
 		int totalTransverseCells = GridFunctions.getTotalNumberOfCells(transverseNumCells);
-		int numberOfColors = s.getNumberOfColors();
-		int numberOfComponents = (numberOfColors > 1) ? numberOfColors * numberOfColors - 1 : 1;
+		final int[] baseIndices = GridFunctions.getTransverseBaseIndices(s.grid.getNumCells(), direction);
+		final int stride = s.grid.getShiftOffset(direction, 1);
 
 		// Longitudinal and transverse lattice spacing
 		double aL = s.grid.getLatticeSpacing(direction);
 		double aT = s.grid.getLatticeSpacing((direction + 1) % s.getNumberOfDimensions());
 
 		// Solve for phi at t = - at/2 'sheet by sheet'
-		phi0 = new AlgebraElement[s.grid.getTotalNumberOfCells()];
-		for (int i = 0; i < s.grid.getTotalNumberOfCells(); i++) {
-			phi0[i] = s.grid.getElementFactory().algebraZero();
-		}
-
-		for (int z = 0; z < longitudinalNumCells; z++) {
-			for (int c = 0; c < numberOfComponents; c++) {
-				// Prepare 2D charge density.
-				double[] rho2D = new double[totalTransverseCells];
-				for (int i = 0; i < totalTransverseCells; i++) {
-					int[] transGridPos = GridFunctions.getCellPos(i, transverseNumCells);
-					int[] gridPos = GridFunctions.insertGridPos(transGridPos, direction, z);
-					int index = s.grid.getCellIndex(gridPos);
-
-					rho2D[i] = chargeDensity.getChargeDensity(index).get(c);
-				}
-
-				// Solve Poisson equation
-				double[] phi2D = FourierFunctions.solvePoisson2D(rho2D, transverseNumCells, aT);
-
-				// Put result into phi0.
-				for (int i = 0; i < totalTransverseCells; i++) {
-					int[] transGridPos = GridFunctions.getCellPos(i, transverseNumCells);
-					int[] gridPos = GridFunctions.insertGridPos(transGridPos, direction, z);
-					int index = s.grid.getCellIndex(gridPos);
-
-					// Already include gauge factor for Wilson line here.
-					phi0[index].set(c, phi2D[i]);
-				}
-			}
-		}
+		phi0 = LightConeFunctions.solvePoissonSheetBySheet(s, chargeDensity, aT);
 
 		// Compute V at t = - at/2 by constructing the Wilson line from gauge links.
 		// New interpretation of the field phi: It sits in between two lattice points (staggered grid).
@@ -97,42 +66,38 @@ public class LightConePoissonSolverImproved implements ICGCPoissonSolver {
 			V[i] = s.grid.getElementFactory().groupIdentity();
 		}
 
-		double gaugeFactor = - s.getCouplingConstant() * aL;
-		for (int k = 0; k < longitudinalNumCells; k++) {
-			int z = (orientation < 0) ? k : (longitudinalNumCells - k - 1);
-			for (int i = 0; i < totalTransverseCells; i++) {
-				// Current position
-				int[] transGridPos = GridFunctions.getCellPos(i, transverseNumCells);
-				int[] gridPos = GridFunctions.insertGridPos(transGridPos, direction, z);
-				int index = s.grid.getCellIndex(gridPos);
-
-				// Last position in longitudinal direction at same transverse position.
-				int indexL = s.grid.shift(index, direction, orientation);
-
-				// Compute V from V directly behind it in the longitudinal direction using phi between two grid points.
-				// Staggered grid: for orientation +1, do not shift. For orientation -1, shift in 'backwards'.
-				GroupElement gaugeLink = V[indexL].copy();
-				GroupElement W;
-				if(orientation == -1 ) {
-					W = phi0[indexL].mult(gaugeFactor).getLink();
-				} else {
-					W = phi0[index].mult(gaugeFactor).getLink();
+		final double gaugeFactor = - s.getCouplingConstant() * aL;
+		LightConeFunctions.executeForTransverseCells(s.grid, totalTransverseCells, new CellAction() {
+			public void execute(Grid grid, int i) {
+				for (int k = 0; k < longitudinalNumCells; k++) {
+					int z = (orientation < 0) ? k : (longitudinalNumCells - k - 1);
+					// Current position
+					int index = baseIndices[i] + z * stride;
+
+					// Last position in longitudinal direction at same transverse position.
+					int indexL = grid.shift(index, direction, orientation);
+
+					// Compute V from V directly behind it in the longitudinal direction using phi between two grid points.
+					// Staggered grid: for orientation +1, do not shift. For orientation -1, shift in 'backwards'.
+					GroupElement gaugeLink = V[indexL].copy();
+					GroupElement W;
+					if(orientation == -1 ) {
+						W = phi0[indexL].mult(gaugeFactor).getLink();
+					} else {
+						W = phi0[index].mult(gaugeFactor).getLink();
+					}
+					gaugeLink.multAssign(W);
+					V[index] = gaugeLink;
 				}
-				gaugeLink.multAssign(W);
-				V[index] = gaugeLink;
 			}
-		}
+		});
 
 		// Store V at longitudinal boundary behind nucleus.
 		VT = new GroupElement[totalTransverseCells];
 		for (int i = 0; i < totalTransverseCells; i++) {
 			// Longitudinal coordinate of transverse plane "far behind" nucleus.
 			int z = (orientation > 0) ? 0 : (longitudinalNumCells - 1);
-			int[] transPos = GridFunctions.getCellPos(i, transverseNumCells);
-			int[] gridPos = GridFunctions.insertGridPos(transPos, direction, z);
-			int index = s.grid.getCellIndex(gridPos);
-
-			VT[i] = V[index].copy();
+			VT[i] = V[baseIndices[i] + z * stride].copy();
 		}
 
 		// Make a copy of the grid. Ugly, but needed for Gauss constraint calculation.
@@ -157,32 +122,35 @@ public class LightConePoissonSolverImproved implements ICGCPoissonSolver {
 		}
 
 		// Compute V at at/2 from V at -at/2 (improved using linear interpolation and path ordering).
-		int M = 20;
-		for (int i = 0; i < s.grid.getTotalNumberOfCells(); i++) {
-			// Compute time evolution operator using linear interpolation of the phi's and path ordering.
-			GroupElement ImprovedW = s.grid.getElementFactory().groupIdentity();
-			for (int m = 0; m < M; m++) {
-				GroupElement W;
-				AlgebraElement phi;
-				if(orientation == 1) {
-					int is = s.grid.shift(i, direction, -1);
-					double z = (m + 0.5) / ((double) 2 * M);
-					double FL = + z + 0.5;
-					double FR = - z + 0.5;
-					phi = (phi0[is].mult(FL)).add(phi0[i].mult(FR));
-				} else {
-					int is = s.grid.shift(i, direction, -1);
-					double z = (m + 0.5) / ((double) 2 * M);
-					double FL = - z + 0.5;
-					double FR = + z + 0.5;
-					phi = (phi0[is].mult(FL)).add(phi0[i].mult(FR));
+		final int M = 20;
+		final double evolutionFactor = -s.getCouplingConstant() * s.getTimeStep() / ((double) M);
+		s.grid.getCellIterator().execute(s.grid, new CellAction() {
+			public void execute(Grid grid, int i) {
+				// Compute time evolution operator using linear interpolation of the phi's and path ordering.
+				GroupElement ImprovedW = grid.getElementFactory().groupIdentity();
+				for (int m = 0; m < M; m++) {
+					GroupElement W;
+					AlgebraElement phi;
+					if(orientation == 1) {
+						int is = grid.shift(i, direction, -1);
+						double z = (m + 0.5) / ((double) 2 * M);
+						double FL = + z + 0.5;
+						double FR = - z + 0.5;
+						phi = (phi0[is].mult(FL)).add(phi0[i].mult(FR));
+					} else {
+						int is = grid.shift(i, direction, -1);
+						double z = (m + 0.5) / ((double) 2 * M);
+						double FL = - z + 0.5;
+						double FR = + z + 0.5;
+						phi = (phi0[is].mult(FL)).add(phi0[i].mult(FR));
+					}
+					W = phi.mult(evolutionFactor).getLink();
+					ImprovedW.multAssign(W);
 				}
-				W = phi.mult(-s.getCouplingConstant() * s.getTimeStep() / ((double) M)).getLink();
-				ImprovedW.multAssign(W);
-			}
 
-			V[i].multAssign(ImprovedW);
-		}
+				V[i].multAssign(ImprovedW);
+			}
+		});
 
 		// Set gauge links at t = at/2
 		for (int i = 0; i < s.grid.getTotalNumberOfCells(); i++) {
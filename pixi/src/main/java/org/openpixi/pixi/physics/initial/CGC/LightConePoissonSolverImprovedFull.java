@@ -2,6 +2,7 @@ package org.openpixi.pixi.physics.initial.CGC;
 
 import org.openpixi.pixi.math.AlgebraElement;
 import org.openpixi.pixi.math.GroupElement;
+import org.openpixi.pixi.parallel.cellaccess.CellAction;
 import org.openpixi.pixi.physics.Simulation;
 import org.openpixi.pixi.physics.grid.Grid;
 import org.openpixi.pixi.physics.util.GridFunctions;
@@ -38,54 +39,24 @@ public class LightConePoissonSolverImprovedFull implements ICGCPoissonSolver {
 	 * @param chargeDensity Reference to an IInitialChargeDensity object.
 	 */
 	public void solve(IInitialChargeDensity chargeDensity) {
-		AlgebraElement[] phi0;
-		GroupElement[] V;
+		final AlgebraElement[] phi0;
+		final GroupElement[] V;
 
-		int direction = chargeDensity.getDirection();
-		int orientation = chargeDensity.getOrientation();
+		final int direction = chargeDensity.getDirection();
+		final int orientation = chargeDensity.getOrientation();
 
-		int longitudinalNumCells = s.grid.getNumCells(direction);
+		final int longitudinalNumCells = s.grid.getNumCells(direction);
 		int[] transverseNumCells = GridFunctions.reduceGridPos(s.grid.getNumCells(), direction);
 		int totalTransverseCells = GridFunctions.getTotalNumberOfCells(transverseNumCells);
-		int numberOfColors = s.getNumberOfColors();
-		int numberOfComponents = (numberOfColors > 1) ? numberOfColors * numberOfColors - 1 : 1;
+		final int[] baseIndices = GridFunctions.getTransverseBaseIndices(s.grid.getNumCells(), direction);
+		final int stride = s.grid.getShiftOffset(direction, 1);
 
 		// Longitudinal and transverse lattice spacing
-		double aL = s.grid.getLatticeSpacing(direction);
+		final double aL = s.grid.getLatticeSpacing(direction);
 		double aT = s.grid.getLatticeSpacing((direction + 1) % s.getNumberOfDimensions());
 
 		// Solve for phi at t = - at/2 'sheet by sheet'
-		phi0 = new AlgebraElement[s.grid.getTotalNumberOfCells()];
-		for (int i = 0; i < s.grid.getTotalNumberOfCells(); i++) {
-			phi0[i] = s.grid.getElementFactory().algebraZero();
-		}
-
-		for (int z = 0; z < longitudinalNumCells; z++) {
-			for (int c = 0; c < numberOfComponents; c++) {
-				// Prepare 2D charge density.
-				double[] rho2D = new double[totalTransverseCells];
-				for (int i = 0; i < totalTransverseCells; i++) {
-					int[] transGridPos = GridFunctions.getCellPos(i, transverseNumCells);
-					int[] gridPos = GridFunctions.insertGridPos(transGridPos, direction, z);
-					int index = s.grid.getCellIndex(gridPos);
-
-					rho2D[i] = chargeDensity.getChargeDensity(index).get(c);
-				}
-
-				// Solve Poisson equation
-				double[] phi2D = FourierFunctions.solvePoisson2D(rho2D, transverseNumCells, aT);
-
-				// Put result into phi0.
-				for (int i = 0; i < totalTransverseCells; i++) {
-					int[] transGridPos = GridFunctions.getCellPos(i, transverseNumCells);
-					int[] gridPos = GridFunctions.insertGridPos(transGridPos, direction, z);
-					int index = s.grid.getCellIndex(gridPos);
-
-					// Already include gauge factor for Wilson line here.
-					phi0[index].set(c, phi2D[i]);
-				}
-			}
-		}
+		phi0 = LightConeFunctions.solvePoissonSheetBySheet(s, chargeDensity, aT);
 
 		// Compute V at t = - at/2 by constructing the Wilson line from gauge links.
 		// New interpretation of the field phi: It sits in between two lattice points (staggered grid).
@@ -96,74 +67,70 @@ public class LightConePoissonSolverImprovedFull implements ICGCPoissonSolver {
 		}
 
 		// Number of sub lattice sites. Should be at least 4.
-		int M = 32;
-		for (int k = 1; k < longitudinalNumCells; k++) {
-			int z = (orientation < 0) ? k : (longitudinalNumCells - k - 1);
-			for (int i = 0; i < totalTransverseCells; i++) {
-				// Current position
-				int[] transGridPos = GridFunctions.getCellPos(i, transverseNumCells);
-				int[] gridPos = GridFunctions.insertGridPos(transGridPos, direction, z);
-				int index = s.grid.getCellIndex(gridPos);
-
-				// Last position in longitudinal direction at same transverse position.
-				int indexL = s.grid.shift(index, direction, orientation);
-
-				// Compute V from V directly behind it in the longitudinal direction using phi between two grid points.
-				// Staggered grid: for orientation +1, do not shift. For orientation -1, shift in 'backwards'.
-				GroupElement gaugeLink = V[indexL].copy();
-
-				GroupElement W;
-				if(orientation == -1) {
-					int i3 = index;
-					int i2 = s.grid.shift(i3, direction, -1);
-					int i1 = s.grid.shift(i2, direction, -1);
-
-					AlgebraElement P1 = phi0[i1];
-					AlgebraElement P2 = phi0[i2];
-					AlgebraElement P3 = phi0[i3];
-
-					double z1 = z - 1;
-					double z2 = z - 0.5;
-					double z3 = z;
-
-					// Since the Wilson line from (n) to (n+1) crosses an NGP boundary, the Wilson line has to be split
-					// up into two parts.
-					W = W(z1, z2, M / 2, P1, P2, aL);
-					W.multAssign(W(z2, z3, M / 2, P2, P3, aL));
-				} else {
-					int i2 = index;
-					int i1 = s.grid.shift(i2, direction, -1);
-					int i3 = s.grid.shift(i2, direction, +1);
-
-					AlgebraElement P1 = phi0[i1];
-					AlgebraElement P2 = phi0[i2];
-					AlgebraElement P3 = phi0[i3];
-
-					double z1 = z + 1;
-					double z2 = z + 0.5;
-					double z3 = z;
-
-					// Since the Wilson line from (n) to (n+1) crosses an NGP boundary, the Wilson line has to be split
-					// up into two parts.
-					W = W(z1, z2, M / 2, P2, P3, aL);
-					W.multAssign(W(z2, z3, M / 2, P1, P2, aL));
+		final int M = 32;
+		LightConeFunctions.executeForTransverseCells(s.grid, totalTransverseCells, new CellAction() {
+			public void execute(Grid grid, int i) {
+				for (int k = 1; k < longitudinalNumCells; k++) {
+					int z = (orientation < 0) ? k : (longitudinalNumCells - k - 1);
+					// Current position
+					int index = baseIndices[i] + z * stride;
+
+					// Last position in longitudinal direction at same transverse position.
+					int indexL = grid.shift(index, direction, orientation);
+
+					// Compute V from V directly behind it in the longitudinal direction using phi between two grid points.
+					// Staggered grid: for orientation +1, do not shift. For orientation -1, shift in 'backwards'.
+					GroupElement gaugeLink = V[indexL].copy();
+
+					GroupElement W;
+					if(orientation == -1) {
+						int i3 = index;
+						int i2 = grid.shift(i3, direction, -1);
+						int i1 = grid.shift(i2, direction, -1);
+
+						AlgebraElement P1 = phi0[i1];
+						AlgebraElement P2 = phi0[i2];
+						AlgebraElement P3 = phi0[i3];
+
+						double z1 = z - 1;
+						double z2 = z - 0.5;
+						double z3 = z;
+
+						// Since the Wilson line from (n) to (n+1) crosses an NGP boundary, the Wilson line has to be
+						// split up into two parts.
+						W = W(z1, z2, M / 2, P1, P2, aL);
+						W.multAssign(W(z2, z3, M / 2, P2, P3, aL));
+					} else {
+						int i2 = index;
+						int i1 = grid.shift(i2, direction, -1);
+						int i3 = grid.shift(i2, direction, +1);
+
+						AlgebraElement P1 = phi0[i1];
+						AlgebraElement P2 = phi0[i2];
+						AlgebraElement P3 = phi0[i3];
+
+						double z1 = z + 1;
+						double z2 = z + 0.5;
+						double z3 = z;
+
+						// Since the Wilson line from (n) to (n+1) crosses an NGP boundary, the Wilson line has to be
+						// split up into two parts.
+						W = W(z1, z2, M / 2, P2, P3, aL);
+						W.multAssign(W(z2, z3, M / 2, P1, P2, aL));
+					}
+
+					gaugeLink.multAssign(W);
+					V[index] = gaugeLink;
 				}
-
-				gaugeLink.multAssign(W);
-				V[index] = gaugeLink;
 			}
-		}
+		});
 
 		// Store V at longitudinal boundary behind nucleus.
 		VT = new GroupElement[totalTransverseCells];
 		for (int i = 0; i < totalTransverseCells; i++) {
 			// Longitudinal coordinate of transverse plane "far behind" nucleus.
 			int z = (orientation > 0) ? 0 : (longitudinalNumCells - 1);
-			int[] transPos = GridFunctions.getCellPos(i, transverseNumCells);
-			int[] gridPos = GridFunctions.insertGridPos(transPos, direction, z);
-			int index = s.grid.getCellIndex(gridPos);
-
-			VT[i] = V[index].copy();
+			VT[i] = V[baseIndices[i] + z * stride].copy();
 		}
 
 		// Make a copy of the grid. Ugly, but needed for Gauss constraint calculation.
@@ -189,38 +156,40 @@ public class LightConePoissonSolverImprovedFull implements ICGCPoissonSolver {
 
 		// Compute V at at/2 from V at -at/2 (improved using linear interpolation and path ordering).
 
-		int Mfrac = (int) (M * s.grid.getTemporalSpacing() / aL * 0.5);
-		for (int i = 0; i < s.grid.getTotalNumberOfCells(); i++) {
-			// Compute time evolution operator using linear interpolation of the phi's and path ordering.
-			int[] pos = s.grid.getCellPos(i);
-			int zi = pos[direction];
-
-			GroupElement W;
-			int i1, i2;
-			double z1, z2;
-			if(orientation == -1) {
-				i1 = s.grid.shift(i, direction, -1);
-				i2 = i;
-
-				z1 = zi;
-				z2 = z1 + s.getTimeStep() / aL;
-			} else {
-				i1 = s.grid.shift(i, direction, -1);
-				i2 = i;
+		final int Mfrac = (int) (M * s.grid.getTemporalSpacing() / aL * 0.5);
+		final double longitudinalStep = s.getTimeStep() / aL;
+		s.grid.getCellIterator().execute(s.grid, new CellAction() {
+			public void execute(Grid grid, int i) {
+				// Compute time evolution operator using linear interpolation of the phi's and path ordering.
+				int zi = (i / stride) % longitudinalNumCells;
 
-				z1 = zi;
-				z2 = z1 - s.getTimeStep() / aL;
-			}
+				GroupElement W;
+				int i1, i2;
+				double z1, z2;
+				if(orientation == -1) {
+					i1 = grid.shift(i, direction, -1);
+					i2 = i;
 
-			AlgebraElement P1 = phi0[i1];
-			AlgebraElement P2 = phi0[i2];
+					z1 = zi;
+					z2 = z1 + longitudinalStep;
+				} else {
+					i1 = grid.shift(i, direction, -1);
+					i2 = i;
 
-			// Compute "extra path" of the Wilson at t = +at/2 using the same method as before.
-			W = W(z1, z2, Mfrac, P1, P2, aL);
+					z1 = zi;
+					z2 = z1 - longitudinalStep;
+				}
 
-			// Evolve the Wilson line along the "extra path".
-			V[i].multAssign(W);
-		}
+				AlgebraElement P1 = phi0[i1];
+				AlgebraElement P2 = phi0[i2];
+
+				// Compute "extra path" of the Wilson at t = +at/2 using the same method as before.
+				W = W(z1, z2, Mfrac, P1, P2, aL);
+
+				// Evolve the Wilson line along the "extra path".
+				V[i].multAssign(W);
+			}
+		});
 
 		// Set gauge links at t = at/2
 		for (int i = 0; i < s.grid.getTotalNumberOfCells(); i++) {
@@ -118,9 +118,8 @@ public class MVModel implements IInitialChargeDensity {
 			rand.setSeed(seed);
 		}
 
+		double[][] tempRho = new double[numberOfComponents][s.grid.getTotalNumberOfCells()];
 		for (int j = 0; j < numberOfComponents; j++) {
-			double[] tempRho = new double[s.grid.getTotalNumberOfCells()];
-
 			// Place random charges on the grid (with longitudinal randomness and profile).
 			Gaussian gauss = new Gaussian(location, longitudinalWidth);
 			double randomColorWidth = mu * s.getCouplingConstant() / Math.sqrt(aL * aT * aT);
@@ -128,14 +127,16 @@ public class MVModel implements IInitialChargeDensity {
 				int[] pos = s.grid.getCellPos(i);
 				double longPos = pos[direction] * s.grid.getLatticeSpacing(direction);
 				double profile = Math.sqrt(gauss.value(longPos));
-				tempRho[i] = rand.nextGaussian() * randomColorWidth * profile;
+				tempRho[j][i] = rand.nextGaussian() * randomColorWidth * profile;
 			}
+		}
 
-			// Apply soft momentum regulation in Fourier space.
-			tempRho = FourierFunctions.regulateChargeDensityGaussian(tempRho, s.grid.getNumCells(),
-					ultravioletCutoffTransverse, longitudinalCoherenceLength, infraredCoefficient, direction,
-					aT, aL);
+		// Apply soft momentum regulation in Fourier space (all color components at once).
+		FourierFunctions.regulateChargeDensityGaussian(tempRho, s.grid.getNumCells(),
+				ultravioletCutoffTransverse, longitudinalCoherenceLength, infraredCoefficient, direction,
+				aT, aL, s.grid.getFFTService());
 
+		for (int j = 0; j < numberOfComponents; j++) {
 			/*
 			 Put everything into rho array, but exclude charges that lie outside of a simulation box centered around the
 			 longitudinal location of the MV model.
@@ -148,7 +149,7 @@ public class MVModel implements IInitialChargeDensity {
 			for (int i = 0; i < s.grid.getTotalNumberOfCells(); i++) {
 				int longPos = s.grid.getCellPos(i)[direction];
 				if (lmin < longPos && longPos < lmax && s.grid.isActive(i)) {
-					this.rho[i].set(j, tempRho[i]);
+					this.rho[i].set(j, tempRho[j][i]);
 				}
 			}
 		}
@@ -119,9 +119,8 @@ public class MVModelCoherent implements IInitialChargeDensity {
 		double aL = s.grid.getLatticeSpacing(direction);
 		double aT = s.grid.getLatticeSpacing((direction + 1) % s.getNumberOfDimensions());
 
+		double[][] tempRho = new double[numberOfComponents][s.grid.getTotalNumberOfCells()];
 		for (int j = 0; j < numberOfComponents; j++) {
-			double[] tempRho = new double[s.grid.getTotalNumberOfCells()];
-
 			// Place random charges on the grid (with coherent longitudinal structure).
 			int[] transNumCells = GridFunctions.reduceGridPos(s.grid.getNumCells(), direction);
 			int totalTransCells = GridFunctions.getTotalNumberOfCells(transNumCells);
@@ -132,22 +131,24 @@ public class MVModelCoherent implements IInitialChargeDensity {
 				for (int k = 0; k < longitudinalNumCells; k++) {
 					int[] gridPos = GridFunctions.insertGridPos(transPos, direction, k);
 					int index = s.grid.getCellIndex(gridPos);
-					tempRho[index] = charge;
+					tempRho[j][index] = charge;
 				}
 			}
+		}
 
-			// Apply hard momentum regulation in Fourier space.
-			tempRho = FourierFunctions.regulateChargeDensityHard(tempRho, s.grid.getNumCells(),
-					ultravioletCutoffTransverse, ultravioletCutoffLongitudinal, infraredCoefficient, direction,
-					aT, aL);
+		// Apply hard momentum regulation in Fourier space (all color components at once).
+		FourierFunctions.regulateChargeDensityHard(tempRho, s.grid.getNumCells(),
+				ultravioletCutoffTransverse, ultravioletCutoffLongitudinal, infraredCoefficient, direction,
+				aT, aL, s.grid.getFFTService());
 
+		for (int j = 0; j < numberOfComponents; j++) {
 			// Apply longitudinal profile.
 			Gaussian gauss = new Gaussian(location, longitudinalWidth);
 			for (int i = 0; i < s.grid.getTotalNumberOfCells(); i++) {
 				int[] pos = s.grid.getCellPos(i);
 				double longPos = pos[direction] * s.grid.getLatticeSpacing(direction);
 				double profile = gauss.value(longPos);
-				tempRho[i] *= profile;
+				tempRho[j][i] *= profile;
 			}
 
 			/*
@@ -162,7 +163,7 @@ public class MVModelCoherent implements IInitialChargeDensity {
 			for (int i = 0; i < s.grid.getTotalNumberOfCells(); i++) {
 				int longPos = s.grid.getCellPos(i)[direction];
 				if (lmin < longPos && longPos < lmax && s.grid.isActive(i)) {
-					this.rho[i].set(j, tempRho[i]);
+					this.rho[i].set(j, tempRho[j][i]);
 				}
 			}
 		}
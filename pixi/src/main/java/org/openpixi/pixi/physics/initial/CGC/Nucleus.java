@@ -259,9 +259,8 @@ public class Nucleus implements IInitialChargeDensity {
 			colorChargeWidths[k] /= norm;
 		}*/
 
+		double[][] tempRho = new double[numberOfComponents][s.grid.getTotalNumberOfCells()];
 		for (int j = 0; j < numberOfComponents; j++) {
-			double[] tempRho = new double[s.grid.getTotalNumberOfCells()];
-
 			// Place random charges on the grid (with longitudinal randomness). Takes care of the overall longitudinal profile!!!
 			//Gaussian gauss = new Gaussian(location, longitudinalWidth);
 			for (int i = 0; i < totalTransCells; i++) {
@@ -273,23 +272,25 @@ public class Nucleus implements IInitialChargeDensity {
 					//double profile = Math.sqrt(gauss.value(longPos));
 					double charge = rand.nextGaussian() * colorChargeWidths[index] * mu * s.getCouplingConstant() / Math.pow(as, 3/2);
 
-					tempRho[index] = charge;
+					tempRho[j][index] = charge;
 				}
 			}
+		}
 
-			// Apply soft momentum regulation in Fourier space.
-			tempRho = FourierFunctions.regulateChargeDensityGaussian(tempRho, s.grid.getNumCells(),
-					ultravioletCutoffTransverse, longitudinalCoherenceLength, infraredCoefficient, direction,
-					s.grid.getLatticeSpacing());
+		// Apply soft momentum regulation in Fourier space (all color components at once).
+		FourierFunctions.regulateChargeDensityGaussian(tempRho, s.grid.getNumCells(),
+				ultravioletCutoffTransverse, longitudinalCoherenceLength, infraredCoefficient, direction,
+				s.grid.getLatticeSpacing(), s.grid.getLatticeSpacing(), s.grid.getFFTService());
 
-			// Apply hard momentum regulation in Fourier space.
-			/*tempRho = FourierFunctions.regulateChargeDensityHard(tempRho, s.grid.getNumCells(),
-					ultravioletCutoffTransverse, ultravioletCutoffLongitudinal, infraredCoefficient, direction,
-					s.grid.getLatticeSpacing());*/
+		// Apply hard momentum regulation in Fourier space.
+		/*FourierFunctions.regulateChargeDensityHard(tempRho, s.grid.getNumCells(),
+				ultravioletCutoffTransverse, ultravioletCutoffLongitudinal, infraredCoefficient, direction,
+				s.grid.getLatticeSpacing(), s.grid.getLatticeSpacing(), s.grid.getFFTService());*/
 
+		for (int j = 0; j < numberOfComponents; j++) {
 			// Put everything into rho array.
 			for (int i = 0; i < s.grid.getTotalNumberOfCells(); i++) {
-				this.rho[i].set(j, tempRho[i]);
+				this.rho[i].set(j, tempRho[j][i]);
 			}
 		}
 
@@ -247,9 +247,8 @@ public class NucleusCoherent implements IInitialChargeDensity {
 			transversalWidths[k] /= norm;
 		}*/
 
+		double[][] tempRho = new double[numberOfComponents][s.grid.getTotalNumberOfCells()];
 		for (int j = 0; j < numberOfComponents; j++) {
-			double[] tempRho = new double[s.grid.getTotalNumberOfCells()];
-
 			// Place random charges on the grid (with coherent longitudinal structure).
 			for (int i = 0; i < totalTransCells; i++) {
 				double charge = rand.nextGaussian() * transversalWidths[i] * mu * s.getCouplingConstant() / as;
@@ -257,27 +256,29 @@ public class NucleusCoherent implements IInitialChargeDensity {
 				for (int k = 0; k < longitudinalNumCells; k++) {
 					int[] gridPos = GridFunctions.insertGridPos(transPos, direction, k);
 					int index = s.grid.getCellIndex(gridPos);
-					tempRho[index] = charge;
+					tempRho[j][index] = charge;
 				}
 			}
+		}
 
-			// Apply hard momentum regulation in Fourier space.
-			tempRho = FourierFunctions.regulateChargeDensityHard(tempRho, s.grid.getNumCells(),
-					ultravioletCutoffTransverse, ultravioletCutoffLongitudinal, infraredCoefficient, direction,
-					s.grid.getLatticeSpacing());
+		// Apply hard momentum regulation in Fourier space (all color components at once).
+		FourierFunctions.regulateChargeDensityHard(tempRho, s.grid.getNumCells(),
+				ultravioletCutoffTransverse, ultravioletCutoffLongitudinal, infraredCoefficient, direction,
+				s.grid.getLatticeSpacing(), s.grid.getLatticeSpacing(), s.grid.getFFTService());
 
+		for (int j = 0; j < numberOfComponents; j++) {
 			// Apply longitudinal profile.
 			Gaussian gauss = new Gaussian(location, longitudinalWidth);
 			for (int i = 0; i < s.grid.getTotalNumberOfCells(); i++) {
 				int[] pos = s.grid.getCellPos(i);
 				double longPos = pos[direction] * s.grid.getLatticeSpacing();
 				double profile = gauss.value(longPos);
-				tempRho[i] *= profile;
+				tempRho[j][i] *= profile;
 			}
 
 			// Put everything into rho array.
 			for (int i = 0; i < s.grid.getTotalNumberOfCells(); i++) {
-				this.rho[i].set(j, tempRho[i]);
+				this.rho[i].set(j, tempRho[j][i]);
 			}
 		}
 
@@ -3,12 +3,12 @@ package org.openpixi.pixi.physics.initial.CGC;
 import org.openpixi.pixi.diagnostics.FileFunctions;
 import org.openpixi.pixi.math.GroupElement;
 import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.measurements.WilsonLineCorrelator;
 import org.openpixi.pixi.physics.util.GridFunctions;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.text.DecimalFormat;
 
 /**
  * This class computes the tadpole and dipole expectation values of the Wilson line.
@@ -60,7 +60,7 @@ public class WilsonLineObservables {
 
 	/**
 	 * Computes the dipole correlation function using binning and writes the results to a file.
-	 * Not implemented yet.
+	 * The correlator is evaluated for all separations at once with {@link WilsonLineCorrelator}.
 	 *
 	 * @param filename  name of the output file
 	 */
@@ -72,6 +72,9 @@ public class WilsonLineObservables {
 		double[] as = GridFunctions.reducePos(s.grid.getLatticeSpacings(), density.getDirection());
 		int totalCells = GridFunctions.getTotalNumberOfCells(numCells);
 
+		WilsonLineCorrelator correlator = new WilsonLineCorrelator(numCells);
+		double[] trVV = correlator.computeCorrelation(V, s.grid);
+
 		// Bin the results to get the correlator as a function of distance.
 		int numBins = (int) Math.sqrt(totalCells) / 2;
 		double[] trVVbinned = new double[numBins];
@@ -79,36 +82,7 @@ public class WilsonLineObservables {
 		double maximumDistance = Math.min(numCells[0] * as[0], numCells[1] * as[1]) * 0.5;
 		double ds = maximumDistance / ((double) numBins);
 
-		for (int i = 0; i < numBins; i++) {
-			trVVbinned[i] = 0.0;
-			counter[i] = 0;
-		}
-
-		for (int i = 0; i < totalCells; i++) {
-			GroupElement V1 = V[i];
-			int[] x = GridFunctions.getCellPos(i, numCells);
-			for (int j = 0; j < totalCells; j++) {
-				int[] y = GridFunctions.getCellPos(j, numCells);
-				double[] dxy = new double[2];
-				double dist = 0.0;
-				for (int k = 0; k < 2; k++) {
-					dxy[k] = Math.abs(x[k] - y[k]);
-					// Wrap distance around periodic boundary.
-					if(dxy[k] > numCells[k] / 2) {
-						dxy[k] -= numCells[k];
-					}
-					dist += dxy[k] * dxy[k] * as[k] * as[k];
-				}
-				dist = Math.sqrt(dist);
-				int bin = (int) (dist / ds);
-				if(bin < numBins) {
-					GroupElement V2 = V[j].adj();
-					trVVbinned[bin] += V1.mult(V2).getRealTrace();
-					counter[bin]++;
-				}
-
-			}
-		}
+		correlator.bin(trVV, as, ds, trVVbinned, counter);
 
 		for (int i = 0; i < numBins; i++) {
 			trVVbinned[i] /= (double) counter[i];
@@ -1,232 +1,294 @@
 package org.openpixi.pixi.physics.measurements;
 
+import java.util.Arrays;
+
 import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.ElementFactory;
+import org.openpixi.pixi.math.GroupElement;
 import org.openpixi.pixi.physics.grid.Grid;
 import org.openpixi.pixi.parallel.cellaccess.CellAction;
+import org.openpixi.pixi.parallel.cellaccess.RangeIterator;
+
+/**
+ * Lattice averages of the fields and charges.
+ * <p>
+ * All requested observables are computed in a single sweep over the lattice by {@link #measure(Grid, int)}.
+ * The lattice is cut into chunks of consecutive cells which are distributed over the threads of the cell iterator of
+ * the grid. Every chunk accumulates its own partial sums, which are added up in the order of the chunks afterwards.
+ * The results therefore do not depend on the number of threads or the scheduling of the cell iterator.
+ */
+public class FieldMeasurements {
 
+	public static final int E_SQUARED = 1;
+	public static final int B_SQUARED = 2;
+	public static final int GAUSS_CONSTRAINT = 4;
+	public static final int TOTAL_CHARGE = 8;
+	public static final int TOTAL_CHARGE_SQUARED = 16;
+	public static final int ALL = E_SQUARED | B_SQUARED | GAUSS_CONSTRAINT | TOTAL_CHARGE | TOTAL_CHARGE_SQUARED;
+
+	private ChunkReduction reduction = new ChunkReduction();
+
+	private int observables;
+	private int numDim;
+	private int numberOfComponents;
+	private int totalNumberOfCells;
+	private int numberOfChunks;
+	private int valuesPerChunk;
+	private double[] unitFactors;
+	private double[] gaussFactors;
+	private double[] magneticFactors;
 
-public class FieldMeasurements {
+	/**
+	 * Partial sums of chunk c start at c * valuesPerChunk: E^2 and B^2 for every direction, the Gauss constraint,
+	 * rho^2 and the color components of the total charge.
+	 */
+	private double[] partialSums;
+
+	/**
+	 * Sums over all chunks, same layout as a single chunk in partialSums.
+	 */
+	private double[] sums;
+
+	private Grid iteratorGrid;
+	private RangeIterator chunkIterator;
 
-	private EFieldSquared Esquared;
-	private BFieldSquared Bsquared;
-	private GaussLaw GaussConstraint;
-	private TotalCharge totalCharge;
-	private TotalChargeSquared totalChargeSquared;
 	/**
 	 * Empty constructor for standard usage.
 	 */
 	public FieldMeasurements() {
-		Esquared = new EFieldSquared();
-		Bsquared = new BFieldSquared();
-		GaussConstraint = new GaussLaw();
-		totalCharge = new TotalCharge();
-		totalChargeSquared = new TotalChargeSquared();
 	}
 
-	public double calculateEsquared(Grid grid) {
-		Esquared.reset(grid);
-		grid.getCellIterator().execute(grid, Esquared);
-        return Esquared.getSum();
-	}
-	
-	public double calculateBsquared(Grid grid) {
-		Bsquared.reset(grid);
-		grid.getCellIterator().execute(grid, Bsquared);
-        return Bsquared.getSum();
-	}
-	
-	public double calculateEsquared(Grid grid, int dir) {
-		Esquared.reset(grid);
-		grid.getCellIterator().execute(grid, Esquared);
-        return Esquared.getSum(dir);
-	}
-	
-	public double calculateBsquared(Grid grid, int dir) {
-		Bsquared.reset(grid);
-		grid.getCellIterator().execute(grid, Bsquared);
-        return Bsquared.getSum(dir);
+	/**
+	 * Computes several observables in a single sweep over the lattice. Only cells which are evaluatable contribute.
+	 * The results are read with the getters, e.g. {@link #getEsquared(int)}.
+	 *
+	 * @param grid          Grid
+	 * @param observables   Combination of E_SQUARED, B_SQUARED, GAUSS_CONSTRAINT, TOTAL_CHARGE and
+	 *                      TOTAL_CHARGE_SQUARED
+	 */
+	public void measure(Grid grid, int observables) {
+		this.observables = observables;
+		numDim = grid.getNumberOfDimensions();
+		numberOfComponents = grid.getElementFactory().numberOfComponents;
+		totalNumberOfCells = grid.getTotalNumberOfCells();
+		numberOfChunks = RangeIterator.getNumberOfChunks(totalNumberOfCells);
+		valuesPerChunk = 2 * numDim + 2 + numberOfComponents;
+
+		unitFactors = new double[numDim];
+		gaussFactors = new double[numDim];
+		magneticFactors = new double[numDim];
+		for (int i = 0; i < numDim; i++) {
+			unitFactors[i] = Math.pow(grid.getLatticeUnitFactor(i), -2);
+			gaussFactors[i] = 1.0 / (grid.getLatticeSpacing(i) * grid.getLatticeUnitFactor(i));
+			if (numDim == 3) {
+				magneticFactors[i] = grid.getLatticeSpacing(i)
+						/ grid.getCellArea((i + 1) % numDim, (i + 2) % numDim);
+			}
+		}
+
+		if (partialSums == null || partialSums.length != numberOfChunks * valuesPerChunk) {
+			partialSums = new double[numberOfChunks * valuesPerChunk];
+		} else {
+			Arrays.fill(partialSums, 0.0);
+		}
+		getChunkIterator(grid).execute(grid, reduction);
+
+		// Add up the partial sums in a fixed order.
+		sums = new double[valuesPerChunk];
+		for (int c = 0; c < numberOfChunks; c++) {
+			for (int v = 0; v < valuesPerChunk; v++) {
+				sums[v] += partialSums[c * valuesPerChunk + v];
+			}
+		}
 	}
-	
-	public double calculateGaussConstraint(Grid grid) {
-		GaussConstraint.reset(grid);
-		grid.getCellIterator().execute(grid, GaussConstraint);
-        return GaussConstraint.getSum();
+
+	/**
+	 * @param dir   Direction
+	 * @return      Average of E_dir^2 (requires E_SQUARED)
+	 */
+	public double getEsquared(int dir) {
+		return sums[dir] / totalNumberOfCells;
 	}
 
-	public double calculateTotalCharge(Grid grid) {
-		totalCharge.reset(grid);
-		grid.getCellIterator().execute(grid, totalCharge);
-		return totalCharge.getSum();
+	/**
+	 * @param dir   Direction
+	 * @return      Average of B_dir^2 (requires B_SQUARED)
+	 */
+	public double getBsquared(int dir) {
+		return sums[numDim + dir] / totalNumberOfCells;
 	}
 
-	public double calculateTotalChargeSquared(Grid grid) {
-		totalChargeSquared.reset(grid);
-		grid.getCellIterator().execute(grid, totalChargeSquared);
-		return totalChargeSquared.getSum();
+	/**
+	 * @return      Average of the squared Gauss constraint violation (requires GAUSS_CONSTRAINT)
+	 */
+	public double getGaussConstraint() {
+		return sums[2 * numDim] / totalNumberOfCells;
 	}
 
-	private class EFieldSquared implements CellAction {
-		private double[] values;
-		private double[] unitFactors;
-		private int totalNumberOfCells;
+	/**
+	 * @return      Norm of the total charge divided by the number of cells (requires TOTAL_CHARGE)
+	 */
+	public double getTotalCharge() {
+		double square = 0.0;
+		for (int k = 0; k < numberOfComponents; k++) {
+			square += sums[2 * numDim + 2 + k] * sums[2 * numDim + 2 + k];
+		}
+		return Math.sqrt(square) / totalNumberOfCells;
+	}
 
-        public void reset(Grid g)
-		{
-        	values = new double[g.getNumberOfDimensions()];
-			unitFactors = new double[g.getNumberOfDimensions()];
-			totalNumberOfCells = g.getTotalNumberOfCells();
+	/**
+	 * @return      Square root of the sum of rho^2 divided by the number of cells (requires TOTAL_CHARGE_SQUARED)
+	 */
+	public double getTotalChargeSquared() {
+		return Math.sqrt(sums[2 * numDim + 1]) / totalNumberOfCells;
+	}
 
-			for (int i = 0; i < g.getNumberOfDimensions(); i++) {
-				values[i] = 0.0;
-				unitFactors[i] = Math.pow(g.getLatticeUnitFactor(i), -2);
-			}
+	/**
+	 * @return  Sum of E^2 over all directions and cells (not averaged).
+	 */
+	public double calculateEsquared(Grid grid) {
+		measure(grid, E_SQUARED);
+		double sum = 0.0;
+		for (int i = 0; i < numDim; i++) {
+			sum += sums[i];
 		}
-        
-        public double getSum() {
-        	double sum = 0.0;
-			for (int i = 0; i < values.length; i++) {
-				sum += values[i];
-			}
-			return sum;
-        }
-        
-        public double getSum(int dir) {
-        	return values[dir] / totalNumberOfCells;
-        }
-
-        public void execute(Grid grid, int index) {
-			if(grid.isEvaluatable(index)) {
-				int numDir = grid.getNumberOfDimensions();
-				double[] res = new double[numDir];
-				for (int i = 0; i < numDir; i++) {
-					res[i] += grid.getE(index, i).square() * unitFactors[i];
-				}
+		return sum;
+	}
 
-				// Synchronized summation.
-				synchronized (this) {
-					for (int i = 0; i < numDir; i++) {
-						values[i] += res[i];
-					}
-				}
-			}
+	/**
+	 * @return  Sum of B^2 over all directions and cells (not averaged).
+	 */
+	public double calculateBsquared(Grid grid) {
+		measure(grid, B_SQUARED);
+		double sum = 0.0;
+		for (int i = 0; i < numDim; i++) {
+			sum += sums[numDim + i];
 		}
+		return sum;
 	}
 
-	private class BFieldSquared implements CellAction {
-		private double[] values;
-		private double[] unitFactors;
-		private int totalNumberOfCells;
+	public double calculateEsquared(Grid grid, int dir) {
+		measure(grid, E_SQUARED);
+		return getEsquared(dir);
+	}
 
-		public void reset(Grid g)
-		{
-			values = new double[g.getNumberOfDimensions()];
-			unitFactors = new double[g.getNumberOfDimensions()];
-			totalNumberOfCells = g.getTotalNumberOfCells();
+	public double calculateBsquared(Grid grid, int dir) {
+		measure(grid, B_SQUARED);
+		return getBsquared(dir);
+	}
 
-			for (int i = 0; i < g.getNumberOfDimensions(); i++) {
-				values[i] = 0.0;
-				unitFactors[i] = Math.pow(g.getLatticeUnitFactor(i), -2);
-			}
-		}
+	public double calculateGaussConstraint(Grid grid) {
+		measure(grid, GAUSS_CONSTRAINT);
+		return getGaussConstraint();
+	}
 
-		public double getSum() {
-			double sum = 0.0;
-			for (int i = 0; i < values.length; i++) {
-				sum += values[i];
-			}
-			return sum;
-		}
+	public double calculateTotalCharge(Grid grid) {
+		measure(grid, TOTAL_CHARGE);
+		return getTotalCharge();
+	}
+
+	public double calculateTotalChargeSquared(Grid grid) {
+		measure(grid, TOTAL_CHARGE_SQUARED);
+		return getTotalChargeSquared();
+	}
 
-		public double getSum(int dir) {
-			return values[dir] / totalNumberOfCells;
+	/**
+	 * Returns an iterator over the chunks of the grid which is reused as long as the grid does not change.
+	 */
+	private RangeIterator getChunkIterator(Grid grid) {
+		if (chunkIterator == null || iteratorGrid != grid || chunkIterator.getSize() != numberOfChunks) {
+			chunkIterator = new RangeIterator(grid, numberOfChunks);
+			iteratorGrid = grid;
 		}
+		return chunkIterator;
+	}
 
-		public void execute(Grid grid, int index) {
-			if(grid.isEvaluatable(index)) {
-				int numDir = grid.getNumberOfDimensions();
-				double[] res = new double[numDir];
-				for (int i = 0; i < numDir; i++) {
-					res[i] += 0.5 * (grid.getB(index, i, 0).square() + grid.getB(index, i, 1).square()) * unitFactors[i];
+	private class ChunkReduction implements CellAction {
+
+		/**
+		 * Sums up the observables of the cells of a chunk.
+		 *
+		 * @param grid  Grid
+		 * @param chunk Index of the chunk
+		 */
+		public void execute(Grid grid, int chunk) {
+			ElementFactory factory = grid.getElementFactory();
+			GroupElement result = factory.groupZero();
+			GroupElement temp = factory.groupZero();
+			AlgebraElement algebra = factory.algebraZero();
+			double[] transported = new double[numberOfComponents];
+			double[] gauss = new double[numberOfComponents];
+
+			boolean computeE = (observables & E_SQUARED) != 0;
+			boolean computeB = (observables & B_SQUARED) != 0;
+			boolean computeGauss = (observables & GAUSS_CONSTRAINT) != 0;
+			boolean computeRho = (observables & (TOTAL_CHARGE | TOTAL_CHARGE_SQUARED)) != 0;
+
+			int offset = chunk * valuesPerChunk;
+			int end = RangeIterator.getChunkEnd(chunk, totalNumberOfCells);
+			for (int index = RangeIterator.getChunkStart(chunk); index < end; index++) {
+				if (!grid.isEvaluatable(index)) {
+					continue;
 				}
 
-				// Synchronized summation.
-				synchronized (this) {
-					for (int i = 0; i < numDir; i++) {
-						values[i] += res[i];
+				if (computeE) {
+					for (int i = 0; i < numDim; i++) {
+						partialSums[offset + i] += grid.getE(index, i).square() * unitFactors[i];
 					}
 				}
-			}
-		}
-	}
 
-	private class GaussLaw implements CellAction {
-
-		private double sum;
-		private int totalNumberOfCells;
-
-        public void reset(Grid g)
-        {
-	        totalNumberOfCells = g.getTotalNumberOfCells();
-        	sum = 0.0;
-        }
-        
-        public double getSum() {
-	        return sum / totalNumberOfCells;
-        }
-        
-        public void execute(Grid grid, int index) {
-			if(grid.isEvaluatable(index)) {
-				double result = grid.getGaussConstraintSquared(index);
-				synchronized (this) {
-					sum += result;   // Synchronisierte Summenbildung
+				if (computeB) {
+					for (int i = 0; i < numDim; i++) {
+						double b0 = getBsquared(grid, index, i, 0, result, temp, algebra);
+						double b1 = getBsquared(grid, index, i, 1, result, temp, algebra);
+						partialSums[offset + numDim + i] += 0.5 * (b0 + b1) * unitFactors[i];
+					}
 				}
-			}
-		}
-	}
 
-	private class TotalCharge implements CellAction  {
+				AlgebraElement rho = (computeGauss || computeRho) ? grid.getRho(index) : null;
 
-		private AlgebraElement charge;
-		private int totalNumberOfCells;
-
-		public void reset(Grid g) {
-			totalNumberOfCells = g.getTotalNumberOfCells();
-			charge = g.getElementFactory().algebraZero();
-		}
-
-		public double getSum() {
-			return Math.sqrt(charge.square()) / totalNumberOfCells;
-		}
+				if (computeGauss) {
+					// Divergence of E with parallel transported fields from the neighbouring cells minus rho,
+					// see Grid.getGaussConstraint().
+					for (int k = 0; k < numberOfComponents; k++) {
+						gauss[k] = -rho.get(k);
+					}
+					for (int i = 0; i < numDim; i++) {
+						int shiftedIndex = grid.shift(index, i, -1);
+						AlgebraElement shiftedE = grid.getE(shiftedIndex, i);
+						for (int k = 0; k < numberOfComponents; k++) {
+							transported[k] = shiftedE.get(k);
+						}
+						grid.getU(shiftedIndex, i).adjActOnComponents(transported, 0);
+						AlgebraElement E = grid.getE(index, i);
+						for (int k = 0; k < numberOfComponents; k++) {
+							gauss[k] += (E.get(k) - transported[k]) * gaussFactors[i];
+						}
+					}
+					double square = 0.0;
+					for (int k = 0; k < numberOfComponents; k++) {
+						square += gauss[k] * gauss[k];
+					}
+					partialSums[offset + 2 * numDim] += square;
+				}
 
-		public void execute(Grid grid, int index) {
-			if(grid.isEvaluatable(index)) {
-				synchronized (this) {
-					charge.addAssign(grid.getRho(index));   // Synchronisierte Summenbildung
+				if (computeRho) {
+					partialSums[offset + 2 * numDim + 1] += rho.square();
+					for (int k = 0; k < numberOfComponents; k++) {
+						partialSums[offset + 2 * numDim + 2 + k] += rho.get(k);
+					}
 				}
 			}
 		}
-	}
-
-	private class TotalChargeSquared implements CellAction  {
-
-		private double charge;
-		private int totalNumberOfCells;
-
-		public void reset(Grid g) {
-			totalNumberOfCells = g.getTotalNumberOfCells();
-			charge = 0.0;
-		}
-
-		public double getSum() {
-			return Math.sqrt(charge) / totalNumberOfCells;
-		}
 
-		public void execute(Grid grid, int index) {
-			if(grid.isEvaluatable(index)) {
-				synchronized (this) {
-					charge += grid.getRho(index).square();   // Synchronisierte Summenbildung
-				}
-			}
+		/**
+		 * Allocation-free version of {@link Grid#getBsquaredFromLinks(int, int, int)}.
+		 */
+		private double getBsquared(Grid grid, int index, int direction, int timeIndex,
+								   GroupElement result, GroupElement temp, AlgebraElement algebra) {
+			grid.getPlaquette(index, (direction + 1) % 3, (direction + 2) % 3, 1, 1, timeIndex, result, temp);
+			result.projInto(algebra);
+			return algebra.square() * magneticFactors[direction] * magneticFactors[direction];
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,134 @@
+package org.openpixi.pixi.physics.measurements;
+
+import org.openpixi.pixi.math.GroupElement;
+import org.openpixi.pixi.parallel.cellaccess.CellAction;
+import org.openpixi.pixi.parallel.cellaccess.RangeIterator;
+import org.openpixi.pixi.physics.gauge.DoubleFFTWrapper;
+import org.openpixi.pixi.physics.gauge.FFTService;
+import org.openpixi.pixi.physics.grid.Grid;
+import org.openpixi.pixi.physics.util.GridFunctions;
+
+/**
+ * Computes the correlator
+ * <pre>
+ * C(r) = 1/N \sum_x Re tr(V(x) V^\dagger(x + r))
+ * </pre>
+ * of a field of group elements on a periodic (transverse) lattice for all separations r at once.
+ * <br>
+ * The real trace is a scalar product of the real parameters of the group elements,
+ * Re tr(V W^\dagger) = c \sum_j V_j W_j, with c = 2 for SU(2) and c = 1 for SU(3). The correlator is therefore
+ * obtained from the power spectra of the parameter fields (Wiener-Khinchin theorem), which takes O(N log N) operations
+ * instead of O(N^2) for the sum over all pairs of cells. Two real parameter fields are combined into one complex field
+ * per FFT and the FFTs of these fields are executed in parallel by the cell iterator of the grid.
+ */
+public class WilsonLineCorrelator {
+
+	private int[] numCells;
+	private int totalNumberOfCells;
+
+	/**
+	 * @param numCells  Size of the (transverse) lattice on which the group elements live
+	 */
+	public WilsonLineCorrelator(int[] numCells) {
+		this.numCells = numCells.clone();
+		this.totalNumberOfCells = GridFunctions.getTotalNumberOfCells(numCells);
+	}
+
+	/**
+	 * Computes the correlator for all separations.
+	 *
+	 * @param V     Group elements indexed like {@link GridFunctions#getCellIndex(int[], int[])}
+	 * @param grid  Grid whose cell iterator is used to distribute the FFTs over threads
+	 * @return      C(r) indexed by the cell index of the separation vector r
+	 */
+	public double[] computeCorrelation(final GroupElement[] V, Grid grid) {
+		GroupElement identity = grid.getElementFactory().groupIdentity();
+		double normSquared = 0.0;
+		for (int j = 0; j < identity.getNumberOfParameters(); j++) {
+			normSquared += identity.get(j) * identity.get(j);
+		}
+		double traceFactor = identity.getRealTrace() / normSquared;
+
+		final int numberOfParameters = V[0].getNumberOfParameters();
+		final int numberOfFields = (numberOfParameters + 1) / 2;
+		final double[][] powerSpectra = new double[numberOfFields][totalNumberOfCells];
+
+		// Power spectra of the parameter fields, one complex field (two parameters) per iteration.
+		new RangeIterator(grid, numberOfFields).execute(grid, new CellAction() {
+			public void execute(Grid grid, int index) {
+				int j0 = 2 * index;
+				int j1 = j0 + 1;
+				DoubleFFTWrapper fft = FFTService.getPlan(numCells);
+				double[] data = FFTService.getBuffers(numCells, 1)[0];
+				for (int i = 0; i < totalNumberOfCells; i++) {
+					int k = fft.getFFTArrayIndex(i);
+					data[k] = V[i].get(j0);
+					data[k + 1] = (j1 < numberOfParameters) ? V[i].get(j1) : 0.0;
+				}
+				fft.complexForward(data);
+				double[] power = powerSpectra[index];
+				for (int i = 0; i < totalNumberOfCells; i++) {
+					int k = fft.getFFTArrayIndex(i);
+					power[i] = data[k] * data[k] + data[k + 1] * data[k + 1];
+				}
+			}
+		});
+
+		// Sum of the spectra in a fixed order and transformation back to position space.
+		DoubleFFTWrapper fft = FFTService.getPlan(numCells);
+		double[] data = new double[fft.getFFTArraySize()];
+		for (int f = 0; f < numberOfFields; f++) {
+			for (int i = 0; i < totalNumberOfCells; i++) {
+				data[fft.getFFTArrayIndex(i)] += powerSpectra[f][i];
+			}
+		}
+		fft.complexInverse(data, true);
+
+		double[] correlation = new double[totalNumberOfCells];
+		double normalization = traceFactor / totalNumberOfCells;
+		for (int i = 0; i < totalNumberOfCells; i++) {
+			correlation[i] = data[fft.getFFTArrayIndex(i)] * normalization;
+		}
+		return correlation;
+	}
+
+	/**
+	 * Returns the length of a separation vector on the periodic lattice, i.e. the distance to the nearest image.
+	 *
+	 * @param index     Cell index of the separation vector
+	 * @param spacings  Lattice spacings
+	 * @return          Length of the separation vector in physical units
+	 */
+	public double getDistance(int index, double[] spacings) {
+		int[] pos = GridFunctions.getCellPos(index, numCells);
+		double distance = 0.0;
+		for (int k = 0; k < numCells.length; k++) {
+			int d = pos[k];
+			if (d > numCells[k] / 2) {
+				d -= numCells[k];
+			}
+			distance += d * d * spacings[k] * spacings[k];
+		}
+		return Math.sqrt(distance);
+	}
+
+	/**
+	 * Adds the correlator to radial bins. Since every separation is realized by the same number of pairs of cells,
+	 * sums[bin] / counts[bin] is the average over all pairs of cells within the bin.
+	 *
+	 * @param correlation   Correlator from {@link #computeCorrelation(GroupElement[], Grid)}
+	 * @param spacings      Lattice spacings
+	 * @param binWidth      Width of the bins in physical units
+	 * @param sums          Sums of the correlator in each bin
+	 * @param counts        Number of separations in each bin
+	 */
+	public void bin(double[] correlation, double[] spacings, double binWidth, double[] sums, int[] counts) {
+		for (int i = 0; i < totalNumberOfCells; i++) {
+			int bin = (int) (getDistance(i, spacings) / binWidth);
+			if (bin < sums.length) {
+				sums[bin] += correlation[i];
+				counts[bin]++;
+			}
+		}
+	}
+}
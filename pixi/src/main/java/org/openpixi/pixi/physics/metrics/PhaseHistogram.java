@@ -0,0 +1,103 @@
+package org.openpixi.pixi.physics.metrics;
+
+/**
+ * Histogram of durations in nanoseconds. The buckets grow exponentially: every power of two is split into eight
+ * buckets of equal width, so percentiles are resolved to about 12% at constant memory. Recording and reading are
+ * synchronized because diagnostics may record from the diagnostics thread while the histogram is read through JMX.
+ */
+public class PhaseHistogram {
+
+	private static final int SUB_BUCKETS = 8;
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int NUMBER_OF_BUCKETS = SUB_BUCKETS * (64 - SUB_BUCKET_BITS);
+
+	private final long[] buckets = new long[NUMBER_OF_BUCKETS];
+	private long count;
+	private long total;
+	private long min = Long.MAX_VALUE;
+	private long max;
+
+	public synchronized void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		buckets[getBucketIndex(nanos)]++;
+		count++;
+		total += nanos;
+		min = Math.min(min, nanos);
+		max = Math.max(max, nanos);
+	}
+
+	public synchronized void reset() {
+		for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+			buckets[i] = 0;
+		}
+		count = 0;
+		total = 0;
+		min = Long.MAX_VALUE;
+		max = 0;
+	}
+
+	public synchronized long getCount() {
+		return count;
+	}
+
+	public synchronized long getTotal() {
+		return total;
+	}
+
+	public synchronized long getMin() {
+		return (count > 0) ? min : 0;
+	}
+
+	public synchronized long getMax() {
+		return max;
+	}
+
+	public synchronized double getMean() {
+		return (count > 0) ? total / (double) count : 0.0;
+	}
+
+	/**
+	 * Returns an upper estimate of a percentile.
+	 *
+	 * @param percentile    Percentile between 0 and 100
+	 * @return              Upper bound of the bucket containing the percentile (never larger than the maximum)
+	 */
+	public synchronized long getPercentile(double percentile) {
+		if (count == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(percentile / 100.0 * count);
+		rank = Math.max(1, Math.min(count, rank));
+		long seen = 0;
+		for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+			seen += buckets[i];
+			if (seen >= rank) {
+				return Math.min(max, getBucketLowerBound(i + 1) - 1);
+			}
+		}
+		return max;
+	}
+
+	static int getBucketIndex(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+		return SUB_BUCKETS * (exponent - SUB_BUCKET_BITS + 1) + subBucket;
+	}
+
+	static long getBucketLowerBound(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		if (index >= NUMBER_OF_BUCKETS) {
+			return Long.MAX_VALUE;
+		}
+		int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		long subBucket = index % SUB_BUCKETS;
+		return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+	}
+}
@@ -0,0 +1,442 @@
+package org.openpixi.pixi.physics.metrics;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.openpixi.pixi.diagnostics.Diagnostics;
+import org.openpixi.pixi.diagnostics.FileFunctions;
+
+/**
+ * Performance metrics of a simulation: a {@link PhaseHistogram} for every phase of a simulation step (see the
+ * constants below and {@link #getDiagnosticsPhase(Diagnostics)}), the throughput in cells and particles per
+ * second and the garbage collection and allocation counters of the JVM.
+ * <br>
+ * The metrics can be exposed as an MBean ({@link #registerMBean()}) and written to a file
+ * ({@link #writeReport(String)}). Each report appends lines of the form
+ * <pre>
+ * step	name	value
+ * </pre>
+ * where name is e.g. "phase.EOM.p90_ns" or "throughput.cells_per_s". Histograms are cumulative, rates in the file
+ * refer to the time since the previous report.
+ * <br>
+ * If the metrics are disabled, {@link #start()} and {@link #stop(String, long)} do not read the clock.
+ */
+public class SimulationMetrics implements SimulationMetricsMBean {
+
+	public static final String EQUATIONS_OF_MOTION = "EOM";
+	public static final String CHARGE_INTERPOLATION = "CIN";
+	public static final String PARTICLE_SORT = "SRT";
+	public static final String PARTICLE_UPDATE = "PUP";
+	public static final String FIELD_INTERPOLATION = "PIN";
+	public static final String CHARGE_UPDATE = "CUP";
+	public static final String CURRENT_INTERPOLATION = "JIN";
+	public static final String EXTERNAL_CURRENTS = "EXT";
+	public static final String DIAGNOSTICS_SUBMIT = "DIA_submit";
+	public static final String CHECKPOINT = "CHK";
+	public static final String STEP = "STEP";
+
+	private static final double[] REPORTED_PERCENTILES = {50, 90, 99};
+
+	private static final AtomicInteger instances = new AtomicInteger();
+
+	/**
+	 * Allocation counters of com.sun.management.ThreadMXBean. This interface is specific to HotSpot and is looked up
+	 * by reflection, so that the metrics also work on JVMs without it (the allocation rate is then not reported).
+	 */
+	private static final Method isThreadAllocatedMemoryEnabled;
+	private static final Method getThreadAllocatedBytes;
+
+	static {
+		Method enabledMethod = null;
+		Method bytesMethod = null;
+		try {
+			Class<?> allocationBean = Class.forName("com.sun.management.ThreadMXBean");
+			if (allocationBean.isInstance(ManagementFactory.getThreadMXBean())
+					&& (Boolean) allocationBean.getMethod("isThreadAllocatedMemorySupported")
+					.invoke(ManagementFactory.getThreadMXBean())) {
+				enabledMethod = allocationBean.getMethod("isThreadAllocatedMemoryEnabled");
+				bytesMethod = allocationBean.getMethod("getThreadAllocatedBytes", long[].class);
+			}
+		} catch (Exception e) {
+			enabledMethod = null;
+			bytesMethod = null;
+		}
+		isThreadAllocatedMemoryEnabled = enabledMethod;
+		getThreadAllocatedBytes = bytesMethod;
+	}
+
+	private final boolean enabled;
+	private final LinkedHashMap<String, PhaseHistogram> phases = new LinkedHashMap<String, PhaseHistogram>();
+	private final IdentityHashMap<Diagnostics, String> diagnosticsPhases = new IdentityHashMap<Diagnostics, String>();
+	private ObjectName objectName;
+	private boolean headerWritten;
+	private boolean append;
+
+	private int steps;
+	private long cellUpdates;
+	private long particleUpdates;
+	private long stepNanos;
+
+	private long startTime;
+	private long startGcCount;
+	private long startGcTime;
+	private long startAllocatedBytes;
+
+	private long reportTime;
+	private long reportAllocatedBytes;
+	private long reportCellUpdates;
+	private long reportParticleUpdates;
+	private long reportStepNanos;
+
+	public SimulationMetrics(boolean enabled) {
+		this.enabled = enabled;
+		reset();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Returns the start time of a phase. Pass the result to {@link #stop(String, long)} at the end of the phase.
+	 *
+	 * @return current time in nanoseconds (0 if the metrics are disabled)
+	 */
+	public long start() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Records the duration of a phase.
+	 *
+	 * @param phase Name of the phase
+	 * @param start Value returned by {@link #start()} at the beginning of the phase
+	 */
+	public void stop(String phase, long start) {
+		if (enabled) {
+			getPhase(phase).record(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Records a complete simulation step.
+	 *
+	 * @param start     Value returned by {@link #start()} at the beginning of the step
+	 * @param cells     Number of lattice cells updated in the step
+	 * @param particles Number of particles updated in the step
+	 */
+	public void stepCompleted(long start, long cells, long particles) {
+		if (enabled) {
+			long nanos = System.nanoTime() - start;
+			getPhase(STEP).record(nanos);
+			synchronized (this) {
+				steps++;
+				cellUpdates += cells;
+				particleUpdates += particles;
+				stepNanos += nanos;
+			}
+		}
+	}
+
+	/**
+	 * Assigns phase names to the diagnostics of a simulation, e.g. "DIA_2_PlanarFields" for the third diagnostic.
+	 *
+	 * @param diagnostics   List of diagnostics of the simulation
+	 */
+	public void setDiagnostics(List<Diagnostics> diagnostics) {
+		synchronized (diagnosticsPhases) {
+			diagnosticsPhases.clear();
+			for (int i = 0; i < diagnostics.size(); i++) {
+				Diagnostics d = diagnostics.get(i);
+				diagnosticsPhases.put(d, "DIA_" + i + "_" + d.getClass().getSimpleName());
+			}
+		}
+	}
+
+	/**
+	 * Returns the phase name of a diagnostic.
+	 *
+	 * @param d     Diagnostic
+	 * @return      Phase name assigned by {@link #setDiagnostics(List)}
+	 */
+	public String getDiagnosticsPhase(Diagnostics d) {
+		synchronized (diagnosticsPhases) {
+			String phase = diagnosticsPhases.get(d);
+			return (phase != null) ? phase : "DIA_" + d.getClass().getSimpleName();
+		}
+	}
+
+	/**
+	 * Keeps an existing metrics file when the first report is written, e.g. when a simulation is resumed from a
+	 * checkpoint.
+	 *
+	 * @param append    Append to an existing file instead of clearing it
+	 */
+	public void setAppend(boolean append) {
+		this.append = append;
+	}
+
+	/**
+	 * Appends a report to a metrics file. The file is cleared when the first report is written (see
+	 * {@link #setAppend(boolean)}).
+	 *
+	 * @param path  Output file path (relative paths are placed in the output folder)
+	 * @throws IOException
+	 */
+	public void writeReport(String path) throws IOException {
+		long now = System.nanoTime();
+		long allocatedBytes = getAllocatedBytes();
+		StringBuilder b = new StringBuilder();
+		int currentSteps;
+		synchronized (this) {
+			if (!headerWritten) {
+				if (!append) {
+					FileFunctions.clearFile(path);
+				}
+				if (FileFunctions.getFile(path).length() == 0) {
+					b.append("step\tname\tvalue\n");
+				}
+				headerWritten = true;
+			}
+			currentSteps = steps;
+			appendLine(b, currentSteps, "wall_time_s", (now - startTime) * 1.e-9);
+			for (String phase : getPhaseNames()) {
+				PhaseHistogram h = getPhase(phase);
+				String prefix = "phase." + phase + ".";
+				appendLine(b, currentSteps, prefix + "count", h.getCount());
+				appendLine(b, currentSteps, prefix + "mean_ns", h.getMean());
+				for (double p : REPORTED_PERCENTILES) {
+					appendLine(b, currentSteps, prefix + "p" + (int) p + "_ns", h.getPercentile(p));
+				}
+				appendLine(b, currentSteps, prefix + "max_ns", h.getMax());
+			}
+			long intervalStepNanos = stepNanos - reportStepNanos;
+			appendLine(b, currentSteps, "throughput.cells_per_s",
+					getRate(cellUpdates - reportCellUpdates, intervalStepNanos));
+			appendLine(b, currentSteps, "throughput.particles_per_s",
+					getRate(particleUpdates - reportParticleUpdates, intervalStepNanos));
+			appendLine(b, currentSteps, "gc.count", getGcCount());
+			appendLine(b, currentSteps, "gc.time_ms", getGcTimeMillis());
+			if (allocatedBytes >= 0) {
+				appendLine(b, currentSteps, "memory.allocation_rate_bytes_per_s",
+						getRate(allocatedBytes - reportAllocatedBytes, now - reportTime));
+			}
+			appendLine(b, currentSteps, "memory.heap_used_bytes",
+					ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+
+			reportTime = now;
+			reportAllocatedBytes = allocatedBytes;
+			reportCellUpdates = cellUpdates;
+			reportParticleUpdates = particleUpdates;
+			reportStepNanos = stepNanos;
+		}
+
+		FileWriter pw = new FileWriter(FileFunctions.getFile(path), true);
+		try {
+			pw.write(b.toString());
+		} finally {
+			pw.close();
+		}
+	}
+
+	/**
+	 * Registers the metrics with the platform MBean server under
+	 * "org.openpixi.pixi:type=SimulationMetrics,name=simulation-N".
+	 */
+	public synchronized void registerMBean() {
+		if (objectName != null) {
+			return;
+		}
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName("org.openpixi.pixi:type=SimulationMetrics,name=simulation-"
+					+ instances.incrementAndGet());
+			server.registerMBean(this, name);
+			objectName = name;
+		} catch (JMException e) {
+			throw new RuntimeException("Could not register simulation metrics MBean.", e);
+		}
+	}
+
+	public synchronized void unregisterMBean() {
+		if (objectName == null) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		} catch (JMException e) {
+			throw new RuntimeException("Could not unregister simulation metrics MBean.", e);
+		} finally {
+			objectName = null;
+		}
+	}
+
+	public synchronized int getSteps() {
+		return steps;
+	}
+
+	public String[] getPhaseNames() {
+		synchronized (phases) {
+			return phases.keySet().toArray(new String[phases.size()]);
+		}
+	}
+
+	public long getCount(String phase) {
+		return getPhase(phase).getCount();
+	}
+
+	public double getMeanNanos(String phase) {
+		return getPhase(phase).getMean();
+	}
+
+	public long getMaxNanos(String phase) {
+		return getPhase(phase).getMax();
+	}
+
+	public long getPercentileNanos(String phase, double percentile) {
+		return getPhase(phase).getPercentile(percentile);
+	}
+
+	public synchronized double getCellsPerSecond() {
+		return getRate(cellUpdates, stepNanos);
+	}
+
+	public synchronized double getParticlesPerSecond() {
+		return getRate(particleUpdates, stepNanos);
+	}
+
+	public long getGcCount() {
+		return getTotalGcCount() - startGcCount;
+	}
+
+	public long getGcTimeMillis() {
+		return getTotalGcTime() - startGcTime;
+	}
+
+	public double getAllocationRate() {
+		long allocatedBytes = getAllocatedBytes();
+		if (allocatedBytes < 0) {
+			return -1;
+		}
+		return getRate(allocatedBytes - startAllocatedBytes, System.nanoTime() - startTime);
+	}
+
+	public String getReport() {
+		StringBuilder b = new StringBuilder();
+		b.append("steps: ").append(getSteps()).append('\n');
+		for (String phase : getPhaseNames()) {
+			PhaseHistogram h = getPhase(phase);
+			b.append(phase).append(": mean ").append(FileFunctions.format(h.getMean() * 1.e-6)).append(" ms");
+			b.append(", p90 ").append(FileFunctions.format(h.getPercentile(90) * 1.e-6)).append(" ms");
+			b.append(", max ").append(FileFunctions.format(h.getMax() * 1.e-6)).append(" ms\n");
+		}
+		b.append("cells/s: ").append(FileFunctions.format(getCellsPerSecond())).append('\n');
+		b.append("particles/s: ").append(FileFunctions.format(getParticlesPerSecond())).append('\n');
+		b.append("gc: ").append(getGcCount()).append(" collections, ").append(getGcTimeMillis()).append(" ms\n");
+		b.append("allocation rate: ").append(FileFunctions.format(getAllocationRate())).append(" bytes/s\n");
+		return b.toString();
+	}
+
+	public void reset() {
+		ArrayList<PhaseHistogram> histograms;
+		synchronized (phases) {
+			histograms = new ArrayList<PhaseHistogram>(phases.values());
+		}
+		for (PhaseHistogram h : histograms) {
+			h.reset();
+		}
+		synchronized (this) {
+			steps = 0;
+			cellUpdates = 0;
+			particleUpdates = 0;
+			stepNanos = 0;
+			startTime = System.nanoTime();
+			startGcCount = getTotalGcCount();
+			startGcTime = getTotalGcTime();
+			startAllocatedBytes = getAllocatedBytes();
+			reportTime = startTime;
+			reportAllocatedBytes = startAllocatedBytes;
+			reportCellUpdates = 0;
+			reportParticleUpdates = 0;
+			reportStepNanos = 0;
+		}
+	}
+
+	private PhaseHistogram getPhase(String phase) {
+		synchronized (phases) {
+			PhaseHistogram h = phases.get(phase);
+			if (h == null) {
+				h = new PhaseHistogram();
+				phases.put(phase, h);
+			}
+			return h;
+		}
+	}
+
+	private static void appendLine(StringBuilder b, int step, String name, long value) {
+		b.append(step).append('\t').append(name).append('\t').append(value).append('\n');
+	}
+
+	private static void appendLine(StringBuilder b, int step, String name, double value) {
+		b.append(step).append('\t').append(name).append('\t').append(FileFunctions.format(value)).append('\n');
+	}
+
+	private static double getRate(long amount, long nanos) {
+		return (nanos > 0) ? amount / (nanos * 1.e-9) : 0.0;
+	}
+
+	private static long getTotalGcCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, gc.getCollectionCount());
+		}
+		return count;
+	}
+
+	private static long getTotalGcTime() {
+		long time = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			time += Math.max(0, gc.getCollectionTime());
+		}
+		return time;
+	}
+
+	/**
+	 * Sums the bytes allocated by all live threads. Allocations of threads which have terminated are not included.
+	 *
+	 * @return allocated bytes or -1 if the JVM does not provide allocation counters
+	 */
+	private static long getAllocatedBytes() {
+		if (getThreadAllocatedBytes == null) {
+			return -1;
+		}
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		long[] allocatedBytes;
+		try {
+			if (!(Boolean) isThreadAllocatedMemoryEnabled.invoke(bean)) {
+				return -1;
+			}
+			allocatedBytes = (long[]) getThreadAllocatedBytes.invoke(bean, (Object) bean.getAllThreadIds());
+		} catch (Exception e) {
+			return -1;
+		}
+		long sum = 0;
+		for (long bytes : allocatedBytes) {
+			sum += Math.max(0, bytes);
+		}
+		return sum;
+	}
+}
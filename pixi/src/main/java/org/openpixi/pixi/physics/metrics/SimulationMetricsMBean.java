@@ -0,0 +1,66 @@
+package org.openpixi.pixi.physics.metrics;
+
+/**
+ * JMX management interface of {@link SimulationMetrics}. All durations are given in nanoseconds.
+ */
+public interface SimulationMetricsMBean {
+
+	/**
+	 * @return number of completed simulation steps
+	 */
+	int getSteps();
+
+	/**
+	 * @return names of all phases which have been timed so far
+	 */
+	String[] getPhaseNames();
+
+	long getCount(String phase);
+
+	double getMeanNanos(String phase);
+
+	long getMaxNanos(String phase);
+
+	/**
+	 * @param phase         name of the phase
+	 * @param percentile    percentile between 0 and 100
+	 * @return              upper estimate of the percentile
+	 */
+	long getPercentileNanos(String phase, double percentile);
+
+	/**
+	 * @return lattice cells updated per second of step time
+	 */
+	double getCellsPerSecond();
+
+	/**
+	 * @return particles updated per second of step time
+	 */
+	double getParticlesPerSecond();
+
+	/**
+	 * @return number of garbage collections since the metrics were created
+	 */
+	long getGcCount();
+
+	/**
+	 * @return time spent in garbage collection since the metrics were created
+	 */
+	long getGcTimeMillis();
+
+	/**
+	 * @return bytes allocated per second of wall time since the metrics were created or -1 if the JVM does not
+	 *         provide allocation counters
+	 */
+	double getAllocationRate();
+
+	/**
+	 * @return all metrics as text
+	 */
+	String getReport();
+
+	/**
+	 * Clears all histograms and throughput counters.
+	 */
+	void reset();
+}
@@ -0,0 +1,41 @@
+package org.openpixi.pixi.physics.movement.solver;
+
+import org.openpixi.pixi.physics.force.Force;
+import org.openpixi.pixi.physics.particles.CGCParticleArray;
+import org.openpixi.pixi.physics.particles.IParticle;
+
+/**
+ * Particle solver for the CGCParticleArray class. The positions of all particles of a population are updated in a
+ * single loop over the primitive arrays. The parallel transport of the charges is done in
+ * {@link org.openpixi.pixi.physics.grid.CGCParticleArrayInterpolationNGP#interpolateToGrid(IParticle, org.openpixi.pixi.physics.grid.Grid)}.
+ */
+public class CGCParticleArraySolver implements ParticleSolver {
+
+	public void updatePosition(IParticle p, Force f, double dt) {
+		CGCParticleArray P = (CGCParticleArray) p;
+		int numberOfDimensions = P.numberOfDimensions;
+		int direction = P.direction;
+		double[] pos0 = P.pos0;
+		double[] pos1 = P.pos1;
+		double[] vel = P.vel;
+
+		// Only the longitudinal coordinate changes.
+		System.arraycopy(pos0, 0, pos1, 0, P.numberOfParticles * numberOfDimensions);
+		for (int i = 0; i < P.numberOfParticles; i++) {
+			pos1[i * numberOfDimensions + direction] += vel[i] * dt;
+		}
+	}
+
+
+	public void updateCharge(IParticle p, Force f, double dt) {
+		// Nothing to update here. Look into CGCParticleArrayInterpolationNGP.
+	}
+
+	public void prepare(IParticle p, Force f, double step) {
+		// Not implemented.
+	}
+
+	public void complete(IParticle p, Force f, double step) {
+		// Not implemented.
+	}
+}
@@ -0,0 +1,238 @@
+package org.openpixi.pixi.physics.particles;
+
+import org.openpixi.pixi.math.AlgebraElement;
+
+import java.awt.Color;
+
+/**
+ * A population of CGC particles (see {@link CGCParticle}) stored in flat primitive arrays. All particles move along
+ * the same grid axis, so only the longitudinal component of the velocity is stored.
+ * <p>
+ * Component d of the position of particle i is stored at i * numberOfDimensions + d, color component k of its charge
+ * at i * numberOfComponents + k. There is a single charge per particle which is parallel transported in place by
+ * {@link org.openpixi.pixi.physics.grid.CGCParticleArrayInterpolationNGP}. This saves the object headers, the
+ * separate arrays, the two algebra elements and the gauge link of every {@link CGCParticle}.
+ * <p>
+ * The methods of {@link IParticle} refer to the population as a whole and, as for {@link CGCSuperParticle}, do not
+ * describe a single particle. Use the index-based accessors instead.
+ */
+public class CGCParticleArray implements IParticle {
+
+	/**
+	 * Number of particles in the population.
+	 */
+	public int numberOfParticles;
+
+	/**
+	 * Number of spatial dimensions of the particle positions.
+	 */
+	public int numberOfDimensions;
+
+	/**
+	 * Number of color components of a single particle charge.
+	 */
+	public int numberOfComponents;
+
+	/**
+	 * Longitudinal direction in which the particles move.
+	 */
+	public int direction;
+
+	/**
+	 * Positions of the particles at the current (pos0) and the next (pos1) time step.
+	 */
+	public double[] pos0;
+	public double[] pos1;
+
+	/**
+	 * Velocities of the particles in the longitudinal direction.
+	 */
+	public double[] vel;
+
+	/**
+	 * Color charges of the particles.
+	 */
+	public double[] Q;
+
+	public CGCParticleArray(int numberOfParticles, int numberOfDimensions, int numberOfComponents, int direction) {
+		this.numberOfParticles = numberOfParticles;
+		this.numberOfDimensions = numberOfDimensions;
+		this.numberOfComponents = numberOfComponents;
+		this.direction = direction;
+
+		this.pos0 = new double[numberOfParticles * numberOfDimensions];
+		this.pos1 = new double[numberOfParticles * numberOfDimensions];
+		this.vel = new double[numberOfParticles];
+		this.Q = new double[numberOfParticles * numberOfComponents];
+	}
+
+	/**
+	 * Copies position, velocity and charge of a single particle into the population.
+	 *
+	 * @param i index of the particle
+	 * @param p particle moving in the direction of the population
+	 */
+	public void set(int i, CGCParticle p) {
+		for (int d = 0; d < numberOfDimensions; d++) {
+			pos0[i * numberOfDimensions + d] = p.pos0[d];
+			pos1[i * numberOfDimensions + d] = p.pos1[d];
+		}
+		vel[i] = p.vel[direction];
+		setCharge(i, p.Q0);
+	}
+
+	/**
+	 * Position of a single particle at the current time step.
+	 *
+	 * @param i index of the particle
+	 * @param d component of the position
+	 * @return  position
+	 */
+	public double getPosition(int i, int d) {
+		return pos0[i * numberOfDimensions + d];
+	}
+
+	/**
+	 * Position of a single particle at the next time step (see {@link YangMillsParticle#getPrevPosition(int)}).
+	 *
+	 * @param i index of the particle
+	 * @param d component of the position
+	 * @return  position
+	 */
+	public double getPrevPosition(int i, int d) {
+		return pos1[i * numberOfDimensions + d];
+	}
+
+	/**
+	 * Velocity of a single particle. Only the longitudinal component is non-zero.
+	 *
+	 * @param i index of the particle
+	 * @param d component of the velocity
+	 * @return  velocity
+	 */
+	public double getVelocity(int i, int d) {
+		return (d == direction) ? vel[i] : 0.0;
+	}
+
+	public void setPosition(int i, int d, double value) {
+		pos0[i * numberOfDimensions + d] = value;
+	}
+
+	public void setPrevPosition(int i, int d, double value) {
+		pos1[i * numberOfDimensions + d] = value;
+	}
+
+	/**
+	 * Sets the charge of a single particle.
+	 *
+	 * @param i      index of the particle
+	 * @param charge charge of the particle
+	 */
+	public void setCharge(int i, AlgebraElement charge) {
+		for (int k = 0; k < numberOfComponents; k++) {
+			Q[i * numberOfComponents + k] = charge.get(k);
+		}
+	}
+
+	/**
+	 * Writes the charge of a single particle to an AlgebraElement.
+	 *
+	 * @param i      index of the particle
+	 * @param charge AlgebraElement which is set to the charge of the particle
+	 */
+	public void getCharge(int i, AlgebraElement charge) {
+		for (int k = 0; k < numberOfComponents; k++) {
+			charge.set(k, Q[i * numberOfComponents + k]);
+		}
+	}
+
+	// GETTERS
+
+	public double getPosition(int i) {
+		return 0;
+	}
+
+	public double getPrevPosition(int i) {
+		return 0;
+	}
+
+	public double getVelocity(int i) {
+		return 0;
+	}
+
+	public double[] getPosition() {
+		return new double[]{0};
+	}
+
+	public double[] getPrevPosition() {
+		return new double[]{0};
+	}
+
+	public double[] getVelocity() {
+		return new double[]{0};
+	}
+
+	public double getRadius() {
+		return 0;
+	}
+
+	public Color getDisplayColor() {
+		return Color.BLACK;
+	}
+
+	public int getNumberOfDimensions() {
+		return 0;
+	}
+
+	// SETTERS
+
+	public void setPosition(int i, double value) {
+
+	}
+
+	public void addPosition(int i, double value) {
+
+	}
+
+	public void setPrevPosition(int i, double value) {
+
+	}
+
+	public void addPrevPosition(int i, double value) {
+
+	}
+
+	public void setVelocity(int i, double value) {
+
+	}
+
+	public void addVelocity(int i, double value) {
+
+	}
+
+	public void setNumberOfDimensions(int numberOfDimensions) {
+	}
+
+	public void setRadius(double r) {
+
+	}
+
+	public void setDisplayColor(Color color) {
+
+	}
+
+	public void reassignValues() {
+		double[] tempPos = pos0;
+		pos0 = pos1;
+		pos1 = tempPos;
+	}
+
+	public IParticle copy() {
+		CGCParticleArray p = new CGCParticleArray(numberOfParticles, numberOfDimensions, numberOfComponents, direction);
+		System.arraycopy(pos0, 0, p.pos0, 0, pos0.length);
+		System.arraycopy(pos1, 0, p.pos1, 0, pos1.length);
+		System.arraycopy(vel, 0, p.vel, 0, vel.length);
+		System.arraycopy(Q, 0, p.Q, 0, Q.length);
+		return p;
+	}
+}
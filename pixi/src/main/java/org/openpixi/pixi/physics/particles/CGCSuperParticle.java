@@ -7,19 +7,36 @@ import java.awt.*;
 /**
  * This particle class describes not single particles, but larger collections of particles as 'super particles'.
  * It enables us to make use of optimizations specific to CGC simulations with fixed particle trajectories.
+ * <p>
+ * The particles move along the longitudinal direction. Particle positions are given in a longitudinal-major ordering
+ * n = l * particlesPerPlane + t of the lattice, where l is the longitudinal position and t the transverse index
+ * (see {@link org.openpixi.pixi.physics.util.GridFunctions#reduceGridPos(int[], int)}). {@link #getLatticeIndex(int)}
+ * translates this ordering to lattice indices. For direction 0 both orderings coincide.
  */
 public class CGCSuperParticle implements IParticle {
 
 	/**
-	 * Array of charges containing all the particle charges associated with this super particle.
+	 * Color components (see {@link AlgebraElement#get(int)}) of all the particle charges associated with this super
+	 * particle. The charge of particle i is stored at i * numberOfComponents, ..., (i + 1) * numberOfComponents - 1.
+	 * Storing the charges in a single primitive array avoids one object per particle charge.
 	 */
-	public AlgebraElement[] Q;
+	public double[] Q;
+
+	/**
+	 * Number of color components of a single particle charge.
+	 */
+	public int numberOfComponents;
 
 	/**
 	 * Orientation of the super particle (-1 or +1).
 	 */
 	public int orientation;
 
+	/**
+	 * Longitudinal direction in which the super particle moves.
+	 */
+	public int direction;
+
 	/**
 	 * Total number of particles described by super particle.
 	 */
@@ -45,21 +62,84 @@ public class CGCSuperParticle implements IParticle {
 	 */
 	public int particlePerCell;
 
+	/**
+	 * Lattice indices of the cells at longitudinal position 0 indexed by transverse index. Not needed (null) if the
+	 * longitudinal-major ordering coincides with the lattice index.
+	 */
+	private int[] transverseBaseIndices;
+
+	/**
+	 * Difference of the lattice indices of neighbouring cells in the longitudinal direction.
+	 */
+	private int longitudinalStride;
+
 	public CGCSuperParticle(int orientation,
+	                        int direction,
 	                        int numberOfParticles,
 	                        int indexOffset,
 	                        int particlesPerPlane,
 	                        int subLatticeShift,
-	                        int particlePerCell) {
+	                        int particlePerCell,
+	                        int numberOfComponents) {
 		this.orientation = orientation;
+		this.direction = direction;
 		this.numberOfParticles = numberOfParticles;
 		this.indexOffset = indexOffset;
 		this.particlesPerPlane = particlesPerPlane;
 		this.subLatticeShift = subLatticeShift;
 		this.particlePerCell = particlePerCell;
+		this.numberOfComponents = numberOfComponents;
 
-		this.Q = new AlgebraElement[numberOfParticles];
+		this.Q = new double[numberOfParticles * numberOfComponents];
+
+	}
 
+	/**
+	 * Sets the layout of the lattice for particles which do not move in direction 0.
+	 *
+	 * @param transverseBaseIndices lattice indices of the cells at longitudinal position 0 indexed by transverse index
+	 * @param longitudinalStride    difference of the lattice indices of neighbouring cells in the longitudinal direction
+	 */
+	public void setLatticeLayout(int[] transverseBaseIndices, int longitudinalStride) {
+		this.transverseBaseIndices = transverseBaseIndices;
+		this.longitudinalStride = longitudinalStride;
+	}
+
+	/**
+	 * Translates a position in the longitudinal-major ordering to a lattice index.
+	 *
+	 * @param n position in the longitudinal-major ordering, e.g. getCurrentOffset(t) + i for particle i
+	 * @return  lattice index
+	 */
+	public int getLatticeIndex(int n) {
+		if (transverseBaseIndices == null) {
+			return n;
+		}
+		return transverseBaseIndices[n % particlesPerPlane] + (n / particlesPerPlane) * longitudinalStride;
+	}
+
+	/**
+	 * Sets the charge of a single particle.
+	 *
+	 * @param i      index of the particle
+	 * @param charge charge of the particle
+	 */
+	public void setCharge(int i, AlgebraElement charge) {
+		for (int k = 0; k < numberOfComponents; k++) {
+			Q[i * numberOfComponents + k] = charge.get(k);
+		}
+	}
+
+	/**
+	 * Writes the charge of a single particle to an AlgebraElement.
+	 *
+	 * @param i      index of the particle
+	 * @param charge AlgebraElement which is set to the charge of the particle
+	 */
+	public void getCharge(int i, AlgebraElement charge) {
+		for (int k = 0; k < numberOfComponents; k++) {
+			charge.set(k, Q[i * numberOfComponents + k]);
+		}
 	}
 
 	/**
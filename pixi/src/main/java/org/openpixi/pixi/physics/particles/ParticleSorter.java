@@ -0,0 +1,132 @@
+package org.openpixi.pixi.physics.particles;
+
+import java.util.List;
+
+import org.openpixi.pixi.physics.grid.Grid;
+
+/**
+ * Reorders a list of particles by the index of the lattice cell which contains them (counting sort). After sorting,
+ * the particles of cell i are found at the positions getCellOffset(i) to getCellOffset(i + 1) - 1 of the list.
+ * <br>
+ * Particles which are close on the lattice are then also close in the list. Contiguous blocks of the list (see
+ * {@link org.openpixi.pixi.parallel.particleaccess.ParallelParticleIterator}) touch a small, contiguous region of the
+ * grid, which improves the cache locality of the interpolation and reduces the contention on the cells during the
+ * deposition. The sort is stable, so the order of particles within a cell does not change.
+ * <br>
+ * Populations of particles ({@link CGCSuperParticle}, {@link CGCParticleArray}) do not have a single position. They
+ * are not sorted and are moved behind the sorted particles, keeping their relative order.
+ * <br>
+ * Sorting changes the order of the particle list, which is also the order in which diagnostics like
+ * {@link org.openpixi.pixi.diagnostics.methods.ParticlesInTime} write the particles.
+ * <br>
+ * The work arrays are reused between calls and only reallocated if the number of particles or cells grows.
+ */
+public class ParticleSorter {
+
+	private int[] cellOffsets = new int[1];
+	private int[] particleCells = new int[0];
+	private IParticle[] sortedParticles = new IParticle[0];
+
+	/**
+	 * Sorts the particles by the index of the cell containing their current position. Positions outside of the
+	 * simulation box are mapped back into it using periodic boundary conditions. Populations of particles are placed
+	 * after all other particles.
+	 *
+	 * @param particles list of particles which is reordered in place
+	 * @param grid      grid defining the cells
+	 */
+	public void sort(List<IParticle> particles, Grid grid) {
+		int numberOfParticles = particles.size();
+		int numberOfCells = grid.getTotalNumberOfCells();
+		if (cellOffsets.length < numberOfCells + 1) {
+			cellOffsets = new int[numberOfCells + 1];
+		}
+		if (particleCells.length < numberOfParticles) {
+			particleCells = new int[numberOfParticles];
+			sortedParticles = new IParticle[numberOfParticles];
+		}
+
+		// Count the particles in each cell.
+		for (int i = 0; i <= numberOfCells; i++) {
+			cellOffsets[i] = 0;
+		}
+		for (int p = 0; p < numberOfParticles; p++) {
+			IParticle particle = particles.get(p);
+			if (isPopulation(particle)) {
+				particleCells[p] = -1;
+				continue;
+			}
+			int cellIndex = getCellIndex(particle, grid);
+			particleCells[p] = cellIndex;
+			cellOffsets[cellIndex + 1]++;
+		}
+
+		// Prefix sum: cellOffsets[i] is the position of the first particle in cell i.
+		for (int i = 0; i < numberOfCells; i++) {
+			cellOffsets[i + 1] += cellOffsets[i];
+		}
+
+		// Scatter the particles. The offsets are advanced to the end of each cell and shifted back afterwards.
+		int populationOffset = cellOffsets[numberOfCells];
+		for (int p = 0; p < numberOfParticles; p++) {
+			if (particleCells[p] < 0) {
+				sortedParticles[populationOffset++] = particles.get(p);
+			} else {
+				sortedParticles[cellOffsets[particleCells[p]]++] = particles.get(p);
+			}
+		}
+		for (int i = numberOfCells; i > 0; i--) {
+			cellOffsets[i] = cellOffsets[i - 1];
+		}
+		cellOffsets[0] = 0;
+
+		for (int p = 0; p < numberOfParticles; p++) {
+			particles.set(p, sortedParticles[p]);
+			sortedParticles[p] = null;
+		}
+	}
+
+	/**
+	 * Position of the first particle of a cell in the list after the last call to {@link #sort(List, Grid)}. The
+	 * offset of the cell index getTotalNumberOfCells() is the number of sorted particles, i.e. the position of the
+	 * first population.
+	 *
+	 * @param cellIndex lattice index of the cell
+	 * @return          position of the first particle of the cell in the sorted list
+	 */
+	public int getCellOffset(int cellIndex) {
+		return cellOffsets[cellIndex];
+	}
+
+	/**
+	 * Checks if a particle is a population of particles without a single position.
+	 *
+	 * @param particle particle
+	 * @return         true for {@link CGCSuperParticle} and {@link CGCParticleArray}
+	 */
+	public static boolean isPopulation(IParticle particle) {
+		return particle instanceof CGCSuperParticle || particle instanceof CGCParticleArray;
+	}
+
+	/**
+	 * Lattice index of the cell containing the position of a particle. This is not defined for populations of
+	 * particles (see {@link #isPopulation(IParticle)}).
+	 *
+	 * @param particle particle
+	 * @param grid     grid defining the cells
+	 * @return         lattice index of the cell (using periodic boundary conditions)
+	 */
+	public static int getCellIndex(IParticle particle, Grid grid) {
+		int numberOfDimensions = grid.getNumberOfDimensions();
+		int cellIndex = 0;
+		for (int d = 0; d < numberOfDimensions; d++) {
+			int numCells = grid.getNumCells(d);
+			int coordinate = (int) Math.floor(particle.getPosition(d) / grid.getLatticeSpacing(d)) % numCells;
+			if (coordinate < 0) {
+				coordinate += numCells;
+			}
+			cellIndex = cellIndex * numCells + coordinate;
+		}
+		return cellIndex;
+	}
+}
@@ -0,0 +1,16 @@
+package org.openpixi.pixi.physics.particles;
+
+/**
+ * Storage of the particles of CGC simulations with NGP interpolation.
+ * <ul>
+ *     <li>Objects: one {@link CGCParticle} object with separate arrays and algebra elements per particle.</li>
+ *     <li>Primitive: populations of particles stored in flat primitive arrays ({@link CGCParticleArray}).</li>
+ * </ul>
+ * Only the CGC simulation types with NGP interpolation support Primitive. There is no primitive storage for
+ * {@link YangMillsParticle}s, whose movers and CIC interpolators work on particle objects, nor for the populations of
+ * the optimized simulation types, which are already stored in {@link CGCSuperParticle}s.
+ */
+public enum ParticleStorageType {
+	Objects,
+	Primitive
+}
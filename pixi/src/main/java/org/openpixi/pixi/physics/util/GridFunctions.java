@@ -210,6 +210,26 @@ public class GridFunctions {
 		return newGridPos;
 	}
 
+	/**
+	 * Returns the cell index of the cell at longitudinal position 0 for every transverse index (see
+	 * {@link #reduceGridPos(int[], int)}). The cell index at longitudinal position z is then obtained by adding z times
+	 * the stride of the longitudinal direction, which avoids the allocation of position arrays for every cell.
+	 *
+	 * @param numCells  array of grid sizes
+	 * @param direction longitudinal direction
+	 * @return          cell indices indexed by transverse index
+	 */
+	public static int[] getTransverseBaseIndices(int[] numCells, int direction) {
+		int[] transverseNumCells = reduceGridPos(numCells, direction);
+		int totalTransverseCells = getTotalNumberOfCells(transverseNumCells);
+		int[] baseIndices = new int[totalTransverseCells];
+		for (int i = 0; i < totalTransverseCells; i++) {
+			int[] transGridPos = getCellPos(i, transverseNumCells);
+			baseIndices[i] = getCellIndex(insertGridPos(transGridPos, direction, 0), numCells);
+		}
+		return baseIndices;
+	}
+
 	/**
 	 * Shifts a cell index in the given direction with given orientation.
 	 * @param index cell index
@@ -52,6 +52,11 @@ public class MainBatch {
 	 * <pre>
 	 * java -cp target/pixi-0.6-SNAPSHOT.jar org.openpixi.pixi.ui.MainBatch "One_particle_Test.yaml"
 	 * </pre>
+	 * A simulation can be resumed from a checkpoint (see the checkpoint option of the YAML file) with
+	 * <pre>
+	 * java -cp target/pixi-0.6-SNAPSHOT.jar org.openpixi.pixi.ui.MainBatch "One_particle_Test.yaml" -resume checkpoint.bin
+	 * </pre>
+	 * The YAML file has to be the one the checkpoint was created with.
 	 */
 	public static void main(String[] args) throws FileNotFoundException, IOException, InterruptedException {
 
@@ -62,20 +67,34 @@ public class MainBatch {
 		// Checks if the user has specified at least one parameter.
 		// If so creates a parser and uses the parameter as the
 		// path to the settings file.
-		if (args.length != 0) {
-			File file = new File(args[0]);
+		String path = null;
+		String resumeCheckpoint = null;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-resume") && i + 1 < args.length) {
+				resumeCheckpoint = args[++i];
+			} else {
+				path = args[i];
+			}
+		}
+
+		if (path != null) {
+			File file = new File(path);
 
 			if(file.exists()) {
 				if(file.isFile()) {
 					try {
 						System.out.println("MainBatch: Running " + file.getPath());
 						String string = FileIO.readFile(file);
-						runSimulationFromString(string);
+						runSimulationFromString(string, resumeCheckpoint);
 
 					} catch (IOException e) {
-						System.out.println("MainBatch: Error opening " + args[0]);
+						System.out.println("MainBatch: Error opening " + path);
 					}
 				} else if(file.isDirectory()){
+					if (resumeCheckpoint != null) {
+						System.out.println("MainBatch: -resume requires a single configuration file.");
+						System.exit(1);
+					}
 					System.out.println("MainBatch: Loading configuration files from " + file.getPath());
 					FilenameFilter filter = new FilenameFilter() {
 						public boolean accept(File dir, String name) {
@@ -99,7 +118,17 @@ public class MainBatch {
 	}
 
 	public static void runSimulationFromString(String configurationString) {
-		initializeSimulationFromString(configurationString);
+		runSimulationFromString(configurationString, null);
+	}
+
+	/**
+	 * Runs the simulation described by the configuration string.
+	 *
+	 * @param configurationString   YAML configuration
+	 * @param resumeCheckpoint      Path of a checkpoint to resume from or null to start from the initial conditions
+	 */
+	public static void runSimulationFromString(String configurationString, String resumeCheckpoint) {
+		initializeSimulationFromString(configurationString, resumeCheckpoint);
 
 		// Simulation run and time measurement
 		long t0 = System.nanoTime();
@@ -122,6 +151,13 @@ public class MainBatch {
 			simulation.run();
 		} catch (IOException e) {
 			System.out.println("MainBatch: something went wrong.");
+		} finally {
+			// Close the output files also if the simulation stopped early.
+			try {
+				simulation.closeDiagnostics();
+			} catch (IOException e) {
+				System.out.println("MainBatch: could not close the diagnostics.");
+			}
 		}
 
 		// dt in seconds
@@ -132,10 +168,18 @@ public class MainBatch {
 	}
 
 	public static void initializeSimulationFromString(String configurationString) {
+		initializeSimulationFromString(configurationString, null);
+	}
+
+	public static void initializeSimulationFromString(String configurationString, String resumeCheckpoint) {
 		// Creates a settings class with the default parameters
 		Settings settings = new Settings();
 		YamlParser yamlParser = new YamlParser(settings);
 		yamlParser.parseString(configurationString);
+		if (resumeCheckpoint != null) {
+			System.out.println("MainBatch: Resuming from " + resumeCheckpoint);
+			settings.setResumeCheckpoint(resumeCheckpoint);
+		}
 
 		// Initialization time measurement
 		long t0 = System.nanoTime();
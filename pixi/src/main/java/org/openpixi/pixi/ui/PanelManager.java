@@ -17,6 +17,7 @@ import org.openpixi.pixi.physics.Simulation;
 import org.openpixi.pixi.ui.panel.ElectricFieldPanel;
 import org.openpixi.pixi.ui.panel.EnergyDensity1DPanel;
 import org.openpixi.pixi.ui.panel.EnergyDensity2DPanel;
+import org.openpixi.pixi.ui.panel.ProjectedEnergyDensity2DPanel;
 import org.openpixi.pixi.ui.panel.FocusablePanel;
 import org.openpixi.pixi.ui.panel.InfoPanel;
 import org.openpixi.pixi.ui.panel.Particle2DPanel;
@@ -54,6 +55,7 @@ public class PanelManager {
 	JMenuItem itemElectricFieldPanel;
 	JMenuItem itemEnergyDensity1DPanel;
 	JMenuItem itemEnergyDensity2DPanel;
+	JMenuItem itemProjectedEnergyDensity2DPanel;
 	JMenuItem itemEnergyDensity2DGLPanel;
 	JMenuItem itemEnergyDensity3DGLPanel;
 	JMenuItem itemEnergyDensityVoxelGLPanel;
@@ -214,6 +216,10 @@ public class PanelManager {
 			itemEnergyDensity2DPanel.addActionListener(new MenuSelected());
 			add(itemEnergyDensity2DPanel);
 
+			itemProjectedEnergyDensity2DPanel = new JMenuItem("Projected energy density 2D");
+			itemProjectedEnergyDensity2DPanel.addActionListener(new MenuSelected());
+			add(itemProjectedEnergyDensity2DPanel);
+
 			itemEnergyDensity2DGLPanel = new JMenuItem("Energy density 2D (Open GL)");
 			itemEnergyDensity2DGLPanel.addActionListener(new MenuSelected());
 			add(itemEnergyDensity2DGLPanel);
@@ -301,6 +307,8 @@ public class PanelManager {
 				component = new EnergyDensity1DPanel(mainControlApplet.simulationAnimation);
 			} else if (event.getSource() == itemEnergyDensity2DPanel) {
 				component = new EnergyDensity2DPanel(mainControlApplet.simulationAnimation);
+			} else if (event.getSource() == itemProjectedEnergyDensity2DPanel) {
+				component = new ProjectedEnergyDensity2DPanel(mainControlApplet.simulationAnimation);
 			} else if (event.getSource() == itemEnergyDensity2DGLPanel) {
 				component = new EnergyDensity2DGLPanel(mainControlApplet.simulationAnimation);
 			} else if (event.getSource() == itemEnergyDensity3DGLPanel) {
@@ -136,6 +136,11 @@ public class SimulationAnimation {
 	public void resetAnimation(Settings settings) {
 		// timer.restart();
 		timer.stop();
+		try {
+			s.closeDiagnostics();
+		} catch (IOException ex) {
+			Logger.getLogger(Particle2DPanel.class.getName()).log(Level.SEVERE, null, ex);
+		}
 		s = new Simulation(settings);
 		mainControlApplet.defaultLabeledGrid.grid = s.grid;
 		clear();
@@ -0,0 +1,44 @@
+package org.openpixi.pixi.ui.panel;
+
+import java.awt.Graphics;
+
+import javax.swing.Box;
+
+import org.openpixi.pixi.ui.SimulationAnimation;
+import org.openpixi.pixi.ui.util.raster.ProjectedEnergyDensityRenderer;
+import org.openpixi.pixi.ui.util.raster.Raster;
+
+/**
+ * Displays the energy density averaged along the directions which are not shown as heat map. The image is drawn by
+ * the {@link ProjectedEnergyDensityRenderer}, which is also used for screenshots in batch runs.
+ */
+public class ProjectedEnergyDensity2DPanel extends AnimationPanel {
+
+	public ProjectedEnergyDensityRenderer renderer;
+
+	private Raster raster;
+
+	/** Constructor */
+	public ProjectedEnergyDensity2DPanel(SimulationAnimation simulationAnimation) {
+		super(simulationAnimation);
+		renderer = new ProjectedEnergyDensityRenderer(simulationAnimation);
+	}
+
+	public void paintComponent(Graphics graph1) {
+		super.paintComponent(graph1);
+		if (getWidth() <= 0 || getHeight() <= 0) {
+			return;
+		}
+		if (raster == null || raster.getWidth() != getWidth() || raster.getHeight() != getHeight()) {
+			raster = new Raster(getWidth(), getHeight());
+		}
+		renderer.render(raster);
+		graph1.drawImage(raster.getImage(), 0, 0, null);
+	}
+
+	public void addPropertyComponents(Box box) {
+		addLabel(box, "Projected energy density 2D panel");
+		renderer.scaleProperties.addComponents(box);
+		renderer.showCoordinateProperties.addComponents(box);
+	}
+}
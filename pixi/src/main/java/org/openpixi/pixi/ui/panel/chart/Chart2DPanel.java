@@ -162,9 +162,10 @@ public class Chart2DPanel extends AnimationChart2DPanel {
 		// The values computed from fieldMeasurements already come in "physical units", i.e. the factor g*a is accounted for.
 		double[] esquares = new double[3];
 		double[] bsquares = new double[3];
+		fieldMeasurements.measure(s.grid, FieldMeasurements.ALL);
 		for (int i = 0; i < 3; i++) {
-			esquares[i] = fieldMeasurements.calculateEsquared(s.grid, i);
-			bsquares[i] = fieldMeasurements.calculateBsquared(s.grid, i);
+			esquares[i] = fieldMeasurements.getEsquared(i);
+			bsquares[i] = fieldMeasurements.getBsquared(i);
 		}
 
 		double eSquared = esquares[0] + esquares[1] + esquares[2];
@@ -175,9 +176,9 @@ public class Chart2DPanel extends AnimationChart2DPanel {
 		double energyDensity = (eSquared + bSquared) / 2;
 
 		// The value computed for the Gauss constraint violation and the total charge is given in physical units as well.
-		double gaussViolation = fieldMeasurements.calculateGaussConstraint(s.grid);
-		double totalCharge = fieldMeasurements.calculateTotalCharge(s.grid);
-		double totalChargeSquared = fieldMeasurements.calculateTotalChargeSquared(s.grid);
+		double gaussViolation = fieldMeasurements.getGaussConstraint();
+		double totalCharge = fieldMeasurements.getTotalCharge();
+		double totalChargeSquared = fieldMeasurements.getTotalChargeSquared();
 
 		traces[INDEX_E_SQUARED].addPoint(time, eSquared);
 		traces[INDEX_B_SQUARED].addPoint(time, bSquared);
@@ -29,6 +29,7 @@ import org.openpixi.pixi.ui.SimulationAnimation;
 import org.openpixi.pixi.ui.panel.properties.ComboBoxProperties;
 import org.openpixi.pixi.ui.panel.properties.CoordinateProperties;
 import org.openpixi.pixi.ui.panel.properties.ScaleProperties;
+import org.openpixi.pixi.ui.util.raster.EnergyDensity2DRenderer;
 
 
 /**
@@ -45,20 +46,7 @@ public class EnergyDensity2DGLPanel extends AnimationGLPanel {
 	public static final int INDEX_ENERGY_DENSITY_DERIVATIVE_DIV_POYNTING_CURRENT = 6;
 	public static final int INDEX_ENERGY_DENSITY_DERIVATIVE_B_ROT_E_MINUS_E_ROT_B_CURRENT = 7;
 
-	String[] dataLabel = new String[] {
-			"Energy density",
-			"dE/dt",
-			"div S",
-			"B rot E - E rot B",
-			"dE/dt + div S",
-			"j*E",
-			"dE/dt + div S + j*E",
-			"dE/dt + (B rot E - E rot B) + j*E"
-	};
-
-	public static final int RED = 0;
-	public static final int GREEN = 1;
-	public static final int BLUE = 2;
+	String[] dataLabel = EnergyDensity2DRenderer.DATA_LABEL;
 
 	public ComboBoxProperties dataProperties;
 	public ScaleProperties scaleProperties;
@@ -116,57 +104,11 @@ public class EnergyDensity2DGLPanel extends AnimationGLPanel {
 				pos[yAxisIndex] = k;
 				int index = s.grid.getCellIndex(pos);
 
-				double value = 0;
-				color[RED] = 0;
-				color[GREEN] = 0;
-				color[BLUE] = 0;
-				if(s.grid.isEvaluatable(index)) {
-					switch(dataIndex) {
-					case INDEX_ENERGY_DENSITY:
-						value = poyntingTheorem.getEnergyDensity(index);
-						break;
-					case INDEX_ENERGY_DENSITY_DERIVATIVE:
-						value = poyntingTheorem.getEnergyDensityDerivative(index);
-						break;
-					case INDEX_DIV_POYNTING:
-						value = poyntingTheorem.getDivPoyntingVector(index);
-						break;
-					case INDEX_B_ROT_E_MINUS_E_ROT_B:
-						value = poyntingTheorem.getBrotEminusErotB(index);
-						break;
-					case INDEX_ENERGY_DENSITY_DERIVATIVE_DIV_POYNTING:
-						value = poyntingTheorem.getEnergyDensityDerivative(index)
-							+ poyntingTheorem.getDivPoyntingVector(index);
-						break;
-					case INDEX_CURRENT_ELECTRIC_FIELD:
-						value = poyntingTheorem.getCurrentElectricField(index);
-						break;
-					case INDEX_ENERGY_DENSITY_DERIVATIVE_DIV_POYNTING_CURRENT:
-						value = poyntingTheorem.getEnergyDensityDerivative(index)
-							+ poyntingTheorem.getDivPoyntingVector(index)
-							+ poyntingTheorem.getCurrentElectricField(index);
-						break;
-					case INDEX_ENERGY_DENSITY_DERIVATIVE_B_ROT_E_MINUS_E_ROT_B_CURRENT:
-						value = poyntingTheorem.getEnergyDensityDerivative(index)
-							+ poyntingTheorem.getBrotEminusErotB(index)
-							+ poyntingTheorem.getCurrentElectricField(index);
-						break;
-					}
-					getColorFromEField(s, index, color);
-				}
-				// Normalize
-				double norm = Math.max(color[RED] + color[GREEN] + color[BLUE], 10E-20);
-				double limitedValue = Math.min(1, scale * Math.abs(value));
-
-				// Set color according to E-field, and brightness according
-				// to total energy density:
-				color[RED] = Math.sqrt(color[RED] / norm) * limitedValue;
-				color[GREEN] = Math.sqrt(color[GREEN] / norm) * limitedValue;
-				color[BLUE] = Math.sqrt(color[BLUE] / norm) * limitedValue;
-
+				double value = EnergyDensity2DRenderer.getColor(s, poyntingTheorem, dataIndex, index, scale, color);
 				scaleProperties.putValue(value);
 
-				gl2.glColor3d( color[RED], color[GREEN], color[BLUE] );
+				gl2.glColor3d( color[EnergyDensity2DRenderer.RED], color[EnergyDensity2DRenderer.GREEN],
+						color[EnergyDensity2DRenderer.BLUE] );
 				gl2.glVertex2f( xstart2, ystart2 );
 				gl2.glVertex2f( xstart3, ystart2 );
 			}
@@ -176,30 +118,6 @@ public class EnergyDensity2DGLPanel extends AnimationGLPanel {
 	}
 
 
-	private void getColorFromEField(Simulation s, int index,
-			double[] color) {
-		int colors = s.grid.getNumberOfColors();
-		for (int w = 0; w < s.getNumberOfDimensions(); w++) {
-			// get color:
-			double c;
-			for (int n = 0; n < colors * colors - 1; n++) {
-				c = s.grid.getE(index, w).get(n);
-				// cycle through colors if there are more than three
-				switch (n % 3) {
-					case 0:
-						color[RED] += c * c;
-						break;
-					case 1:
-						color[GREEN] += c * c;
-						break;
-					case 2:
-						color[BLUE] += c * c;
-						break;
-				}
-			}
-		}
-	}
-
 	public void addPropertyComponents(Box box) {
 		addLabel(box, "Energy density 2D (OpenGL) panel");
 		dataProperties.addComponents(box);
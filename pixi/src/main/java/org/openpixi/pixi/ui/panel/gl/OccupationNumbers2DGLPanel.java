@@ -20,10 +20,10 @@ package org.openpixi.pixi.ui.panel.gl;
 
 import org.openpixi.pixi.diagnostics.methods.OccupationNumbersInTime;
 import org.openpixi.pixi.physics.Simulation;
-import org.openpixi.pixi.physics.util.GridFunctions;
 import org.openpixi.pixi.ui.GridManager;
 import org.openpixi.pixi.ui.SimulationAnimation;
 import org.openpixi.pixi.ui.panel.properties.*;
+import org.openpixi.pixi.ui.util.raster.OccupationNumbers2DRenderer;
 
 import javax.media.opengl.GL;
 import javax.media.opengl.GL2;
@@ -167,6 +167,8 @@ public class OccupationNumbers2DGLPanel extends AnimationGLPanel {
 		/** Scaling factor for the displayed panel in y-direction*/
 		double sy = height / s.getSimulationBoxSize(yAxisIndex);
 
+		boolean colorful = colorfulProperties.getValue();
+		double[] color = new double[3];
 		for(int i = 0; i < xAxisNumCells; i++) {
 			gl2.glBegin( GL2.GL_QUAD_STRIP );
 			for(int k = 0; k < yAxisNumCells; k++)
@@ -178,42 +180,17 @@ public class OccupationNumbers2DGLPanel extends AnimationGLPanel {
 
 				pos[xAxisIndex] = i;
 				pos[yAxisIndex] = k;
-				int index = this.getMomentumIndex(pos);
+				int index = OccupationNumbers2DRenderer.getMomentumIndex(pos, s.grid.getNumCells());
 
-				if(colorfulProperties.getValue())
-				{
-					double red = diagnostic.occupationNumbers[index][0];
-					double green = diagnostic.occupationNumbers[index][1];
-					double blue = diagnostic.occupationNumbers[index][2];
-					double norm = red + green + blue;
-					double value = Math.min(1.0, scale * norm);
-
-					red = Math.sqrt(red / norm) * value;
-					green = Math.sqrt(green / norm) * value;
-					blue = Math.sqrt(blue / norm) * value;
-
-					scaleProperties.putValue(norm);
-
-					gl2.glColor3d( red, green, blue );
-					gl2.glVertex2f( xstart2, ystart2 );
-					gl2.glVertex2f( xstart3, ystart2 );
-					gl2.glVertex2f( xstart2, ystart3 );
-					gl2.glVertex2f( xstart3, ystart3 );
-				} else {
-					double occ = diagnostic.occupationNumbers[index][0]
-							+ diagnostic.occupationNumbers[index][1]
-							+ diagnostic.occupationNumbers[index][2];
-					double value = Math.min(1.0, scale * occ);
-
-					scaleProperties.putValue(occ);
-
-					gl2.glColor3d( value, value, value );
-					gl2.glVertex2f( xstart2, ystart2 );
-					gl2.glVertex2f( xstart3, ystart2 );
-					gl2.glVertex2f( xstart2, ystart3 );
-					gl2.glVertex2f( xstart3, ystart3 );
-				}
+				double value = OccupationNumbers2DRenderer.getColor(diagnostic.occupationNumbers[index],
+						colorful, scale, color);
+				scaleProperties.putValue(value);
 
+				gl2.glColor3d( color[0], color[1], color[2] );
+				gl2.glVertex2f( xstart2, ystart2 );
+				gl2.glVertex2f( xstart3, ystart2 );
+				gl2.glVertex2f( xstart2, ystart3 );
+				gl2.glVertex2f( xstart3, ystart3 );
 			}
 			gl2.glEnd();
 		}
@@ -235,25 +212,10 @@ public class OccupationNumbers2DGLPanel extends AnimationGLPanel {
 		diagnostic = new OccupationNumbersInTime(1.0, "none", "", true,
 				useMirroredGrid, mirrorDirection,
 				useCone, collisionTime, collisionPosition, coneVelocity, useGaussianWindow, useTukeyWindow, tukeyWidth);
+		diagnostic.storeIntermediateGrids = true;
 		diagnostic.initialize(simulation);
 	}
 
-	private int getMomentumIndex(int[] pos)
-	{
-		int[] numGridCells = simulation.grid.getNumCells().clone();
-		int[] pos2 = new int[pos.length];
-		System.arraycopy(pos, 0, pos2, 0, pos.length);
-
-		for(int i = 0; i < pos.length; i++)
-		{
-			pos2[i] += numGridCells[i] / 2;
-			pos2[i] %= numGridCells[i];
-			pos2[i] = numGridCells[i] - pos2[i];
-		}
-
-		return GridFunctions.getCellIndex(pos2, numGridCells);
-	}
-
 	public void addPropertyComponents(Box box) {
 		addLabel(box, "Occupation numbers 2D (OpenGL) panel");
 		scaleProperties.addComponents(box);
@@ -0,0 +1,100 @@
+package org.openpixi.pixi.ui.util.raster;
+
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.ui.SimulationAnimation;
+import org.openpixi.pixi.ui.panel.EnergyDensity1DPanel;
+import org.openpixi.pixi.ui.panel.properties.ScaleProperties;
+
+/**
+ * Software renderer of the {@link EnergyDensity1DPanel}. E^2 (black), B^2 (green) and the total energy density (red)
+ * are drawn along the x-direction for every grid position along the y-direction.
+ */
+public class EnergyDensity1DRenderer implements RasterRenderer {
+
+	private static final int WHITE = 0xFFFFFF;
+	private static final int BLACK = 0x000000;
+	private static final int GREEN = 0x00FF00;
+	private static final int RED = 0xFF0000;
+
+	public ScaleProperties scaleProperties;
+
+	private SimulationAnimation simulationAnimation;
+
+	public EnergyDensity1DRenderer(SimulationAnimation simulationAnimation) {
+		this.simulationAnimation = simulationAnimation;
+		scaleProperties = new ScaleProperties(simulationAnimation);
+	}
+
+	public void render(Raster raster) {
+		raster.clear(WHITE);
+
+		Simulation s = simulationAnimation.getSimulation();
+		/** Scaling factor for the displayed panel in x-direction*/
+		double sx = raster.getWidth() / s.getWidth();
+		double panelHeight = raster.getHeight();
+
+		// Lattice spacing and coupling constant
+		double as = s.grid.getLatticeSpacing();
+		double g = s.getCouplingConstant();
+		double unitFactor = 1.0 / (as * g * as * g);
+
+		double scale = scaleProperties.getScale();
+		scaleProperties.resetAutomaticScale();
+
+		int[] pos = new int[s.getNumberOfDimensions()];
+		for(int w = 2; w < s.getNumberOfDimensions(); w++) {
+			pos[w] = s.grid.getNumCells(w)/2;
+		}
+
+		int numCellsX = s.grid.getNumCells(0);
+		int numCellsY = s.grid.getNumCells(1);
+		double[][] eSquared = new double[numCellsY][numCellsX];
+		double[][] bSquared = new double[numCellsY][numCellsX];
+		double[][] total = new double[numCellsY][numCellsX];
+		for(int k = 0; k < numCellsY; k++) {
+			for(int i = 0; i < numCellsX; i++) {
+				pos[0] = i;
+				pos[1] = k;
+				int index = s.grid.getCellIndex(pos);
+				double e = 0.0;
+				double b = 0.0;
+				for (int w = 0; w < s.getNumberOfDimensions(); w++) {
+					e += s.grid.getEsquaredFromLinks(index, w);
+					// Time averaging for B field.
+					b += 0.5 * (s.grid.getBsquaredFromLinks(index, w, 0) + s.grid.getBsquaredFromLinks(index, w, 1));
+				}
+				eSquared[k][i] = s.grid.isEvaluatable(index) ? e * unitFactor / 2 : 0.0;
+				bSquared[k][i] = b * unitFactor / 2;
+				total[k][i] = (e + b) * unitFactor / 2;
+				scaleProperties.putValue(eSquared[k][i]);
+				scaleProperties.putValue(bSquared[k][i]);
+				scaleProperties.putValue(total[k][i]);
+			}
+		}
+
+		// Same order as in the panel: the total energy density is drawn on top.
+		for(int k = 0; k < numCellsY; k++) {
+			drawCurve(raster, eSquared[k], sx * as, scale * panelHeight, BLACK);
+		}
+		for(int k = 0; k < numCellsY; k++) {
+			drawCurve(raster, bSquared[k], sx * as, scale * panelHeight, GREEN);
+		}
+		for(int k = 0; k < numCellsY; k++) {
+			drawCurve(raster, total[k], sx * as, scale * panelHeight, RED);
+		}
+
+		scaleProperties.calculateAutomaticScale(0.5);
+	}
+
+	private void drawCurve(Raster raster, double[] values, double dx, double sy, int color) {
+		int oldPosition = 0;
+		int oldValue = (int) (values[0] * sy);
+		for (int i = 1; i < values.length; i++) {
+			int newPosition = (int) (dx * i);
+			int newValue = (int) (values[i] * sy);
+			raster.drawLine(oldPosition, oldValue, newPosition, newValue, color);
+			oldPosition = newPosition;
+			oldValue = newValue;
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package org.openpixi.pixi.ui.util.raster;
+
+import org.openpixi.pixi.diagnostics.methods.PoyntingTheoremBuffer;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.ui.SimulationAnimation;
+import org.openpixi.pixi.ui.panel.gl.EnergyDensity2DGLPanel;
+import org.openpixi.pixi.ui.panel.properties.ComboBoxProperties;
+import org.openpixi.pixi.ui.panel.properties.CoordinateProperties;
+import org.openpixi.pixi.ui.panel.properties.ScaleProperties;
+
+/**
+ * Software renderer of the {@link EnergyDensity2DGLPanel}. The image is the same as the one drawn by OpenGL: every
+ * column of cells is a strip whose color is interpolated between the lattice sites.
+ */
+public class EnergyDensity2DRenderer implements RasterRenderer {
+
+	public static final int RED = 0;
+	public static final int GREEN = 1;
+	public static final int BLUE = 2;
+
+	/**
+	 * Labels of the displayed quantities, see EnergyDensity2DGLPanel.INDEX_ENERGY_DENSITY etc.
+	 */
+	public static final String[] DATA_LABEL = new String[] {
+			"Energy density",
+			"dE/dt",
+			"div S",
+			"B rot E - E rot B",
+			"dE/dt + div S",
+			"j*E",
+			"dE/dt + div S + j*E",
+			"dE/dt + (B rot E - E rot B) + j*E"
+	};
+
+	public ComboBoxProperties dataProperties;
+	public ScaleProperties scaleProperties;
+	public CoordinateProperties showCoordinateProperties;
+
+	private SimulationAnimation simulationAnimation;
+	private int[] rowColors;
+
+	public EnergyDensity2DRenderer(SimulationAnimation simulationAnimation) {
+		this.simulationAnimation = simulationAnimation;
+		dataProperties = new ComboBoxProperties(simulationAnimation, "Data", DATA_LABEL, 0);
+		scaleProperties = new ScaleProperties(simulationAnimation);
+		scaleProperties.setAutomaticScaling(true);
+		showCoordinateProperties = new CoordinateProperties(simulationAnimation, CoordinateProperties.Mode.MODE_2D);
+	}
+
+	public void render(Raster raster) {
+		int width = raster.getWidth();
+		int height = raster.getHeight();
+		raster.clear(0);
+
+		double scale = scaleProperties.getScale();
+		scaleProperties.resetAutomaticScale();
+		Simulation s = simulationAnimation.getSimulation();
+		PoyntingTheoremBuffer poyntingTheorem = PoyntingTheoremBuffer.getOrAppendInstance(s);
+
+		int xAxisIndex = showCoordinateProperties.getXAxisIndex();
+		int yAxisIndex = showCoordinateProperties.getYAxisIndex();
+		int pos[] = showCoordinateProperties.getPositions();
+		int xAxisNumCells = s.grid.getNumCells(xAxisIndex);
+		int yAxisNumCells = s.grid.getNumCells(yAxisIndex);
+
+		/** Scaling factor for the displayed panel in x-direction*/
+		double sx = width / s.getSimulationBoxSize(xAxisIndex);
+		/** Scaling factor for the displayed panel in y-direction*/
+		double sy = height / s.getSimulationBoxSize(yAxisIndex);
+
+		if (rowColors == null || rowColors.length != yAxisNumCells) {
+			rowColors = new int[yAxisNumCells];
+		}
+		double[] color = new double[3];
+		int dataIndex = dataProperties.getIndex();
+
+		for (int i = 0; i < xAxisNumCells; i++) {
+			for (int k = 0; k < yAxisNumCells; k++) {
+				pos[xAxisIndex] = i;
+				pos[yAxisIndex] = k;
+				int index = s.grid.getCellIndex(pos);
+				double value = getColor(s, poyntingTheorem, dataIndex, index, scale, color);
+				scaleProperties.putValue(value);
+				rowColors[k] = Raster.getColor(color[RED], color[GREEN], color[BLUE]);
+			}
+
+			// Same vertex positions as the quad strip of the OpenGL panel
+			int xstart2 = (int) Math.round(s.grid.getLatticeSpacing(xAxisIndex) * i * sx);
+			int xstart3 = (int) Math.round(s.grid.getLatticeSpacing(xAxisIndex) * (i + 1) * sx);
+			for (int k = 0; k < yAxisNumCells - 1; k++) {
+				int ystart2 = (int) Math.round(s.grid.getLatticeSpacing(yAxisIndex) * k * sy);
+				int ystart3 = (int) Math.round(s.grid.getLatticeSpacing(yAxisIndex) * (k + 1) * sy);
+				raster.fillVerticalGradient(xstart2, ystart2, xstart3, ystart3, rowColors[k], rowColors[k + 1]);
+			}
+		}
+		scaleProperties.calculateAutomaticScale(1.0);
+	}
+
+	/**
+	 * Computes the displayed quantity and the color of a cell. The hue is given by the color components of the
+	 * electric field and the brightness by the displayed quantity.
+	 *
+	 * @param s                 Simulation
+	 * @param poyntingTheorem   Buffer with the terms of the Poynting theorem
+	 * @param dataIndex         Displayed quantity, see EnergyDensity2DGLPanel.INDEX_ENERGY_DENSITY etc.
+	 * @param index             Lattice index
+	 * @param scale             Scale factor of the displayed quantity
+	 * @param color             Returns the red, green and blue components between 0 and 1
+	 * @return                  Displayed quantity (without scale factor)
+	 */
+	public static double getColor(Simulation s, PoyntingTheoremBuffer poyntingTheorem, int dataIndex, int index,
+								  double scale, double[] color) {
+		double value = 0;
+		color[RED] = 0;
+		color[GREEN] = 0;
+		color[BLUE] = 0;
+		if(s.grid.isEvaluatable(index)) {
+			switch(dataIndex) {
+			case EnergyDensity2DGLPanel.INDEX_ENERGY_DENSITY:
+				value = poyntingTheorem.getEnergyDensity(index);
+				break;
+			case EnergyDensity2DGLPanel.INDEX_ENERGY_DENSITY_DERIVATIVE:
+				value = poyntingTheorem.getEnergyDensityDerivative(index);
+				break;
+			case EnergyDensity2DGLPanel.INDEX_DIV_POYNTING:
+				value = poyntingTheorem.getDivPoyntingVector(index);
+				break;
+			case EnergyDensity2DGLPanel.INDEX_B_ROT_E_MINUS_E_ROT_B:
+				value = poyntingTheorem.getBrotEminusErotB(index);
+				break;
+			case EnergyDensity2DGLPanel.INDEX_ENERGY_DENSITY_DERIVATIVE_DIV_POYNTING:
+				value = poyntingTheorem.getEnergyDensityDerivative(index)
+					+ poyntingTheorem.getDivPoyntingVector(index);
+				break;
+			case EnergyDensity2DGLPanel.INDEX_CURRENT_ELECTRIC_FIELD:
+				value = poyntingTheorem.getCurrentElectricField(index);
+				break;
+			case EnergyDensity2DGLPanel.INDEX_ENERGY_DENSITY_DERIVATIVE_DIV_POYNTING_CURRENT:
+				value = poyntingTheorem.getEnergyDensityDerivative(index)
+					+ poyntingTheorem.getDivPoyntingVector(index)
+					+ poyntingTheorem.getCurrentElectricField(index);
+				break;
+			case EnergyDensity2DGLPanel.INDEX_ENERGY_DENSITY_DERIVATIVE_B_ROT_E_MINUS_E_ROT_B_CURRENT:
+				value = poyntingTheorem.getEnergyDensityDerivative(index)
+					+ poyntingTheorem.getBrotEminusErotB(index)
+					+ poyntingTheorem.getCurrentElectricField(index);
+				break;
+			}
+			getColorFromEField(s, index, color);
+		}
+		// Normalize
+		double norm = Math.max(color[RED] + color[GREEN] + color[BLUE], 10E-20);
+		double limitedValue = Math.min(1, scale * Math.abs(value));
+
+		// Set color according to E-field, and brightness according
+		// to total energy density:
+		color[RED] = Math.sqrt(color[RED] / norm) * limitedValue;
+		color[GREEN] = Math.sqrt(color[GREEN] / norm) * limitedValue;
+		color[BLUE] = Math.sqrt(color[BLUE] / norm) * limitedValue;
+		return value;
+	}
+
+	private static void getColorFromEField(Simulation s, int index, double[] color) {
+		int colors = s.grid.getNumberOfColors();
+		for (int w = 0; w < s.getNumberOfDimensions(); w++) {
+			// get color:
+			double c;
+			for (int n = 0; n < colors * colors - 1; n++) {
+				c = s.grid.getE(index, w).get(n);
+				// cycle through colors if there are more than three
+				switch (n % 3) {
+					case 0:
+						color[RED] += c * c;
+						break;
+					case 1:
+						color[GREEN] += c * c;
+						break;
+					case 2:
+						color[BLUE] += c * c;
+						break;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package org.openpixi.pixi.ui.util.raster;
+
+import org.openpixi.pixi.diagnostics.methods.OccupationNumbersInTime;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.util.GridFunctions;
+import org.openpixi.pixi.ui.SimulationAnimation;
+import org.openpixi.pixi.ui.panel.gl.OccupationNumbers2DGLPanel;
+import org.openpixi.pixi.ui.panel.properties.BooleanProperties;
+import org.openpixi.pixi.ui.panel.properties.CoordinateProperties;
+import org.openpixi.pixi.ui.panel.properties.DoubleProperties;
+import org.openpixi.pixi.ui.panel.properties.ScaleProperties;
+
+/**
+ * Software renderer of the {@link OccupationNumbers2DGLPanel}. The occupation numbers are recomputed for every frame.
+ */
+public class OccupationNumbers2DRenderer implements RasterRenderer {
+
+	public ScaleProperties scaleProperties;
+	public BooleanProperties colorfulProperties;
+	public BooleanProperties mirrorProperties;
+	public CoordinateProperties showCoordinateProperties;
+
+	public BooleanProperties useConeProperties;
+	public DoubleProperties collisionTimeDoubleProperties;
+	public CoordinateProperties collisionCoordinateProperties;
+	public CoordinateProperties velocityCoordinateProperties;
+	public BooleanProperties useGaussianWindowProperties;
+	public BooleanProperties useTukeyWindowProperties;
+	public DoubleProperties tukeyWidthProperties;
+
+	private SimulationAnimation simulationAnimation;
+	private OccupationNumbersInTime diagnostic;
+	private Simulation simulation;
+	private int mirrorDirection = 0;
+
+	public OccupationNumbers2DRenderer(SimulationAnimation simulationAnimation) {
+		this.simulationAnimation = simulationAnimation;
+		scaleProperties = new ScaleProperties(simulationAnimation);
+		scaleProperties.setAutomaticScaling(true);
+		colorfulProperties = new BooleanProperties(simulationAnimation, "Colorful occupation numbers", true);
+		mirrorProperties = new BooleanProperties(simulationAnimation, "Mirror x-direction", true);
+		showCoordinateProperties = new CoordinateProperties(simulationAnimation, CoordinateProperties.Mode.MODE_2D);
+		useConeProperties = new BooleanProperties(simulationAnimation, "Use cone restriction:", false);
+		collisionTimeDoubleProperties = new DoubleProperties(simulationAnimation, "Collision time:", 0.);
+		collisionCoordinateProperties = new CoordinateProperties(simulationAnimation, "Collision center:", "0, 0, 0");
+		velocityCoordinateProperties = new CoordinateProperties(simulationAnimation, "Cut cone velocity:", "0., 0., 0.");
+		useGaussianWindowProperties = new BooleanProperties(simulationAnimation, "Gaussian window", false);
+		useTukeyWindowProperties = new BooleanProperties(simulationAnimation, "Tukey window", false);
+		tukeyWidthProperties = new DoubleProperties(simulationAnimation, "Tukey width", 0.);
+	}
+
+	public void render(Raster raster) {
+		// The diagnostic is created at the first frame when all properties are set.
+		if (diagnostic == null || simulation != simulationAnimation.getSimulation()) {
+			simulation = simulationAnimation.getSimulation();
+			diagnostic = new OccupationNumbersInTime(1.0, "none", "", true,
+					mirrorProperties.getValue(), mirrorDirection,
+					useConeProperties.getValue(), collisionTimeDoubleProperties.getValue(),
+					collisionCoordinateProperties.getDoublePositions(),
+					velocityCoordinateProperties.getDoublePositions(),
+					useGaussianWindowProperties.getValue(), useTukeyWindowProperties.getValue(),
+					tukeyWidthProperties.getValue());
+			diagnostic.initialize(simulation);
+		}
+		diagnostic.calculate(simulation.grid, simulation.particles, 0);
+
+		int width = raster.getWidth();
+		int height = raster.getHeight();
+		raster.clear(0);
+
+		double scale = scaleProperties.getScale();
+		scaleProperties.resetAutomaticScale();
+		Simulation s = simulation;
+
+		int xAxisIndex = showCoordinateProperties.getXAxisIndex();
+		int yAxisIndex = showCoordinateProperties.getYAxisIndex();
+		int pos[] = showCoordinateProperties.getPositions();
+
+		int xAxisNumCells = s.grid.getNumCells(xAxisIndex);
+		int yAxisNumCells = s.grid.getNumCells(yAxisIndex);
+
+		/** Scaling factor for the displayed panel in x-direction*/
+		double sx = width / s.getSimulationBoxSize(xAxisIndex);
+		/** Scaling factor for the displayed panel in y-direction*/
+		double sy = height / s.getSimulationBoxSize(yAxisIndex);
+
+		boolean colorful = colorfulProperties.getValue();
+		double[] color = new double[3];
+		for (int i = 0; i < xAxisNumCells; i++) {
+			for (int k = 0; k < yAxisNumCells; k++) {
+				int xstart2 = (int) (s.grid.getLatticeSpacing() * i * sx);
+				int xstart3 = (int) (s.grid.getLatticeSpacing() * (i + 1) * sx);
+				int ystart2 = (int) (s.grid.getLatticeSpacing() * k * sy);
+				int ystart3 = (int) (s.grid.getLatticeSpacing() * (k + 1) * sy);
+
+				pos[xAxisIndex] = i;
+				pos[yAxisIndex] = k;
+				int index = getMomentumIndex(pos, s.grid.getNumCells());
+
+				double value = getColor(diagnostic.occupationNumbers[index], colorful, scale, color);
+				scaleProperties.putValue(value);
+				raster.fillRect(xstart2, ystart2, xstart3, ystart3, Raster.getColor(color[0], color[1], color[2]));
+			}
+		}
+
+		scaleProperties.calculateAutomaticScale(1.0);
+	}
+
+	/**
+	 * Computes the color of a lattice momentum. The colorful display shows the contributions of the three directions
+	 * in red, green and blue, otherwise the total occupation number is shown in grey.
+	 *
+	 * @param occupationNumbers Occupation numbers of the three directions
+	 * @param colorful          Whether to use the colorful display
+	 * @param scale             Scale factor
+	 * @param color             Returns the red, green and blue components between 0 and 1
+	 * @return                  Total occupation number (without scale factor)
+	 */
+	public static double getColor(double[] occupationNumbers, boolean colorful, double scale, double[] color) {
+		double red = occupationNumbers[0];
+		double green = occupationNumbers[1];
+		double blue = occupationNumbers[2];
+		double norm = red + green + blue;
+		double value = Math.min(1.0, scale * norm);
+		if (colorful) {
+			color[0] = Math.sqrt(red / norm) * value;
+			color[1] = Math.sqrt(green / norm) * value;
+			color[2] = Math.sqrt(blue / norm) * value;
+		} else {
+			color[0] = value;
+			color[1] = value;
+			color[2] = value;
+		}
+		return norm;
+	}
+
+	/**
+	 * Returns the index of the lattice momentum displayed at a position. The zero mode is shifted to the center.
+	 *
+	 * @param pos           Position on the display
+	 * @param numGridCells  Grid size
+	 * @return              Index of the lattice momentum
+	 */
+	public static int getMomentumIndex(int[] pos, int[] numGridCells) {
+		int[] pos2 = new int[pos.length];
+		System.arraycopy(pos, 0, pos2, 0, pos.length);
+
+		for(int i = 0; i < pos.length; i++)
+		{
+			pos2[i] += numGridCells[i] / 2;
+			pos2[i] %= numGridCells[i];
+			pos2[i] = numGridCells[i] - pos2[i];
+		}
+
+		return GridFunctions.getCellIndex(pos2, numGridCells);
+	}
+}
@@ -0,0 +1,104 @@
+package org.openpixi.pixi.ui.util.raster;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Encodes frames as PNG files on a background thread.
+ * <p>
+ * The writer owns a small pool of rasters. A raster is taken with {@link #acquire()}, drawn and handed back with
+ * {@link #write(Raster, File)}. It returns to the pool once it has been encoded, so the simulation only waits for the
+ * encoder if all rasters of the pool are still queued.
+ */
+public class PngFrameWriter {
+
+	private final BlockingQueue<Raster> freeRasters;
+	private final ExecutorService executor;
+	private volatile IOException error;
+
+	/**
+	 * @param width             Width of the frames
+	 * @param height            Height of the frames
+	 * @param numberOfRasters   Number of frames which can be drawn or queued at the same time
+	 */
+	public PngFrameWriter(int width, int height, int numberOfRasters) {
+		freeRasters = new ArrayBlockingQueue<Raster>(numberOfRasters);
+		for (int i = 0; i < numberOfRasters; i++) {
+			freeRasters.add(new Raster(width, height));
+		}
+		executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "PngFrameWriter");
+				// Frames which are still queued must not keep the JVM alive.
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Takes a raster from the pool. Waits if all rasters are queued for encoding.
+	 *
+	 * @return  Raster with undefined content
+	 * @throws IOException  if encoding of a previous frame failed
+	 */
+	public Raster acquire() throws IOException {
+		checkError();
+		try {
+			return freeRasters.take();
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Queues a raster for encoding. The raster must not be used anymore by the caller.
+	 *
+	 * @param raster    Raster obtained from {@link #acquire()}
+	 * @param file      Output file
+	 */
+	public void write(final Raster raster, final File file) {
+		executor.execute(new Runnable() {
+			public void run() {
+				try {
+					if (error == null) {
+						ImageIO.write(raster.getImage(), "png", file);
+					}
+				} catch (IOException e) {
+					error = e;
+				} finally {
+					freeRasters.add(raster);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Waits until all queued frames are written and stops the background thread.
+	 *
+	 * @throws IOException  if encoding of a frame failed
+	 */
+	public void close() throws IOException {
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+		checkError();
+	}
+
+	private void checkError() throws IOException {
+		if (error != null) {
+			throw error;
+		}
+	}
+}
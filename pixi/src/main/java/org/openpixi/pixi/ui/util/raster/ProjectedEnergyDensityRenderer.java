@@ -0,0 +1,102 @@
+package org.openpixi.pixi.ui.util.raster;
+
+import java.util.Arrays;
+
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.ui.SimulationAnimation;
+import org.openpixi.pixi.ui.panel.properties.CoordinateProperties;
+import org.openpixi.pixi.ui.panel.properties.ScaleProperties;
+
+/**
+ * Heat map of the energy density averaged along the directions which are not displayed. The remaining coordinates of
+ * showCoordinateProperties are ignored.
+ */
+public class ProjectedEnergyDensityRenderer implements RasterRenderer {
+
+	public ScaleProperties scaleProperties;
+	public CoordinateProperties showCoordinateProperties;
+
+	private SimulationAnimation simulationAnimation;
+	private double[] projectedEnergyDensity;
+
+	public ProjectedEnergyDensityRenderer(SimulationAnimation simulationAnimation) {
+		this.simulationAnimation = simulationAnimation;
+		scaleProperties = new ScaleProperties(simulationAnimation);
+		scaleProperties.setAutomaticScaling(true);
+		showCoordinateProperties = new CoordinateProperties(simulationAnimation, CoordinateProperties.Mode.MODE_2D);
+	}
+
+	public void render(Raster raster) {
+		raster.clear(0);
+
+		scaleProperties.resetAutomaticScale();
+		Simulation s = simulationAnimation.getSimulation();
+
+		int xAxisIndex = showCoordinateProperties.getXAxisIndex();
+		int yAxisIndex = showCoordinateProperties.getYAxisIndex();
+		int xAxisNumCells = s.grid.getNumCells(xAxisIndex);
+		int yAxisNumCells = s.grid.getNumCells(yAxisIndex);
+		int totalNumberOfCells = s.grid.getTotalNumberOfCells();
+		int numberOfDimensions = s.getNumberOfDimensions();
+
+		// Lattice spacing and coupling constant
+		double as = s.grid.getLatticeSpacing();
+		double g = s.getCouplingConstant();
+		double unitFactor = 1.0 / (as * g * as * g);
+
+		// Sum up the energy density in a single sweep over the lattice.
+		if (projectedEnergyDensity == null || projectedEnergyDensity.length != xAxisNumCells * yAxisNumCells) {
+			projectedEnergyDensity = new double[xAxisNumCells * yAxisNumCells];
+		}
+		Arrays.fill(projectedEnergyDensity, 0.0);
+		for (int index = 0; index < totalNumberOfCells; index++) {
+			if (!s.grid.isEvaluatable(index)) {
+				continue;
+			}
+			double energyDensity = 0.0;
+			for (int w = 0; w < numberOfDimensions; w++) {
+				energyDensity += (0.5 * (s.grid.getBsquaredFromLinks(index, w, 0)
+						+ s.grid.getBsquaredFromLinks(index, w, 1)) + s.grid.getEsquaredFromLinks(index, w))
+						* unitFactor / 2;
+			}
+			int[] pos = s.grid.getCellPos(index);
+			projectedEnergyDensity[pos[xAxisIndex] * yAxisNumCells + pos[yAxisIndex]] += energyDensity;
+		}
+		double projectedCells = (double) totalNumberOfCells / (xAxisNumCells * yAxisNumCells);
+		for (int i = 0; i < projectedEnergyDensity.length; i++) {
+			projectedEnergyDensity[i] /= projectedCells;
+			scaleProperties.putValue(projectedEnergyDensity[i]);
+		}
+
+		// All values are known before drawing, so the automatic scale of the current frame can be used.
+		scaleProperties.calculateAutomaticScale(1.0);
+		double scale = scaleProperties.getScale();
+
+		/** Scaling factor for the displayed panel in x-direction*/
+		double sx = raster.getWidth() / s.getSimulationBoxSize(xAxisIndex);
+		/** Scaling factor for the displayed panel in y-direction*/
+		double sy = raster.getHeight() / s.getSimulationBoxSize(yAxisIndex);
+
+		for (int i = 0; i < xAxisNumCells; i++) {
+			int xstart2 = (int) Math.round(s.grid.getLatticeSpacing(xAxisIndex) * i * sx);
+			int xstart3 = (int) Math.round(s.grid.getLatticeSpacing(xAxisIndex) * (i + 1) * sx);
+			for (int k = 0; k < yAxisNumCells; k++) {
+				int ystart2 = (int) Math.round(s.grid.getLatticeSpacing(yAxisIndex) * k * sy);
+				int ystart3 = (int) Math.round(s.grid.getLatticeSpacing(yAxisIndex) * (k + 1) * sy);
+				double value = projectedEnergyDensity[i * yAxisNumCells + k];
+				raster.fillRect(xstart2, ystart2, xstart3, ystart3, getHeatColor(scale * value));
+			}
+		}
+	}
+
+	/**
+	 * Black-red-yellow-white color map.
+	 *
+	 * @param value Value between 0 and 1 (values outside are clamped)
+	 * @return      Packed color
+	 */
+	public static int getHeatColor(double value) {
+		double t = 3 * Math.max(0.0, Math.min(1.0, value));
+		return Raster.getColor(t, t - 1, t - 2);
+	}
+}
@@ -0,0 +1,135 @@
+package org.openpixi.pixi.ui.util.raster;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * An RGB image which is drawn by writing directly into its pixel array. No display, window system or OpenGL context
+ * is required, so it can be used in batch runs on headless machines.
+ * <p>
+ * As in the OpenGL panels, the origin of the coordinate system is the lower left corner of the image and y increases
+ * upwards. Colors are packed as 0xRRGGBB.
+ */
+public class Raster {
+
+	private final int width;
+	private final int height;
+	private final BufferedImage image;
+	private final int[] pixels;
+
+	public Raster(int width, int height) {
+		this.width = width;
+		this.height = height;
+		image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns the image which shares its pixels with this raster.
+	 */
+	public BufferedImage getImage() {
+		return image;
+	}
+
+	/**
+	 * Packs a color with components between 0 and 1 (values outside are clamped).
+	 */
+	public static int getColor(double red, double green, double blue) {
+		return (getComponent(red) << 16) | (getComponent(green) << 8) | getComponent(blue);
+	}
+
+	private static int getComponent(double value) {
+		int c = (int) (value * 255 + 0.5);
+		return (c < 0) ? 0 : ((c > 255) ? 255 : c);
+	}
+
+	public void clear(int color) {
+		Arrays.fill(pixels, color);
+	}
+
+	public void setPixel(int x, int y, int color) {
+		if (x >= 0 && x < width && y >= 0 && y < height) {
+			pixels[(height - 1 - y) * width + x] = color;
+		}
+	}
+
+	/**
+	 * Fills the pixels x0 &lt;= x &lt; x1 and y0 &lt;= y &lt; y1 with a single color.
+	 */
+	public void fillRect(int x0, int y0, int x1, int y1, int color) {
+		x0 = Math.max(x0, 0);
+		x1 = Math.min(x1, width);
+		y0 = Math.max(y0, 0);
+		y1 = Math.min(y1, height);
+		for (int y = y0; y < y1; y++) {
+			int offset = (height - 1 - y) * width;
+			Arrays.fill(pixels, offset + x0, offset + x1, color);
+		}
+	}
+
+	/**
+	 * Fills the pixels x0 &lt;= x &lt; x1 and y0 &lt;= y &lt; y1 with colors which are interpolated linearly between
+	 * color0 at y0 and color1 at y1. This is what OpenGL draws for a quad with smooth shading whose lower vertices
+	 * have color0 and whose upper vertices have color1.
+	 */
+	public void fillVerticalGradient(int x0, int y0, int x1, int y1, int color0, int color1) {
+		if (y1 <= y0) {
+			return;
+		}
+		int yStart = Math.max(y0, 0);
+		int yEnd = Math.min(y1, height);
+		x0 = Math.max(x0, 0);
+		x1 = Math.min(x1, width);
+		for (int y = yStart; y < yEnd; y++) {
+			// Interpolate at the pixel center
+			double t = (y + 0.5 - y0) / (y1 - y0);
+			int offset = (height - 1 - y) * width;
+			Arrays.fill(pixels, offset + x0, offset + x1, interpolate(color0, color1, t));
+		}
+	}
+
+	private static int interpolate(int color0, int color1, double t) {
+		int color = 0;
+		for (int shift = 0; shift <= 16; shift += 8) {
+			int c0 = (color0 >> shift) & 0xFF;
+			int c1 = (color1 >> shift) & 0xFF;
+			color |= ((int) (c0 + t * (c1 - c0) + 0.5)) << shift;
+		}
+		return color;
+	}
+
+	/**
+	 * Draws a line between two points with the Bresenham algorithm. Pixels outside of the raster are skipped.
+	 */
+	public void drawLine(int x0, int y0, int x1, int y1, int color) {
+		int dx = Math.abs(x1 - x0);
+		int dy = -Math.abs(y1 - y0);
+		int sx = (x0 < x1) ? 1 : -1;
+		int sy = (y0 < y1) ? 1 : -1;
+		int error = dx + dy;
+		while (true) {
+			setPixel(x0, y0, color);
+			if (x0 == x1 && y0 == y1) {
+				break;
+			}
+			int e2 = 2 * error;
+			if (e2 >= dy) {
+				error += dy;
+				x0 += sx;
+			}
+			if (e2 <= dx) {
+				error += dx;
+				y0 += sy;
+			}
+		}
+	}
+}
@@ -0,0 +1,14 @@
+package org.openpixi.pixi.ui.util.raster;
+
+/**
+ * Software renderer of a panel which draws into a {@link Raster} instead of a Swing or OpenGL surface.
+ */
+public interface RasterRenderer {
+
+	/**
+	 * Draws the current state of the simulation. Every pixel of the raster is overwritten.
+	 *
+	 * @param raster    Raster to draw into
+	 */
+	void render(Raster raster);
+}
@@ -0,0 +1,101 @@
+package org.openpixi.pixi.ui.util.yaml;
+
+import java.util.HashMap;
+import java.util.List;
+
+import org.openpixi.pixi.parallel.cellaccess.CellIteratorType;
+import org.openpixi.pixi.physics.Settings;
+
+/**
+ * Work distribution of the parallel cell iterator, e.g.
+ * <pre>
+ * cellIterator:
+ *   type: blocks
+ *   blockShape: [8, 0, 0]
+ *   dynamicScheduling: true
+ * </pre>
+ * The field solvers can traverse the lattice in cache-sized tiles, either with a given tile shape or with a tile
+ * shape chosen from the cache size (in KiB):
+ * <pre>
+ * cellIterator:
+ *   solverTileShape: [16, 16, 64]
+ *   # or
+ *   automaticSolverTiling: true
+ *   tileCacheSize: 512
+ * </pre>
+ */
+public class YamlCellIterator {
+
+	/**
+	 * Either "interleaved" (default) or "blocks".
+	 */
+	public String type;
+
+	/**
+	 * Extent of the blocks in each direction. Entries smaller than one stand for the full lattice length.
+	 * If omitted, the lattice is cut into slabs along the first axis.
+	 */
+	public List<Integer> blockShape;
+
+	/**
+	 * Hand out blocks to idle threads on demand instead of assigning a fixed range of blocks to each thread.
+	 */
+	public Boolean dynamicScheduling;
+
+	/**
+	 * Extent of the tiles traversed by the field solvers. Entries smaller than one stand for the full lattice length.
+	 */
+	public List<Integer> solverTileShape;
+
+	/**
+	 * Choose the tile shape of the field solvers from the cache size.
+	 */
+	public Boolean automaticSolverTiling;
+
+	/**
+	 * Cache size per thread in KiB used for the automatic tile shape.
+	 */
+	public Integer tileCacheSize;
+
+	public void applyTo(Settings settings) {
+		if (type != null) {
+			HashMap<String, CellIteratorType> map = new HashMap<String, CellIteratorType>();
+			map.put("interleaved", CellIteratorType.Interleaved);
+			map.put("blocks", CellIteratorType.Blocks);
+
+			if (map.containsKey(type)) {
+				settings.setCellIteratorType(map.get(type));
+			} else {
+				throw new RuntimeException("Unknown cell iterator type specified in YAML file.");
+			}
+		}
+
+		if (blockShape != null) {
+			int[] shape = new int[blockShape.size()];
+			for (int i = 0; i < shape.length; i++) {
+				shape[i] = blockShape.get(i);
+			}
+			settings.setCellBlockShape(shape);
+		}
+
+		if (dynamicScheduling != null) {
+			settings.useDynamicCellScheduling(dynamicScheduling);
+		}
+
+		if (solverTileShape != null) {
+			int[] shape = new int[solverTileShape.size()];
+			for (int i = 0; i < shape.length; i++) {
+				shape[i] = solverTileShape.get(i);
+			}
+			settings.setFieldSolverTileShape(shape);
+		}
+
+		if (automaticSolverTiling != null) {
+			settings.useAutomaticFieldSolverTiling(automaticSolverTiling);
+		}
+
+		if (tileCacheSize != null) {
+			settings.setTileCacheSize(tileCacheSize * 1024);
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package org.openpixi.pixi.ui.util.yaml;
+
+import org.openpixi.pixi.physics.Settings;
+
+/**
+ * Periodic checkpoints of the simulation state, e.g.
+ * <pre>
+ * checkpoint:
+ *   interval: 100
+ *   path: "output/checkpoint.bin"
+ * </pre>
+ * A simulation is resumed from the checkpoint with the -resume option of MainBatch.
+ */
+public class YamlCheckpoint {
+
+	/**
+	 * Number of simulation steps between two checkpoints.
+	 */
+	public Integer interval;
+
+	/**
+	 * Checkpoint file. Each checkpoint replaces the previous one.
+	 */
+	public String path;
+
+	public void applyTo(Settings settings) {
+		if (interval != null) {
+			settings.setCheckpointInterval(interval);
+		}
+
+		if (path != null) {
+			settings.setCheckpointPath(path);
+		}
+	}
+}
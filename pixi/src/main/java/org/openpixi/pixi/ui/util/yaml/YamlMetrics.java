@@ -0,0 +1,45 @@
+package org.openpixi.pixi.ui.util.yaml;
+
+import org.openpixi.pixi.physics.Settings;
+
+/**
+ * Performance metrics of the simulation steps, e.g.
+ * <pre>
+ * metrics:
+ *   interval: 100
+ *   path: "metrics.tsv"
+ *   jmx: true
+ * </pre>
+ * See {@link org.openpixi.pixi.physics.metrics.SimulationMetrics} for the contents of the metrics file.
+ */
+public class YamlMetrics {
+
+	/**
+	 * Number of simulation steps between two reports written to the metrics file.
+	 */
+	public Integer interval;
+
+	/**
+	 * Metrics file.
+	 */
+	public String path;
+
+	/**
+	 * Register the metrics as an MBean with the platform MBean server.
+	 */
+	public Boolean jmx;
+
+	public void applyTo(Settings settings) {
+		if (interval != null) {
+			settings.setMetricsInterval(interval);
+		}
+
+		if (path != null) {
+			settings.setMetricsPath(path);
+		}
+
+		if (jmx != null) {
+			settings.setMetricsJmx(jmx);
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package org.openpixi.pixi.ui.util.yaml;
+
+import java.util.HashMap;
+
+import org.openpixi.pixi.diagnostics.output.OutputFormat;
+
+/**
+ * Maps the output format names used in YAML files ("text", "binary" and "compressed binary") to
+ * {@link OutputFormat}.
+ */
+public class YamlOutputFormat {
+
+	/**
+	 * Returns the output format for a YAML format name.
+	 *
+	 * @param format    format name or null
+	 * @return          OutputFormat, {@link OutputFormat#Text} if no name is given
+	 */
+	public static OutputFormat parse(String format) {
+		if (format == null) {
+			return OutputFormat.Text;
+		}
+
+		HashMap<String, OutputFormat> map = new HashMap<String, OutputFormat>();
+		map.put("text", OutputFormat.Text);
+		map.put("binary", OutputFormat.Binary);
+		map.put("compressed binary", OutputFormat.CompressedBinary);
+
+		if (map.containsKey(format)) {
+			return map.get(format);
+		} else {
+			throw new RuntimeException("Unknown output format specified in YAML file.");
+		}
+	}
+}
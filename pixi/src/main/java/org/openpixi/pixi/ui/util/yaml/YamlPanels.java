@@ -6,8 +6,10 @@ import java.util.List;
 import javax.swing.JSplitPane;
 
 import org.openpixi.pixi.ui.PanelManager;
+import org.openpixi.pixi.ui.SimulationAnimation;
 import org.openpixi.pixi.ui.panel.ElectricFieldPanel;
 import org.openpixi.pixi.ui.panel.InfoPanel;
+import org.openpixi.pixi.ui.panel.ProjectedEnergyDensity2DPanel;
 import org.openpixi.pixi.ui.panel.Particle2DPanel;
 import org.openpixi.pixi.ui.panel.Particle3DPanel;
 import org.openpixi.pixi.ui.panel.PhaseSpacePanel;
@@ -19,6 +21,7 @@ import org.openpixi.pixi.ui.panel.gl.EnergyDensity3DGLPanel;
 import org.openpixi.pixi.ui.panel.gl.EnergyDensityVoxelGLPanel;
 import org.openpixi.pixi.ui.panel.gl.GaussViolation2DGLPanel;
 import org.openpixi.pixi.ui.panel.gl.OccupationNumbers2DGLPanel;
+import org.openpixi.pixi.ui.util.raster.RasterRenderer;
 import org.openpixi.pixi.ui.util.yaml.panels.*;
 
 public class YamlPanels {
@@ -43,6 +46,7 @@ public class YamlPanels {
 	public YamlGaussViolation2DGLPanel gaussViolation2DGLPanel;
 	public YamlChart2DPanel chartPanel;
 	public YamlInfoPanel infoPanel;
+	public YamlProjectedEnergyDensity2DPanel projectedEnergyDensity2DPanel;
 
 	/** Empty constructor called by SnakeYaml */
 	public YamlPanels() {
@@ -101,6 +105,8 @@ public class YamlPanels {
 			gaussViolation2DGLPanel = new YamlGaussViolation2DGLPanel(component);
 		} else if (component instanceof InfoPanel) {
 			infoPanel = new YamlInfoPanel(component);
+		} else if (component instanceof ProjectedEnergyDensity2DPanel) {
+			projectedEnergyDensity2DPanel = new YamlProjectedEnergyDensity2DPanel(component);
 		}
 	}
 
@@ -143,8 +149,34 @@ public class YamlPanels {
 			component = gaussViolation2DGLPanel.inflate(panelManager);
 		} else if (infoPanel != null) {
 			component = infoPanel.inflate(panelManager);
+		} else if (projectedEnergyDensity2DPanel != null) {
+			component = projectedEnergyDensity2DPanel.inflate(panelManager);
 		}
 
 		return component;
 	}
+
+	/**
+	 * Creates a software renderer for the panel which does not require a display. Only single panels of the types
+	 * energyDensity1DPanel, energyDensity2DGLPanel, occupationNumbers2DGLPanel and projectedEnergyDensity2DPanel
+	 * are supported.
+	 * @param simulationAnimation
+	 * @return Renderer or null if the panel is not supported
+	 */
+	public RasterRenderer createRenderer(SimulationAnimation simulationAnimation) {
+		RasterRenderer renderer = null;
+		if (leftPanel != null && rightPanel != null) {
+			// Split panels are not supported.
+		} else if (energyDensity1DPanel != null) {
+			renderer = energyDensity1DPanel.createRenderer(simulationAnimation);
+		} else if (energyDensity2DGLPanel != null) {
+			renderer = energyDensity2DGLPanel.createRenderer(simulationAnimation);
+		} else if (occupationNumbers2DGLPanel != null) {
+			renderer = occupationNumbers2DGLPanel.createRenderer(simulationAnimation);
+		} else if (projectedEnergyDensity2DPanel != null) {
+			renderer = projectedEnergyDensity2DPanel.createRenderer(simulationAnimation);
+		}
+
+		return renderer;
+	}
 }
@@ -8,6 +8,11 @@ public class YamlRegion {
 	public ArrayList<Integer> point1;
 	public ArrayList<Integer> point2;
 
+	/**
+	 * Velocities with which the faces of the region move outwards (only used for the active region).
+	 */
+	public ArrayList<Double> expansion;
+
 	public boolean checkPoints(int numberOfDimensions) {
 		if(point1 != null && point2 != null) {
 			if (point1.size() == numberOfDimensions && point2.size() == numberOfDimensions) {
@@ -37,6 +42,14 @@ public class YamlRegion {
 		return point;
 	}
 
+	public double[] getExpansion() {
+		double[] velocity = new double[expansion.size()];
+		for (int i = 0; i < expansion.size(); i++) {
+			velocity[i] = expansion.get(i);
+		}
+		return velocity;
+	}
+
 	private int[] convertList(List<Integer> list) {
 		int[] array = new int[list.size()];
 		for (int i = 0; i < list.size(); i++) {
@@ -5,7 +5,10 @@ import java.util.List;
 
 import org.openpixi.pixi.physics.Settings;
 import org.openpixi.pixi.physics.SimulationType;
+import org.openpixi.pixi.physics.grid.DepositionMode;
+import org.openpixi.pixi.physics.grid.GridStorageType;
 import org.openpixi.pixi.physics.movement.solver.LeapFrogRelativisticParticleSolver;
+import org.openpixi.pixi.physics.particles.ParticleStorageType;
 
 /**
  * Generic settings class into which the YAML parser parses
@@ -22,6 +25,14 @@ public class YamlSettings {
 	public List<Double> gridSteps;
 	public Double duration;
 	public List<Integer> gridCells;
+	public String gridStorage;
+	public String particleStorage;
+	public String deposition;
+	public Integer particleSortInterval;
+	public YamlCellIterator cellIterator;
+	public YamlCheckpoint checkpoint;
+	public YamlMetrics metrics;
+	public Integer diagnosticsQueueDepth;
 
 	public YamlRegion evaluationRegion;
 	public YamlRegion activeRegion;
@@ -99,6 +110,26 @@ public class YamlSettings {
         if(numberOfThreads != null)
             settings.setNumOfThreads(numberOfThreads);
 
+		if (cellIterator != null) {
+			cellIterator.applyTo(settings);
+		}
+
+		if (checkpoint != null) {
+			checkpoint.applyTo(settings);
+		}
+
+		if (metrics != null) {
+			metrics.applyTo(settings);
+		}
+
+		if (particleSortInterval != null) {
+			settings.setParticleSortInterval(particleSortInterval);
+		}
+
+		if (diagnosticsQueueDepth != null) {
+			settings.setDiagnosticsQueueDepth(diagnosticsQueueDepth);
+		}
+
 		// Setting lattice spacing(s). Prioritize gridSteps over gridStep.
 		if(gridSteps != null) {
 			if(gridSteps.size() != numberOfDimensions) {
@@ -122,6 +153,42 @@ public class YamlSettings {
 			}
 		}
 
+		if (gridStorage != null) {
+			HashMap<String, GridStorageType> map = new HashMap<String, GridStorageType>();
+			map.put("cells", GridStorageType.Cells);
+			map.put("primitive", GridStorageType.Primitive);
+
+			if(map.containsKey(gridStorage)) {
+				settings.setGridStorage(map.get(gridStorage));
+			} else {
+				throw new RuntimeException("Unknown grid storage specified in YAML file.");
+			}
+		}
+
+		if (particleStorage != null) {
+			HashMap<String, ParticleStorageType> map = new HashMap<String, ParticleStorageType>();
+			map.put("objects", ParticleStorageType.Objects);
+			map.put("primitive", ParticleStorageType.Primitive);
+
+			if(map.containsKey(particleStorage)) {
+				settings.setParticleStorage(map.get(particleStorage));
+			} else {
+				throw new RuntimeException("Unknown particle storage specified in YAML file.");
+			}
+		}
+
+		if (deposition != null) {
+			HashMap<String, DepositionMode> map = new HashMap<String, DepositionMode>();
+			map.put("synchronized", DepositionMode.Synchronized);
+			map.put("buffered", DepositionMode.Buffered);
+
+			if(map.containsKey(deposition)) {
+				settings.setDepositionMode(map.get(deposition));
+			} else {
+				throw new RuntimeException("Unknown deposition mode specified in YAML file.");
+			}
+		}
+
 		if (particles != null) {
 			for (YamlYangMillsParticle p : particles) {
 				p.applyTo(settings);
@@ -178,6 +245,13 @@ public class YamlSettings {
 				}
 				settings.setActiveRegionPoint1(activeRegion.getPoint1(gridCells));
 				settings.setActiveRegionPoint2(activeRegion.getPoint2(gridCells));
+				if(activeRegion.expansion != null) {
+					if(activeRegion.expansion.size() == numberOfDimensions) {
+						settings.setActiveRegionExpansion(activeRegion.getExpansion());
+					} else {
+						System.out.println("Active region: check expansion velocities.");
+					}
+				}
 			} else {
 				System.out.println("Active region: check region points.");
 			}
@@ -1,6 +1,7 @@
 package org.openpixi.pixi.ui.util.yaml.currentgenerators;
 
 import org.openpixi.pixi.physics.fields.currentgenerators.DualMVModel;
+import org.openpixi.pixi.ui.util.yaml.YamlOutputFormat;
 
 public class YamlDualMVModel {
 	/**
@@ -49,6 +50,11 @@ public class YamlDualMVModel {
 	 */
 	public String outputFile = null;
 
+	/**
+	 * Format of the output file: "text" (default), "binary" or "compressed binary".
+	 */
+	public String outputFormat;
+
 	/**
 	 * Option whether to use the \mu^2 (true) or the g^2 \mu^2 (false, default) normalization for the Gaussian
 	 * probability distribution of the color charge densities.
@@ -63,11 +69,13 @@ public class YamlDualMVModel {
 			randomSeed2 = 0;
 		}
 
-		return new DualMVModel(direction, longitudinalLocation, longitudinalWidth, mu,
+		DualMVModel generator = new DualMVModel(direction, longitudinalLocation, longitudinalWidth, mu,
 				lowPassCoefficient,  infraredCoefficient,
 				useSeed, randomSeed1, randomSeed2,
 				createInitialConditionsOutput, outputFile,
 				useAlternativeNormalization);
+		generator.outputFormat = YamlOutputFormat.parse(outputFormat);
+		return generator;
 	}
 
 }
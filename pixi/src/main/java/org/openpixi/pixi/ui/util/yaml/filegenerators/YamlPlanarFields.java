@@ -1,6 +1,7 @@
 package org.openpixi.pixi.ui.util.yaml.filegenerators;
 
 import org.openpixi.pixi.diagnostics.methods.PlanarFields;
+import org.openpixi.pixi.ui.util.yaml.YamlOutputFormat;
 
 public class YamlPlanarFields {
 	/**
@@ -34,6 +35,11 @@ public class YamlPlanarFields {
 	public Integer planarIndex;
 
 
+	/**
+	 * Output file format: "text" (default), "binary" or "compressed binary".
+	 */
+	public String format;
+
 	public PlanarFields getFileGenerator() {
 		if(startingTime == null) {
 			startingTime = 0.0;
@@ -43,6 +49,8 @@ public class YamlPlanarFields {
 			finalTime = Double.MAX_VALUE;
 		}
 
-		return new PlanarFields(interval, path, startingTime, finalTime, direction, planarIndex);
+		PlanarFields generator = new PlanarFields(interval, path, startingTime, finalTime, direction, planarIndex);
+		generator.outputFormat = YamlOutputFormat.parse(format);
+		return generator;
 	}
 }
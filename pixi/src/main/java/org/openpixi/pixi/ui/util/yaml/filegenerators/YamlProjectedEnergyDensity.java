@@ -1,6 +1,7 @@
 package org.openpixi.pixi.ui.util.yaml.filegenerators;
 
 import org.openpixi.pixi.diagnostics.methods.ProjectedEnergyDensity;
+import org.openpixi.pixi.ui.util.yaml.YamlOutputFormat;
 
 public class YamlProjectedEnergyDensity {
 
@@ -30,10 +31,16 @@ public class YamlProjectedEnergyDensity {
 	public Boolean computePoyntingVector = true;
 
 
+	/**
+	 * Output file format: "text" (default), "binary" or "compressed binary".
+	 */
+	public String format;
+
 	public ProjectedEnergyDensity getFileGenerator() {
 		ProjectedEnergyDensity generator = new ProjectedEnergyDensity(path, interval, direction);
 		generator.computeEnergyDensity = computeEnergyDensity;
 		generator.computePoyntingVector = computePoyntingVector;
+		generator.outputFormat = YamlOutputFormat.parse(format);
 		return generator;
 	}
 }
@@ -35,13 +35,19 @@ public class YamlScreenshotInTime {
 
 	public YamlPanels panel;
 
+	/**
+	 * Draw the panel with the software renderer even if a display is available.
+	 */
+	public Boolean headless;
+
 	/**
 	 * Returns an instance of BulkQuantitiesInTime according to the parameters in the YAML file.
 	 *
 	 * @return Instance of BulkQuantitiesInTime.
 	 */
 	public ScreenshotInTime getFileGenerator() {
-		ScreenshotInTime fileGen = new ScreenshotInTime(path, interval, offset, width, height, panel);
+		ScreenshotInTime fileGen = new ScreenshotInTime(path, interval, offset, width, height, panel,
+				headless != null && headless);
 		return fileGen;
 	}
 }
\ No newline at end of file
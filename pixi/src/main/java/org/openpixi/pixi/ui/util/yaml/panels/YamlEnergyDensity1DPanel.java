@@ -3,7 +3,9 @@ package org.openpixi.pixi.ui.util.yaml.panels;
 import java.awt.Component;
 
 import org.openpixi.pixi.ui.PanelManager;
+import org.openpixi.pixi.ui.SimulationAnimation;
 import org.openpixi.pixi.ui.panel.EnergyDensity1DPanel;
+import org.openpixi.pixi.ui.util.raster.EnergyDensity1DRenderer;
 
 public class YamlEnergyDensity1DPanel {
 
@@ -36,4 +38,21 @@ public class YamlEnergyDensity1DPanel {
 		}
 		return panel;
 	}
+
+	/**
+	 * Creates a software renderer with the same settings as the panel (for screenshots without a display).
+	 */
+	public EnergyDensity1DRenderer createRenderer(SimulationAnimation simulationAnimation) {
+
+		EnergyDensity1DRenderer renderer = new EnergyDensity1DRenderer(simulationAnimation);
+
+		if (scaleFactor != null) {
+			renderer.scaleProperties.setScaleFactor(scaleFactor);
+		}
+
+		if (automaticScaling != null) {
+			renderer.scaleProperties.setAutomaticScaling(automaticScaling);
+		}
+		return renderer;
+	}
 }
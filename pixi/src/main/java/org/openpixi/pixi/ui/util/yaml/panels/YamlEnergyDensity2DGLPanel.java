@@ -3,7 +3,9 @@ package org.openpixi.pixi.ui.util.yaml.panels;
 import java.awt.Component;
 
 import org.openpixi.pixi.ui.PanelManager;
+import org.openpixi.pixi.ui.SimulationAnimation;
 import org.openpixi.pixi.ui.panel.gl.EnergyDensity2DGLPanel;
+import org.openpixi.pixi.ui.util.raster.EnergyDensity2DRenderer;
 
 public class YamlEnergyDensity2DGLPanel {
 
@@ -52,4 +54,29 @@ public class YamlEnergyDensity2DGLPanel {
 		}
 		return panel;
 	}
+
+	/**
+	 * Creates a software renderer with the same settings as the panel (for screenshots without a display).
+	 */
+	public EnergyDensity2DRenderer createRenderer(SimulationAnimation simulationAnimation) {
+
+		EnergyDensity2DRenderer renderer = new EnergyDensity2DRenderer(simulationAnimation);
+
+		if (scaleFactor != null) {
+			renderer.scaleProperties.setScaleFactor(scaleFactor);
+		}
+
+		if (automaticScaling != null) {
+			renderer.scaleProperties.setAutomaticScaling(automaticScaling);
+		}
+
+		if (showCoordinates != null) {
+			renderer.showCoordinateProperties.setValue(showCoordinates);
+		}
+
+		if (data != null) {
+			renderer.dataProperties.setEntryFromString(data);
+		}
+		return renderer;
+	}
 }
@@ -1,9 +1,11 @@
 package org.openpixi.pixi.ui.util.yaml.panels;
 
 import org.openpixi.pixi.ui.PanelManager;
+import org.openpixi.pixi.ui.SimulationAnimation;
 import org.openpixi.pixi.ui.panel.gl.EnergyDensity2DGLPanel;
 import org.openpixi.pixi.ui.panel.gl.OccupationNumbers2DGLPanel;
 import org.openpixi.pixi.ui.panel.properties.IntegerProperties;
+import org.openpixi.pixi.ui.util.raster.OccupationNumbers2DRenderer;
 
 import java.awt.*;
 
@@ -110,4 +112,63 @@ public class YamlOccupationNumbers2DGLPanel {
 
 		return panel;
 	}
+
+	/**
+	 * Creates a software renderer with the same settings as the panel (for screenshots without a display). The
+	 * occupation numbers are computed for every frame, frameSkip is ignored.
+	 */
+	public OccupationNumbers2DRenderer createRenderer(SimulationAnimation simulationAnimation) {
+
+		OccupationNumbers2DRenderer renderer = new OccupationNumbers2DRenderer(simulationAnimation);
+
+		if (scaleFactor != null) {
+			renderer.scaleProperties.setScaleFactor(scaleFactor);
+		}
+
+		if (automaticScaling != null) {
+			renderer.scaleProperties.setAutomaticScaling(automaticScaling);
+		}
+
+		if (colorful != null) {
+			renderer.colorfulProperties.setValue(colorful);
+		}
+
+		if (showCoordinates != null) {
+			renderer.showCoordinateProperties.setValue(showCoordinates);
+		}
+
+		if (mirrorX != null) {
+			renderer.mirrorProperties.setValue(mirrorX);
+		}
+
+		if (coneRestriction != null) {
+			renderer.useConeProperties.setValue(coneRestriction);
+		}
+
+		if (collisionTime != null) {
+			renderer.collisionTimeDoubleProperties.setValue(collisionTime);
+		}
+
+		if (collisionPosition != null) {
+			renderer.collisionCoordinateProperties.setValue(collisionPosition);
+		}
+
+		if (cutConeVelocity != null) {
+			renderer.velocityCoordinateProperties.setValue(cutConeVelocity);
+		}
+
+		if (gaussianWindow != null) {
+			renderer.useGaussianWindowProperties.setValue(gaussianWindow);
+		}
+
+		if (tukeyWindow != null) {
+			renderer.useTukeyWindowProperties.setValue(tukeyWindow);
+		}
+
+		if (tukeyWidth != null) {
+			renderer.tukeyWidthProperties.setValue(tukeyWidth);
+		}
+
+		return renderer;
+	}
 }
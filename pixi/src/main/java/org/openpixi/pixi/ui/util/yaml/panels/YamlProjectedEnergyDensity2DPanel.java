@@ -0,0 +1,57 @@
+package org.openpixi.pixi.ui.util.yaml.panels;
+
+import java.awt.Component;
+
+import org.openpixi.pixi.ui.PanelManager;
+import org.openpixi.pixi.ui.SimulationAnimation;
+import org.openpixi.pixi.ui.panel.ProjectedEnergyDensity2DPanel;
+import org.openpixi.pixi.ui.util.raster.ProjectedEnergyDensityRenderer;
+
+public class YamlProjectedEnergyDensity2DPanel {
+
+	// Scale properties
+	public Double scaleFactor;
+	public Boolean automaticScaling;
+
+	// Coordinate properties
+	public String showCoordinates;
+
+	/** Empty constructor called by SnakeYaml */
+	public YamlProjectedEnergyDensity2DPanel() {
+	}
+
+	public YamlProjectedEnergyDensity2DPanel(Component component) {
+		if (component instanceof ProjectedEnergyDensity2DPanel) {
+			ProjectedEnergyDensity2DPanel panel = (ProjectedEnergyDensity2DPanel) component;
+			scaleFactor = panel.renderer.scaleProperties.getScaleFactor();
+			automaticScaling = panel.renderer.scaleProperties.getAutomaticScaling();
+			showCoordinates = panel.renderer.showCoordinateProperties.getValue();
+		}
+	}
+
+	public Component inflate(PanelManager panelManager) {
+		ProjectedEnergyDensity2DPanel panel = new ProjectedEnergyDensity2DPanel(panelManager.getSimulationAnimation());
+		apply(panel.renderer);
+		return panel;
+	}
+
+	public ProjectedEnergyDensityRenderer createRenderer(SimulationAnimation simulationAnimation) {
+		ProjectedEnergyDensityRenderer renderer = new ProjectedEnergyDensityRenderer(simulationAnimation);
+		apply(renderer);
+		return renderer;
+	}
+
+	private void apply(ProjectedEnergyDensityRenderer renderer) {
+		if (scaleFactor != null) {
+			renderer.scaleProperties.setScaleFactor(scaleFactor);
+		}
+
+		if (automaticScaling != null) {
+			renderer.scaleProperties.setAutomaticScaling(automaticScaling);
+		}
+
+		if (showCoordinates != null) {
+			renderer.showCoordinateProperties.setValue(showCoordinates);
+		}
+	}
+}
@@ -0,0 +1,162 @@
+package org.openpixi.pixi.diagnostics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpixi.pixi.diagnostics.methods.OccupationNumbersInTime;
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.ElementFactory;
+import org.openpixi.pixi.physics.GeneralBoundaryType;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.fields.FastTYMSolver;
+import org.openpixi.pixi.physics.grid.EmptyInterpolator;
+import org.openpixi.pixi.physics.grid.Grid;
+import org.openpixi.pixi.physics.particles.IParticle;
+
+public class DiagnosticsPipelineTest {
+
+	private final double accuracy = 1.E-12;
+
+	@Test
+	public void testAsynchronousDiagnostics() throws IOException {
+		FieldRecorder recorder1 = new FieldRecorder();
+		FieldRecorder recorder2 = new FieldRecorder();
+		OccupationNumbersInTime occupation1 = new OccupationNumbersInTime(0.4, "none", "", false);
+		OccupationNumbersInTime occupation2 = new OccupationNumbersInTime(0.4, "none", "", false);
+
+		Simulation s1 = new Simulation(getStandardSettings(0, recorder1, occupation1));
+		Simulation s2 = new Simulation(getStandardSettings(2, recorder2, occupation2));
+		initializeRandomFields(s1.grid, new Random(42));
+		initializeRandomFields(s2.grid, new Random(42));
+
+		for (int t = 0; t < 10; t++) {
+			s1.step();
+			s2.step();
+		}
+		s1.finishDiagnostics();
+		s2.finishDiagnostics();
+
+		Assert.assertEquals(6, recorder1.steps.size());
+		Assert.assertEquals(recorder1.steps, recorder2.steps);
+		for (int i = 0; i < recorder1.values.size(); i++) {
+			Assert.assertEquals(recorder1.values.get(i), recorder2.values.get(i), accuracy);
+		}
+		Assert.assertEquals(occupation1.energyDensity, occupation2.energyDensity, accuracy);
+
+		Assert.assertEquals(Thread.currentThread(), recorder1.thread);
+		Assert.assertNotSame(Thread.currentThread(), recorder2.thread);
+	}
+
+	/**
+	 * Diagnostics which keep files open are closed at the end of the run, after the asynchronous evaluation.
+	 */
+	@Test
+	public void testCloseDiagnostics() throws IOException {
+		ClosingRecorder recorder = new ClosingRecorder();
+		Settings settings = getStandardSettings(2, recorder);
+		settings.setIterations(9);
+		Simulation s = new Simulation(settings);
+		s.run();
+
+		Assert.assertEquals(6, recorder.steps.size());
+		Assert.assertEquals(1, recorder.closed);
+		Assert.assertEquals(6, recorder.stepsWhenClosed);
+	}
+
+	/**
+	 * Records the electric field energy and the trace of the links every other step.
+	 */
+	private static class FieldRecorder implements AsynchronousDiagnostics {
+
+		ArrayList<Integer> steps = new ArrayList<Integer>();
+		ArrayList<Double> values = new ArrayList<Double>();
+		Thread thread;
+
+		public void initialize(Simulation s) {
+		}
+
+		public boolean isMeasurementStep(int steps) {
+			return steps % 2 == 0;
+		}
+
+		public int getRequiredFields() {
+			return FIELD_U | FIELD_E;
+		}
+
+		public void calculate(Grid grid, ArrayList<IParticle> particles, int steps) {
+			if (isMeasurementStep(steps)) {
+				double value = 0.0;
+				for (int i = 0; i < grid.getTotalNumberOfCells(); i++) {
+					for (int d = 0; d < grid.getNumberOfDimensions(); d++) {
+						value += grid.getE(i, d).square() + grid.getU(i, d).getRealTrace();
+					}
+				}
+				this.steps.add(steps);
+				this.values.add(value);
+				this.thread = Thread.currentThread();
+			}
+		}
+	}
+
+	private static class ClosingRecorder extends FieldRecorder implements Closeable {
+
+		int closed = 0;
+		int stepsWhenClosed = -1;
+
+		public void close() {
+			closed++;
+			stepsWhenClosed = steps.size();
+		}
+	}
+
+	private void initializeRandomFields(Grid grid, Random random) {
+		ElementFactory factory = grid.getElementFactory();
+		for (int i = 0; i < grid.getTotalNumberOfCells(); i++) {
+			for (int d = 0; d < grid.getNumberOfDimensions(); d++) {
+				AlgebraElement E = factory.algebraZero();
+				AlgebraElement A = factory.algebraZero();
+				for (int k = 0; k < E.getAdjointDimension(); k++) {
+					E.set(k, random.nextDouble() - 0.5);
+					A.set(k, random.nextDouble() - 0.5);
+				}
+				grid.setE(i, d, E);
+				grid.setU(i, d, A.getLink());
+			}
+		}
+		grid.updateLinks(grid.getTemporalSpacing());
+	}
+
+	private Settings getStandardSettings(int queueDepth, Diagnostics... diagnostics) {
+		Settings s = new Settings();
+
+		s.setRelativistic(true);
+		s.setBoundary(GeneralBoundaryType.Periodic);
+		s.setFieldSolver(new FastTYMSolver());
+		s.useGrid(true);
+		s.setInterpolator(new EmptyInterpolator());
+		s.setSpeedOfLight(1.0);
+		s.setNumberOfDimensions(3);
+
+		s.setGridStep(1.0);
+		s.setTimeStep(0.1);
+		s.setGridCells(0, 6);
+		s.setGridCells(1, 5);
+		s.setGridCells(2, 4);
+
+		s.setNumberOfColors(2);
+		s.setCouplingConstant(1.0);
+		s.setNumOfThreads(1);
+
+		for (Diagnostics d : diagnostics) {
+			s.addDiagnostics(d);
+		}
+		s.setDiagnosticsQueueDepth(queueDepth);
+
+		return s;
+	}
+}
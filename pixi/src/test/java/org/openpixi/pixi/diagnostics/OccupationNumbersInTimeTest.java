@@ -0,0 +1,173 @@
+package org.openpixi.pixi.diagnostics;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpixi.pixi.diagnostics.methods.OccupationNumbersInTime;
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.ElementFactory;
+import org.openpixi.pixi.physics.GeneralBoundaryType;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.gauge.DoubleFFTWrapper;
+import org.openpixi.pixi.physics.grid.EmptyInterpolator;
+import org.openpixi.pixi.physics.grid.Grid;
+import org.openpixi.pixi.physics.particles.IParticle;
+
+public class OccupationNumbersInTimeTest {
+
+	private final double[] collisionPosition = new double[]{4.0, 0.0, 0.0};
+	private final double[] coneVelocity = new double[]{1.0, 0.0, 0.0};
+
+	/**
+	 * The occupation numbers are computed without copying the grid. They have to agree with the occupation numbers of
+	 * the intermediate grids, which are built like the copies the diagnostic used before (mirrored grid, Coulomb
+	 * gauge, cone and window functions).
+	 */
+	@Test
+	public void testMirroredGaussianCone() {
+		compareWithIntermediateGrids(new OccupationNumbersInTime(1.0, "none", "", true,
+				true, 0, true, -2.5, collisionPosition, coneVelocity, true, false, 0.0), 1);
+		compareWithIntermediateGrids(new OccupationNumbersInTime(1.0, "none", "", true,
+				true, 0, true, -2.5, collisionPosition, coneVelocity, true, false, 0.0), 3);
+	}
+
+	@Test
+	public void testTukeyWindow() {
+		compareWithIntermediateGrids(new OccupationNumbersInTime(1.0, "none", "", true,
+				false, 0, false, -3.0, collisionPosition, coneVelocity, false, true, 0.5), 3);
+	}
+
+	@Test
+	public void testUnrestricted() {
+		compareWithIntermediateGrids(new OccupationNumbersInTime(1.0, "none", "", true), 3);
+	}
+
+	private void compareWithIntermediateGrids(OccupationNumbersInTime diagnostic, int numberOfThreads) {
+		Simulation s = new Simulation(getStandardSettings(numberOfThreads));
+		initializeRandomFields(s.grid, new Random(11));
+		diagnostic.storeIntermediateGrids = true;
+		diagnostic.initialize(s);
+		diagnostic.calculate(s.grid, new ArrayList<IParticle>(), 0);
+
+		double[][] expected = computeOccupationNumbers(diagnostic.getFinalWindowGrid());
+		double expectedEnergy = 0.0;
+		double maximum = 0.0;
+		for (int i = 0; i < expected.length; i++) {
+			for (int k = 0; k < expected[i].length; k++) {
+				expectedEnergy += expected[i][k];
+				maximum = Math.max(maximum, Math.abs(expected[i][k]));
+			}
+		}
+		Assert.assertTrue(maximum > 0.0);
+		for (int i = 0; i < expected.length; i++) {
+			for (int k = 0; k < expected[i].length; k++) {
+				Assert.assertEquals(expected[i][k], diagnostic.occupationNumbers[i][k], 1.E-10 * maximum);
+			}
+		}
+		double volume = s.getSimulationBoxSize(0) * s.getSimulationBoxSize(1) * s.getSimulationBoxSize(2);
+		expectedEnergy /= 2.0 * volume * volume;
+		Assert.assertEquals(expectedEnergy, diagnostic.energyDensity, 1.E-10 * Math.abs(expectedEnergy));
+	}
+
+	/**
+	 * Occupation numbers of a grid in the final gauge, computed from copies of the field components as the
+	 * diagnostic did before it streamed the fields into the FFT arrays.
+	 */
+	private double[][] computeOccupationNumbers(Grid grid) {
+		int numberOfDimensions = grid.getNumberOfDimensions();
+		int numberOfComponents = grid.getElementFactory().numberOfComponents;
+		DoubleFFTWrapper fft = new DoubleFFTWrapper(grid.getNumCells());
+		double gainv = 1.0 / (grid.getLatticeSpacing() * grid.getGaugeCoupling());
+
+		double[][][] eFFTdata = new double[numberOfDimensions][numberOfComponents][fft.getFFTArraySize()];
+		double[][][] aFFTdata = new double[numberOfDimensions][numberOfComponents][fft.getFFTArraySize()];
+		for (int i = 0; i < grid.getTotalNumberOfCells(); i++) {
+			int fftIndex = fft.getFFTArrayIndex(i);
+			for (int j = 0; j < numberOfDimensions; j++) {
+				AlgebraElement A0 = grid.getU(i, j).getAlgebraElement();
+				AlgebraElement A1 = grid.getUnext(i, j).getAlgebraElement();
+				for (int k = 0; k < numberOfComponents; k++) {
+					eFFTdata[j][k][fftIndex] = grid.getE(i, j).get(k) * gainv;
+					aFFTdata[j][k][fftIndex] = 0.5 * (A0.get(k) + A1.get(k)) * gainv;
+				}
+			}
+		}
+		for (int j = 0; j < numberOfDimensions; j++) {
+			for (int k = 0; k < numberOfComponents; k++) {
+				fft.complexForward(eFFTdata[j][k]);
+				fft.complexForward(aFFTdata[j][k]);
+			}
+		}
+
+		double a = grid.getLatticeSpacing();
+		double fftConversionFactorSquared = Math.pow(a, 2 * numberOfDimensions);
+		double[][] occupationNumbers = new double[grid.getTotalNumberOfCells()][numberOfComponents];
+		for (int i = 0; i < grid.getTotalNumberOfCells(); i++) {
+			int[] pos = grid.getCellPos(i);
+			double w2 = 0.0;
+			for (int d = 0; d < numberOfDimensions; d++) {
+				w2 += 2.0 * (1.0 - Math.cos(2.0 * Math.PI * pos[d] / grid.getNumCells(d))) / (a * a);
+			}
+			double w = Math.sqrt(w2);
+
+			int fftIndex = fft.getFFTArrayIndex(i);
+			for (int k = 0; k < numberOfComponents; k++) {
+				double eSquared = 0.0;
+				double aSquared = 0.0;
+				double mixed = 0.0;
+				for (int j = 0; j < numberOfDimensions; j++) {
+					double[] e = eFFTdata[j][k];
+					double[] A = aFFTdata[j][k];
+					eSquared += e[fftIndex] * e[fftIndex] + e[fftIndex + 1] * e[fftIndex + 1];
+					aSquared += A[fftIndex] * A[fftIndex] + A[fftIndex + 1] * A[fftIndex + 1];
+					mixed -= 2.0 * (-A[fftIndex + 1] * e[fftIndex] + A[fftIndex] * e[fftIndex + 1]);
+				}
+				occupationNumbers[i][k] = (eSquared + w * w * aSquared + w * mixed) * fftConversionFactorSquared;
+			}
+		}
+		return occupationNumbers;
+	}
+
+	private void initializeRandomFields(Grid grid, Random random) {
+		ElementFactory factory = grid.getElementFactory();
+		for (int i = 0; i < grid.getTotalNumberOfCells(); i++) {
+			for (int d = 0; d < grid.getNumberOfDimensions(); d++) {
+				AlgebraElement E = factory.algebraZero();
+				AlgebraElement A = factory.algebraZero();
+				for (int k = 0; k < E.getAdjointDimension(); k++) {
+					E.set(k, random.nextDouble() - 0.5);
+					A.set(k, 0.2 * (random.nextDouble() - 0.5));
+				}
+				grid.setE(i, d, E);
+				grid.setU(i, d, A.getLink());
+			}
+		}
+		grid.updateLinks(grid.getTemporalSpacing());
+	}
+
+	private Settings getStandardSettings(int numberOfThreads) {
+		Settings s = new Settings();
+
+		s.setRelativistic(true);
+		s.setBoundary(GeneralBoundaryType.Periodic);
+		s.useGrid(true);
+		s.setInterpolator(new EmptyInterpolator());
+		s.setSpeedOfLight(1.0);
+		s.setNumberOfDimensions(3);
+
+		s.setGridStep(1.0);
+		s.setTimeStep(0.1);
+		s.setGridCells(0, 8);
+		s.setGridCells(1, 4);
+		s.setGridCells(2, 3);
+
+		s.setNumberOfColors(2);
+		s.setCouplingConstant(1.0);
+		s.setNumOfThreads(numberOfThreads);
+
+		return s;
+	}
+}
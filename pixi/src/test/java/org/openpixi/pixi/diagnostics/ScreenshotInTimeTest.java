@@ -0,0 +1,158 @@
+package org.openpixi.pixi.diagnostics;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpixi.pixi.diagnostics.methods.ScreenshotInTime;
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.ElementFactory;
+import org.openpixi.pixi.physics.GeneralBoundaryType;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.fields.FastTYMSolver;
+import org.openpixi.pixi.physics.grid.EmptyInterpolator;
+import org.openpixi.pixi.physics.grid.Grid;
+import org.openpixi.pixi.ui.util.yaml.YamlPanels;
+import org.openpixi.pixi.ui.util.yaml.panels.YamlEnergyDensity1DPanel;
+import org.openpixi.pixi.ui.util.yaml.panels.YamlEnergyDensity2DGLPanel;
+import org.openpixi.pixi.ui.util.yaml.panels.YamlOccupationNumbers2DGLPanel;
+import org.openpixi.pixi.ui.util.yaml.panels.YamlProjectedEnergyDensity2DPanel;
+
+public class ScreenshotInTimeTest {
+
+	private static final int WIDTH = 64;
+	private static final int HEIGHT = 48;
+
+	/**
+	 * The software renderers have to produce non-empty PNG frames without a display or OpenGL.
+	 */
+	@Test
+	public void testHeadlessScreenshots() throws IOException {
+		YamlPanels energyDensity2D = new YamlPanels();
+		energyDensity2D.energyDensity2DGLPanel = new YamlEnergyDensity2DGLPanel();
+		testScreenshots(energyDensity2D, "energyDensity2D");
+
+		YamlPanels energyDensity1D = new YamlPanels();
+		energyDensity1D.energyDensity1DPanel = new YamlEnergyDensity1DPanel();
+		energyDensity1D.energyDensity1DPanel.automaticScaling = true;
+		testScreenshots(energyDensity1D, "energyDensity1D");
+
+		YamlPanels occupationNumbers = new YamlPanels();
+		occupationNumbers.occupationNumbers2DGLPanel = new YamlOccupationNumbers2DGLPanel();
+		testScreenshots(occupationNumbers, "occupationNumbers2D");
+
+		YamlPanels projectedEnergyDensity = new YamlPanels();
+		projectedEnergyDensity.projectedEnergyDensity2DPanel = new YamlProjectedEnergyDensity2DPanel();
+		testScreenshots(projectedEnergyDensity, "projectedEnergyDensity2D");
+	}
+
+	/**
+	 * Queued frames have to be written if the simulation ends before the last screenshot.
+	 */
+	@Test
+	public void testEarlyStop() throws IOException {
+		File folder = File.createTempFile("screenshots-early", "");
+		Assert.assertTrue(folder.delete() && folder.mkdir());
+		String path = folder.getAbsolutePath() + "/img-{counter}.png";
+
+		YamlPanels panel = new YamlPanels();
+		panel.energyDensity2DGLPanel = new YamlEnergyDensity2DGLPanel();
+		ScreenshotInTime screenshot = new ScreenshotInTime(path, 0.2, 0.0, WIDTH, HEIGHT, panel, true);
+		Simulation s = new Simulation(getStandardSettings(screenshot));
+		initializeRandomFields(s.grid, new Random(3));
+		for (int t = 0; t < 3; t++) {
+			s.step();
+		}
+		s.closeDiagnostics();
+
+		File[] files = folder.listFiles();
+		Assert.assertEquals(2, files.length);
+		for (File file : files) {
+			Assert.assertEquals(WIDTH, ImageIO.read(file).getWidth());
+			file.delete();
+		}
+		folder.delete();
+	}
+
+	private void testScreenshots(YamlPanels panel, String name) throws IOException {
+		File folder = File.createTempFile("screenshots-" + name, "");
+		Assert.assertTrue(folder.delete() && folder.mkdir());
+		String path = folder.getAbsolutePath() + "/img-{counter}.png";
+
+		ScreenshotInTime screenshot = new ScreenshotInTime(path, 0.2, 0.0, WIDTH, HEIGHT, panel, true);
+		Simulation s = new Simulation(getStandardSettings(screenshot));
+		initializeRandomFields(s.grid, new Random(3));
+		for (int t = 0; t < s.getIterations(); t++) {
+			s.step();
+		}
+		s.finishDiagnostics();
+
+		File[] files = folder.listFiles();
+		Assert.assertEquals(3, files.length);
+		for (File file : files) {
+			BufferedImage image = ImageIO.read(file);
+			Assert.assertEquals(WIDTH, image.getWidth());
+			Assert.assertEquals(HEIGHT, image.getHeight());
+
+			boolean differentPixels = false;
+			for (int y = 0; y < HEIGHT; y++) {
+				for (int x = 0; x < WIDTH; x++) {
+					differentPixels |= image.getRGB(x, y) != image.getRGB(0, 0);
+				}
+			}
+			Assert.assertTrue(name + ": " + file.getName() + " is empty.", differentPixels);
+			file.delete();
+		}
+		folder.delete();
+	}
+
+	private void initializeRandomFields(Grid grid, Random random) {
+		ElementFactory factory = grid.getElementFactory();
+		for (int i = 0; i < grid.getTotalNumberOfCells(); i++) {
+			for (int d = 0; d < grid.getNumberOfDimensions(); d++) {
+				AlgebraElement E = factory.algebraZero();
+				AlgebraElement A = factory.algebraZero();
+				for (int k = 0; k < E.getAdjointDimension(); k++) {
+					E.set(k, random.nextDouble() - 0.5);
+					A.set(k, random.nextDouble() - 0.5);
+				}
+				grid.setE(i, d, E);
+				grid.setU(i, d, A.getLink());
+			}
+		}
+		grid.updateLinks(grid.getTemporalSpacing());
+	}
+
+	private Settings getStandardSettings(Diagnostics diagnostics) {
+		Settings s = new Settings();
+
+		s.setRelativistic(true);
+		s.setBoundary(GeneralBoundaryType.Periodic);
+		s.setFieldSolver(new FastTYMSolver());
+		s.useGrid(true);
+		s.setInterpolator(new EmptyInterpolator());
+		s.setSpeedOfLight(1.0);
+		s.setNumberOfDimensions(3);
+
+		s.setGridStep(1.0);
+		s.setTimeStep(0.1);
+		s.setIterations(6);
+		s.setGridCells(0, 8);
+		s.setGridCells(1, 6);
+		s.setGridCells(2, 4);
+
+		s.setNumberOfColors(2);
+		s.setCouplingConstant(1.0);
+		s.setNumOfThreads(1);
+
+		s.addDiagnostics(diagnostics);
+
+		return s;
+	}
+}
@@ -0,0 +1,62 @@
+package org.openpixi.pixi.diagnostics.output;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BinaryOutputSinkTest {
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		testRoundTrip(false, false);
+		testRoundTrip(true, false);
+	}
+
+	@Test
+	public void testAppend() throws IOException {
+		testRoundTrip(false, true);
+		testRoundTrip(true, true);
+	}
+
+	private void testRoundTrip(boolean compress, boolean reopen) throws IOException {
+		File file = File.createTempFile("pixi-output", ".bin");
+		file.deleteOnExit();
+
+		Random random = new Random(42);
+		int numberOfRecords = 5;
+		double[][][] records = new double[numberOfRecords][][];
+		BinaryOutputSink sink = new BinaryOutputSink(file.getAbsolutePath(), compress);
+		for (int n = 0; n < numberOfRecords; n++) {
+			// Records may differ in size.
+			records[n] = new double[1 + random.nextInt(6)][1 + random.nextInt(300)];
+			for (double[] row : records[n]) {
+				for (int i = 0; i < row.length; i++) {
+					row[i] = random.nextGaussian();
+				}
+			}
+			sink.write(0.25 * n, records[n]);
+			if (reopen && n == 1) {
+				// Continue the file with a new sink as a resumed simulation does.
+				sink.close();
+				sink = new BinaryOutputSink(file.getAbsolutePath(), compress, true);
+			}
+		}
+		sink.close();
+
+		BinaryOutputReader reader = new BinaryOutputReader(file.getAbsolutePath());
+		for (int n = 0; n < numberOfRecords; n++) {
+			Assert.assertTrue(reader.next());
+			Assert.assertEquals(0.25 * n, reader.getTime(), 0.0);
+			double[][] rows = reader.getRows();
+			Assert.assertEquals(records[n].length, rows.length);
+			for (int j = 0; j < rows.length; j++) {
+				Assert.assertArrayEquals(records[n][j], rows[j], 0.0);
+			}
+		}
+		Assert.assertFalse(reader.next());
+		reader.close();
+	}
+}
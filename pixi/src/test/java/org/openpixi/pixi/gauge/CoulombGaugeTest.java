@@ -1,9 +1,13 @@
 package org.openpixi.pixi.gauge;
 
+import java.util.ArrayList;
+
 import junit.framework.Assert;
 
 import org.junit.Ignore;
 import org.junit.Test;
+import org.openpixi.pixi.diagnostics.methods.OccupationNumbersInTime;
+import org.openpixi.pixi.math.AlgebraElement;
 import org.openpixi.pixi.math.GroupElement;
 import org.openpixi.pixi.math.SU2AlgebraElement;
 import org.openpixi.pixi.math.SU2GroupElement;
@@ -11,8 +15,10 @@ import org.openpixi.pixi.physics.Settings;
 import org.openpixi.pixi.physics.Simulation;
 import org.openpixi.pixi.physics.fields.fieldgenerators.SU2PlaneWave;
 import org.openpixi.pixi.physics.gauge.CoulombGauge;
+import org.openpixi.pixi.physics.gauge.CoulombGaugeWorkspace;
 import org.openpixi.pixi.physics.gauge.GaugeTransformation;
 import org.openpixi.pixi.physics.grid.Grid;
+import org.openpixi.pixi.physics.particles.IParticle;
 
 public class CoulombGaugeTest {
 
@@ -53,6 +59,124 @@ public class CoulombGaugeTest {
 		Assert.assertTrue(convergenceList.length > 2);
 	}
 
+	@Test
+	public void testWorkspace() {
+		Grid grid = createTestSimulation().grid;
+
+		// Reference: Coulomb gauge transformation of a copy
+		Grid copy = new Grid(grid);
+		new CoulombGauge(copy).applyGaugeTransformation(copy);
+		GroupElement original = grid.getU(5, 1).copy();
+
+		CoulombGaugeWorkspace workspace = new CoulombGaugeWorkspace(grid, -1);
+		workspace.fixGauge(grid);
+
+		GroupElement link = new SU2GroupElement();
+		GroupElement temp1 = new SU2GroupElement();
+		GroupElement temp2 = new SU2GroupElement();
+		double[] components = new double[3];
+		double accuracy = 1e-12;
+		for (int i = 0; i < grid.getTotalNumberOfCells(); i++) {
+			for (int dir = 0; dir < 3; dir++) {
+				workspace.getLink(i, dir, link);
+				assertGroupElementEquals(copy.getU(i, dir), link, accuracy);
+
+				link.set(grid.getUnext(i, dir));
+				workspace.transformLink(i, dir, link, temp1, temp2);
+				assertGroupElementEquals(copy.getUnext(i, dir), link, accuracy);
+
+				AlgebraElement E = grid.getE(i, dir);
+				for (int c = 0; c < 3; c++) {
+					components[c] = E.get(c);
+				}
+				workspace.transformComponents(i, components, 0, temp1);
+				for (int c = 0; c < 3; c++) {
+					Assert.assertEquals(copy.getE(i, dir).get(c), components[c], accuracy);
+				}
+			}
+		}
+
+		// The grid itself is not changed.
+		assertGroupElementEquals(original, grid.getU(5, 1), 0.0);
+	}
+
+	/**
+	 * A mirrored workspace has to give the same gauge fixed fields as the Coulomb gauge transformation of the
+	 * mirrored grid which is stored by the occupation numbers diagnostic.
+	 */
+	@Test
+	public void testMirroredWorkspace() {
+		for (int mirroredDirection = 0; mirroredDirection < 3; mirroredDirection++) {
+			Simulation s = createTestSimulation();
+			Grid grid = s.grid;
+
+			OccupationNumbersInTime occupationNumbers = new OccupationNumbersInTime(1.0, "none", "", true,
+					true, mirroredDirection, false, 0.0, null, null, false, false, 0.0);
+			occupationNumbers.storeIntermediateGrids = true;
+			occupationNumbers.initialize(s);
+			occupationNumbers.calculate(grid, new ArrayList<IParticle>(), 0);
+			Grid mirrorGrid = occupationNumbers.getGaugeMirrorGrid();
+			Assert.assertEquals(2 * grid.getTotalNumberOfCells(), mirrorGrid.getTotalNumberOfCells());
+
+			CoulombGaugeWorkspace workspace = new CoulombGaugeWorkspace(grid, mirroredDirection);
+			workspace.fixGauge(grid);
+
+			GroupElement link = new SU2GroupElement();
+			GroupElement temp1 = new SU2GroupElement();
+			GroupElement temp2 = new SU2GroupElement();
+			double[] components = new double[3];
+			double accuracy = 1e-12;
+			for (int i = 0; i < grid.getTotalNumberOfCells(); i++) {
+				int mirrorIndex = mirrorGrid.getCellIndex(grid.getCellPos(i));
+				for (int dir = 0; dir < 3; dir++) {
+					workspace.getLink(i, dir, link);
+					assertGroupElementEquals(mirrorGrid.getU(mirrorIndex, dir), link, accuracy);
+
+					link.set(grid.getUnext(i, dir));
+					workspace.transformLink(i, dir, link, temp1, temp2);
+					assertGroupElementEquals(mirrorGrid.getUnext(mirrorIndex, dir), link, accuracy);
+
+					AlgebraElement E = grid.getE(i, dir);
+					for (int c = 0; c < 3; c++) {
+						components[c] = E.get(c);
+					}
+					workspace.transformComponents(i, components, 0, temp1);
+					for (int c = 0; c < 3; c++) {
+						Assert.assertEquals(mirrorGrid.getE(mirrorIndex, dir).get(c), components[c], accuracy);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Non-abelian test configuration which is not in Coulomb gauge.
+	 */
+	private Simulation createTestSimulation() {
+		Settings settings = new Settings();
+		settings.setNumberOfColors(2);
+		settings.setGridCells(new int[] {4, 2, 3});
+		Simulation s = new Simulation(settings);
+		Grid grid = s.grid;
+
+		GaugeTransformation transformation = new GaugeTransformation(grid);
+		for (int i = 0; i < grid.getTotalNumberOfCells(); i++) {
+			transformation.getG()[i] = new SU2AlgebraElement(.1 * i, .05 * (i % 3), -.02 * i).getLink();
+			for (int dir = 0; dir < 3; dir++) {
+				grid.setE(i, dir, new SU2AlgebraElement(.1 * dir, .01 * i, .2));
+			}
+		}
+		transformation.applyGaugeTransformation(grid);
+		grid.updateLinks(grid.getTemporalSpacing());
+		return s;
+	}
+
+	private void assertGroupElementEquals(GroupElement expected, GroupElement actual, double accuracy) {
+		for (int j = 0; j < expected.getNumberOfParameters(); j++) {
+			Assert.assertEquals(expected.get(j), actual.get(j), accuracy);
+		}
+	}
+
 	private Double[] testForSU2Fields(SU2AlgebraElement field1, SU2AlgebraElement field2) {
 		// Initialize simulation
 
@@ -428,6 +428,48 @@ public class SU2MatrixTest {
 		}
 	}
 
+	@Test
+	public void testComponentOperations() {
+		int numberOfTests = 10;
+		int n = 3;
+		for (int t = 0; t < numberOfTests; t++) {
+			SU2GroupElement U = createRandomSU2Matrix();
+			SU2AlgebraElement A = createRandomSU2AlgebraElement();
+
+			/*
+				Components stored at an offset within a larger array.
+			 */
+			double[] components = new double[n + 2];
+			for (int i = 0; i < n; i++) {
+				components[i + 1] = A.get(i);
+			}
+
+			AlgebraElement B = A.act(U);
+			U.actOnComponents(components, 1);
+			for (int i = 0; i < n; i++) {
+				Assert.assertEquals(B.get(i), components[i + 1], accuracy);
+			}
+
+			AlgebraElement C = B.act(U.adj());
+			U.adjActOnComponents(components, 1);
+			for (int i = 0; i < n; i++) {
+				Assert.assertEquals(C.get(i), components[i + 1], accuracy);
+				Assert.assertEquals(A.get(i), components[i + 1], accuracy);
+			}
+			Assert.assertEquals(0.0, components[0], 0.0);
+			Assert.assertEquals(0.0, components[n + 1], 0.0);
+
+			/*
+				Scaled addition of components.
+			 */
+			AlgebraElement D = B.add(A.mult(-0.5));
+			B.addAssign(components, 1, -0.5);
+			for (int i = 0; i < n; i++) {
+				Assert.assertEquals(D.get(i), B.get(i), accuracy);
+			}
+		}
+	}
+
 	@Test
 	public void testInv() {
 		// Create random matrix which is not SU2 in general.
@@ -626,6 +668,53 @@ public class SU2MatrixTest {
 		return output;
 	}
 
+	@Test
+	public void testInPlaceOperations() {
+		int numberOfTests = 10;
+		for (int t = 0; t < numberOfTests; t++) {
+			SU2GroupElement a = createRandomSU2Matrix();
+			SU2GroupElement b = createRandomSU2Matrix();
+			SU2GroupElement c = new SU2GroupElement();
+
+			/*
+				Products written to a destination element.
+			 */
+			a.multInto(b, c);
+			compareMatrices(convertToMatrix(a.mult(b)), convertToMatrix(c));
+			a.multAdjInto(b, c);
+			compareMatrices(convertToMatrix(a.mult(b.adj())), convertToMatrix(c));
+			a.adjMultInto(b, c);
+			compareMatrices(convertToMatrix(a.adj().mult(b)), convertToMatrix(c));
+
+			/*
+				In-place multiplication, scaled addition and projection.
+			 */
+			GroupElement d = a.mult(b);
+			SU2GroupElement e = (SU2GroupElement) a.copy();
+			e.multAssign(b);
+			compareMatrices(convertToMatrix(d), convertToMatrix(e));
+			e.set(a);
+			e.addAssign(b, 0.25);
+			compareMatrices(convertToMatrix(a.add(b.mult(0.25))), convertToMatrix(e));
+
+			SU2AlgebraElement projection = new SU2AlgebraElement();
+			d.projInto(projection);
+			for (int i = 0; i < 3; i++) {
+				Assert.assertEquals(d.proj().get(i), projection.get(i), accuracy);
+			}
+
+			/*
+				Exponential map written to a destination element.
+			 */
+			SU2AlgebraElement field = new SU2AlgebraElement();
+			for (int i = 0; i < 3; i++) {
+				field.set(i, Math.random() - 0.5);
+			}
+			field.getLinkInto(c);
+			compareMatrices(convertToMatrix(field.getLink()), convertToMatrix(c));
+		}
+	}
+
 	@Test
 	public void testDimensions(){
 		SU2GroupElement U = new SU2GroupElement();
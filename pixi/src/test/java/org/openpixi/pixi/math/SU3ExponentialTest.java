@@ -0,0 +1,133 @@
+package org.openpixi.pixi.math;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Compares the closed-form exponential, logarithm and power of SU(3) elements with the former eigendecomposition
+ * and Taylor series implementation in {@link SU3DecompositionReference}.
+ */
+public class SU3ExponentialTest {
+
+	private final double accuracy = 1.E-12;
+
+	// the logarithm of the reference implementation is only accurate up to this value
+	private final double referenceAccuracy = 1.E-10;
+
+	private final int numberOfTests = 200;
+
+	@Test
+	public void testExponential() {
+		Random random = new Random(1);
+		double[] scales = new double[]{1.E-6, 1.E-1, 1, 3, 6};
+		for (double scale : scales) {
+			for (int t = 0; t < numberOfTests; t++) {
+				SU3AlgebraElement a = createRandomAlgebraElement(random, scale);
+				SU3GroupElement u = (SU3GroupElement) a.getLink();
+				assertGroupElementEquals(SU3DecompositionReference.exp(a), u, accuracy);
+
+				SU3GroupElement dest = new SU3GroupElement();
+				a.getLinkInto(dest);
+				assertGroupElementEquals(u, dest, 0);
+
+				// special unitary
+				assertGroupElementEquals(identity(), u.mult(u.adj()), accuracy);
+				Assert.assertArrayEquals(new double[]{1, 0}, u.det(), accuracy);
+			}
+		}
+	}
+
+	@Test
+	public void testLogarithm() {
+		Random random = new Random(2);
+		double[] scales = new double[]{1.E-6, 1.E-1, 1};
+		for (double scale : scales) {
+			for (int t = 0; t < numberOfTests; t++) {
+				SU3GroupElement u = (SU3GroupElement) createRandomAlgebraElement(random, scale).getLink();
+				assertAlgebraElementEquals(SU3DecompositionReference.log(u), u.getAlgebraElement(),
+						referenceAccuracy);
+			}
+		}
+	}
+
+	@Test
+	public void testPrincipalLogarithm() {
+		/*
+			The logarithm has to invert the exponential for all eigenvalues in (-pi, pi), including degenerate ones.
+		 */
+		Random random = new Random(3);
+		SU3EverythingTest helper = new SU3EverythingTest();
+		for (int t = 0; t < numberOfTests; t++) {
+			double phi0 = 3 * (random.nextDouble() - 0.5);
+			double phi1 = (t % 4 == 0) ? phi0 : 3 * (random.nextDouble() - 0.5);
+			SU3AlgebraElement diagonal = new SU3AlgebraElement(new double[]{phi0, 0, 0, 0, phi1, 0, 0, 0, -phi0 - phi1});
+			SU3AlgebraElement a = (SU3AlgebraElement) diagonal.act(helper.createRandomSU3Matrix());
+			assertAlgebraElementEquals(a, a.getLink().getAlgebraElement(), 1.E-11);
+		}
+
+		for (int i = 0; i < 8; i++) {
+			for (double x : new double[]{1.E-9, 0.5, 2, 4}) {
+				SU3AlgebraElement a = new SU3AlgebraElement();
+				a.set(i, x);
+				assertAlgebraElementEquals(a, a.getLink().getAlgebraElement(), accuracy);
+			}
+		}
+	}
+
+	@Test
+	public void testRandomGroupElements() {
+		/*
+			exp(log(U)) has to reproduce arbitrary SU(3) matrices, including eigenvalues close to -1.
+		 */
+		SU3EverythingTest helper = new SU3EverythingTest();
+		for (int t = 0; t < 10 * numberOfTests; t++) {
+			SU3GroupElement u = helper.createRandomSU3Matrix();
+			assertGroupElementEquals(u, u.getAlgebraElement().getLink(), 1.E-10);
+		}
+	}
+
+	@Test
+	public void testPow() {
+		Random random = new Random(4);
+		double[] exponents = new double[]{0.3, -0.7, 2.5};
+		for (int t = 0; t < numberOfTests; t++) {
+			SU3GroupElement u = (SU3GroupElement) createRandomAlgebraElement(random, 1).getLink();
+			for (double x : exponents) {
+				SU3AlgebraElement log = SU3DecompositionReference.log(u);
+				SU3GroupElement expected = SU3DecompositionReference.exp((SU3AlgebraElement) log.mult(x));
+				assertGroupElementEquals(expected, u.pow(x), referenceAccuracy);
+			}
+			assertGroupElementEquals(u, u.pow(0.5).mult(u.pow(0.5)), accuracy);
+			assertGroupElementEquals(u, u.pow(1), accuracy);
+			assertGroupElementEquals(identity(), u.pow(0), accuracy);
+		}
+	}
+
+	private SU3AlgebraElement createRandomAlgebraElement(Random random, double scale) {
+		SU3AlgebraElement a = new SU3AlgebraElement();
+		for (int i = 0; i < 8; i++) {
+			a.set(i, scale * (random.nextDouble() - 0.5));
+		}
+		return a;
+	}
+
+	private SU3GroupElement identity() {
+		SU3GroupElement u = new SU3GroupElement();
+		u.setIdentity();
+		return u;
+	}
+
+	private void assertGroupElementEquals(GroupElement expected, GroupElement actual, double delta) {
+		for (int i = 0; i < expected.getNumberOfParameters(); i++) {
+			Assert.assertEquals(expected.get(i), actual.get(i), delta);
+		}
+	}
+
+	private void assertAlgebraElementEquals(AlgebraElement expected, AlgebraElement actual, double delta) {
+		for (int i = 0; i < expected.getAdjointDimension(); i++) {
+			Assert.assertEquals(expected.get(i), actual.get(i), delta);
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package org.openpixi.pixi.parallel.cellaccess;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpixi.pixi.physics.grid.Grid;
+
+public class BlockCellIteratorTest {
+
+	private final int[] numCells = new int[]{7, 5, 6};
+
+	@Test
+	public void testSlabs() {
+		checkEveryCellVisitedOnce(null, false);
+		checkEveryCellVisitedOnce(null, true);
+	}
+
+	@Test
+	public void testBoxes() {
+		checkEveryCellVisitedOnce(new int[]{2, 0, 4}, false);
+		checkEveryCellVisitedOnce(new int[]{3, 2, 2}, true);
+		checkEveryCellVisitedOnce(new int[]{1, 1, 1}, true);
+		checkEveryCellVisitedOnce(new int[]{8, 8, 8}, false);
+	}
+
+	@Test
+	public void testSingleThread() {
+		// A single thread traverses the blocks in the calling thread, no executor is needed.
+		checkEveryCellVisitedOnce(new int[]{3, 2, 4}, false, 1);
+		checkEveryCellVisitedOnce(new int[]{2, 2, 2}, true, 1);
+	}
+
+	@Test
+	public void testCacheBlockShape() {
+		int[] largeLattice = new int[]{256, 256, 256};
+		int bytesPerCell = 1296;
+		int cacheSize = 512 * 1024;
+		int[] shape = BlockCellIterator.getCacheBlockShape(largeLattice, bytesPerCell, cacheSize);
+		long bytes = bytesPerCell;
+		for (int i = 0; i < shape.length; i++) {
+			bytes *= shape[i] + 2;
+		}
+		Assert.assertTrue(bytes <= cacheSize);
+		Assert.assertEquals(shape[0], shape[1]);
+		Assert.assertEquals(4 * shape[0], shape[2]);
+
+		// Small lattices fit into the cache entirely.
+		Assert.assertArrayEquals(numCells, BlockCellIterator.getCacheBlockShape(numCells, 8, cacheSize));
+	}
+
+	private void checkEveryCellVisitedOnce(int[] blockShape, boolean dynamicScheduling) {
+		checkEveryCellVisitedOnce(blockShape, dynamicScheduling, 3);
+	}
+
+	private void checkEveryCellVisitedOnce(int[] blockShape, boolean dynamicScheduling, int numOfThreads) {
+		ExecutorService executor = (numOfThreads > 1) ? Executors.newFixedThreadPool(numOfThreads) : null;
+		try {
+			CellIterator iterator = new BlockCellIterator(numOfThreads, executor, blockShape, dynamicScheduling);
+			iterator.setNormalMode(numCells);
+			// Copies have to behave the same way.
+			iterator = iterator.copy();
+
+			int totalNumberOfCells = numCells[0] * numCells[1] * numCells[2];
+			final AtomicIntegerArray visits = new AtomicIntegerArray(totalNumberOfCells);
+			iterator.execute(null, new CellAction() {
+				public void execute(Grid grid, int index) {
+					visits.incrementAndGet(index);
+				}
+			});
+
+			for (int i = 0; i < totalNumberOfCells; i++) {
+				Assert.assertEquals("Cell " + i, 1, visits.get(i));
+			}
+		} finally {
+			if (executor != null) {
+				executor.shutdown();
+			}
+		}
+	}
+}
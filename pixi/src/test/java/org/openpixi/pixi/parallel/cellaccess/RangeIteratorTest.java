@@ -0,0 +1,67 @@
+package org.openpixi.pixi.parallel.cellaccess;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpixi.pixi.physics.GeneralBoundaryType;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.grid.EmptyInterpolator;
+import org.openpixi.pixi.physics.grid.Grid;
+
+public class RangeIteratorTest {
+
+	/**
+	 * Every cell of the lattice has to be visited exactly once if the chunks are distributed over the threads, also
+	 * if the number of cells is not a multiple of the chunk size.
+	 */
+	@Test
+	public void testChunks() {
+		for (int numberOfThreads = 1; numberOfThreads <= 3; numberOfThreads += 2) {
+			Simulation s = new Simulation(getStandardSettings(numberOfThreads));
+			final int totalNumberOfCells = s.grid.getTotalNumberOfCells();
+			int numberOfChunks = RangeIterator.getNumberOfChunks(totalNumberOfCells);
+			Assert.assertTrue(totalNumberOfCells % RangeIterator.CHUNK_SIZE != 0);
+			Assert.assertEquals(totalNumberOfCells / RangeIterator.CHUNK_SIZE + 1, numberOfChunks);
+
+			final AtomicIntegerArray visits = new AtomicIntegerArray(totalNumberOfCells);
+			RangeIterator iterator = new RangeIterator(s.grid, numberOfChunks);
+			Assert.assertEquals(numberOfChunks, iterator.getSize());
+			iterator.execute(s.grid, new CellAction() {
+				public void execute(Grid grid, int chunk) {
+					int end = RangeIterator.getChunkEnd(chunk, totalNumberOfCells);
+					for (int i = RangeIterator.getChunkStart(chunk); i < end; i++) {
+						visits.incrementAndGet(i);
+					}
+				}
+			});
+			for (int i = 0; i < totalNumberOfCells; i++) {
+				Assert.assertEquals("Cell " + i, 1, visits.get(i));
+			}
+		}
+	}
+
+	private Settings getStandardSettings(int numberOfThreads) {
+		Settings s = new Settings();
+
+		s.setRelativistic(true);
+		s.setBoundary(GeneralBoundaryType.Periodic);
+		s.useGrid(true);
+		s.setInterpolator(new EmptyInterpolator());
+		s.setSpeedOfLight(1.0);
+		s.setNumberOfDimensions(3);
+
+		s.setGridStep(1.0);
+		s.setTimeStep(0.1);
+		s.setGridCells(0, 13);
+		s.setGridCells(1, 9);
+		s.setGridCells(2, 7);
+
+		s.setNumberOfColors(2);
+		s.setCouplingConstant(1.0);
+		s.setNumOfThreads(numberOfThreads);
+
+		return s;
+	}
+}
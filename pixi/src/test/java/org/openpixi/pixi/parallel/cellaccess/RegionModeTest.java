@@ -0,0 +1,78 @@
+package org.openpixi.pixi.parallel.cellaccess;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpixi.pixi.physics.grid.Grid;
+import org.openpixi.pixi.physics.util.GridFunctions;
+
+public class RegionModeTest {
+
+	private final int[] numCells = new int[]{7, 5, 6};
+	private final int[] regionPoint1 = new int[]{2, 0, 1};
+	private final int[] regionPoint2 = new int[]{4, 4, 3};
+
+	@Test
+	public void testRegionMode() {
+		int numOfThreads = 3;
+		ExecutorService executor = Executors.newFixedThreadPool(numOfThreads);
+		try {
+			checkRegionVisitedOnce(new SequentialCellIterator());
+			checkRegionVisitedOnce(new ParallelCellIterator(numOfThreads, executor));
+			checkRegionVisitedOnce(new BlockCellIterator(numOfThreads, executor));
+			checkRegionVisitedOnce(new BlockCellIterator(numOfThreads, executor, null, true));
+			checkRegionVisitedOnce(new BlockCellIterator(numOfThreads, executor, new int[]{2, 0, 2}, true));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testEmptyRegion() {
+		CellIterator iterator = new SequentialCellIterator();
+		iterator.setRegionMode(numCells, new int[]{3, 3, 3}, new int[]{2, 4, 4});
+		iterator.execute(null, new CellAction() {
+			public void execute(Grid grid, int index) {
+				Assert.fail("No cell should be visited.");
+			}
+		});
+	}
+
+	private void checkRegionVisitedOnce(CellIterator iterator) {
+		iterator.setRegionMode(numCells, regionPoint1, regionPoint2);
+		// Copies have to behave the same way.
+		iterator = iterator.copy();
+
+		int totalNumberOfCells = GridFunctions.getTotalNumberOfCells(numCells);
+		final AtomicIntegerArray visits = new AtomicIntegerArray(totalNumberOfCells);
+		iterator.execute(null, new CellAction() {
+			public void execute(Grid grid, int index) {
+				visits.incrementAndGet(index);
+			}
+		});
+
+		for (int i = 0; i < totalNumberOfCells; i++) {
+			int[] pos = GridFunctions.getCellPos(i, numCells);
+			boolean inside = true;
+			for (int j = 0; j < numCells.length; j++) {
+				inside &= regionPoint1[j] <= pos[j] && pos[j] <= regionPoint2[j];
+			}
+			Assert.assertEquals("Cell " + i, inside ? 1 : 0, visits.get(i));
+		}
+
+		// Back to the full lattice.
+		iterator.setNormalMode(numCells);
+		final AtomicIntegerArray allVisits = new AtomicIntegerArray(totalNumberOfCells);
+		iterator.execute(null, new CellAction() {
+			public void execute(Grid grid, int index) {
+				allVisits.incrementAndGet(index);
+			}
+		});
+		for (int i = 0; i < totalNumberOfCells; i++) {
+			Assert.assertEquals("Cell " + i, 1, allVisits.get(i));
+		}
+	}
+}
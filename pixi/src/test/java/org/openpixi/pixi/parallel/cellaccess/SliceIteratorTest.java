@@ -0,0 +1,226 @@
+package org.openpixi.pixi.parallel.cellaccess;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpixi.pixi.diagnostics.methods.ProjectedEnergyDensity;
+import org.openpixi.pixi.diagnostics.methods.ProjectedEnergyDensity2;
+import org.openpixi.pixi.diagnostics.output.BinaryOutputReader;
+import org.openpixi.pixi.diagnostics.output.OutputFormat;
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.ElementFactory;
+import org.openpixi.pixi.physics.GeneralBoundaryType;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.grid.EmptyInterpolator;
+import org.openpixi.pixi.physics.grid.Grid;
+import org.openpixi.pixi.physics.particles.IParticle;
+
+public class SliceIteratorTest {
+
+	private final double accuracy = 1.E-12;
+
+	/**
+	 * Every cell has to be visited once with its longitudinal position, and the sums over the slices have to agree
+	 * with a sequential sum over the cells for every longitudinal direction and number of threads.
+	 */
+	@Test
+	public void testSliceSums() {
+		for (int direction = 0; direction < 3; direction++) {
+			for (int numberOfThreads = 1; numberOfThreads <= 3; numberOfThreads += 2) {
+				Simulation s = new Simulation(getStandardSettings(numberOfThreads));
+				initializeRandomFields(s.grid, new Random(5));
+				checkSliceSums(s.grid, direction);
+			}
+		}
+	}
+
+	/**
+	 * The projected energy densities have to agree with a sequential sum over the cells and must not depend on the
+	 * number of threads.
+	 */
+	@Test
+	public void testProjectedEnergyDensity() throws IOException {
+		for (int direction = 0; direction < 3; direction++) {
+			double[][] rows1 = computeProjectedEnergyDensity(1, direction);
+			double[][] rows3 = computeProjectedEnergyDensity(3, direction);
+			Assert.assertEquals(6, rows1.length);
+			for (int r = 0; r < rows1.length; r++) {
+				Assert.assertArrayEquals(rows1[r], rows3[r], 0.0);
+			}
+
+			Simulation s = new Simulation(getStandardSettings(1));
+			initializeRandomFields(s.grid, new Random(5));
+			Grid grid = s.grid;
+			int numberOfSlices = grid.getNumCells(direction);
+			double areaFactor = grid.getTotalNumberOfCells() / ((double) numberOfSlices);
+			double[] transverse = new double[numberOfSlices];
+			double[] longitudinal = new double[numberOfSlices];
+			for (int index = 0; index < grid.getTotalNumberOfCells(); index++) {
+				int slice = grid.getCellPos(index)[direction];
+				for (int j = 0; j < grid.getNumberOfDimensions(); j++) {
+					double electric = 0.5 * grid.getE(index, j).square()
+							* Math.pow(grid.getLatticeUnitFactor(j), -2) / areaFactor;
+					if (j == direction) {
+						longitudinal[slice] += electric;
+					} else {
+						transverse[slice] += electric;
+					}
+				}
+			}
+			Assert.assertArrayEquals(transverse, rows1[0], accuracy);
+			Assert.assertArrayEquals(longitudinal, rows1[2], accuracy);
+		}
+	}
+
+	@Test
+	public void testProjectedEnergyDensity2() throws IOException {
+		byte[] output1 = computeProjectedEnergyDensity2(1);
+		byte[] output3 = computeProjectedEnergyDensity2(3);
+		// Header and one record of six rows.
+		Assert.assertEquals(8 + 8 + 6 * 8 * 8, output1.length);
+		Assert.assertArrayEquals(output1, output3);
+	}
+
+	private void checkSliceSums(Grid grid, final int direction) {
+		SliceIterator iterator = new SliceIterator(grid, direction);
+		final int numberOfSlices = grid.getNumCells(direction);
+		Assert.assertEquals(numberOfSlices, iterator.getNumberOfSlices());
+
+		final int[] visits = new int[grid.getTotalNumberOfCells()];
+		final int[] cellsPerSlice = new int[numberOfSlices];
+		final double[] eSquared = new double[numberOfSlices];
+		final double[] bSquared = new double[numberOfSlices];
+		final boolean[] wrongSlice = new boolean[1];
+		iterator.execute(grid, new SliceAction() {
+			public void execute(Grid grid, int index, int slice) {
+				// Cells are only visited by the thread owning the slice.
+				visits[index]++;
+				cellsPerSlice[slice]++;
+				if (grid.getCellPos(index)[direction] != slice) {
+					wrongSlice[0] = true;
+				}
+				for (int j = 0; j < grid.getNumberOfDimensions(); j++) {
+					eSquared[slice] += grid.getE(index, j).square();
+					bSquared[slice] += grid.getBsquaredFromLinks(index, j, 0);
+				}
+			}
+		});
+
+		double[] expectedESquared = new double[numberOfSlices];
+		double[] expectedBSquared = new double[numberOfSlices];
+		for (int index = 0; index < grid.getTotalNumberOfCells(); index++) {
+			int slice = grid.getCellPos(index)[direction];
+			for (int j = 0; j < grid.getNumberOfDimensions(); j++) {
+				expectedESquared[slice] += grid.getE(index, j).square();
+				expectedBSquared[slice] += grid.getBsquaredFromLinks(index, j, 0);
+			}
+		}
+
+		Assert.assertFalse(wrongSlice[0]);
+		for (int index = 0; index < visits.length; index++) {
+			Assert.assertEquals("Cell " + index, 1, visits[index]);
+		}
+		int cellsPerSliceExpected = grid.getTotalNumberOfCells() / numberOfSlices;
+		for (int slice = 0; slice < numberOfSlices; slice++) {
+			Assert.assertEquals(cellsPerSliceExpected, cellsPerSlice[slice]);
+		}
+		Assert.assertArrayEquals(expectedESquared, eSquared, accuracy);
+		Assert.assertArrayEquals(expectedBSquared, bSquared, accuracy);
+	}
+
+	private double[][] computeProjectedEnergyDensity(int numberOfThreads, int direction) throws IOException {
+		File file = File.createTempFile("projected-energy-density", ".bin");
+		try {
+			ProjectedEnergyDensity diagnostic = new ProjectedEnergyDensity(file.getAbsolutePath(), 0.1, direction);
+			diagnostic.computeEnergyDensity = true;
+			diagnostic.computePoyntingVector = true;
+			diagnostic.outputFormat = OutputFormat.Binary;
+
+			Simulation s = new Simulation(getStandardSettings(numberOfThreads));
+			initializeRandomFields(s.grid, new Random(5));
+			diagnostic.initialize(s);
+			diagnostic.calculate(s.grid, new ArrayList<IParticle>(), 0);
+			diagnostic.close();
+
+			BinaryOutputReader reader = new BinaryOutputReader(file.getAbsolutePath());
+			try {
+				Assert.assertTrue(reader.next());
+				return reader.getRows();
+			} finally {
+				reader.close();
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	private byte[] computeProjectedEnergyDensity2(int numberOfThreads) throws IOException {
+		File file = File.createTempFile("projected-energy-density2", ".bin");
+		try {
+			ProjectedEnergyDensity2 diagnostic = new ProjectedEnergyDensity2(file.getAbsolutePath(), 0.1);
+
+			Simulation s = new Simulation(getStandardSettings(numberOfThreads));
+			initializeRandomFields(s.grid, new Random(5));
+			diagnostic.initialize(s);
+			diagnostic.calculate(s.grid, new ArrayList<IParticle>(), 0);
+
+			RandomAccessFile input = new RandomAccessFile(file, "r");
+			try {
+				byte[] bytes = new byte[(int) input.length()];
+				input.readFully(bytes);
+				return bytes;
+			} finally {
+				input.close();
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	private void initializeRandomFields(Grid grid, Random random) {
+		ElementFactory factory = grid.getElementFactory();
+		for (int i = 0; i < grid.getTotalNumberOfCells(); i++) {
+			for (int d = 0; d < grid.getNumberOfDimensions(); d++) {
+				AlgebraElement E = factory.algebraZero();
+				AlgebraElement A = factory.algebraZero();
+				for (int k = 0; k < E.getAdjointDimension(); k++) {
+					E.set(k, random.nextDouble() - 0.5);
+					A.set(k, random.nextDouble() - 0.5);
+				}
+				grid.setE(i, d, E);
+				grid.setU(i, d, A.getLink());
+			}
+		}
+		grid.updateLinks(grid.getTemporalSpacing());
+	}
+
+	private Settings getStandardSettings(int numberOfThreads) {
+		Settings s = new Settings();
+
+		s.setRelativistic(true);
+		s.setBoundary(GeneralBoundaryType.Periodic);
+		s.useGrid(true);
+		s.setInterpolator(new EmptyInterpolator());
+		s.setSpeedOfLight(1.0);
+		s.setNumberOfDimensions(3);
+
+		s.setGridStep(1.0);
+		s.setTimeStep(0.1);
+		s.setIterations(1);
+		s.setGridCells(0, 8);
+		s.setGridCells(1, 6);
+		s.setGridCells(2, 5);
+
+		s.setNumberOfColors(2);
+		s.setCouplingConstant(1.0);
+		s.setNumOfThreads(numberOfThreads);
+
+		return s;
+	}
+}
@@ -0,0 +1,198 @@
+package org.openpixi.pixi.physics.checkpoint;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.GroupElement;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.fields.currentgenerators.NewLCCurrentProton;
+import org.openpixi.pixi.physics.grid.Grid;
+import org.openpixi.pixi.ui.util.yaml.YamlParser;
+
+public class SimulationCheckpointTest {
+
+	private final double accuracy = 1.E-14;
+
+	@Test
+	public void testResumeCGC() throws IOException {
+		compareResumedSimulation("temporal cgc ngp", "cells");
+	}
+
+	@Test
+	public void testResumeCGCParticleArrays() throws IOException {
+		compareResumedSimulation("temporal cgc ngp", "cells", "primitive", 0);
+	}
+
+	@Test
+	public void testResumeOptimizedCGC() throws IOException {
+		compareResumedSimulation("temporal optimized cgc ngp", "primitive");
+	}
+
+	@Test
+	public void testResumeOptimizedCGCAlongY() throws IOException {
+		compareResumedSimulation("temporal optimized cgc ngp", "primitive", 1);
+	}
+
+	@Test
+	public void testResumeRandomCurrent() throws IOException {
+		File checkpoint = File.createTempFile("pixi-checkpoint", ".bin");
+		checkpoint.deleteOnExit();
+
+		// The charge density of the current generator is random and can only be restored from the checkpoint.
+		Settings settings1 = getCurrentSettings();
+		settings1.setCheckpointInterval(3);
+		settings1.setCheckpointPath(checkpoint.getPath());
+		Simulation s1 = new Simulation(settings1);
+		for (int t = 0; t < 3; t++) {
+			s1.step();
+		}
+
+		Settings settings2 = getCurrentSettings();
+		settings2.setResumeCheckpoint(checkpoint.getPath());
+		Simulation s2 = new Simulation(settings2);
+
+		for (int t = 0; t < 3; t++) {
+			s1.step();
+			s2.step();
+		}
+		compareGrids(s1.grid, s2.grid);
+
+		settings1.terminateThreads();
+		settings2.terminateThreads();
+	}
+
+	private void compareResumedSimulation(String simulationType, String gridStorage) throws IOException {
+		compareResumedSimulation(simulationType, gridStorage, 0);
+	}
+
+	private void compareResumedSimulation(String simulationType, String gridStorage, int direction)
+			throws IOException {
+		compareResumedSimulation(simulationType, gridStorage, "objects", direction);
+	}
+
+	private void compareResumedSimulation(String simulationType, String gridStorage, String particleStorage,
+	                                      int direction) throws IOException {
+		File checkpoint = File.createTempFile("pixi-checkpoint", ".bin");
+		checkpoint.deleteOnExit();
+
+		// Reference run which writes a checkpoint after three steps.
+		Settings settings1 = getCGCSettings(simulationType, gridStorage, particleStorage, direction);
+		settings1.setCheckpointInterval(3);
+		settings1.setCheckpointPath(checkpoint.getPath());
+		Simulation s1 = new Simulation(settings1);
+		for (int t = 0; t < 3; t++) {
+			s1.step();
+		}
+
+		Settings settings2 = getCGCSettings(simulationType, gridStorage, particleStorage, direction);
+		settings2.setResumeCheckpoint(checkpoint.getPath());
+		Simulation s2 = new Simulation(settings2);
+		Assert.assertEquals(3, s2.totalSimulationSteps);
+		Assert.assertEquals(s1.particles.size(), s2.particles.size());
+
+		for (int t = 0; t < 3; t++) {
+			s1.step();
+			s2.step();
+		}
+		Assert.assertEquals(s1.totalSimulationSteps, s2.totalSimulationSteps);
+		compareGrids(s1.grid, s2.grid);
+
+		settings1.terminateThreads();
+		settings2.terminateThreads();
+	}
+
+	private void compareGrids(Grid g1, Grid g2) {
+		for (int i = 0; i < g1.getTotalNumberOfCells(); i++) {
+			compare(g1.getRho(i), g2.getRho(i));
+			Assert.assertEquals(g1.isActive(i), g2.isActive(i));
+			Assert.assertEquals(g1.isEvaluatable(i), g2.isEvaluatable(i));
+			for (int d = 0; d < g1.getNumberOfDimensions(); d++) {
+				compare(g1.getE(i, d), g2.getE(i, d));
+				compare(g1.getJ(i, d), g2.getJ(i, d));
+				compare(g1.getU(i, d), g2.getU(i, d));
+				compare(g1.getUnext(i, d), g2.getUnext(i, d));
+			}
+		}
+	}
+
+	private void compare(AlgebraElement a, AlgebraElement b) {
+		for (int k = 0; k < a.getAdjointDimension(); k++) {
+			Assert.assertEquals(a.get(k), b.get(k), accuracy);
+		}
+	}
+
+	private void compare(GroupElement a, GroupElement b) {
+		for (int k = 0; k < a.getNumberOfParameters(); k++) {
+			Assert.assertEquals(a.get(k), b.get(k), accuracy);
+		}
+	}
+
+	private Settings getCurrentSettings() {
+		String configurationString = "simulationType: temporal yang-mills\n" +
+				"gridStep: 1\n" +
+				"couplingConstant: 2\n" +
+				"numberOfDimensions: 3\n" +
+				"numberOfColors: 2\n" +
+				"numberOfThreads: 1\n" +
+				"gridCells: [24, 8, 8]\n" +
+				"timeStep: 0.5\n" +
+				"duration: 4\n";
+
+		Settings settings = new Settings();
+		YamlParser yamlParser = new YamlParser(settings);
+		yamlParser.parseString(configurationString);
+
+		NewLCCurrentProton current = new NewLCCurrentProton(0, 1, 8, 2, new double[]{4, 4});
+		current.addCharge(new double[]{4, 4}, 2);
+		settings.addCurrentGenerator(current);
+		return settings;
+	}
+
+	private Settings getCGCSettings(String simulationType, String gridStorage, String particleStorage,
+	                               int direction) {
+		int[] gridCells = new int[]{8, 8, 8};
+		gridCells[direction] = 24;
+		String configurationString = "simulationType: " + simulationType + "\n" +
+				"gridStep: 1\n" +
+				"couplingConstant: 2\n" +
+				"numberOfDimensions: 3\n" +
+				"numberOfColors: 2\n" +
+				"numberOfThreads: 1\n" +
+				"gridCells: [" + gridCells[0] + ", " + gridCells[1] + ", " + gridCells[2] + "]\n" +
+				"gridStorage: " + gridStorage + "\n" +
+				"particleStorage: " + particleStorage + "\n" +
+				"timeStep: 0.5\n" +
+				"duration: 4\n" +
+				"initialConditions:\n" +
+				"  CGC:\n" +
+				"    poissonSolver: improved full\n" +
+				"    MVModel:\n" +
+				"      - direction: " + direction + "\n" +
+				"        orientation: 1\n" +
+				"        longitudinalLocation: 8\n" +
+				"        longitudinalWidth: 2\n" +
+				"        randomSeed: 5\n" +
+				"        mu: .2\n" +
+				"        ultravioletCutoffTransverse: 2\n" +
+				"        longitudinalCoherenceLength: 4\n" +
+				"        infraredCoefficient: 0.2\n" +
+				"      - direction: " + direction + "\n" +
+				"        orientation: -1\n" +
+				"        longitudinalLocation: 16\n" +
+				"        longitudinalWidth: 2\n" +
+				"        randomSeed: 6\n" +
+				"        mu: .2\n" +
+				"        ultravioletCutoffTransverse: 2\n" +
+				"        longitudinalCoherenceLength: 4\n" +
+				"        infraredCoefficient: 0.2\n";
+
+		Settings settings = new Settings();
+		YamlParser yamlParser = new YamlParser(settings);
+		yamlParser.parseString(configurationString);
+		return settings;
+	}
+}
@@ -0,0 +1,116 @@
+package org.openpixi.pixi.physics.fields;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.ElementFactory;
+import org.openpixi.pixi.math.GroupElement;
+import org.openpixi.pixi.physics.GeneralBoundaryType;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.grid.EmptyInterpolator;
+import org.openpixi.pixi.physics.grid.Grid;
+
+public class FastTYMSolverTest {
+
+	/**
+	 * The traversal order of the lattice must not change the fields, so tiled and untiled runs have to give identical
+	 * results for any number of threads.
+	 */
+	@Test
+	public void testTiling() throws IOException {
+		Settings reference = getStandardSettings(1);
+
+		Settings automaticTiling = getStandardSettings(1);
+		automaticTiling.useAutomaticFieldSolverTiling(true);
+		// Tiles of 2 x 2 x 5 cells on this lattice.
+		automaticTiling.setTileCacheSize(128 * 1024);
+		compareFields(reference, automaticTiling);
+
+		Settings automaticTilingThreads = getStandardSettings(3);
+		automaticTilingThreads.useAutomaticFieldSolverTiling(true);
+		automaticTilingThreads.setTileCacheSize(128 * 1024);
+		compareFields(reference, automaticTilingThreads);
+
+		Settings tiles = getStandardSettings(1);
+		tiles.setFieldSolverTileShape(new int[]{3, 0, 2});
+		compareFields(reference, tiles);
+
+		Settings tilesThreads = getStandardSettings(3);
+		tilesThreads.setFieldSolverTileShape(new int[]{3, 2, 2});
+		tilesThreads.useDynamicCellScheduling(true);
+		compareFields(reference, tilesThreads);
+
+		compareFields(reference, getStandardSettings(3));
+	}
+
+	private void compareFields(Settings settings1, Settings settings2) throws IOException {
+		Simulation s1 = new Simulation(settings1);
+		Simulation s2 = new Simulation(settings2);
+		initializeRandomFields(s1.grid, new Random(7));
+		initializeRandomFields(s2.grid, new Random(7));
+
+		for (int t = 0; t < 4; t++) {
+			s1.step();
+			s2.step();
+		}
+		for (int i = 0; i < s1.grid.getTotalNumberOfCells(); i++) {
+			for (int d = 0; d < s1.grid.getNumberOfDimensions(); d++) {
+				AlgebraElement E1 = s1.grid.getE(i, d);
+				AlgebraElement E2 = s2.grid.getE(i, d);
+				for (int k = 0; k < E1.getAdjointDimension(); k++) {
+					Assert.assertEquals(E1.get(k), E2.get(k), 0.0);
+				}
+				GroupElement U1 = s1.grid.getU(i, d);
+				GroupElement U2 = s2.grid.getU(i, d);
+				for (int k = 0; k < U1.getNumberOfParameters(); k++) {
+					Assert.assertEquals(U1.get(k), U2.get(k), 0.0);
+				}
+			}
+		}
+	}
+
+	private void initializeRandomFields(Grid grid, Random random) {
+		ElementFactory factory = grid.getElementFactory();
+		for (int i = 0; i < grid.getTotalNumberOfCells(); i++) {
+			for (int d = 0; d < grid.getNumberOfDimensions(); d++) {
+				AlgebraElement E = factory.algebraZero();
+				AlgebraElement A = factory.algebraZero();
+				for (int k = 0; k < E.getAdjointDimension(); k++) {
+					E.set(k, random.nextDouble() - 0.5);
+					A.set(k, random.nextDouble() - 0.5);
+				}
+				grid.setE(i, d, E);
+				grid.setU(i, d, A.getLink());
+			}
+		}
+		grid.updateLinks(grid.getTemporalSpacing());
+	}
+
+	private Settings getStandardSettings(int numberOfThreads) {
+		Settings s = new Settings();
+
+		s.setRelativistic(true);
+		s.setBoundary(GeneralBoundaryType.Periodic);
+		s.setFieldSolver(new FastTYMSolver());
+		s.useGrid(true);
+		s.setInterpolator(new EmptyInterpolator());
+		s.setSpeedOfLight(1.0);
+		s.setNumberOfDimensions(3);
+
+		s.setGridStep(1.0);
+		s.setTimeStep(0.1);
+		s.setGridCells(0, 8);
+		s.setGridCells(1, 6);
+		s.setGridCells(2, 5);
+
+		s.setNumberOfColors(3);
+		s.setCouplingConstant(1.0);
+		s.setNumOfThreads(numberOfThreads);
+
+		return s;
+	}
+}
@@ -0,0 +1,131 @@
+package org.openpixi.pixi.physics.fields;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.ElementFactory;
+import org.openpixi.pixi.math.GroupElement;
+import org.openpixi.pixi.physics.GeneralBoundaryType;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.grid.EmptyInterpolator;
+import org.openpixi.pixi.physics.grid.Grid;
+import org.openpixi.pixi.physics.grid.GridStorageType;
+
+public class ImplicitTYMSolverTest {
+
+	private final double accuracy = 1.E-13;
+
+	/**
+	 * Without implicit iterations the solver has to reproduce the explicit leapfrog scheme.
+	 */
+	@Test
+	public void testWithoutIterations() throws IOException {
+		Simulation s1 = createSimulation(new FastTYMSolver(), GridStorageType.Cells);
+		Simulation s2 = createSimulation(new ImplicitTYMSolver(0, 0.5), GridStorageType.Cells);
+		initializeRandomFields(s1.grid, new Random(3));
+		initializeRandomFields(s2.grid, new Random(3));
+
+		for (int t = 0; t < 4; t++) {
+			s1.step();
+			s2.step();
+			for (int i = 0; i < s1.grid.getTotalNumberOfCells(); i++) {
+				for (int d = 0; d < s1.grid.getNumberOfDimensions(); d++) {
+					AlgebraElement difference = s1.grid.getE(i, d).sub(s2.grid.getE(i, d));
+					Assert.assertEquals(0.0, difference.square(), accuracy);
+					Assert.assertEquals(s1.grid.getUnext(i, d).getRealTrace(), s2.grid.getUnext(i, d).getRealTrace(),
+							accuracy);
+				}
+			}
+		}
+	}
+
+	/**
+	 * With implicit iterations and damping the solver has to reproduce the implementation which copied the grid in
+	 * every step.
+	 */
+	@Test
+	public void testIterations() throws IOException {
+		compareWithReference(GridStorageType.Cells);
+		compareWithReference(GridStorageType.Primitive);
+	}
+
+	private void compareWithReference(GridStorageType gridStorage) throws IOException {
+		Simulation s1 = createSimulation(new ReferenceImplicitTYMSolver(3, 0.3), GridStorageType.Cells);
+		Simulation s2 = createSimulation(new ImplicitTYMSolver(3, 0.3), gridStorage);
+		initializeRandomFields(s1.grid, new Random(5));
+		initializeRandomFields(s2.grid, new Random(5));
+
+		for (int t = 0; t < 4; t++) {
+			s1.step();
+			s2.step();
+			for (int i = 0; i < s1.grid.getTotalNumberOfCells(); i++) {
+				for (int d = 0; d < s1.grid.getNumberOfDimensions(); d++) {
+					AlgebraElement difference = s1.grid.getE(i, d).sub(s2.grid.getE(i, d));
+					Assert.assertEquals(0.0, difference.square(), accuracy);
+					GroupElement U1 = s1.grid.getU(i, d);
+					GroupElement U2 = s2.grid.getU(i, d);
+					for (int k = 0; k < U1.getNumberOfParameters(); k++) {
+						Assert.assertEquals(U1.get(k), U2.get(k), accuracy);
+					}
+				}
+			}
+		}
+	}
+
+	private void initializeRandomFields(Grid grid, Random random) {
+		ElementFactory factory = grid.getElementFactory();
+		for (int i = 0; i < grid.getTotalNumberOfCells(); i++) {
+			for (int d = 0; d < grid.getNumberOfDimensions(); d++) {
+				AlgebraElement E = factory.algebraZero();
+				AlgebraElement A = factory.algebraZero();
+				for (int k = 0; k < E.getAdjointDimension(); k++) {
+					E.set(k, random.nextDouble() - 0.5);
+					A.set(k, random.nextDouble() - 0.5);
+				}
+				grid.setE(i, d, E);
+				grid.setU(i, d, A.getLink());
+			}
+		}
+		grid.updateLinks(grid.getTemporalSpacing());
+	}
+
+	/**
+	 * The simulation type replaces the field solver of the settings when the simulation is created (see
+	 * {@link Settings#getSimulationType()}), therefore the solver is set on the grid afterwards.
+	 */
+	private Simulation createSimulation(FieldSolver solver, GridStorageType gridStorage) {
+		Settings settings = getStandardSettings();
+		settings.setGridStorage(gridStorage);
+		Simulation s = new Simulation(settings);
+		solver.initializeIterator(settings.getFieldSolverCellIterator(), s.grid.getNumCells());
+		s.grid.setFsolver(solver);
+		return s;
+	}
+
+	private Settings getStandardSettings() {
+		Settings s = new Settings();
+
+		s.setRelativistic(true);
+		s.setBoundary(GeneralBoundaryType.Periodic);
+		s.useGrid(true);
+		s.setInterpolator(new EmptyInterpolator());
+		s.setSpeedOfLight(1.0);
+		s.setNumberOfDimensions(3);
+
+		s.setGridStep(1.0);
+		s.setTimeStep(0.1);
+		s.setGridCells(0, 5);
+		s.setGridCells(1, 4);
+		s.setGridCells(2, 3);
+
+		s.setNumberOfColors(3);
+		s.setCouplingConstant(1.0);
+		s.setNumOfThreads(2);
+
+		return s;
+	}
+}
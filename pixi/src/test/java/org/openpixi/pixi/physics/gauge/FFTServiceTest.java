@@ -0,0 +1,85 @@
+package org.openpixi.pixi.physics.gauge;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpixi.pixi.physics.initial.CGC.FourierFunctions;
+
+public class FFTServiceTest {
+
+	private final double accuracy = 1.E-12;
+
+	/**
+	 * Kernels applied to batches of real fields (packed in pairs) have to agree with single complex transforms.
+	 */
+	@Test
+	public void testApplyKernel() {
+		int[] shape = new int[]{6, 4, 5};
+		int totalNumberOfCells = 6 * 4 * 5;
+		Random random = new Random(5);
+
+		// Even kernel: inverse lattice Laplace operator without zero mode.
+		double[] kernel = new double[totalNumberOfCells];
+		for (int i = 1; i < totalNumberOfCells; i++) {
+			kernel[i] = 1.0 / FourierFunctions.computeEffectiveTransverseMomentumSquared(i, shape, 1.0);
+		}
+
+		// An odd number of fields also tests the unpaired last field.
+		int numberOfFields = 5;
+		double[][] fields = new double[numberOfFields][totalNumberOfCells];
+		double[][] expected = new double[numberOfFields][];
+		for (int f = 0; f < numberOfFields; f++) {
+			for (int i = 0; i < totalNumberOfCells; i++) {
+				fields[f][i] = random.nextDouble() - 0.5;
+			}
+			expected[f] = applyKernelDirectly(shape, fields[f], kernel);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			double[][] serial = copy(fields);
+			FFTService.getSerialService().applyKernel(shape, serial, kernel);
+			double[][] parallel = copy(fields);
+			new FFTService(2, executor).applyKernel(shape, parallel, kernel);
+
+			for (int f = 0; f < numberOfFields; f++) {
+				for (int i = 0; i < totalNumberOfCells; i++) {
+					Assert.assertEquals(expected[f][i], serial[f][i], accuracy);
+					Assert.assertEquals(serial[f][i], parallel[f][i], 0.0);
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private double[] applyKernelDirectly(int[] shape, double[] field, double[] kernel) {
+		DoubleFFTWrapper fft = new DoubleFFTWrapper(shape);
+		double[] data = new double[fft.getFFTArraySize()];
+		for (int i = 0; i < field.length; i++) {
+			data[fft.getFFTArrayIndex(i)] = field[i];
+		}
+		fft.complexForward(data);
+		for (int i = 0; i < field.length; i++) {
+			data[fft.getFFTArrayIndex(i)] *= kernel[i];
+			data[fft.getFFTArrayIndex(i) + 1] *= kernel[i];
+		}
+		fft.complexInverse(data, true);
+		double[] result = new double[field.length];
+		for (int i = 0; i < field.length; i++) {
+			result[i] = data[fft.getFFTArrayIndex(i)];
+		}
+		return result;
+	}
+
+	private double[][] copy(double[][] fields) {
+		double[][] result = new double[fields.length][];
+		for (int f = 0; f < fields.length; f++) {
+			result[f] = fields[f].clone();
+		}
+		return result;
+	}
+}
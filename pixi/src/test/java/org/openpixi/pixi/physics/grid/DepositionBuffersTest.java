@@ -0,0 +1,123 @@
+package org.openpixi.pixi.physics.grid;
+
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.ui.util.yaml.YamlParser;
+
+public class DepositionBuffersTest {
+
+	private final double accuracy = 1.E-12;
+
+	@Test
+	public void testBufferedDeposition() throws IOException {
+		Settings settings1 = getCGCSettings(DepositionMode.Synchronized);
+		Settings settings2 = getCGCSettings(DepositionMode.Buffered);
+		Simulation s1 = new Simulation(settings1);
+		Simulation s2 = new Simulation(settings2);
+
+		int steps = 6;
+		for (int t = 0; t < steps; t++) {
+			s1.step();
+			s2.step();
+		}
+
+		int numberOfCells = s1.grid.getTotalNumberOfCells();
+		for (int i = 0; i < numberOfCells; i++) {
+			compare(s1.grid.getRho(i), s2.grid.getRho(i));
+			for (int d = 0; d < s1.getNumberOfDimensions(); d++) {
+				compare(s1.grid.getJ(i, d), s2.grid.getJ(i, d));
+				compare(s1.grid.getE(i, d), s2.grid.getE(i, d));
+			}
+		}
+
+		settings1.terminateThreads();
+		settings2.terminateThreads();
+	}
+
+	@Test
+	public void testBufferWindow() throws IOException {
+		Settings settings = getCGCSettings(DepositionMode.Buffered);
+		Simulation s = new Simulation(settings);
+		Grid grid = s.grid;
+		grid.resetCharge();
+		grid.resetCurrent();
+		int numberOfCells = grid.getTotalNumberOfCells();
+		DepositionBuffers buffers = new DepositionBuffers(grid);
+		double[] components = new double[]{1.0, 2.0, 3.0};
+
+		// Deposit into two separate regions of the lattice, the second one below the first.
+		grid.beginBufferedDeposition(buffers);
+		for (int i = 700; i < 900; i++) {
+			grid.addRho(i, components, 0, 0.5);
+			grid.addJ(i, 1, components, 0, 2.0);
+		}
+		grid.addRho(600, components, 0, 1.0);
+		int bufferedCells = buffers.getNumberOfBufferedCells();
+		grid.endBufferedDeposition();
+
+		Assert.assertTrue(bufferedCells >= 301);
+		Assert.assertTrue(bufferedCells < numberOfCells / 2);
+		for (int i = 0; i < numberOfCells; i++) {
+			double rho = (i >= 700 && i < 900) ? 0.5 : ((i == 600) ? 1.0 : 0.0);
+			double j = (i >= 700 && i < 900) ? 2.0 : 0.0;
+			for (int k = 0; k < 3; k++) {
+				Assert.assertEquals(rho * components[k], grid.getRho(i).get(k), accuracy);
+				Assert.assertEquals(j * components[k], grid.getJ(i, 1).get(k), accuracy);
+				Assert.assertEquals(0.0, grid.getJ(i, 0).get(k), accuracy);
+			}
+		}
+
+		settings.terminateThreads();
+	}
+
+	private void compare(AlgebraElement a, AlgebraElement b) {
+		for (int k = 0; k < a.getAdjointDimension(); k++) {
+			Assert.assertEquals(a.get(k), b.get(k), accuracy);
+		}
+	}
+
+	private Settings getCGCSettings(DepositionMode depositionMode) {
+		String configurationString = "simulationType: temporal cgc ngp\n" +
+				"gridStep: 1\n" +
+				"couplingConstant: 2\n" +
+				"numberOfDimensions: 3\n" +
+				"numberOfColors: 2\n" +
+				"numberOfThreads: 3\n" +
+				"gridCells: [24, 8, 8]\n" +
+				"timeStep: 0.5\n" +
+				"duration: 4\n" +
+				"initialConditions:\n" +
+				"  CGC:\n" +
+				"    poissonSolver: improved full\n" +
+				"    MVModel:\n" +
+				"      - direction: 0\n" +
+				"        orientation: 1\n" +
+				"        longitudinalLocation: 8\n" +
+				"        longitudinalWidth: 2\n" +
+				"        randomSeed: 5\n" +
+				"        mu: .2\n" +
+				"        ultravioletCutoffTransverse: 2\n" +
+				"        longitudinalCoherenceLength: 4\n" +
+				"        infraredCoefficient: 0.2\n" +
+				"      - direction: 0\n" +
+				"        orientation: -1\n" +
+				"        longitudinalLocation: 16\n" +
+				"        longitudinalWidth: 2\n" +
+				"        randomSeed: 6\n" +
+				"        mu: .2\n" +
+				"        ultravioletCutoffTransverse: 2\n" +
+				"        longitudinalCoherenceLength: 4\n" +
+				"        infraredCoefficient: 0.2\n";
+
+		Settings settings = new Settings();
+		YamlParser yamlParser = new YamlParser(settings);
+		yamlParser.parseString(configurationString);
+		settings.setDepositionMode(depositionMode);
+		return settings;
+	}
+}
@@ -165,6 +165,62 @@ public class GridTest {
 		}
 	}
 
+	@Test
+	public void testNeighbourLookup()
+	{
+		Settings settings = getStandardSettings();
+		settings.setGridCells(0, 4);
+		settings.setGridCells(1, 3);
+		settings.setGridCells(2, 1);
+		Simulation s = new Simulation(settings);
+		final Grid g = s.grid;
+
+		// Compare shift() with the coordinate based implementation for all cells.
+		for (int index = 0; index < g.getTotalNumberOfCells(); index++) {
+			int[] pos = g.getCellPos(index);
+			boolean interior = true;
+			for (int d = 0; d < g.getNumberOfDimensions(); d++) {
+				if (pos[d] == 0 || pos[d] == g.getNumCells(d) - 1) {
+					interior = false;
+				}
+				for (int o = -1; o <= 1; o += 2) {
+					int[] shiftedPos = pos.clone();
+					shiftedPos[d] += o;
+					int expected = g.getCellIndex(g.periodic(shiftedPos));
+					Assert.assertEquals(expected, g.shift(index, d, o));
+					if (interior) {
+						Assert.assertEquals(expected, index + g.getShiftOffset(d, o));
+					}
+				}
+			}
+			Assert.assertEquals(interior, g.isInteriorCell(index));
+		}
+	}
+
+	@Test
+	public void testActiveRegionExpansion()
+	{
+		Settings settings = getStandardSettings();
+		Simulation s = new Simulation(settings);
+		Grid g = s.grid;
+
+		g.setActiveRegion(new int[]{5, 4, 3}, new int[]{7, 6, 5});
+		int[] point1 = new int[]{3, 4, -2};
+		int[] point2 = new int[]{7, 9, 20};
+		g.expandActiveRegion(point1, point2);
+
+		Assert.assertArrayEquals(new int[]{3, 4, 0}, g.getActiveRegionPoint1());
+		Assert.assertArrayEquals(new int[]{7, 9, 17}, g.getActiveRegionPoint2());
+		for (int index = 0; index < g.getTotalNumberOfCells(); index++) {
+			int[] pos = g.getCellPos(index);
+			boolean inside = true;
+			for (int d = 0; d < g.getNumberOfDimensions(); d++) {
+				inside &= g.getActiveRegionPoint1()[d] <= pos[d] && pos[d] <= g.getActiveRegionPoint2()[d];
+			}
+			Assert.assertEquals(inside, g.isActive(index));
+		}
+	}
+
 	@Test
 	public void testShiftSpeed()
 	{
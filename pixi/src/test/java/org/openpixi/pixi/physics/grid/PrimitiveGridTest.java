@@ -0,0 +1,149 @@
+package org.openpixi.pixi.physics.grid;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.ElementFactory;
+import org.openpixi.pixi.math.GroupElement;
+import org.openpixi.pixi.physics.GeneralBoundaryType;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.fields.FastTYMSolver;
+
+public class PrimitiveGridTest {
+
+	private final double accuracy = 1.E-12;
+
+	@Test
+	public void testEvolutionSU2() throws IOException {
+		compareEvolution(2);
+	}
+
+	@Test
+	public void testEvolutionSU3() throws IOException {
+		compareEvolution(3);
+	}
+
+	@Test
+	public void testViews() {
+		Settings settings = getStandardSettings(2, GridStorageType.Primitive);
+		Simulation s = new Simulation(settings);
+		Grid g = s.grid;
+		ElementFactory factory = g.getElementFactory();
+
+		// Modifications of a view are written back to the grid.
+		AlgebraElement E = g.getE(5, 1);
+		AlgebraElement increment = factory.algebraZero();
+		increment.set(2, 0.5);
+		E.addAssign(increment);
+		Assert.assertEquals(0.5, g.getE(5, 1).get(2), accuracy);
+		Assert.assertEquals(0.0, g.getE(5, 0).get(2), accuracy);
+
+		// Cell views forward to the grid.
+		Cell cell = g.getCell(7);
+		cell.setE(2, increment);
+		Assert.assertEquals(0.5, g.getE(7, 2).get(2), accuracy);
+		cell.setActive(false);
+		Assert.assertFalse(g.isActive(7));
+		Cell[] cells = g.getCells();
+		Assert.assertEquals(g.getTotalNumberOfCells(), cells.length);
+		Assert.assertEquals(0.5, cells[5].getE(1).get(2), accuracy);
+		Assert.assertFalse(cells[7].isActive());
+
+		// Scratch getters copy the values into the scratch element.
+		GroupElement link = increment.getLink();
+		g.setUnext(3, 1, link);
+		GroupElement scratch = factory.groupIdentity();
+		Assert.assertSame(scratch, g.getUnext(3, 1, scratch));
+		for (int k = 0; k < link.getNumberOfParameters(); k++) {
+			Assert.assertEquals(link.get(k), scratch.get(k), accuracy);
+		}
+
+		// Copying a primitive grid yields a regular grid with the same values.
+		Grid copy = new Grid(g);
+		Assert.assertEquals(0.5, copy.getE(5, 1).get(2), accuracy);
+		Assert.assertFalse(copy.isActive(7));
+	}
+
+	private void compareEvolution(int colors) throws IOException {
+		Simulation s1 = new Simulation(getStandardSettings(colors, GridStorageType.Cells));
+		Simulation s2 = new Simulation(getStandardSettings(colors, GridStorageType.Primitive));
+		Assert.assertTrue(s2.grid instanceof PrimitiveGrid);
+
+		long seed = 12345;
+		initializeRandomFields(s1.grid, new Random(seed));
+		initializeRandomFields(s2.grid, new Random(seed));
+
+		int steps = 5;
+		for (int t = 0; t < steps; t++) {
+			s1.step();
+			s2.step();
+		}
+
+		int numberOfCells = s1.grid.getTotalNumberOfCells();
+		for (int i = 0; i < numberOfCells; i++) {
+			for (int d = 0; d < s1.getNumberOfDimensions(); d++) {
+				AlgebraElement E1 = s1.grid.getE(i, d);
+				AlgebraElement E2 = s2.grid.getE(i, d);
+				for (int k = 0; k < E1.getAdjointDimension(); k++) {
+					Assert.assertEquals(E1.get(k), E2.get(k), accuracy);
+				}
+				GroupElement U1 = s1.grid.getU(i, d);
+				GroupElement U2 = s2.grid.getU(i, d);
+				Assert.assertEquals(U1.getRealTrace(), U2.getRealTrace(), accuracy);
+				AlgebraElement A1 = U1.proj();
+				AlgebraElement A2 = U2.proj();
+				for (int k = 0; k < A1.getAdjointDimension(); k++) {
+					Assert.assertEquals(A1.get(k), A2.get(k), accuracy);
+				}
+			}
+		}
+	}
+
+	private void initializeRandomFields(Grid grid, Random random) {
+		ElementFactory factory = grid.getElementFactory();
+		int numberOfCells = grid.getTotalNumberOfCells();
+		for (int i = 0; i < numberOfCells; i++) {
+			for (int d = 0; d < grid.getNumberOfDimensions(); d++) {
+				AlgebraElement E = factory.algebraZero();
+				AlgebraElement A = factory.algebraZero();
+				for (int k = 0; k < E.getAdjointDimension(); k++) {
+					E.set(k, random.nextDouble() - 0.5);
+					A.set(k, random.nextDouble() - 0.5);
+				}
+				grid.setE(i, d, E);
+				grid.setU(i, d, A.getLink());
+			}
+		}
+		grid.updateLinks(grid.getTemporalSpacing());
+	}
+
+	private Settings getStandardSettings(int colors, GridStorageType storage) {
+		Settings s = new Settings();
+
+		s.setRelativistic(true);
+		s.setBoundary(GeneralBoundaryType.Periodic);
+		s.setFieldSolver(new FastTYMSolver());
+		s.useGrid(true);
+		s.setInterpolator(new EmptyInterpolator());
+		s.setSpeedOfLight(1.0);
+		s.setNumberOfDimensions(3);
+
+		s.setGridStep(1.0);
+		s.setTimeStep(0.1);
+		s.setGridCells(0, 6);
+		s.setGridCells(1, 5);
+		s.setGridCells(2, 4);
+
+		s.setNumberOfColors(colors);
+		s.setGridStorage(storage);
+
+		s.setCouplingConstant(1.0);
+		s.setNumOfThreads(1);
+
+		return s;
+	}
+}
@@ -0,0 +1,237 @@
+package org.openpixi.pixi.physics.initial.CGC;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.GroupElement;
+import org.openpixi.pixi.parallel.cellaccess.CellAction;
+import org.openpixi.pixi.physics.GeneralBoundaryType;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.grid.EmptyInterpolator;
+import org.openpixi.pixi.physics.grid.Grid;
+import org.openpixi.pixi.physics.util.GridFunctions;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class LightConePoissonSolverTest {
+
+	/**
+	 * Nuclei move along the y-axis, so the longitudinal direction is not the outermost direction of the lattice.
+	 */
+	private final int direction = 1;
+
+	@Test
+	public void testLightConePoissonSolver() {
+		checkSolver(new LightConePoissonSolver(), new LightConePoissonSolver());
+	}
+
+	@Test
+	public void testLightConePoissonSolverImproved() {
+		checkSolver(new LightConePoissonSolverImproved(), new LightConePoissonSolverImproved());
+	}
+
+	@Test
+	public void testLightConePoissonSolverImprovedFull() {
+		checkSolver(new LightConePoissonSolverImprovedFull(), new LightConePoissonSolverImprovedFull());
+	}
+
+	@Test
+	public void testLightConePoissonSolverRefined() {
+		checkSolver(new LightConePoissonSolverRefined(), new LightConePoissonSolverRefined());
+	}
+
+	@Test
+	public void testTransverseBaseIndices() {
+		Simulation s = new Simulation(getStandardSettings(3));
+		int[] baseIndices = GridFunctions.getTransverseBaseIndices(s.grid.getNumCells(), direction);
+		int[] transverseNumCells = GridFunctions.reduceGridPos(s.grid.getNumCells(), direction);
+		Assert.assertEquals(GridFunctions.getTotalNumberOfCells(transverseNumCells), baseIndices.length);
+		for (int i = 0; i < baseIndices.length; i++) {
+			int[] pos = s.grid.getCellPos(baseIndices[i]);
+			Assert.assertEquals(0, pos[direction]);
+			Assert.assertArrayEquals(GridFunctions.getCellPos(i, transverseNumCells),
+					GridFunctions.reduceGridPos(pos, direction));
+		}
+	}
+
+	@Test
+	public void testExecuteForTransverseCells() {
+		Simulation s = new Simulation(getStandardSettings(3));
+		int totalTransverseCells = 6 * 8;
+		final AtomicIntegerArray visits = new AtomicIntegerArray(totalTransverseCells);
+		LightConeFunctions.executeForTransverseCells(s.grid, totalTransverseCells, new CellAction() {
+			public void execute(Grid grid, int i) {
+				visits.incrementAndGet(i);
+			}
+		});
+		for (int i = 0; i < totalTransverseCells; i++) {
+			Assert.assertEquals(1, visits.get(i));
+		}
+	}
+
+	private void checkSolver(ICGCPoissonSolver solver, ICGCPoissonSolver solverThreads) {
+		for (int orientation = -1; orientation <= 1; orientation += 2) {
+			checkGaussLaw(solver, orientation);
+			checkThreads(solver, solverThreads, orientation);
+		}
+	}
+
+	/**
+	 * The fields of a point charge and an opposite charge in the same sheet only have a color component along the
+	 * charge, so the Wilson lines commute and the Gauss constraint of the fields has to reproduce the charge density
+	 * summed over the longitudinal direction (up to non-linear corrections of the links).
+	 */
+	private void checkGaussLaw(ICGCPoissonSolver solver, int orientation) {
+		Simulation s = new Simulation(getStandardSettings(1));
+		IInitialChargeDensity chargeDensity = new PointCharges(orientation);
+		chargeDensity.initialize(s);
+		solver.initialize(s);
+		solver.solve(chargeDensity);
+
+		Grid grid = s.grid;
+		int longitudinalNumCells = grid.getNumCells(direction);
+		int[] baseIndices = GridFunctions.getTransverseBaseIndices(grid.getNumCells(), direction);
+		int stride = grid.getShiftOffset(direction, 1);
+		AlgebraElement[] gaussViolation = solver.getGaussViolation();
+		double maximumCharge = 0.0;
+		for (int i = 0; i < baseIndices.length; i++) {
+			AlgebraElement charge = grid.getElementFactory().algebraZero();
+			AlgebraElement gauss = grid.getElementFactory().algebraZero();
+			for (int z = 0; z < longitudinalNumCells; z++) {
+				int index = baseIndices[i] + z * stride;
+				charge.addAssign(chargeDensity.getChargeDensity(index));
+				gauss.addAssign(gaussViolation[index]);
+				// The fields of the grid are consistent with the Gauss violation.
+				assertEquals(gaussViolation[index], grid.getGaussConstraint(index), 1.E-12);
+			}
+			assertEquals(charge, gauss, 1.E-5);
+			maximumCharge = Math.max(maximumCharge, Math.abs(charge.get(0)));
+		}
+		Assert.assertTrue(maximumCharge > 0.01);
+
+		// The Wilson lines far behind the nucleus are not trivial.
+		GroupElement[] V = solver.getV();
+		Assert.assertEquals(baseIndices.length, V.length);
+		double maximumV = 0.0;
+		for (int i = 0; i < V.length; i++) {
+			maximumV = Math.max(maximumV, V[i].proj().square());
+		}
+		Assert.assertTrue(maximumV > 0.0);
+	}
+
+	/**
+	 * The solvers distribute the transverse positions over the threads, which must not change the results.
+	 */
+	private void checkThreads(ICGCPoissonSolver solver1, ICGCPoissonSolver solver3, int orientation) {
+		Simulation s1 = new Simulation(getStandardSettings(1));
+		Simulation s3 = new Simulation(getStandardSettings(3));
+		IInitialChargeDensity chargeDensity1 = createChargeDensity(orientation);
+		IInitialChargeDensity chargeDensity3 = createChargeDensity(orientation);
+		chargeDensity1.initialize(s1);
+		chargeDensity3.initialize(s3);
+
+		solver1.initialize(s1);
+		solver1.solve(chargeDensity1);
+		solver3.initialize(s3);
+		solver3.solve(chargeDensity3);
+
+		for (int i = 0; i < s1.grid.getTotalNumberOfCells(); i++) {
+			for (int d = 0; d < s1.grid.getNumberOfDimensions(); d++) {
+				assertEquals(s1.grid.getU(i, d), s3.grid.getU(i, d));
+				assertEquals(s1.grid.getUnext(i, d), s3.grid.getUnext(i, d));
+				assertEquals(s1.grid.getE(i, d), s3.grid.getE(i, d), 0.0);
+			}
+			assertEquals(solver1.getGaussViolation()[i], solver3.getGaussViolation()[i], 0.0);
+		}
+		for (int i = 0; i < solver1.getV().length; i++) {
+			assertEquals(solver1.getV()[i], solver3.getV()[i]);
+		}
+	}
+
+	private void assertEquals(GroupElement expected, GroupElement actual) {
+		for (int k = 0; k < expected.getNumberOfParameters(); k++) {
+			Assert.assertEquals(expected.get(k), actual.get(k), 0.0);
+		}
+	}
+
+	private void assertEquals(AlgebraElement expected, AlgebraElement actual, double accuracy) {
+		for (int k = 0; k < expected.getAdjointDimension(); k++) {
+			Assert.assertEquals(expected.get(k), actual.get(k), accuracy);
+		}
+	}
+
+	private IInitialChargeDensity createChargeDensity(int orientation) {
+		return new MVModel(direction, orientation, 12.0, 2.0, 0.5, true, 3, 2.0, 4.0, 0.2);
+	}
+
+	private Settings getStandardSettings(int numberOfThreads) {
+		Settings s = new Settings();
+
+		s.setRelativistic(true);
+		s.setBoundary(GeneralBoundaryType.Periodic);
+		s.useGrid(true);
+		s.setInterpolator(new EmptyInterpolator());
+		s.setSpeedOfLight(1.0);
+		s.setNumberOfDimensions(3);
+
+		s.setGridStep(1.0);
+		s.setTimeStep(0.5);
+		s.setGridCells(0, 6);
+		s.setGridCells(1, 24);
+		s.setGridCells(2, 8);
+
+		s.setNumberOfColors(2);
+		s.setCouplingConstant(2.0);
+		s.setNumOfThreads(numberOfThreads);
+
+		return s;
+	}
+
+	/**
+	 * A positive and a negative point charge with a single color component in one sheet.
+	 */
+	private class PointCharges implements IInitialChargeDensity {
+
+		private final double charge = 0.05;
+		private int orientation;
+		private AlgebraElement[] rho;
+
+		PointCharges(int orientation) {
+			this.orientation = orientation;
+		}
+
+		public void initialize(Simulation s) {
+			rho = new AlgebraElement[s.grid.getTotalNumberOfCells()];
+			for (int i = 0; i < rho.length; i++) {
+				rho[i] = s.grid.getElementFactory().algebraZero();
+			}
+			rho[s.grid.getCellIndex(new int[]{1, 12, 2})].set(0, charge);
+			rho[s.grid.getCellIndex(new int[]{4, 12, 5})].set(0, -charge);
+		}
+
+		public AlgebraElement getChargeDensity(int index) {
+			return rho[index];
+		}
+
+		public AlgebraElement[] getChargeDensity() {
+			return rho;
+		}
+
+		public int getDirection() {
+			return direction;
+		}
+
+		public int getOrientation() {
+			return orientation;
+		}
+
+		public String getInfo() {
+			return "point charges";
+		}
+
+		public void clear() {
+			rho = null;
+		}
+	}
+}
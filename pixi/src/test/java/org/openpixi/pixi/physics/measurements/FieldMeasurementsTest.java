@@ -0,0 +1,134 @@
+package org.openpixi.pixi.physics.measurements;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.ElementFactory;
+import org.openpixi.pixi.physics.GeneralBoundaryType;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.fields.FastTYMSolver;
+import org.openpixi.pixi.physics.grid.EmptyInterpolator;
+import org.openpixi.pixi.physics.grid.Grid;
+
+public class FieldMeasurementsTest {
+
+	private final double accuracy = 1.E-12;
+
+	@Test
+	public void testMeasureSU2() {
+		testMeasure(2);
+	}
+
+	@Test
+	public void testMeasureSU3() {
+		testMeasure(3);
+	}
+
+	/**
+	 * Compares the fused measurement to sums over the cell-wise methods of the grid. The results must not depend on
+	 * the number of threads.
+	 */
+	private void testMeasure(int numberOfColors) {
+		Simulation s = new Simulation(getStandardSettings(numberOfColors, 1));
+		Simulation sParallel = new Simulation(getStandardSettings(numberOfColors, 3));
+		randomize(s.grid, new Random(7));
+		randomize(sParallel.grid, new Random(7));
+		Grid grid = s.grid;
+		int totalCells = grid.getTotalNumberOfCells();
+		int numberOfComponents = grid.getElementFactory().numberOfComponents;
+
+		double[] esquares = new double[3];
+		double[] bsquares = new double[3];
+		double gauss = 0.0;
+		double rhoSquared = 0.0;
+		double[] charge = new double[numberOfComponents];
+		for (int index = 0; index < totalCells; index++) {
+			for (int i = 0; i < 3; i++) {
+				esquares[i] += grid.getE(index, i).square();
+				bsquares[i] += 0.5 * (grid.getBsquaredFromLinks(index, i, 0)
+						+ grid.getBsquaredFromLinks(index, i, 1));
+			}
+			gauss += grid.getGaussConstraintSquared(index);
+			rhoSquared += grid.getRho(index).square();
+			for (int k = 0; k < numberOfComponents; k++) {
+				charge[k] += grid.getRho(index).get(k);
+			}
+		}
+		double chargeSquared = 0.0;
+		for (int k = 0; k < numberOfComponents; k++) {
+			chargeSquared += charge[k] * charge[k];
+		}
+
+		FieldMeasurements measurements = new FieldMeasurements();
+		measurements.measure(grid, FieldMeasurements.ALL);
+		for (int i = 0; i < 3; i++) {
+			Assert.assertEquals(esquares[i] / totalCells, measurements.getEsquared(i), accuracy);
+			Assert.assertEquals(bsquares[i] / totalCells, measurements.getBsquared(i), accuracy);
+		}
+		Assert.assertEquals(gauss / totalCells, measurements.getGaussConstraint(), accuracy);
+		Assert.assertEquals(Math.sqrt(chargeSquared) / totalCells, measurements.getTotalCharge(), accuracy);
+		Assert.assertEquals(Math.sqrt(rhoSquared) / totalCells, measurements.getTotalChargeSquared(), accuracy);
+
+		FieldMeasurements parallelMeasurements = new FieldMeasurements();
+		parallelMeasurements.measure(sParallel.grid, FieldMeasurements.ALL);
+		for (int i = 0; i < 3; i++) {
+			Assert.assertEquals(measurements.getEsquared(i), parallelMeasurements.getEsquared(i), 0.0);
+			Assert.assertEquals(measurements.getBsquared(i), parallelMeasurements.getBsquared(i), 0.0);
+		}
+		Assert.assertEquals(measurements.getGaussConstraint(), parallelMeasurements.getGaussConstraint(), 0.0);
+		Assert.assertEquals(measurements.getTotalCharge(), parallelMeasurements.getTotalCharge(), 0.0);
+
+		// Single observables
+		Assert.assertEquals(measurements.getGaussConstraint(), parallelMeasurements.calculateGaussConstraint(grid),
+				0.0);
+		double eSquared = esquares[0] + esquares[1] + esquares[2];
+		Assert.assertEquals(eSquared, measurements.calculateEsquared(grid), accuracy * eSquared);
+	}
+
+	private void randomize(Grid grid, Random random) {
+		ElementFactory factory = grid.getElementFactory();
+		for (int index = 0; index < grid.getTotalNumberOfCells(); index++) {
+			for (int i = 0; i < 3; i++) {
+				grid.setE(index, i, getRandomAlgebraElement(factory, random));
+				grid.setU(index, i, getRandomAlgebraElement(factory, random).getLink());
+				grid.setUnext(index, i, getRandomAlgebraElement(factory, random).getLink());
+			}
+			grid.setRho(index, getRandomAlgebraElement(factory, random));
+		}
+	}
+
+	private AlgebraElement getRandomAlgebraElement(ElementFactory factory, Random random) {
+		AlgebraElement a = factory.algebraZero();
+		for (int k = 0; k < factory.numberOfComponents; k++) {
+			a.set(k, random.nextGaussian());
+		}
+		return a;
+	}
+
+	private Settings getStandardSettings(int numberOfColors, int numberOfThreads) {
+		Settings s = new Settings();
+
+		s.setRelativistic(true);
+		s.setBoundary(GeneralBoundaryType.Periodic);
+		s.setFieldSolver(new FastTYMSolver());
+		s.useGrid(true);
+		s.setInterpolator(new EmptyInterpolator());
+		s.setSpeedOfLight(1.0);
+		s.setNumberOfDimensions(3);
+
+		s.setGridStep(1.0);
+		s.setTimeStep(0.1);
+		s.setGridCells(0, 12);
+		s.setGridCells(1, 10);
+		s.setGridCells(2, 9);
+
+		s.setNumberOfColors(numberOfColors);
+		s.setCouplingConstant(1.0);
+		s.setNumOfThreads(numberOfThreads);
+
+		return s;
+	}
+}
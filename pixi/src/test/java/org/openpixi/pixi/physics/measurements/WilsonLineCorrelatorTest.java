@@ -0,0 +1,92 @@
+package org.openpixi.pixi.physics.measurements;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.math.ElementFactory;
+import org.openpixi.pixi.math.GroupElement;
+import org.openpixi.pixi.physics.GeneralBoundaryType;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.fields.FastTYMSolver;
+import org.openpixi.pixi.physics.grid.EmptyInterpolator;
+import org.openpixi.pixi.physics.util.GridFunctions;
+
+public class WilsonLineCorrelatorTest {
+
+	private final double accuracy = 1.E-12;
+
+	@Test
+	public void testCorrelationSU2() {
+		testCorrelation(2);
+	}
+
+	@Test
+	public void testCorrelationSU3() {
+		testCorrelation(3);
+	}
+
+	/**
+	 * Compares the FFT correlator to the sum over all pairs of cells.
+	 */
+	private void testCorrelation(int numberOfColors) {
+		Simulation s = new Simulation(getStandardSettings(numberOfColors));
+		ElementFactory factory = s.grid.getElementFactory();
+		Random random = new Random(42);
+
+		int[] numCells = new int[]{6, 5};
+		int totalCells = GridFunctions.getTotalNumberOfCells(numCells);
+		GroupElement[] V = new GroupElement[totalCells];
+		for (int i = 0; i < totalCells; i++) {
+			AlgebraElement a = factory.algebraZero();
+			for (int k = 0; k < factory.numberOfComponents; k++) {
+				a.set(k, random.nextGaussian());
+			}
+			V[i] = a.getLink();
+		}
+
+		WilsonLineCorrelator correlator = new WilsonLineCorrelator(numCells);
+		double[] correlation = correlator.computeCorrelation(V, s.grid);
+
+		for (int r = 0; r < totalCells; r++) {
+			int[] separation = GridFunctions.getCellPos(r, numCells);
+			double sum = 0.0;
+			for (int i = 0; i < totalCells; i++) {
+				int[] x = GridFunctions.getCellPos(i, numCells);
+				int[] y = new int[x.length];
+				for (int k = 0; k < x.length; k++) {
+					y[k] = x[k] + separation[k];
+				}
+				int j = GridFunctions.getCellIndex(y, numCells);
+				sum += V[i].mult(V[j].adj()).getRealTrace();
+			}
+			Assert.assertEquals(sum / totalCells, correlation[r], accuracy);
+		}
+	}
+
+	private Settings getStandardSettings(int numberOfColors) {
+		Settings s = new Settings();
+
+		s.setRelativistic(true);
+		s.setBoundary(GeneralBoundaryType.Periodic);
+		s.setFieldSolver(new FastTYMSolver());
+		s.useGrid(true);
+		s.setInterpolator(new EmptyInterpolator());
+		s.setSpeedOfLight(1.0);
+		s.setNumberOfDimensions(3);
+
+		s.setGridStep(1.0);
+		s.setTimeStep(0.1);
+		s.setGridCells(0, 4);
+		s.setGridCells(1, 6);
+		s.setGridCells(2, 5);
+
+		s.setNumberOfColors(numberOfColors);
+		s.setCouplingConstant(1.0);
+		s.setNumOfThreads(2);
+
+		return s;
+	}
+}
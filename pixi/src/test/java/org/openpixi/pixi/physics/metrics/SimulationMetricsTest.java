@@ -0,0 +1,129 @@
+package org.openpixi.pixi.physics.metrics;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpixi.pixi.physics.GeneralBoundaryType;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.physics.fields.FastTYMSolver;
+import org.openpixi.pixi.physics.grid.EmptyInterpolator;
+
+public class SimulationMetricsTest {
+
+	@Test
+	public void testHistogramPercentiles() {
+		PhaseHistogram h = new PhaseHistogram();
+		Random random = new Random(1);
+		long[] values = new long[10000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (long) (1.e6 * Math.exp(random.nextGaussian()));
+			h.record(values[i]);
+		}
+		Arrays.sort(values);
+
+		Assert.assertEquals(values.length, h.getCount());
+		Assert.assertEquals(values[0], h.getMin());
+		Assert.assertEquals(values[values.length - 1], h.getMax());
+		for (double p : new double[]{10, 50, 90, 99}) {
+			long exact = values[(int) Math.ceil(p / 100.0 * values.length) - 1];
+			long estimate = h.getPercentile(p);
+			// Upper bound of a bucket which is at most 1/8 of its lower bound wide.
+			Assert.assertTrue(estimate >= exact);
+			Assert.assertTrue(estimate <= exact * 1.125 + 1);
+		}
+		Assert.assertEquals(h.getMax(), h.getPercentile(100));
+	}
+
+	@Test
+	public void testSimulationMetrics() throws Exception {
+		File file = File.createTempFile("pixi-metrics", ".tsv");
+		file.deleteOnExit();
+
+		Settings settings = getStandardSettings();
+		settings.setMetricsInterval(2);
+		settings.setMetricsPath(file.getAbsolutePath());
+		settings.setMetricsJmx(true);
+		Simulation s = new Simulation(settings);
+		SimulationMetrics metrics = s.getMetrics();
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		Assert.assertFalse(server.queryNames(new ObjectName("org.openpixi.pixi:type=SimulationMetrics,*"), null).isEmpty());
+
+		s.run();
+
+		Assert.assertEquals(s.getIterations() + 1, metrics.getSteps());
+		Assert.assertEquals(metrics.getSteps(), metrics.getCount(SimulationMetrics.EQUATIONS_OF_MOTION));
+		Assert.assertTrue(metrics.getCellsPerSecond() > 0);
+		Assert.assertTrue(server.queryNames(new ObjectName("org.openpixi.pixi:type=SimulationMetrics,*"), null).isEmpty());
+
+		int reports = 0;
+		boolean foundPhase = false;
+		boolean foundAllocationRate = false;
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		try {
+			Assert.assertEquals("step\tname\tvalue", reader.readLine());
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] columns = line.split("\t");
+				Assert.assertEquals(3, columns.length);
+				if (columns[1].equals("wall_time_s")) {
+					reports++;
+				}
+				if (columns[1].equals("phase.EOM.p90_ns")) {
+					foundPhase = true;
+				}
+				if (columns[1].equals("memory.allocation_rate_bytes_per_s")) {
+					foundAllocationRate = true;
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		// Reports after steps 2, 4 and 6 and a final report after step 7.
+		Assert.assertEquals(4, reports);
+		Assert.assertTrue(foundPhase);
+		// The allocation counters are looked up by reflection and are only available on HotSpot.
+		boolean allocationCounters = true;
+		try {
+			Class.forName("com.sun.management.ThreadMXBean");
+		} catch (ClassNotFoundException e) {
+			allocationCounters = false;
+		}
+		Assert.assertEquals(allocationCounters, foundAllocationRate);
+	}
+
+	private Settings getStandardSettings() {
+		Settings s = new Settings();
+
+		s.setRelativistic(true);
+		s.setBoundary(GeneralBoundaryType.Periodic);
+		s.setFieldSolver(new FastTYMSolver());
+		s.useGrid(true);
+		s.setInterpolator(new EmptyInterpolator());
+		s.setSpeedOfLight(1.0);
+		s.setNumberOfDimensions(3);
+
+		s.setGridStep(1.0);
+		s.setTimeStep(0.1);
+		s.setIterations(6);
+		s.setGridCells(0, 4);
+		s.setGridCells(1, 4);
+		s.setGridCells(2, 4);
+
+		s.setNumberOfColors(2);
+		s.setCouplingConstant(1.0);
+		s.setNumOfThreads(1);
+
+		return s;
+	}
+}
@@ -0,0 +1,114 @@
+package org.openpixi.pixi.physics.particles;
+
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.ui.util.yaml.YamlParser;
+
+public class CGCParticleArrayTest {
+
+	private final double accuracy = 1.E-12;
+
+	@Test
+	public void testParticleArrays() throws IOException {
+		compareParticleStorage("temporal cgc ngp", 0);
+		compareParticleStorage("temporal cgc ngp", 1);
+		compareParticleStorage("temporal implicit cgc ngp", 2);
+	}
+
+	@Test
+	public void testUnsupportedSimulationTypes() {
+		String[] simulationTypes = {"temporal cgc", "temporal optimized cgc ngp", "temporal yang-mills"};
+		for (String simulationType : simulationTypes) {
+			try {
+				getCGCSettings(simulationType, "primitive", 0);
+				Assert.fail("Primitive particle storage should be rejected for " + simulationType + ".");
+			} catch (RuntimeException e) {
+				// expected
+			}
+		}
+	}
+
+	private void compareParticleStorage(String simulationType, int direction) throws IOException {
+		Settings settings1 = getCGCSettings(simulationType, "objects", direction);
+		Settings settings2 = getCGCSettings(simulationType, "primitive", direction);
+		Simulation s1 = new Simulation(settings1);
+		Simulation s2 = new Simulation(settings2);
+
+		int numberOfParticles = 0;
+		for (IParticle p : s2.particles) {
+			Assert.assertTrue(p instanceof CGCParticleArray);
+			numberOfParticles += ((CGCParticleArray) p).numberOfParticles;
+		}
+		Assert.assertEquals(s1.particles.size(), numberOfParticles);
+
+		for (int t = 0; t < s1.getIterations(); t++) {
+			s1.step();
+			s2.step();
+		}
+
+		int numberOfCells = s1.grid.getTotalNumberOfCells();
+		for (int i = 0; i < numberOfCells; i++) {
+			compare(s1.grid.getRho(i), s2.grid.getRho(i));
+			for (int d = 0; d < s1.getNumberOfDimensions(); d++) {
+				compare(s1.grid.getJ(i, d), s2.grid.getJ(i, d));
+				compare(s1.grid.getE(i, d), s2.grid.getE(i, d));
+			}
+		}
+
+		settings1.terminateThreads();
+		settings2.terminateThreads();
+	}
+
+	private void compare(AlgebraElement a, AlgebraElement b) {
+		for (int k = 0; k < a.getAdjointDimension(); k++) {
+			Assert.assertEquals(a.get(k), b.get(k), accuracy);
+		}
+	}
+
+	private Settings getCGCSettings(String simulationType, String particleStorage, int direction) {
+		int[] gridCells = new int[]{8, 8, 8};
+		gridCells[direction] = 24;
+		String configurationString = "simulationType: " + simulationType + "\n" +
+				"gridStep: 1\n" +
+				"couplingConstant: 2\n" +
+				"numberOfDimensions: 3\n" +
+				"numberOfColors: 2\n" +
+				"numberOfThreads: 3\n" +
+				"gridCells: [" + gridCells[0] + ", " + gridCells[1] + ", " + gridCells[2] + "]\n" +
+				"particleStorage: " + particleStorage + "\n" +
+				"timeStep: 0.5\n" +
+				"duration: 4\n" +
+				"initialConditions:\n" +
+				"  CGC:\n" +
+				"    poissonSolver: improved full\n" +
+				"    MVModel:\n" +
+				"      - direction: " + direction + "\n" +
+				"        orientation: 1\n" +
+				"        longitudinalLocation: 8\n" +
+				"        longitudinalWidth: 2\n" +
+				"        randomSeed: 5\n" +
+				"        mu: .2\n" +
+				"        ultravioletCutoffTransverse: 2\n" +
+				"        longitudinalCoherenceLength: 4\n" +
+				"        infraredCoefficient: 0.2\n" +
+				"      - direction: " + direction + "\n" +
+				"        orientation: -1\n" +
+				"        longitudinalLocation: 16\n" +
+				"        longitudinalWidth: 2\n" +
+				"        randomSeed: 6\n" +
+				"        mu: .2\n" +
+				"        ultravioletCutoffTransverse: 2\n" +
+				"        longitudinalCoherenceLength: 4\n" +
+				"        infraredCoefficient: 0.2\n";
+
+		Settings settings = new Settings();
+		YamlParser yamlParser = new YamlParser(settings);
+		yamlParser.parseString(configurationString);
+		return settings;
+	}
+}
@@ -0,0 +1,161 @@
+package org.openpixi.pixi.physics.particles;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openpixi.pixi.math.AlgebraElement;
+import org.openpixi.pixi.physics.Settings;
+import org.openpixi.pixi.physics.Simulation;
+import org.openpixi.pixi.ui.util.yaml.YamlParser;
+
+public class ParticleSorterTest {
+
+	private final double accuracy = 1.E-12;
+
+	@Test
+	public void testSort() throws IOException {
+		Settings settings = getCGCSettings(0);
+		Simulation s = new Simulation(settings);
+		s.step();
+
+		List<IParticle> unsorted = new ArrayList<IParticle>(s.particles);
+		ParticleSorter sorter = new ParticleSorter();
+		sorter.sort(s.particles, s.grid);
+
+		// The sorted list is a permutation of the original list.
+		Assert.assertEquals(unsorted.size(), s.particles.size());
+		IdentityHashMap<IParticle, Integer> positions = new IdentityHashMap<IParticle, Integer>();
+		for (int i = 0; i < unsorted.size(); i++) {
+			positions.put(unsorted.get(i), i);
+		}
+		for (IParticle p : s.particles) {
+			Assert.assertTrue(positions.containsKey(p));
+		}
+
+		// Particles are ordered by cells, the offsets delimit the cells and the order within a cell is kept.
+		int numberOfCells = s.grid.getTotalNumberOfCells();
+		Assert.assertEquals(0, sorter.getCellOffset(0));
+		Assert.assertEquals(s.particles.size(), sorter.getCellOffset(numberOfCells));
+		for (int cellIndex = 0; cellIndex < numberOfCells; cellIndex++) {
+			for (int i = sorter.getCellOffset(cellIndex); i < sorter.getCellOffset(cellIndex + 1); i++) {
+				IParticle p = s.particles.get(i);
+				Assert.assertEquals(cellIndex, ParticleSorter.getCellIndex(p, s.grid));
+				Assert.assertEquals(s.grid.getCellIndex(new int[]{
+						(int) Math.floor(p.getPosition(0) / s.grid.getLatticeSpacing(0)),
+						(int) Math.floor(p.getPosition(1) / s.grid.getLatticeSpacing(1)),
+						(int) Math.floor(p.getPosition(2) / s.grid.getLatticeSpacing(2))}), cellIndex);
+				if (i > sorter.getCellOffset(cellIndex)) {
+					Assert.assertTrue(positions.get(s.particles.get(i - 1)) < positions.get(p));
+				}
+			}
+		}
+
+		settings.terminateThreads();
+	}
+
+	@Test
+	public void testPopulations() throws IOException {
+		Settings settings = getCGCSettings(0);
+		Simulation s = new Simulation(settings);
+
+		// Populations do not have a position and are placed behind the particles in their original order.
+		IParticle population1 = new CGCParticleArray(2, 3, 3, 0);
+		IParticle population2 = new CGCParticleArray(2, 3, 3, 0);
+		CGCParticle particle1 = new CGCParticle(3, 2, 0);
+		CGCParticle particle2 = new CGCParticle(3, 2, 0);
+		particle1.setPosition(0, 5.5);
+		particle2.setPosition(0, 2.5);
+		List<IParticle> particles = new ArrayList<IParticle>();
+		particles.add(population1);
+		particles.add(particle1);
+		particles.add(population2);
+		particles.add(particle2);
+
+		ParticleSorter sorter = new ParticleSorter();
+		sorter.sort(particles, s.grid);
+		Assert.assertSame(particle2, particles.get(0));
+		Assert.assertSame(particle1, particles.get(1));
+		Assert.assertSame(population1, particles.get(2));
+		Assert.assertSame(population2, particles.get(3));
+		Assert.assertEquals(2, sorter.getCellOffset(s.grid.getTotalNumberOfCells()));
+
+		settings.terminateThreads();
+	}
+
+	@Test
+	public void testSortedSimulation() throws IOException {
+		Settings settings1 = getCGCSettings(0);
+		Settings settings2 = getCGCSettings(2);
+		Simulation s1 = new Simulation(settings1);
+		Simulation s2 = new Simulation(settings2);
+
+		int steps = 6;
+		for (int t = 0; t < steps; t++) {
+			s1.step();
+			s2.step();
+		}
+
+		int numberOfCells = s1.grid.getTotalNumberOfCells();
+		for (int i = 0; i < numberOfCells; i++) {
+			compare(s1.grid.getRho(i), s2.grid.getRho(i));
+			for (int d = 0; d < s1.getNumberOfDimensions(); d++) {
+				compare(s1.grid.getJ(i, d), s2.grid.getJ(i, d));
+				compare(s1.grid.getE(i, d), s2.grid.getE(i, d));
+			}
+		}
+
+		settings1.terminateThreads();
+		settings2.terminateThreads();
+	}
+
+	private void compare(AlgebraElement a, AlgebraElement b) {
+		for (int k = 0; k < a.getAdjointDimension(); k++) {
+			Assert.assertEquals(a.get(k), b.get(k), accuracy);
+		}
+	}
+
+	private Settings getCGCSettings(int particleSortInterval) {
+		String configurationString = "simulationType: temporal cgc ngp\n" +
+				"gridStep: 1\n" +
+				"couplingConstant: 2\n" +
+				"numberOfDimensions: 3\n" +
+				"numberOfColors: 2\n" +
+				"numberOfThreads: 3\n" +
+				"gridCells: [24, 8, 8]\n" +
+				"timeStep: 0.5\n" +
+				"duration: 4\n" +
+				"deposition: buffered\n" +
+				"particleSortInterval: " + particleSortInterval + "\n" +
+				"initialConditions:\n" +
+				"  CGC:\n" +
+				"    poissonSolver: improved full\n" +
+				"    MVModel:\n" +
+				"      - direction: 0\n" +
+				"        orientation: 1\n" +
+				"        longitudinalLocation: 8\n" +
+				"        longitudinalWidth: 2\n" +
+				"        randomSeed: 5\n" +
+				"        mu: .2\n" +
+				"        ultravioletCutoffTransverse: 2\n" +
+				"        longitudinalCoherenceLength: 4\n" +
+				"        infraredCoefficient: 0.2\n" +
+				"      - direction: 0\n" +
+				"        orientation: -1\n" +
+				"        longitudinalLocation: 16\n" +
+				"        longitudinalWidth: 2\n" +
+				"        randomSeed: 6\n" +
+				"        mu: .2\n" +
+				"        ultravioletCutoffTransverse: 2\n" +
+				"        longitudinalCoherenceLength: 4\n" +
+				"        infraredCoefficient: 0.2\n";
+
+		Settings settings = new Settings();
+		YamlParser yamlParser = new YamlParser(settings);
+		yamlParser.parseString(configurationString);
+		return settings;
+	}
+}